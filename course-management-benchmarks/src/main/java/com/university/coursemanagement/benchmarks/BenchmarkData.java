@@ -0,0 +1,84 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.university.coursemanagement.Course;
+import com.university.coursemanagement.Grade;
+import com.university.coursemanagement.GradingScale;
+import com.university.coursemanagement.Student;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the benchmarks: the standard grading scale as seeded
+ * by the V4 migration, and sample entities.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static List<GradingScale.Band> standardBands() {
+        return List.of(
+                band("85.00", "A+", "4.00", "PASS"),
+                band("70.00", "A", "4.00", "PASS"),
+                band("65.00", "A-", "3.70", "PASS"),
+                band("60.00", "B+", "3.30", "PASS"),
+                band("55.00", "B", "3.00", "PASS"),
+                band("50.00", "B-", "2.70", "PASS"),
+                band("45.00", "C+", "2.30", "PASS"),
+                band("40.00", "C", "2.00", "PASS"),
+                band("35.00", "C-", "1.70", "COMPLETE"),
+                band("30.00", "D+", "1.30", "COMPLETE"),
+                band("25.00", "D", "1.00", "COMPLETE"),
+                band("0.00", "E", "0.00", "INCOMPLETE"));
+    }
+
+    static GradingScale standardScale() {
+        return new GradingScale(1L, "Standard", "University undergraduate scale", true, standardBands());
+    }
+
+    /**
+     * Scores on the 0.01 step scores are entered with, spread over 0..100.
+     */
+    static double[] scores(int count, long seed) {
+        Random random = new Random(seed);
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            scores[i] = random.nextInt(10_001) / 100.0;
+        }
+        return scores;
+    }
+
+    static Course course(long id) {
+        Course course = new Course(String.format("CS%03d", id), "Course " + id,
+                "Sample course used by the benchmarks", 3 + (int) (id % 3));
+        course.setId(id);
+        course.setCapacity(120);
+        return course;
+    }
+
+    static Student student(long id) {
+        Student student = new Student("First" + id, "Last" + id, "student" + id + "@university.edu",
+                String.format("S%06d", id));
+        student.setId(id);
+        student.setPhoneNumber("555-0100");
+        return student;
+    }
+
+    static List<Grade> grades(Course course, int count, GradingScale scale) {
+        double[] scores = scores(count, course.getId());
+        List<Grade> grades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Grade grade = new Grade(student(i + 1), course, 1L, scores[i], scale);
+            grade.setId((long) i + 1);
+            grade.setRemarks(i % 4 == 0 ? "Late submission" : null);
+            grades.add(grade);
+        }
+        return grades;
+    }
+
+    private static GradingScale.Band band(String minScore, String letterGrade, String gradePoints, String status) {
+        return new GradingScale.Band(new BigDecimal(minScore), letterGrade, new BigDecimal(gradePoints), status);
+    }
+}
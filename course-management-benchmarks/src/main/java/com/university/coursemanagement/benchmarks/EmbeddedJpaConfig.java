@@ -0,0 +1,48 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.university.coursemanagement.Course;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.Map;
+
+/**
+ * Just the JPA layer of the application: its entities and repositories on
+ * an in-memory H2 database whose schema Hibernate creates from the
+ * mappings. No services are loaded, so the entity listeners' lazy
+ * dependencies are never resolved; data is seeded with plain JDBC.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Course.class)
+@EnableJpaRepositories(basePackageClasses = Course.class)
+class EmbeddedJpaConfig {
+
+    // Override the application.properties that comes with the application jar
+    static final Map<String, Object> PROPERTIES = Map.ofEntries(
+            Map.entry("spring.main.banner-mode", "off"),
+            Map.entry("spring.datasource.url", "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1"),
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.flyway.enabled", "false"),
+            Map.entry("spring.jpa.hibernate.ddl-auto", "create"),
+            Map.entry("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect"),
+            Map.entry("spring.jpa.properties.hibernate.cache.use_second_level_cache", "false"),
+            Map.entry("spring.jpa.properties.hibernate.cache.use_query_cache", "false"),
+            Map.entry("spring.jpa.properties.hibernate.generate_statistics", "false"),
+            Map.entry("logging.level.root", "WARN"),
+            Map.entry("logging.level.com.university.coursemanagement", "WARN"));
+
+    /**
+     * The properties as command-line arguments: those take precedence over
+     * the jar's application.properties, default properties do not.
+     */
+    static String[] arguments(Map<String, Object> properties) {
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+}
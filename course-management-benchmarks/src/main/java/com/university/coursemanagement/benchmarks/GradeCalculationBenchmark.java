@@ -0,0 +1,112 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.university.coursemanagement.Grade;
+import com.university.coursemanagement.GradingScale;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading one score: the compiled {@link GradingScale} lookup against the
+ * if/else ladders {@code Grade} used before scales were configurable.
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeCalculationBenchmark {
+
+    private static final int SCORES = 4096;
+
+    private GradingScale scale;
+    private double[] scores;
+    private Double[] boxedScores;
+    private Grade grade;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        scale = BenchmarkData.standardScale();
+        scores = BenchmarkData.scores(SCORES, 42);
+        boxedScores = new Double[SCORES];
+        for (int i = 0; i < SCORES; i++) boxedScores[i] = scores[i];
+        grade = new Grade(BenchmarkData.student(1), BenchmarkData.course(1), 1L, 50.0, scale);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (SCORES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public void legacyLadders(Blackhole blackhole) {
+        Double score = boxedScores[nextIndex()];
+        blackhole.consume(legacyLetterGrade(score));
+        blackhole.consume(legacyGradePointValue(score));
+        blackhole.consume(legacyStatus(score));
+    }
+
+    @Benchmark
+    public void scaleLookup(Blackhole blackhole) {
+        double score = scores[nextIndex()];
+        blackhole.consume(scale.letterGrade(score));
+        blackhole.consume(scale.gradePointValue(score));
+        blackhole.consume(scale.status(score));
+    }
+
+    // What GradeService does per write: set the score and derive the rest
+    @Benchmark
+    public Grade applyScore() {
+        grade.applyScore(boxedScores[nextIndex()], scale);
+        return grade;
+    }
+
+    // Paid once per scale on every reload
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GradingScale compileScale() {
+        return new GradingScale(1L, "Standard", null, true, BenchmarkData.standardBands());
+    }
+
+
+    // The ladders as they were in Grade, boxing included
+    private static String legacyLetterGrade(Double score) {
+        if (score >= 85) return "A+";
+        else if (score >= 70) return "A";
+        else if (score >= 65) return "A-";
+        else if (score >= 60) return "B+";
+        else if (score >= 55) return "B";
+        else if (score >= 50) return "B-";
+        else if (score >= 45) return "C+";
+        else if (score >= 40) return "C";
+        else if (score >= 35) return "C-";
+        else if (score >= 30) return "D+";
+        else if (score >= 25) return "D";
+        else return "E";
+    }
+
+    private static Double legacyGradePointValue(Double score) {
+        if (score >= 85) return 4.00;
+        else if (score >= 70) return 4.00;
+        else if (score >= 65) return 3.70;
+        else if (score >= 60) return 3.30;
+        else if (score >= 55) return 3.00;
+        else if (score >= 50) return 2.70;
+        else if (score >= 45) return 2.30;
+        else if (score >= 40) return 2.00;
+        else if (score >= 35) return 1.70;
+        else if (score >= 30) return 1.30;
+        else if (score >= 25) return 1.00;
+        else return 0.00;
+    }
+
+    private static String legacyStatus(Double score) {
+        if (score >= 40) return "PASS";
+        else if (score >= 25) return "COMPLETE";
+        else return "INCOMPLETE";
+    }
+}
@@ -0,0 +1,73 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.university.coursemanagement.Course;
+import com.university.coursemanagement.Grade;
+import com.university.coursemanagement.GradingScale;
+import com.university.coursemanagement.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entities as the REST endpoints return them,
+ * with the object mapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    // Size of a course's grade list (GET /api/grades/course/{id})
+    @Param({"100"})
+    public int gradesPerCourse;
+
+    private ObjectMapper objectMapper;
+    private Course course;
+    private Student student;
+    private Grade grade;
+    private List<Grade> courseGrades;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        GradingScale scale = BenchmarkData.standardScale();
+        course = BenchmarkData.course(1);
+        student = BenchmarkData.student(1);
+        for (long id = 1; id <= 5; id++) student.getEnrolledCourses().add(BenchmarkData.course(id));
+        grade = new Grade(student, course, 1L, 72.5, scale);
+        grade.setId(1L);
+        courseGrades = BenchmarkData.grades(course, gradesPerCourse, scale);
+    }
+
+    @Benchmark
+    public byte[] course() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(course);
+    }
+
+    // With five enrolled courses
+    @Benchmark
+    public byte[] student() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(student);
+    }
+
+    // With its student and course nested
+    @Benchmark
+    public byte[] grade() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(grade);
+    }
+
+    @Benchmark
+    public byte[] courseGrades() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(courseGrades);
+    }
+}
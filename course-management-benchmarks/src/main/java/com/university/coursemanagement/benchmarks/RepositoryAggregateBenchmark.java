@@ -0,0 +1,144 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.university.coursemanagement.AcademicSummaryRepository;
+import com.university.coursemanagement.GradeRepository;
+import com.university.coursemanagement.GradeView;
+import com.university.coursemanagement.GradingScale;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repository aggregate queries behind GPA, academic summaries and the
+ * dashboard, through Spring Data JPA on an embedded H2 database. Absolute
+ * numbers are H2's, not production's; compare runs against each other to
+ * catch a query or mapping change that makes them slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryAggregateBenchmark {
+
+    private static final int COURSES = 200;
+    private static final int GRADES_PER_STUDENT = 8;
+    private static final int SUMMARY_BATCH = 100;
+
+    @Param({"5000"})
+    public int students;
+
+    private ConfigurableApplicationContext context;
+    private GradeRepository gradeRepository;
+    private AcademicSummaryRepository academicSummaryRepository;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmbeddedJpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(EmbeddedJpaConfig.arguments(EmbeddedJpaConfig.PROPERTIES));
+        gradeRepository = context.getBean(GradeRepository.class);
+        academicSummaryRepository = context.getBean(AcademicSummaryRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Plain JDBC, so the entity listeners never run
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> courses = new ArrayList<>(COURSES);
+        for (long id = 1; id <= COURSES; id++) {
+            courses.add(new Object[]{id, String.format("CS%03d", id), "Course " + id, 3 + (int) (id % 3), 120});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, code, title, credits, capacity) VALUES (?, ?, ?, ?, ?)", courses);
+
+        List<Object[]> studentRows = new ArrayList<>(students);
+        for (long id = 1; id <= students; id++) {
+            studentRows.add(new Object[]{id, "First" + id, "Last" + id, "student" + id + "@university.edu",
+                    String.format("S%06d", id)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (id, first_name, last_name, email, student_id) VALUES (?, ?, ?, ?, ?)",
+                studentRows);
+
+        GradingScale scale = BenchmarkData.standardScale();
+        Date today = Date.valueOf(LocalDate.now());
+        Random seedRandom = new Random(42);
+        List<Object[]> grades = new ArrayList<>(students * GRADES_PER_STUDENT);
+        for (long studentId = 1; studentId <= students; studentId++) {
+            long firstCourse = seedRandom.nextInt(COURSES);
+            for (int i = 0; i < GRADES_PER_STUDENT; i++) {
+                long courseId = (firstCourse + i * 17L) % COURSES + 1;
+                double score = seedRandom.nextInt(10_001) / 100.0;
+                grades.add(new Object[]{studentId, courseId, score, scale.letterGrade(score),
+                        scale.gradePointValue(score), scale.status(score), today, 1L});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO grades (student_id, course_id, score, letter_grade, grade_point_value, " +
+                "status, grade_date, term_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", grades);
+
+        jdbcTemplate.update("INSERT INTO academic_summaries (student_id, grade_point_sum, attempted_credits, " +
+                "passed_credits, completed_credits, gpa, updated_at) " +
+                "SELECT g.student_id, SUM(g.grade_point_value * c.credits), SUM(c.credits), " +
+                "SUM(CASE WHEN g.status = 'PASS' THEN c.credits ELSE 0 END), " +
+                "SUM(CASE WHEN g.status IN ('PASS', 'COMPLETE') THEN c.credits ELSE 0 END), " +
+                "SUM(g.grade_point_value * c.credits) / SUM(c.credits), CURRENT_TIMESTAMP " +
+                "FROM grades g JOIN courses c ON c.id = g.course_id GROUP BY g.student_id");
+    }
+
+    private long randomStudent() {
+        return random.nextInt(students) + 1;
+    }
+
+    @Benchmark
+    public Double gpaForStudent() {
+        return gradeRepository.calculateGPAByStudentId(randomStudent());
+    }
+
+    // The three credit totals the transcript used to query one by one
+    @Benchmark
+    public int creditTotalsForStudent() {
+        long studentId = randomStudent();
+        return gradeRepository.getTotalCreditsByStudentId(studentId)
+                + gradeRepository.getTotalCreditsPassedByStudentId(studentId)
+                + gradeRepository.getTotalCreditsCompletedByStudentId(studentId);
+    }
+
+    // One grouped query for a batch of students, as AcademicSummaryService recomputes them
+    @Benchmark
+    public List<Object[]> summarizeStudentBatch() {
+        List<Long> ids = new ArrayList<>(SUMMARY_BATCH);
+        long first = random.nextInt(Math.max(1, students - SUMMARY_BATCH)) + 1;
+        for (long id = first; id < first + SUMMARY_BATCH; id++) ids.add(id);
+        return gradeRepository.summarizeByStudentIds(ids);
+    }
+
+    @Benchmark
+    public List<Object[]> countByStatus() {
+        return gradeRepository.countByStatus();
+    }
+
+    @Benchmark
+    public List<GradeView> gradeViewsForCourse() {
+        return gradeRepository.findViewsByCourseId((long) random.nextInt(COURSES) + 1);
+    }
+
+    @Benchmark
+    public Object summaryByStudentNumber() {
+        return academicSummaryRepository.findByStudentNumber(String.format("S%06d", randomStudent()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.university.coursemanagement.benchmarks;
+
+import com.university.coursemanagement.DatabaseInfo;
+import com.university.coursemanagement.EnrollmentRepository;
+import com.university.coursemanagement.SeatLedger;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enrollment attempts per second from many threads at once, as on
+ * registration day: every attempt taking its seat with the conditional
+ * update of the course's seats_taken, then inserting its enrollment,
+ * against the same with the {@link SeatLedger} in front, as
+ * EnrollmentService does it. With room in
+ * every course each attempt takes a seat, so the score is seats per second
+ * and shows what the ledger costs; with small courses nearly every
+ * attempt finds its course full, which the ledger answers without the
+ * database. Absolute numbers are H2's; compare the two methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class SeatAdmissionBenchmark {
+
+    private static final int COURSES = 20;
+    private static final int STUDENTS = 50_000;
+    private static final long TERM = 1L;
+
+    @Param({"40", "1000000"})
+    public int capacity;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private EnrollmentRepository enrollmentRepository;
+    private TransactionTemplate transactionTemplate;
+    private SeatLedger seatLedger;
+    // Walks the (course, student) pairs, so no attempt is a re-enrollment
+    private final AtomicLong attempts = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>(EmbeddedJpaConfig.PROPERTIES);
+        // EnrollmentRepository writes MySQL's upsert on anything but Postgres
+        properties.put("spring.datasource.url", "jdbc:h2:mem:seats;DB_CLOSE_DELAY=-1;MODE=MySQL");
+        context = new SpringApplicationBuilder(EmbeddedJpaConfig.class, DatabaseInfo.class, EnrollmentRepository.class)
+                .web(WebApplicationType.NONE)
+                .run(EmbeddedJpaConfig.arguments(properties));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        enrollmentRepository = context.getBean(EnrollmentRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seed();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyCourses() {
+        jdbcTemplate.update("DELETE FROM student_enrollments");
+        jdbcTemplate.update("UPDATE courses SET seats_taken = 0");
+        seatLedger = new SeatLedger(enrollmentRepository::loadSeats);
+        attempts.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // The schema comes from the entity mappings, where enrollments are a join table without a term
+    // and courses have no seat count
+    private void seed() {
+        jdbcTemplate.execute("ALTER TABLE student_enrollments ADD COLUMN term_id BIGINT");
+        jdbcTemplate.execute("ALTER TABLE courses ADD COLUMN seats_taken INT NOT NULL DEFAULT 0");
+
+        List<Object[]> courses = new ArrayList<>(COURSES);
+        for (long id = 1; id <= COURSES; id++) {
+            courses.add(new Object[]{id, String.format("CS%03d", id), "Course " + id, 3, capacity});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, code, title, credits, capacity) VALUES (?, ?, ?, ?, ?)", courses);
+
+        List<Object[]> students = new ArrayList<>(STUDENTS);
+        for (long id = 1; id <= STUDENTS; id++) {
+            students.add(new Object[]{id, "First" + id, "Last" + id, "student" + id + "@university.edu",
+                    String.format("S%06d", id)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (id, first_name, last_name, email, student_id) VALUES (?, ?, ?, ?, ?)",
+                students);
+    }
+
+    @Benchmark
+    public boolean conditionalUpdateOnly() {
+        long attempt = attempts.getAndIncrement();
+        return takeSeat(student(attempt), course(attempt));
+    }
+
+    // The order EnrollmentService.enroll works in
+    @Benchmark
+    public boolean ledgerThenConditionalUpdate() {
+        long attempt = attempts.getAndIncrement();
+        Long courseId = course(attempt);
+        if (seatLedger.tryAcquire(courseId) != SeatLedger.Admission.ADMITTED) return false;
+        if (takeSeat(student(attempt), courseId)) return true;
+        seatLedger.release(courseId);
+        seatLedger.forget(courseId);
+        return false;
+    }
+
+    private boolean takeSeat(Long studentId, Long courseId) {
+        return transactionTemplate.execute(status -> {
+            if (enrollmentRepository.exists(studentId, courseId) || !enrollmentRepository.takeSeat(courseId)) return false;
+            if (enrollmentRepository.insert(studentId, courseId, TERM)) return true;
+            status.setRollbackOnly();
+            return false;
+        });
+    }
+
+    private static Long course(long attempt) {
+        return attempt % COURSES + 1;
+    }
+
+    private static Long student(long attempt) {
+        return attempt / COURSES % STUDENTS + 1;
+    }
+}
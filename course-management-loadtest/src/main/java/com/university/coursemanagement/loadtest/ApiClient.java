@@ -0,0 +1,110 @@
+package com.university.coursemanagement.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One worker's view of the API: sends requests on the shared client and
+ * times them into the worker's own {@link OperationStats}, while
+ * {@code measuring} says so (not during warm-up).
+ */
+final class ApiClient {
+
+    static final class Response {
+        static final Response FAILED = new Response(-1, new byte[0], null);
+
+        final int status;
+        final byte[] body;
+        final String nextCursor;
+
+        Response(int status, byte[] body, String nextCursor) {
+            this.status = status;
+            this.body = body;
+            this.nextCursor = nextCursor;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final BooleanSupplier measuring;
+    private final Map<String, OperationStats> stats = new HashMap<>();
+
+    ApiClient(HttpClient http, String baseUrl, Duration timeout, BooleanSupplier measuring) {
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.measuring = measuring;
+    }
+
+    Response get(String operation, String path) {
+        return send(operation, request(path).GET().build(), false);
+    }
+
+    // For whole-table streams and exports: the body is read to the end but not kept
+    Response getDiscarding(String operation, String path) {
+        return send(operation, request(path).GET().build(), true);
+    }
+
+    Response post(String operation, String path, String contentType, String body) {
+        HttpRequest.Builder builder = request(path);
+        if (body == null) builder.POST(HttpRequest.BodyPublishers.noBody());
+        else builder.header("Content-Type", contentType).POST(HttpRequest.BodyPublishers.ofString(body));
+        return send(operation, builder.build(), false);
+    }
+
+    Response put(String operation, String path, String json) {
+        return send(operation, request(path).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json)).build(), false);
+    }
+
+    Response delete(String operation, String path) {
+        return send(operation, request(path).DELETE().build(), false);
+    }
+
+    Map<String, OperationStats> stats() {
+        return stats;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout)
+                .header("Accept", "application/json, text/csv, */*");
+    }
+
+    private Response send(String operation, HttpRequest request, boolean discardBody) {
+        boolean record = measuring.getAsBoolean();
+        long started = System.nanoTime();
+        try {
+            Response response;
+            if (discardBody) {
+                HttpResponse<Void> discarded = http.send(request, HttpResponse.BodyHandlers.discarding());
+                response = new Response(discarded.statusCode(), new byte[0], null);
+            } else {
+                HttpResponse<byte[]> full = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                response = new Response(full.statusCode(), full.body(),
+                        full.headers().firstValue("X-Next-Cursor").orElse(null));
+            }
+            if (record) stats.computeIfAbsent(operation, name -> new OperationStats())
+                    .record(response.status, System.nanoTime() - started);
+            return response;
+        } catch (IOException e) {
+            if (record) stats.computeIfAbsent(operation, name -> new OperationStats())
+                    .recordFailure(System.nanoTime() - started);
+            return Response.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.FAILED;
+        }
+    }
+}
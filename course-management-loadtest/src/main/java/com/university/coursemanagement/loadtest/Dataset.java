@@ -0,0 +1,108 @@
+package com.university.coursemanagement.loadtest;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The ids the workload picks from, read from the database before a run,
+ * and the table sizes recorded in the report.
+ */
+final class Dataset {
+
+    private final long[] studentIds;
+    private final String[] studentNumbers;
+    private final String[] lastNames;
+    private final long[] courseIds;
+    private final String[] courseTitles;
+    private final Map<String, Long> counts;
+
+    private Dataset(long[] studentIds, String[] studentNumbers, String[] lastNames, long[] courseIds,
+                    String[] courseTitles, Map<String, Long> counts) {
+        this.studentIds = studentIds;
+        this.studentNumbers = studentNumbers;
+        this.lastNames = lastNames;
+        this.courseIds = courseIds;
+        this.courseTitles = courseTitles;
+        this.counts = counts;
+    }
+
+    static Dataset load(Connection connection) throws SQLException {
+        List<Object[]> students = rows(connection, "SELECT id, student_id, last_name FROM students ORDER BY id");
+        List<Object[]> courses = rows(connection, "SELECT id, title FROM courses ORDER BY id");
+        if (students.isEmpty() || courses.isEmpty()) {
+            throw new IllegalStateException("No students or courses; run the generate command first");
+        }
+
+        long[] studentIds = new long[students.size()];
+        String[] studentNumbers = new String[students.size()];
+        String[] lastNames = new String[students.size()];
+        for (int i = 0; i < students.size(); i++) {
+            studentIds[i] = ((Number) students.get(i)[0]).longValue();
+            studentNumbers[i] = (String) students.get(i)[1];
+            lastNames[i] = (String) students.get(i)[2];
+        }
+        long[] courseIds = new long[courses.size()];
+        String[] courseTitles = new String[courses.size()];
+        for (int i = 0; i < courses.size(); i++) {
+            courseIds[i] = ((Number) courses.get(i)[0]).longValue();
+            courseTitles[i] = (String) courses.get(i)[1];
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("students", (long) studentIds.length);
+        counts.put("courses", (long) courseIds.length);
+        counts.put("enrollments", count(connection, "student_enrollments"));
+        counts.put("grades", count(connection, "grades"));
+        return new Dataset(studentIds, studentNumbers, lastNames, courseIds, courseTitles, counts);
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        return ((Number) rows(connection, "SELECT COUNT(*) FROM " + table).get(0)[0]).longValue();
+    }
+
+    private static List<Object[]> rows(Connection connection, String sql) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                Object[] row = new Object[columns];
+                for (int c = 0; c < columns; c++) row[c] = rs.getObject(c + 1);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    int randomStudent(Random random) {
+        return random.nextInt(studentIds.length);
+    }
+
+    long studentId(int index) { return studentIds[index]; }
+
+    String studentNumber(int index) { return studentNumbers[index]; }
+
+    String lastName(int index) { return lastNames[index]; }
+
+    // Skewed like the generated enrollments: low ids are the popular courses
+    int popularCourse(Random random) {
+        double r = random.nextDouble();
+        return (int) (courseIds.length * r * r);
+    }
+
+    int randomCourse(Random random) {
+        return random.nextInt(courseIds.length);
+    }
+
+    long courseId(int index) { return courseIds[index]; }
+
+    String courseTitle(int index) { return courseTitles[index]; }
+
+    Map<String, Long> counts() { return counts; }
+}
@@ -0,0 +1,204 @@
+package com.university.coursemanagement.loadtest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the load test.
+ *
+ * <pre>
+ * generate  --jdbc-url=URL [--db-user=U] [--db-password=P] [--students=100000] [--courses=5000]
+ *           [--grades=2000000] [--enrollments-per-student=4] [--seed=42] [--reset]
+ * run       --jdbc-url=URL [--db-user=U] [--db-password=P] [--base-url=http://localhost:8080]
+ *           [--threads=32] [--warmup=30s] [--duration=2m] [--seed=42] [--timeout=30s]
+ *           [--mix=registration=35,grades=20,portal=30,catalog=12,admin=3,bulk=0]
+ *           [--ready-url=BASE_URL/api/grading-scales] [--label=NAME] [--output=target/loadtest/NAME.json]
+ * compare   BASELINE.json CANDIDATE.json [--max-p99-increase=0.2] [--max-throughput-drop=0.1]
+ *           [--min-requests=100]
+ * </pre>
+ *
+ * {@code run} is a closed loop: every thread sends its next scenario as
+ * soon as the last one finished, so the measured throughput is what the
+ * application sustained at that concurrency. {@code compare} exits with
+ * status 1 when the candidate regressed.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            System.exit(2);
+        }
+        Options options = Options.parse(args, 1);
+        try {
+            switch (args[0]) {
+                case "generate" -> generate(options);
+                case "run" -> run(options);
+                case "compare" -> System.exit(compare(options));
+                default -> {
+                    usage();
+                    System.exit(2);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static void generate(Options options) throws Exception {
+        try (Connection connection = connect(options, true)) {
+            new DatasetGenerator(connection,
+                    options.getInt("students", 100_000),
+                    options.getInt("courses", 5_000),
+                    options.getLong("grades", 2_000_000),
+                    options.getInt("enrollments-per-student", 4),
+                    options.getLong("seed", 42)).generate(options.flag("reset"));
+        }
+        DatasetGenerator.log("Restart the application so it rebuilds summaries, the search index and rankings");
+    }
+
+    private static void run(Options options) throws Exception {
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        int threads = options.getInt("threads", 32);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(30));
+        Duration duration = options.getDuration("duration", Duration.ofMinutes(2));
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(30));
+        long seed = options.getLong("seed", 42);
+        Map<String, Integer> mix = options.getWeights("mix", Workload.DEFAULT_MIX);
+        Instant startedAt = Instant.now();
+        String label = options.get("label", DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+                .withZone(ZoneOffset.UTC).format(startedAt));
+        File output = new File(options.get("output", "target/loadtest/" + label + ".json"));
+
+        Dataset dataset;
+        try (Connection connection = connect(options, false)) {
+            dataset = Dataset.load(connection);
+        }
+        DatasetGenerator.log("Dataset: %s", dataset.counts());
+
+        ExecutorService httpThreads = Executors.newFixedThreadPool(Math.max(2, threads / 4));
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpThreads)
+                .build();
+        awaitReady(http, options.get("ready-url", baseUrl + "/api/grading-scales"));
+
+        // Records created by this run are named after it, so runs do not collide
+        String runTag = Long.toString(startedAt.getEpochSecond() % 1_000_000, 36).toUpperCase(Locale.ROOT) + "N";
+        Workload workload = new Workload(dataset, mix, runTag);
+        Phase phase = new Phase();
+        List<ApiClient> clients = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            ApiClient client = new ApiClient(http, baseUrl, timeout, () -> phase.measuring);
+            Random random = new Random(seed * 31 + i);
+            clients.add(client);
+            running.add(workers.submit(() -> {
+                while (!phase.stopped) workload.step(client, random);
+            }));
+        }
+
+        DatasetGenerator.log("Warming up for %d s with %d threads", warmup.toSeconds(), threads);
+        Thread.sleep(warmup.toMillis());
+        phase.measuring = true;
+        long measureStart = System.nanoTime();
+        DatasetGenerator.log("Measuring for %d s", duration.toSeconds());
+        Thread.sleep(duration.toMillis());
+        phase.measuring = false;
+        Duration measured = Duration.ofNanos(System.nanoTime() - measureStart);
+        phase.stopped = true;
+        for (Future<?> worker : running) worker.get(timeout.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        workers.shutdown();
+        httpThreads.shutdown();
+
+        Map<String, OperationStats> merged = new HashMap<>();
+        for (ApiClient client : clients) {
+            client.stats().forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, name -> new OperationStats()).add(stats));
+        }
+        ObjectNode report = Report.build(label, baseUrl, startedAt, threads, warmup, measured, mix,
+                dataset.counts(), merged);
+        Report.printSummary(report);
+        Report.write(report, output);
+        DatasetGenerator.log("Report written to %s", output.getPath());
+    }
+
+    private static int compare(Options options) throws Exception {
+        if (options.positional().size() != 2) {
+            throw new IllegalArgumentException("compare needs a baseline and a candidate report");
+        }
+        List<String> regressions = Report.compare(
+                new File(options.positional().get(0)), new File(options.positional().get(1)),
+                options.getDouble("max-p99-increase", 0.2),
+                options.getDouble("max-throughput-drop", 0.1),
+                options.getLong("min-requests", 100));
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions");
+            return 0;
+        }
+        System.out.println("Regressions:");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return 1;
+    }
+
+    private static Connection connect(Options options, boolean batchRewrite) throws Exception {
+        String url = options.require("jdbc-url");
+        return DriverManager.getConnection(batchRewrite ? DatasetGenerator.withBatchRewrite(url) : url,
+                options.get("db-user", null), options.get("db-password", null));
+    }
+
+    // Waits for the API to answer (in the prod profile the actuator is on a port of its own)
+    private static void awaitReady(HttpClient http, String readyUrl) throws InterruptedException {
+        HttpRequest ready = HttpRequest.newBuilder(URI.create(readyUrl))
+                .timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (true) {
+            try {
+                if (http.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException e) {
+                // not listening yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(readyUrl + " did not answer within 5 minutes");
+            }
+            Thread.sleep(2000);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: LoadTest generate|run|compare [options]  (see the LoadTest javadoc or README)");
+    }
+
+
+    private static final class Phase {
+        volatile boolean measuring;
+        volatile boolean stopped;
+    }
+}
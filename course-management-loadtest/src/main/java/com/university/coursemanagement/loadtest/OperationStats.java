@@ -0,0 +1,60 @@
+package com.university.coursemanagement.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response codes of one operation (an endpoint, named by its
+ * path template). Each worker records into its own instances; they are
+ * merged when the run ends.
+ */
+final class OperationStats {
+
+    // Microseconds, up to ten minutes, three significant digits
+    private static final long MAX_MICROS = 600_000_000L;
+
+    private final Histogram latencies = new Histogram(MAX_MICROS, 3);
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private long failures;
+
+    void record(int status, long nanos) {
+        latencies.recordValue(Math.min(MAX_MICROS, Math.max(1, nanos / 1000)));
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    // No response at all: connection refused, reset or timed out
+    void recordFailure(long nanos) {
+        latencies.recordValue(Math.min(MAX_MICROS, Math.max(1, nanos / 1000)));
+        failures++;
+    }
+
+    void add(OperationStats other) {
+        latencies.add(other.latencies);
+        other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        failures += other.failures;
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    /**
+     * Server errors and failed requests. 4xx responses are expected in the
+     * mix (a full course answers 409) and are reported per status only.
+     */
+    long errors() {
+        long errors = failures;
+        for (Map.Entry<Integer, Long> entry : statuses.entrySet()) {
+            if (entry.getKey() >= 500) errors += entry.getValue();
+        }
+        return errors;
+    }
+
+    long failures() { return failures; }
+
+    Map<Integer, Long> statuses() { return statuses; }
+
+    Histogram latencies() { return latencies; }
+}
@@ -0,0 +1,101 @@
+package com.university.coursemanagement.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options: {@code --name=value}, bare {@code --flag}, and
+ * positional arguments.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+    private final List<String> positional = new ArrayList<>();
+
+    static Options parse(String[] args, int from) {
+        Options options = new Options();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                options.positional.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) options.values.put(arg.substring(2), "true");
+            else options.values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    List<String> positional() {
+        return positional;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    String require(String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("--" + name + " is required");
+        return value;
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value != null ? Long.parseLong(value.replace("_", "")) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    boolean flag(String name) {
+        return Boolean.parseBoolean(values.getOrDefault(name, "false"));
+    }
+
+    /**
+     * A duration as {@code 90s}, {@code 5m}, {@code 1h} or ISO-8601 ({@code PT5M}).
+     */
+    Duration getDuration(String name, Duration defaultValue) {
+        String value = values.get(name);
+        if (value == null) return defaultValue;
+        if (value.startsWith("P") || value.startsWith("p")) return Duration.parse(value);
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (Character.toLowerCase(value.charAt(value.length() - 1))) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("--" + name + ": use e.g. 90s, 5m or PT5M");
+        };
+    }
+
+    /**
+     * Weights as {@code name=weight,name=weight}; names left out keep their
+     * default weight.
+     */
+    Map<String, Integer> getWeights(String name, Map<String, Integer> defaults) {
+        Map<String, Integer> weights = new LinkedHashMap<>(defaults);
+        String value = values.get(name);
+        if (value == null) return weights;
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2 || !weights.containsKey(pair[0].trim())) {
+                throw new IllegalArgumentException("--" + name + ": unknown entry '" + part + "', expected one of "
+                        + defaults.keySet());
+            }
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
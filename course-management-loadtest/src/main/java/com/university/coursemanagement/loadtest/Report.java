@@ -0,0 +1,180 @@
+package com.university.coursemanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The JSON written after a run, and the comparison of two of them. A report
+ * records how it was produced (base URL, threads, durations, mix, dataset
+ * sizes) next to the numbers, so a comparison can say when two runs are
+ * not like for like.
+ */
+final class Report {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p95", "p99", "p999"};
+
+    private Report() {
+    }
+
+    static ObjectNode build(String label, String baseUrl, Instant startedAt, int threads, Duration warmup,
+                            Duration measured, Map<String, Integer> mix, Map<String, Long> datasetCounts,
+                            Map<String, OperationStats> operations) {
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("label", label);
+        report.put("baseUrl", baseUrl);
+        report.put("startedAt", startedAt.toString());
+        report.put("threads", threads);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", measured.toMillis() / 1000.0);
+        report.set("mix", MAPPER.valueToTree(mix));
+        report.set("dataset", MAPPER.valueToTree(datasetCounts));
+
+        double seconds = Math.max(0.001, measured.toMillis() / 1000.0);
+        OperationStats total = new OperationStats();
+        ObjectNode byOperation = report.objectNode();
+        for (Map.Entry<String, OperationStats> entry : new TreeMap<>(operations).entrySet()) {
+            total.add(entry.getValue());
+            byOperation.set(entry.getKey(), describe(entry.getValue(), seconds));
+        }
+        report.set("summary", describe(total, seconds));
+        report.set("operations", byOperation);
+        return report;
+    }
+
+    private static ObjectNode describe(OperationStats stats, double seconds) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("requests", stats.requests());
+        node.put("errors", stats.errors());
+        node.put("failures", stats.failures());
+        ObjectNode statuses = node.putObject("statuses");
+        stats.statuses().forEach((status, count) -> statuses.put(String.valueOf(status), count));
+        node.put("throughput", round(stats.requests() / seconds));
+
+        Histogram latencies = stats.latencies();
+        ObjectNode millis = node.putObject("latencyMillis");
+        if (latencies.getTotalCount() > 0) {
+            millis.put("mean", round(latencies.getMean() / 1000));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                millis.put(PERCENTILE_NAMES[i], round(latencies.getValueAtPercentile(PERCENTILES[i]) / 1000.0));
+            }
+            millis.put("max", round(latencies.getMaxValue() / 1000.0));
+        }
+        return node;
+    }
+
+    static void write(ObjectNode report, File file) throws IOException {
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        MAPPER.writeValue(file, report);
+    }
+
+    static void printSummary(ObjectNode report) {
+        System.out.printf(Locale.ROOT, "%-55s %9s %7s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        Iterator<Map.Entry<String, JsonNode>> operations = report.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> entry = operations.next();
+            printRow(entry.getKey(), entry.getValue());
+        }
+        printRow("TOTAL", report.path("summary"));
+    }
+
+    private static void printRow(String name, JsonNode stats) {
+        JsonNode millis = stats.path("latencyMillis");
+        System.out.printf(Locale.ROOT, "%-55s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", name,
+                stats.path("requests").asLong(), stats.path("errors").asLong(), stats.path("throughput").asDouble(),
+                millis.path("p50").asDouble(), millis.path("p99").asDouble(), millis.path("max").asDouble());
+    }
+
+    /**
+     * Compares a candidate run with a baseline and prints one line per
+     * operation both have. An operation regresses when its p99 grows by more
+     * than {@code maxP99Increase} (0.2 is 20%), its throughput drops by more
+     * than {@code maxThroughputDrop}, or its error rate grows at all; the
+     * same checks run on the summary. Operations with fewer than
+     * {@code minRequests} requests in either run are listed but not judged.
+     *
+     * @return the regressions found; empty when the candidate passes
+     */
+    static List<String> compare(File baselineFile, File candidateFile, double maxP99Increase,
+                                double maxThroughputDrop, long minRequests) throws IOException {
+        JsonNode baseline = MAPPER.readTree(baselineFile);
+        JsonNode candidate = MAPPER.readTree(candidateFile);
+        for (String setting : List.of("threads", "durationSeconds", "mix", "dataset")) {
+            if (!baseline.path(setting).equals(candidate.path(setting))) {
+                System.out.println("Note: the runs differ in " + setting + ": " + baseline.path(setting)
+                        + " vs " + candidate.path(setting));
+            }
+        }
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-55s %11s %11s %8s %11s %11s %8s%n",
+                "operation", "base p99", "new p99", "change", "base req/s", "new req/s", "change");
+        Iterator<Map.Entry<String, JsonNode>> operations = baseline.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> entry = operations.next();
+            JsonNode other = candidate.path("operations").path(entry.getKey());
+            if (other.isMissingNode()) {
+                System.out.printf(Locale.ROOT, "%-55s (not in %s)%n", entry.getKey(), candidateFile.getName());
+                continue;
+            }
+            compareOne(entry.getKey(), entry.getValue(), other, maxP99Increase, maxThroughputDrop, minRequests, regressions);
+        }
+        compareOne("TOTAL", baseline.path("summary"), candidate.path("summary"), maxP99Increase, maxThroughputDrop, 0,
+                regressions);
+        return regressions;
+    }
+
+    private static void compareOne(String name, JsonNode base, JsonNode next, double maxP99Increase,
+                                   double maxThroughputDrop, long minRequests, List<String> regressions) {
+        double baseP99 = base.path("latencyMillis").path("p99").asDouble();
+        double nextP99 = next.path("latencyMillis").path("p99").asDouble();
+        double baseRate = base.path("throughput").asDouble();
+        double nextRate = next.path("throughput").asDouble();
+        double p99Change = baseP99 > 0 ? nextP99 / baseP99 - 1 : 0;
+        double rateChange = baseRate > 0 ? nextRate / baseRate - 1 : 0;
+
+        boolean judged = base.path("requests").asLong() >= minRequests && next.path("requests").asLong() >= minRequests;
+        String verdict = judged ? "" : "  (too few requests to judge)";
+        if (judged) {
+            if (p99Change > maxP99Increase) {
+                regressions.add(String.format(Locale.ROOT, "%s: p99 %.2f ms -> %.2f ms (%+.0f%%)",
+                        name, baseP99, nextP99, p99Change * 100));
+            }
+            if (-rateChange > maxThroughputDrop) {
+                regressions.add(String.format(Locale.ROOT, "%s: throughput %.1f/s -> %.1f/s (%+.0f%%)",
+                        name, baseRate, nextRate, rateChange * 100));
+            }
+            if (errorRate(next) > errorRate(base)) {
+                regressions.add(String.format(Locale.ROOT, "%s: error rate %.3f%% -> %.3f%%",
+                        name, errorRate(base) * 100, errorRate(next) * 100));
+            }
+        }
+        System.out.printf(Locale.ROOT, "%-55s %11.2f %11.2f %+7.0f%% %11.1f %11.1f %+7.0f%%%s%n",
+                name, baseP99, nextP99, p99Change * 100, baseRate, nextRate, rateChange * 100, verdict);
+    }
+
+    private static double errorRate(JsonNode stats) {
+        long requests = stats.path("requests").asLong();
+        return requests > 0 ? (double) stats.path("errors").asLong() / requests : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
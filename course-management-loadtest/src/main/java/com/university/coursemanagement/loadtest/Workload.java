@@ -0,0 +1,323 @@
+package com.university.coursemanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The traffic mix. Each step picks a scenario by weight, and a scenario is
+ * the handful of requests one user action makes: a student registering for
+ * a course, an instructor entering grades, a student opening the portal,
+ * someone browsing the catalogue, an administrator editing records, or a
+ * bulk export. Operations are named by their path template so a report
+ * lines up with the controllers.
+ *
+ * <p>Writes clean up after themselves where the API allows (half of the
+ * enrollments are dropped again, created students and courses are deleted,
+ * imported students are purged), so repeated runs see much the same data.
+ * Grade writes overwrite existing grades with new scores.
+ */
+final class Workload {
+
+    static final Map<String, Integer> DEFAULT_MIX;
+
+    static {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("registration", 35);
+        mix.put("grades", 20);
+        mix.put("portal", 30);
+        mix.put("catalog", 12);
+        mix.put("admin", 3);
+        mix.put("bulk", 0);
+        DEFAULT_MIX = mix;
+    }
+
+    private static final String[] SORTS = {"lastName", "firstName", "studentId"};
+    private static final int JOB_POLLS = 100;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Dataset dataset;
+    private final String[] scenarios;
+    private final int[] cumulativeWeights;
+    private final String runTag;
+    private final AtomicLong sequence = new AtomicLong();
+
+    Workload(Dataset dataset, Map<String, Integer> mix, String runTag) {
+        this.dataset = dataset;
+        this.runTag = runTag;
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() <= 0) continue;
+            total += entry.getValue();
+            names.add(entry.getKey());
+            weights.add(total);
+        }
+        if (names.isEmpty()) throw new IllegalArgumentException("The mix has no scenario with a positive weight");
+        scenarios = names.toArray(new String[0]);
+        cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    void step(ApiClient api, Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (pick >= cumulativeWeights[i]) i++;
+        switch (scenarios[i]) {
+            case "registration" -> registration(api, random);
+            case "grades" -> grades(api, random);
+            case "portal" -> portal(api, random);
+            case "catalog" -> catalog(api, random);
+            case "admin" -> admin(api, random);
+            case "bulk" -> bulk(api, random);
+            default -> throw new IllegalStateException(scenarios[i]);
+        }
+    }
+
+    // A student looks a course up, enrolls (409 when it is full) and checks their courses
+    private void registration(ApiClient api, Random random) {
+        int student = dataset.randomStudent(random);
+        int course = dataset.popularCourse(random);
+        long studentId = dataset.studentId(student);
+        long courseId = dataset.courseId(course);
+
+        api.get("GET /api/search/suggest", "/api/search/suggest?q=" + prefix(dataset.courseTitle(course), random));
+        ApiClient.Response enrolled = api.post("POST /api/students/{id}/enroll/{courseId}",
+                "/api/students/" + studentId + "/enroll/" + courseId, null, null);
+        api.get("GET /api/students/{id}/courses", "/api/students/" + studentId + "/courses");
+        if (enrolled.ok() && random.nextBoolean()) {
+            api.delete("DELETE /api/students/{id}/unenroll/{courseId}",
+                    "/api/students/" + studentId + "/unenroll/" + courseId);
+        }
+    }
+
+    // An instructor opens a roster and enters one grade or a batch of them
+    private void grades(ApiClient api, Random random) {
+        long courseId = dataset.courseId(dataset.popularCourse(random));
+        ApiClient.Response roster = api.get("GET /api/courses/{id}/students",
+                "/api/courses/" + courseId + "/students?fields=id,studentId,firstName,lastName");
+        api.get("GET /api/grades/course/{id}", "/api/grades/course/" + courseId + "?fields=id,score,letterGrade,student.id");
+
+        List<Long> studentIds = new ArrayList<>();
+        JsonNode rows = json(roster);
+        if (rows != null && rows.isArray()) rows.forEach(row -> studentIds.add(row.path("id").asLong()));
+        if (!studentIds.isEmpty()) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                long studentId = studentIds.get(random.nextInt(studentIds.size()));
+                api.post("POST /api/grades", "/api/grades", "application/json",
+                        "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + ",\"score\":" + score(random) + "}");
+            } else if (kind < 9) {
+                StringBuilder body = new StringBuilder("[");
+                for (long studentId : sample(studentIds, 30, random)) {
+                    if (body.length() > 1) body.append(',');
+                    body.append("{\"studentId\":").append(studentId).append(",\"courseId\":").append(courseId)
+                            .append(",\"score\":").append(score(random)).append('}');
+                }
+                api.post("POST /api/grades/batch (json)", "/api/grades/batch", "application/json", body.append(']').toString());
+            } else {
+                StringBuilder body = new StringBuilder("studentId,courseId,score\n");
+                for (long studentId : sample(studentIds, 30, random)) {
+                    body.append(studentId).append(',').append(courseId).append(',').append(score(random)).append('\n');
+                }
+                api.post("POST /api/grades/batch (csv)", "/api/grades/batch", "text/csv", body.toString());
+            }
+        }
+        api.get("GET /api/analytics/courses/{id}", "/api/analytics/courses/" + courseId);
+    }
+
+    // A student opens the portal, then looks at their grades, standing and transcript
+    private void portal(ApiClient api, Random random) {
+        int student = dataset.randomStudent(random);
+        long studentId = dataset.studentId(student);
+        api.get("GET /api/students/by-number/{number}/portal",
+                "/api/students/by-number/" + dataset.studentNumber(student) + "/portal");
+        api.get("GET /api/grades/student/{id}/gpa", "/api/grades/student/" + studentId + "/gpa");
+        if (random.nextInt(3) == 0) {
+            api.get("GET /api/grades/student/{id}", "/api/grades/student/" + studentId);
+            api.get("GET /api/grades/student/{id}/summary", "/api/grades/student/" + studentId + "/summary");
+            api.get("GET /api/rankings/students/{id}", "/api/rankings/students/" + studentId);
+        }
+        if (random.nextInt(10) == 0) {
+            api.get("GET /api/exports/students/{id}/transcript", "/api/exports/students/" + studentId + "/transcript");
+        }
+    }
+
+    // Browsing: paged lists, lookups, search, and the shared dashboards
+    private void catalog(ApiClient api, Random random) {
+        switch (random.nextInt(12)) {
+            case 0 -> pages(api, "GET /api/courses", "/api/courses?size=50&sort=title", random);
+            case 1 -> pages(api, "GET /api/students", "/api/students?size=50&sort=" + SORTS[random.nextInt(SORTS.length)], random);
+            case 2 -> pages(api, "GET /api/grades", "/api/grades?size=100&courseId=" + dataset.courseId(dataset.randomCourse(random)), random);
+            case 3 -> {
+                api.get("GET /api/courses/{id}", "/api/courses/" + dataset.courseId(dataset.randomCourse(random)));
+                api.get("GET /api/students/{id}", "/api/students/" + dataset.studentId(dataset.randomStudent(random)));
+            }
+            case 4 -> api.get("GET /api/search/courses", "/api/search/courses?q="
+                    + prefix(dataset.courseTitle(dataset.randomCourse(random)), random));
+            case 5 -> api.get("GET /api/search/students", "/api/search/students?q="
+                    + encode(dataset.lastName(dataset.randomStudent(random))));
+            case 6 -> {
+                api.get("GET /api/courses/search", "/api/courses/search?title="
+                        + prefix(dataset.courseTitle(dataset.randomCourse(random)), random));
+                api.get("GET /api/students/search", "/api/students/search?q="
+                        + encode(dataset.lastName(dataset.randomStudent(random))));
+            }
+            case 7 -> api.get("GET /api/stats/dashboard", "/api/stats/dashboard");
+            case 8 -> {
+                api.get("GET /api/rankings/top", "/api/rankings/top?limit=20");
+                api.get("GET /api/rankings/deans-list", "/api/rankings/deans-list?limit=100");
+            }
+            case 9 -> {
+                StringBuilder ids = new StringBuilder();
+                for (int i = 0; i < 4; i++) {
+                    if (i > 0) ids.append(',');
+                    ids.append(dataset.courseId(dataset.popularCourse(random)));
+                }
+                api.get("GET /api/analytics/courses", "/api/analytics/courses?ids=" + ids);
+            }
+            case 10 -> {
+                api.get("GET /api/changes", "/api/changes?limit=100");
+                api.get("GET /api/grading-scales", "/api/grading-scales");
+                api.get("GET /api/cache/stats", "/api/cache/stats");
+            }
+            default -> api.get("GET /api/exports/courses/{id}/grades",
+                    "/api/exports/courses/" + dataset.courseId(dataset.popularCourse(random)) + "/grades");
+        }
+    }
+
+    // Record maintenance: one of create/update/delete a course, the same for a student, or an import and purge
+    private void admin(ApiClient api, Random random) {
+        long n = sequence.incrementAndGet();
+        String tag = runTag + n;
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                ApiClient.Response created = api.post("POST /api/courses", "/api/courses", "application/json",
+                        "{\"code\":\"LT" + tag + "\",\"title\":\"Load Test " + tag + "\",\"credits\":3,\"capacity\":40}");
+                long id = id(created);
+                if (id < 0) return;
+                api.put("PUT /api/courses/{id}", "/api/courses/" + id,
+                        "{\"code\":\"LT" + tag + "\",\"title\":\"Load Test " + tag + " (revised)\",\"credits\":4,\"capacity\":40}");
+                api.delete("DELETE /api/courses/{id}", "/api/courses/" + id);
+            }
+            case 1 -> {
+                String student = "\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"lt" + tag.toLowerCase(Locale.ROOT)
+                        + "@loadtest.example\",\"studentId\":\"LT" + tag + "\"";
+                ApiClient.Response created = api.post("POST /api/students", "/api/students", "application/json",
+                        "{" + student + "}");
+                long id = id(created);
+                if (id < 0) return;
+                api.put("PUT /api/students/{id}", "/api/students/" + id, "{" + student + ",\"phoneNumber\":\"555-0100\"}");
+                api.delete("DELETE /api/students/{id}", "/api/students/" + id);
+            }
+            default -> importAndPurge(api, tag);
+        }
+    }
+
+    // Imports a few students under a last name of their own, then finds and purges them
+    private void importAndPurge(ApiClient api, String tag) {
+        String lastName = "Loadtest" + tag;
+        StringBuilder csv = new StringBuilder("first_name,last_name,email,student_id\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("Load,").append(lastName).append(",lt").append(tag.toLowerCase(Locale.ROOT)).append('x').append(i)
+                    .append("@loadtest.example,LT").append(tag).append('X').append(i).append('\n');
+        }
+        ApiClient.Response started = api.post("POST /api/imports/{kind}", "/api/imports/students", "text/csv", csv.toString());
+        if (!awaitJob(api, "GET /api/imports/{jobId}", "/api/imports/", started)) return;
+
+        ApiClient.Response found = api.get("GET /api/students", "/api/students?size=50&lastName=" + lastName);
+        JsonNode page = json(found);
+        if (page == null) return;
+        List<String> ids = new ArrayList<>();
+        (page.isArray() ? page : page.path("content")).forEach(row -> ids.add(row.path("id").asText()));
+        if (ids.isEmpty()) return;
+        ApiClient.Response purge = api.post("POST /api/purges/students", "/api/purges/students", "application/json",
+                "{\"ids\":[" + String.join(",", ids) + "]}");
+        awaitJob(api, "GET /api/purges/{jobId}", "/api/purges/", purge);
+    }
+
+    // Whole-table reads: the streams and the full export
+    private void bulk(ApiClient api, Random random) {
+        switch (random.nextInt(4)) {
+            case 0 -> api.getDiscarding("GET /api/courses/stream", "/api/courses/stream");
+            case 1 -> api.getDiscarding("GET /api/students/stream", "/api/students/stream");
+            case 2 -> api.getDiscarding("GET /api/grades/stream", "/api/grades/stream");
+            default -> api.getDiscarding("GET /api/exports/grades", "/api/exports/grades");
+        }
+    }
+
+    // Follows the X-Next-Cursor header for up to three pages, as a user paging through a list would
+    private void pages(ApiClient api, String operation, String path, Random random) {
+        ApiClient.Response page = api.get(operation, path);
+        int more = random.nextInt(3);
+        for (int i = 0; i < more && page.ok() && page.nextCursor != null; i++) {
+            page = api.get(operation, path + "&cursor=" + encode(page.nextCursor));
+        }
+    }
+
+    private boolean awaitJob(ApiClient api, String operation, String path, ApiClient.Response started) {
+        JsonNode job = json(started);
+        if (job == null || !job.hasNonNull("id")) return false;
+        for (int i = 0; i < JOB_POLLS; i++) {
+            if (!"RUNNING".equals(job.path("status").asText())) {
+                return "COMPLETED".equals(job.path("status").asText());
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            job = json(api.get(operation, path + job.path("id").asText()));
+            if (job == null) return false;
+        }
+        return false;
+    }
+
+    private JsonNode json(ApiClient.Response response) {
+        if (!response.ok() || response.body.length == 0) return null;
+        try {
+            return mapper.readTree(response.body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long id(ApiClient.Response response) {
+        JsonNode node = json(response);
+        return node != null && node.hasNonNull("id") ? node.path("id").asLong() : -1;
+    }
+
+    private static List<Long> sample(List<Long> values, int max, Random random) {
+        List<Long> sample = new ArrayList<>(values);
+        Collections.shuffle(sample, random);
+        return sample.subList(0, Math.min(max, sample.size()));
+    }
+
+    // Scores spread like the generated ones, on the two-decimal step
+    private static String score(Random random) {
+        double score = Math.max(0, Math.min(100, 65 + random.nextGaussian() * 15));
+        return String.format(Locale.ROOT, "%.2f", score);
+    }
+
+    // What someone has typed so far: the first three to eight characters
+    private static String prefix(String text, Random random) {
+        int length = Math.min(text.length(), 3 + random.nextInt(6));
+        return encode(text.substring(0, length).trim());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
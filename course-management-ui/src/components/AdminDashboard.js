@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { courseApi, studentApi } from '../services/api';
+import { statsApi } from '../services/api';
 
 const getGradeColor = (score) => {
   if (score >= 40) return 'success';
@@ -29,23 +29,14 @@ const AdminDashboard = () => {
 
   const fetchDashboardData = async () => {
     try {
-      const [coursesRes, studentsRes, gradesRes] = await Promise.all([
-        courseApi.getAll(),
-        studentApi.getAll(),
-        import('../services/api').then(api => api.gradeApi.getAll())
-      ]);
+      const response = await statsApi.getDashboard(5);
 
       setStats({
-        totalCourses: coursesRes.data.length,
-        totalStudents: studentsRes.data.length
+        totalCourses: response.data.totalCourses,
+        totalStudents: response.data.totalStudents
       });
 
-      
-      const sortedGrades = gradesRes.data
-        .sort((a, b) => new Date(b.gradeDate) - new Date(a.gradeDate))
-        .slice(0, 5);
-      
-      setRecentGrades(sortedGrades);
+      setRecentGrades(response.data.recentGrades);
     } catch (error) {
       console.error('Error fetching dashboard data:', error);
     } finally {
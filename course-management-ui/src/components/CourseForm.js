@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate, useParams } from 'react-router-dom';
-import { courseApi } from '../services/api';
+import { courseApi, gradingScaleApi } from '../services/api';
 
 const CourseForm = () => {
   const navigate = useNavigate();
@@ -11,8 +11,10 @@ const CourseForm = () => {
     code: '',
     title: '',
     description: '',
-    credits: ''
+    credits: '',
+    gradingScaleId: ''
   });
+  const [scales, setScales] = useState([]);
 
   const [errors, setErrors] = useState({});
   const [loading, setLoading] = useState(false);
@@ -24,10 +26,16 @@ const CourseForm = () => {
     }
   }, [id, isEdit]);
 
+  useEffect(() => {
+    gradingScaleApi.getAll()
+      .then(response => setScales(response.data))
+      .catch(error => console.error('Error fetching grading scales:', error));
+  }, []);
+
   const fetchCourse = async () => {
     try {
       const response = await courseApi.getById(id);
-      setFormData(response.data);
+      setFormData({ ...response.data, gradingScaleId: response.data.gradingScaleId ?? '' });
     } catch (error) {
       console.error('Error fetching course:', error);
     }
@@ -82,10 +90,12 @@ const CourseForm = () => {
 
     setLoading(true);
     try {
+      // An empty choice means the default scale
+      const course = { ...formData, gradingScaleId: formData.gradingScaleId || null };
       if (isEdit) {
-        await courseApi.update(id, formData);
+        await courseApi.update(id, course);
       } else {
-        await courseApi.create(formData);
+        await courseApi.create(course);
       }
       
       
@@ -173,6 +183,27 @@ const CourseForm = () => {
                   {errors.credits && <div className="invalid-feedback">{errors.credits}</div>}
                 </div>
 
+                <div className="mb-3">
+                  <label htmlFor="gradingScaleId" className="form-label">Grading Scale</label>
+                  <select
+                    className="form-control"
+                    id="gradingScaleId"
+                    name="gradingScaleId"
+                    value={formData.gradingScaleId}
+                    onChange={handleChange}
+                  >
+                    <option value="">University default</option>
+                    {scales.map(scale => (
+                      <option key={scale.id} value={scale.id}>{scale.name}</option>
+                    ))}
+                  </select>
+                  {isEdit && (
+                    <small className="form-text text-muted">
+                      Changing the scale regrades the course's existing grades.
+                    </small>
+                  )}
+                </div>
+
                 <div className="d-flex justify-content-between">
                   <button
                     type="button"
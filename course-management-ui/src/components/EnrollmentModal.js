@@ -40,7 +40,10 @@ const EnrollmentModal = ({ show, onHide, student, onEnrollmentUpdate }) => {
     setLoading(true);
     try {
       await studentApi.enroll(student.id, courseId);
-      await fetchStudentCourses(); 
+      const course = courses.find(c => c.id === courseId);
+      setEnrolledCourses(current =>
+        current.some(c => c.id === courseId) ? current : [...current, course]
+      );
       if (onEnrollmentUpdate) {
         onEnrollmentUpdate(); 
       }
@@ -56,7 +59,7 @@ const EnrollmentModal = ({ show, onHide, student, onEnrollmentUpdate }) => {
     setLoading(true);
     try {
       await studentApi.unenroll(student.id, courseId);
-      await fetchStudentCourses(); 
+      setEnrolledCourses(current => current.filter(c => c.id !== courseId));
       if (onEnrollmentUpdate) {
         onEnrollmentUpdate(); 
       }
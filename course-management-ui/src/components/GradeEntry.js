@@ -1,5 +1,11 @@
-import React, { useState, useEffect } from 'react';
-import { gradeApi, studentApi, courseApi } from '../services/api';
+import React, { useState, useEffect, useRef } from 'react';
+import { gradeApi, studentApi, courseApi, gradingScaleApi } from '../services/api';
+import { subscribeToChanges } from '../services/changeFeed';
+
+// Only the columns the grades table and the "already graded" check use
+const GRADE_TABLE_FIELDS =
+  'id,score,letterGrade,gradePointValue,status,gradeDate,remarks,' +
+  'student.id,student.studentId,student.firstName,student.lastName';
 
 const GradeEntry = () => {
   const [courses, setCourses] = useState([]);
@@ -13,11 +19,40 @@ const GradeEntry = () => {
     score: '',
     remarks: ''
   });
+  // Bands of the selected course's grading scale (the default until a course is picked), lowest first
+  const [scale, setScale] = useState(null);
+
+  // Read from the change feed callback, which outlives a single render
+  const enrolledStudentsRef = useRef([]);
+  enrolledStudentsRef.current = enrolledStudents;
 
   useEffect(() => {
     fetchCourses();
+    fetchDefaultScale();
   }, []);
 
+  // Keep the selected course's grades and roster current without refetching after every write
+  useEffect(() => {
+    if (!selectedCourse) return undefined;
+    return subscribeToChanges(
+      { types: ['grade', 'enrollment', 'course'], courseId: selectedCourse },
+      (change) => {
+        if (change.type === 'GRADE' && change.action !== 'RELOAD') {
+          mergeGrade(change.action === 'DELETED' ? { studentId: change.studentId, deleted: true } : change.data);
+        } else if (change.type === 'ENROLLMENT') {
+          fetchEnrolledStudents(selectedCourse);
+        } else {
+          fetchEnrolledStudents(selectedCourse);
+          fetchGradesByCourse(selectedCourse);
+        }
+      },
+      () => {
+        fetchEnrolledStudents(selectedCourse);
+        fetchGradesByCourse(selectedCourse);
+      }
+    );
+  }, [selectedCourse]);
+
   const fetchCourses = async () => {
     try {
       const response = await courseApi.getAll();
@@ -27,6 +62,24 @@ const GradeEntry = () => {
     }
   };
 
+  const fetchDefaultScale = async () => {
+    try {
+      const response = await gradingScaleApi.getAll();
+      setScale(response.data.find(s => s.default) || null);
+    } catch (error) {
+      console.error('Error fetching grading scales:', error);
+    }
+  };
+
+  const fetchCourseScale = async (courseId) => {
+    try {
+      const response = await gradingScaleApi.getForCourse(courseId);
+      setScale(response.data);
+    } catch (error) {
+      console.error('Error fetching grading scale:', error);
+    }
+  };
+
   const fetchEnrolledStudents = async (courseId) => {
     if (!courseId) {
       setEnrolledStudents([]);
@@ -50,7 +103,7 @@ const GradeEntry = () => {
 
   const fetchGradesByCourse = async (courseId) => {
     try {
-      const response = await gradeApi.getByCourse(courseId);
+      const response = await gradeApi.getByCourse(courseId, GRADE_TABLE_FIELDS);
       setGrades(response.data);
     } catch (error) {
       console.error('Error fetching grades:', error);
@@ -58,6 +111,30 @@ const GradeEntry = () => {
     }
   };
 
+  // Upserts a grade (a feed payload or the saved grade) by student, joining in the student's details
+  const mergeGrade = (saved) => {
+    const studentId = saved.student ? saved.student.id : saved.studentId;
+    setGrades(current => {
+      const existing = current.find(grade => grade.student.id === studentId);
+      if (saved.deleted) {
+        return current.filter(grade => grade !== existing);
+      }
+      const student = saved.student || existing?.student
+        || enrolledStudentsRef.current.find(s => s.id === studentId);
+      if (!student) return current;
+      const merged = {
+        ...existing,
+        ...saved,
+        id: saved.id || existing?.id || `${studentId}-${selectedCourse}`,
+        gradeDate: saved.gradeDate || existing?.gradeDate,
+        student
+      };
+      return existing
+        ? current.map(grade => (grade === existing ? merged : grade))
+        : [...current, merged];
+    });
+  };
+
   const handleCourseSelect = (courseId) => {
     setSelectedCourse(courseId);
     setSelectedStudent('');
@@ -66,6 +143,7 @@ const GradeEntry = () => {
     if (courseId) {
       fetchEnrolledStudents(courseId);
       fetchGradesByCourse(courseId);
+      fetchCourseScale(courseId);
     } else {
       setEnrolledStudents([]);
       setGrades([]);
@@ -113,12 +191,12 @@ const GradeEntry = () => {
         remarks: gradeForm.remarks
       };
 
-      await gradeApi.create(gradeData);
+      const response = await gradeApi.create(gradeData);
       
       setSelectedStudent('');
       setGradeForm({ score: '', remarks: '' });
       
-      fetchGradesByCourse(selectedCourse);
+      mergeGrade(response.data);
       
       alert('Grade added/updated successfully!');
     } catch (error) {
@@ -129,21 +207,18 @@ const GradeEntry = () => {
     }
   };
 
-  const getLetterGrade = (score) => {
-    if (score >= 85) return 'A+';
-    else if (score >= 70) return 'A';
-    else if (score >= 65) return 'A-';
-    else if (score >= 60) return 'B+';
-    else if (score >= 55) return 'B';
-    else if (score >= 50) return 'B-';
-    else if (score >= 45) return 'C+';
-    else if (score >= 40) return 'C';
-    else if (score >= 35) return 'C-';
-    else if (score >= 30) return 'D+';
-    else if (score >= 25) return 'D';
-    else return 'E';
+  // The band a score falls in: the highest one starting at or below it
+  const getBand = (score) => {
+    if (!scale || isNaN(score)) return null;
+    let band = scale.bands[0];
+    for (const candidate of scale.bands) {
+      if (score >= candidate.minScore) band = candidate;
+    }
+    return band;
   };
 
+  const getLetterGrade = (score) => getBand(score)?.letterGrade ?? '-';
+
   const getGradeColor = (score) => {
     if (score >= 70) return 'success';
     else if (score >= 60) return 'info';
@@ -153,31 +228,21 @@ const GradeEntry = () => {
     else return 'danger';
   };
 
-  const getGPV = (score) => {
-    if (score >= 85) return 4.00;
-    else if (score >= 70) return 4.00;
-    else if (score >= 65) return 3.70;
-    else if (score >= 60) return 3.30;
-    else if (score >= 55) return 3.00;
-    else if (score >= 50) return 2.70;
-    else if (score >= 45) return 2.30;
-    else if (score >= 40) return 2.00;
-    else if (score >= 35) return 1.70;
-    else if (score >= 30) return 1.30;
-    else if (score >= 25) return 1.00;
-    else return 0.00;
-  };
+  const getGPV = (score) => getBand(score)?.gradePointValue ?? 0;
+
+  const getStatus = (score) => getBand(score)?.status ?? '-';
 
-  const getStatus = (score) => {
-    if (score >= 40) return 'PASS';
-    else if (score >= 25) return 'COMPLETE';
-    else return 'INCOMPLETE';
+  const getStatusColor = (status) => {
+    if (status === 'PASS') return 'success';
+    else if (status === 'COMPLETE') return 'warning';
+    else return 'danger';
   };
 
-  const getStatusColor = (score) => {
-    if (score >= 40) return 'success';      
-    else if (score >= 25) return 'warning'; 
-    else return 'danger';                   
+  // "70-84" for whole-number bands, "69.50-69.99" otherwise
+  const getRange = (band, next) => {
+    if (!next) return `${band.minScore}-100`;
+    const upper = Number.isInteger(next.minScore) ? next.minScore - 1 : (next.minScore - 0.01).toFixed(2);
+    return `${band.minScore}-${upper}`;
   };
 
   const isStudentAlreadyGraded = (studentId) => {
@@ -357,7 +422,7 @@ const GradeEntry = () => {
                     </span>
                   </p>
                   <p><strong>Status:</strong> 
-                    <span className={`badge bg-${getStatusColor(parseFloat(gradeForm.score))} ms-2`}>
+                    <span className={`badge bg-${getStatusColor(getStatus(parseFloat(gradeForm.score)))} ms-2`}>
                       {getStatus(parseFloat(gradeForm.score))}
                     </span>
                   </p>
@@ -365,35 +430,33 @@ const GradeEntry = () => {
               )}
               
             
-              <div className="mt-3">
-                <h6>University Grading Scale:</h6>
-                <div className="table-responsive">
-                  <table className="table table-sm table-bordered">
-                    <thead>
-                      <tr>
-                        <th>Range</th>
-                        <th>Grade</th>
-                        <th>GPV</th>
-                        <th>Status</th>
-                      </tr>
-                    </thead>
-                    <tbody>
-                      <tr><td>85-100</td><td><span className="badge bg-success">A+</span></td><td>4.0</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>70-84</td><td><span className="badge bg-success">A</span></td><td>4.0</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>65-69</td><td><span className="badge bg-success">A-</span></td><td>3.7</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>60-64</td><td><span className="badge bg-success">B+</span></td><td>3.3</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>55-59</td><td><span className="badge bg-success">B</span></td><td>3.0</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>50-54</td><td><span className="badge bg-success">B-</span></td><td>2.7</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>45-49</td><td><span className="badge bg-success">C+</span></td><td>2.3</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>40-44</td><td><span className="badge bg-success">C</span></td><td>2.0</td><td><span className="badge bg-success">PASS</span></td></tr>
-                      <tr><td>35-39</td><td><span className="badge bg-warning">C-</span></td><td>1.7</td><td><span className="badge bg-warning">COMPLETE</span></td></tr>
-                      <tr><td>30-34</td><td><span className="badge bg-warning">D+</span></td><td>1.3</td><td><span className="badge bg-warning">COMPLETE</span></td></tr>
-                      <tr><td>25-29</td><td><span className="badge bg-warning">D</span></td><td>1.0</td><td><span className="badge bg-warning">COMPLETE</span></td></tr>
-                      <tr><td>00-24</td><td><span className="badge bg-danger">E</span></td><td>0.0</td><td><span className="badge bg-danger">INCOMPLETE</span></td></tr>
-                    </tbody>
-                  </table>
+              {scale && (
+                <div className="mt-3">
+                  <h6>Grading Scale: {scale.name}</h6>
+                  <div className="table-responsive">
+                    <table className="table table-sm table-bordered">
+                      <thead>
+                        <tr>
+                          <th>Range</th>
+                          <th>Grade</th>
+                          <th>GPV</th>
+                          <th>Status</th>
+                        </tr>
+                      </thead>
+                      <tbody>
+                        {scale.bands.map((band, i) => (
+                          <tr key={band.minScore}>
+                            <td>{getRange(band, scale.bands[i + 1])}</td>
+                            <td><span className={`badge bg-${getStatusColor(band.status)}`}>{band.letterGrade}</span></td>
+                            <td>{Number(band.gradePointValue).toFixed(1)}</td>
+                            <td><span className={`badge bg-${getStatusColor(band.status)}`}>{band.status}</span></td>
+                          </tr>
+                        )).reverse()}
+                      </tbody>
+                    </table>
+                  </div>
                 </div>
-              </div>
+              )}
             </div>
           </div>
         </div>
@@ -443,7 +506,7 @@ const GradeEntry = () => {
                           </span>
                         </td>
                         <td>
-                          <span className={`badge bg-${getStatusColor(grade.score)}`}>
+                          <span className={`badge bg-${getStatusColor(grade.status)}`}>
                             {grade.status}
                           </span>
                         </td>
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { studentApi } from '../services/api';
+import { subscribeToChanges } from '../services/changeFeed';
 import EnrollmentModal from './EnrollmentModal';
 
 const StudentList = () => {
@@ -14,6 +15,18 @@ const StudentList = () => {
 
   useEffect(() => {
     fetchStudents();
+    // Students added, edited or removed elsewhere show up without a reload
+    return subscribeToChanges({ types: ['student'] }, (change) => {
+      if (change.action === 'RELOAD') {
+        fetchStudents();
+      } else if (change.action === 'DELETED') {
+        setStudents(current => current.filter(s => s.id !== change.id));
+      } else {
+        setStudents(current => current.some(s => s.id === change.id)
+          ? current.map(s => (s.id === change.id ? { ...s, ...change.data } : s))
+          : [...current, change.data]);
+      }
+    }, () => fetchStudents());
   }, []);
 
   useEffect(() => {
@@ -48,7 +61,7 @@ const StudentList = () => {
     if (window.confirm('Are you sure you want to delete this student?')) {
       try {
         await studentApi.delete(id);
-        fetchStudents();
+        setStudents(current => current.filter(s => s.id !== id));
       } catch (err) {
         setError('Error deleting student');
         console.error(err);
@@ -139,7 +152,6 @@ const StudentList = () => {
         show={showEnrollmentModal}
         onHide={() => setShowEnrollmentModal(false)}
         student={selectedStudent}
-        onEnrollmentUpdate={fetchStudents}
       />
     </div>
   );
@@ -1,6 +1,6 @@
 import React, { useState } from 'react';
 import { Link } from 'react-router-dom';
-import { studentApi, gradeApi } from '../services/api';
+import { studentApi } from '../services/api';
 
 const StudentPortal = () => {
   const [studentId, setStudentId] = useState('');
@@ -22,32 +22,23 @@ const StudentPortal = () => {
     setError('');
 
     try {
-      const studentsResponse = await studentApi.getAll();
-      const foundStudent = studentsResponse.data.find(
-        s => s.studentId.toLowerCase() === studentId.trim().toLowerCase()
-      );
-
-      if (!foundStudent) {
-        setError(`No student found with ID: ${studentId}. Please check your Student ID and try again.`);
-        setStudent(null);
-        setGrades([]);
-        setGpa(0);
-        return;
-      }
-
-      const [gradesResponse, gpaResponse] = await Promise.all([
-        gradeApi.getByStudent(foundStudent.id),
-        gradeApi.getStudentGPA(foundStudent.id)
-      ]);
-
-      setStudent(foundStudent);
-      setGrades(gradesResponse.data);
-      setGpa(gpaResponse.data);
+      // Student numbers are stored upper case (e.g. STU001)
+      const response = await studentApi.getPortal(studentId.trim().toUpperCase());
+      setStudent(response.data.student);
+      setGrades(response.data.grades);
+      setGpa(response.data.gpa);
       setError('');
 
     } catch (err) {
-      console.error('Error searching student:', err);
-      setError('Error searching for student. Please try again.');
+      if (err.response && err.response.status === 404) {
+        setError(`No student found with ID: ${studentId}. Please check your Student ID and try again.`);
+      } else {
+        console.error('Error searching student:', err);
+        setError('Error searching for student. Please try again.');
+      }
+      setStudent(null);
+      setGrades([]);
+      setGpa(0);
     } finally {
       setLoading(false);
     }
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { gradeApi, studentApi } from '../services/api';
+import { studentApi } from '../services/api';
 
 const StudentTranscript = () => {
   const [students, setStudents] = useState([]);
@@ -22,15 +22,14 @@ const StudentTranscript = () => {
   };
 
   const fetchStudentGrades = async (studentId) => {
+    const student = students.find(s => s.id.toString() === studentId.toString());
+    if (!student) return;
+
     setLoading(true);
     try {
-      const [gradesResponse, gpaResponse] = await Promise.all([
-        gradeApi.getByStudent(studentId),
-        gradeApi.getStudentGPA(studentId)
-      ]);
-      
-      setGrades(gradesResponse.data);
-      setGpa(gpaResponse.data);
+      const response = await studentApi.getPortal(student.studentId);
+      setGrades(response.data.grades);
+      setGpa(response.data.gpa);
     } catch (error) {
       console.error('Error fetching student grades:', error);
     } finally {
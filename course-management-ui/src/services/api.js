@@ -10,9 +10,39 @@ const api = axios.create({
   },
 });
 
+// After a save the API answers with X-Read-Primary-Until; sending it back keeps
+// the next reads on the primary database, so they show the save
+let readPrimaryUntil;
+
+api.interceptors.response.use((response) => {
+  readPrimaryUntil = response.headers['x-read-primary-until'] || readPrimaryUntil;
+  return response;
+});
+
+api.interceptors.request.use((config) => {
+  if (readPrimaryUntil) config.headers['X-Read-Primary-Until'] = readPrimaryUntil;
+  return config;
+});
+
+// List endpoints return one page at a time (keyset pagination); follow the
+// X-Next-Cursor header until the last page so callers get the whole list
+const PAGE_SIZE = 1000;
+
+const getAllPages = async (url) => {
+  const rows = [];
+  let cursor;
+  let response;
+  do {
+    response = await api.get(url, { params: { size: PAGE_SIZE, cursor } });
+    rows.push(...response.data);
+    cursor = response.headers['x-next-cursor'];
+  } while (cursor);
+  return { ...response, data: rows };
+};
+
 // Course API calls
 export const courseApi = {
-  getAll: () => api.get('/courses'),
+  getAll: () => getAllPages('/courses'),
   getById: (id) => api.get(`/courses/${id}`),
   create: (course) => api.post('/courses', course),
   update: (id, course) => api.put(`/courses/${id}`, course),
@@ -23,25 +53,49 @@ export const courseApi = {
 
 // Student API calls
 export const studentApi = {
-  getAll: () => api.get('/students'),
+  getAll: () => getAllPages('/students'),
   getById: (id) => api.get(`/students/${id}`),
   create: (student) => api.post('/students', student),
   update: (id, student) => api.put(`/students/${id}`, student),
   delete: (id) => api.delete(`/students/${id}`),
   enroll: (studentId, courseId) => api.post(`/students/${studentId}/enroll/${courseId}`),
   unenroll: (studentId, courseId) => api.delete(`/students/${studentId}/unenroll/${courseId}`),
-  getCourses: (id) => api.get(`/students/${id}/courses`)
+  getCourses: (id) => api.get(`/students/${id}/courses`),
+  getPortal: (studentId) => api.get(`/students/by-number/${encodeURIComponent(studentId)}/portal`)
 };
 
 // Grade API calls
 export const gradeApi = {
-  getAll: () => api.get('/grades'),
+  getAll: () => getAllPages('/grades'),
   getByStudent: (studentId) => api.get(`/grades/student/${studentId}`),
-  getByCourse: (courseId) => api.get(`/grades/course/${courseId}`),
+  getByCourse: (courseId, fields) => api.get(`/grades/course/${courseId}`, { params: { fields } }),
   getStudentGPA: (studentId) => api.get(`/grades/student/${studentId}/gpa`),
   create: (grade) => api.post('/grades', grade),
   update: (id, grade) => api.put(`/grades/${id}`, grade),
   delete: (id) => api.delete(`/grades/${id}`)
 };
 
+// Grading scale API calls
+export const gradingScaleApi = {
+  getAll: () => api.get('/grading-scales'),
+  getForCourse: (courseId) => api.get(`/grading-scales/course/${courseId}`),
+  create: (scale) => api.post('/grading-scales', scale),
+  update: (id, scale) => api.put(`/grading-scales/${id}`, scale),
+  makeDefault: (id) => api.put(`/grading-scales/${id}/default`),
+  regrade: (courseId) => api.post('/grading-scales/regrades', null, { params: { courseId } }),
+  getRegrade: (jobId) => api.get(`/grading-scales/regrades/${jobId}`)
+};
+
+// Search API calls
+export const searchApi = {
+  courses: (q, limit = 20) => api.get('/search/courses', { params: { q, limit } }),
+  students: (q, limit = 20) => api.get('/search/students', { params: { q, limit } }),
+  suggest: (q, limit = 8) => api.get('/search/suggest', { params: { q, limit } })
+};
+
+// Stats API calls
+export const statsApi = {
+  getDashboard: (recent = 5) => api.get(`/stats/dashboard?recent=${recent}`)
+};
+
 export default api;
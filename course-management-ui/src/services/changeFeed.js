@@ -0,0 +1,23 @@
+const API_BASE_URL =
+  process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+
+const TYPES = ['course', 'student', 'grade', 'enrollment'];
+
+// Live changes from /api/changes/stream. The browser reconnects on its own
+// and resumes from the last event it saw; a "reset" event means changes were
+// missed and lists should be refetched. Returns a function that unsubscribes.
+export const subscribeToChanges = ({ types = [], courseId, studentId } = {}, onChange, onReset) => {
+  const params = new URLSearchParams();
+  if (types.length > 0) params.set('types', types.join(','));
+  if (courseId) params.set('courseId', courseId);
+  if (studentId) params.set('studentId', studentId);
+
+  const source = new EventSource(`${API_BASE_URL}/changes/stream?${params}`);
+  const eventNames = types.length > 0 ? types.map(type => type.toLowerCase()) : TYPES;
+  eventNames.forEach(name =>
+    source.addEventListener(name, (event) => onChange(JSON.parse(event.data)))
+  );
+  if (onReset) source.addEventListener('reset', onReset);
+
+  return () => source.close();
+};
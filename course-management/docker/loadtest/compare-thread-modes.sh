@@ -0,0 +1,81 @@
+#!/bin/bash
+# Load comparison of the two request-execution modes: platform threads (Java 17,
+# prod profile) and virtual threads (Java 21, prod,virtual-threads profiles).
+# Each mode is built and started with docker compose, seeded with a small data
+# set, warmed up, then loaded with `hey` at each concurrency level against a
+# read endpoint that does blocking JDBC (the student portal) and a write
+# endpoint (grade upsert). Prints throughput and p99 latency per mode.
+# Admission control is turned off: all of the load comes from one address and
+# would otherwise be shed by the per-client limits, measuring 429s instead.
+#
+# Needs docker compose and hey (https://github.com/rakyll/hey) on the PATH.
+# Usage: docker/loadtest/compare-thread-modes.sh [duration] [concurrency levels...]
+#   e.g. docker/loadtest/compare-thread-modes.sh 60s 200 1000 2000
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+DURATION=${1:-60s}
+shift || true
+LEVELS=(${@:-200 1000 2000})
+BASE=http://localhost:8080/api
+RESULTS=$(mktemp)
+
+command -v hey >/dev/null || { echo "hey not found: go install github.com/rakyll/hey@latest" >&2; exit 1; }
+
+start_mode() {
+    docker compose down -v >/dev/null 2>&1 || true
+    JAVA_VERSION=$1 MAVEN_PROFILES=$2 SPRING_PROFILES_ACTIVE=$3 APP_ADMISSION_ENABLED=false \
+        docker compose up -d --build db db-replica app
+    for _ in $(seq 1 120); do
+        curl -sf "$BASE/courses" >/dev/null && return 0
+        sleep 2
+    done
+    echo "app did not come up" >&2
+    exit 1
+}
+
+seed() {
+    COURSE_ID=$(curl -sf -H 'Content-Type: application/json' -d \
+        '{"code":"LOAD101","title":"Load Testing","description":"Benchmark course","credits":3}' \
+        "$BASE/courses" | sed -E 's/^\{"id":([0-9]+).*/\1/')
+    STUDENT_ID=$(curl -sf -H 'Content-Type: application/json' -d \
+        '{"firstName":"Load","lastName":"Tester","email":"load.tester@university.edu","studentId":"LOAD001"}' \
+        "$BASE/students" | sed -E 's/^\{"id":([0-9]+).*/\1/')
+    curl -sf -X POST "$BASE/students/$STUDENT_ID/enroll/$COURSE_ID" >/dev/null
+    GRADE_BODY="{\"studentId\":$STUDENT_ID,\"courseId\":$COURSE_ID,\"score\":72.5,\"remarks\":\"load\"}"
+}
+
+# hey's summary: "Requests/sec: N" and the "99% in N secs" latency line
+run() {
+    local mode=$1 name=$2 concurrency=$3
+    shift 3
+    local out
+    out=$(hey -z "$DURATION" -c "$concurrency" "$@")
+    local rps p99 errors
+    rps=$(echo "$out" | awk '/Requests\/sec/ {print $2}')
+    p99=$(echo "$out" | awk '/ 99% in/ {printf "%.0f", $3 * 1000}')
+    errors=$(echo "$out" | awk '/\[[0-9]+\]/ && $1 !~ /\[200\]|\[201\]/ {sum += $2} END {print sum + 0}')
+    printf '%-16s %-8s %11s %12s %10s %8s\n' "$mode" "$name" "$concurrency" "$rps" "$p99" "$errors" | tee -a "$RESULTS"
+}
+
+measure() {
+    local mode=$1
+    seed
+    hey -z 15s -c 50 "$BASE/students/by-number/LOAD001/portal" >/dev/null   # warm-up (JIT, pools, caches)
+    for c in "${LEVELS[@]}"; do
+        run "$mode" portal "$c" "$BASE/students/by-number/LOAD001/portal"
+        run "$mode" grade "$c" -m POST -T application/json -d "$GRADE_BODY" "$BASE/grades"
+    done
+}
+
+printf '%-16s %-8s %11s %12s %10s %8s\n' mode endpoint concurrency "req/s" "p99 (ms)" "non-2xx" | tee "$RESULTS"
+
+start_mode 17 "" prod
+measure platform
+start_mode 21 virtual-threads prod,virtual-threads
+measure virtual
+
+docker compose down -v >/dev/null
+echo
+echo "Results saved in $RESULTS"
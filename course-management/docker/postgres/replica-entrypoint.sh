@@ -0,0 +1,15 @@
+#!/bin/bash
+# Hot standby of the "db" service: clones the primary on first start, then
+# follows it by streaming replication.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_basebackup --host=db --username=replicator --pgdata="$PGDATA" \
+            --wal-method=stream --write-recovery-conf --progress; do
+        echo "Waiting for the primary to accept replication connections..."
+        sleep 2
+    done
+    chmod 700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
@@ -0,0 +1,85 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running per-student totals behind the GPA and credit figures, kept in step
+ * with the student's grades by {@link AcademicSummaryService}.
+ */
+@Entity
+@Table(name = "academic_summaries")
+public class AcademicSummary {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(nullable = false)
+    private Double gradePointSum = 0.0; // sum of grade point value x credits
+
+    @Column(nullable = false)
+    private Integer attemptedCredits = 0;
+
+    @Column(nullable = false)
+    private Integer passedCredits = 0;
+
+    @Column(nullable = false)
+    private Integer completedCredits = 0;
+
+    @Column(nullable = false)
+    private Double gpa = 0.0;
+
+    private LocalDateTime updatedAt;
+
+
+    public AcademicSummary() {}
+
+    public AcademicSummary(Long studentId) {
+        this.studentId = studentId;
+    }
+
+
+    void apply(double gradePoints, int attempted, int passed, int completed) {
+        this.gradePointSum += gradePoints;
+        this.attemptedCredits += attempted;
+        this.passedCredits += passed;
+        this.completedCredits += completed;
+        refresh();
+    }
+
+    void reset(double gradePoints, int attempted, int passed, int completed) {
+        this.gradePointSum = gradePoints;
+        this.attemptedCredits = attempted;
+        this.passedCredits = passed;
+        this.completedCredits = completed;
+        refresh();
+    }
+
+    private void refresh() {
+        this.gpa = attemptedCredits > 0 ? gradePointSum / attemptedCredits : 0.0;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Double getGradePointSum() { return gradePointSum; }
+    public void setGradePointSum(Double gradePointSum) { this.gradePointSum = gradePointSum; }
+
+    public Integer getAttemptedCredits() { return attemptedCredits; }
+    public void setAttemptedCredits(Integer attemptedCredits) { this.attemptedCredits = attemptedCredits; }
+
+    public Integer getPassedCredits() { return passedCredits; }
+    public void setPassedCredits(Integer passedCredits) { this.passedCredits = passedCredits; }
+
+    public Integer getCompletedCredits() { return completedCredits; }
+    public void setCompletedCredits(Integer completedCredits) { this.completedCredits = completedCredits; }
+
+    public Double getGpa() { return gpa; }
+    public void setGpa(Double gpa) { this.gpa = gpa; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,33 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AcademicSummaryRepository extends JpaRepository<AcademicSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AcademicSummary a WHERE a.studentId = :studentId")
+    Optional<AcademicSummary> findForUpdate(@Param("studentId") Long studentId);
+
+    // Locks in id order so concurrent recomputes cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AcademicSummary a WHERE a.studentId IN :studentIds ORDER BY a.studentId")
+    List<AcademicSummary> findAllForUpdate(@Param("studentIds") Collection<Long> studentIds);
+
+    @Query("SELECT a FROM AcademicSummary a " +
+            "WHERE a.studentId = (SELECT s.id FROM Student s WHERE s.studentId = :studentId)")
+    Optional<AcademicSummary> findByStudentNumber(@Param("studentId") String studentId);
+
+    @Modifying
+    @Query("DELETE FROM AcademicSummary a WHERE a.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+}
@@ -0,0 +1,187 @@
+package com.university.coursemanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link AcademicSummary} rows in step with grades. Single-grade writes
+ * apply a delta to the locked summary row; set-based writes (batch uploads,
+ * course credit changes) recompute the affected students in one grouped
+ * query, adding the totals of the student's archived terms
+ * ({@link GradeArchive}). {@link #rebuildAll()} repairs any drift.
+ */
+@Service
+public class AcademicSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AcademicSummaryService.class);
+    private static final int REBUILD_CHUNK = 1000;
+
+    @Autowired
+    private AcademicSummaryRepository summaryRepository;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Value("${app.academic-summary.rebuild-on-startup:false}")
+    private boolean rebuildOnStartupEnabled;
+
+
+    @Transactional(readOnly = true)
+    public AcademicSummary getSummary(Long studentId) {
+        return summaryRepository.findById(studentId).orElseGet(() -> new AcademicSummary(studentId));
+    }
+
+    /**
+     * Moves a student's totals from one grade outcome to another. Pass null
+     * for the old values on create and for the new values on delete.
+     */
+    @Transactional
+    public void gradeChanged(Long studentId, Integer credits,
+                             Double oldGradePoints, String oldStatus,
+                             Double newGradePoints, String newStatus) {
+        AcademicSummary summary = summaryRepository.findForUpdate(studentId).orElse(null);
+        if (summary == null) {
+            // First grade for this student (or summary not built yet): create the row and derive from scratch
+            recompute(List.of(studentId));
+            return;
+        }
+
+        int c = credits != null ? credits : 0;
+        double gradePoints = 0;
+        int attempted = 0, passed = 0, completed = 0;
+        if (oldGradePoints != null) {
+            gradePoints -= oldGradePoints * c;
+            attempted -= c;
+            passed -= "PASS".equals(oldStatus) ? c : 0;
+            completed -= isCompleted(oldStatus) ? c : 0;
+        }
+        if (newGradePoints != null) {
+            gradePoints += newGradePoints * c;
+            attempted += c;
+            passed += "PASS".equals(newStatus) ? c : 0;
+            completed += isCompleted(newStatus) ? c : 0;
+        }
+        summary.apply(gradePoints, attempted, passed, completed);
+    }
+
+    /**
+     * Recomputes the given students' totals from their grades, live and archived.
+     */
+    @Transactional
+    public void recompute(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) return;
+
+        insertMissing(studentIds);
+        Map<Long, AcademicSummary> summaries = new HashMap<>();
+        for (AcademicSummary summary : summaryRepository.findAllForUpdate(studentIds)) {
+            summary.reset(0, 0, 0, 0);
+            summaries.put(summary.getStudentId(), summary);
+        }
+        List<Object[]> totals = new ArrayList<>(gradeRepository.summarizeByStudentIds(studentIds));
+        totals.addAll(gradeArchive.archivedTotals(studentIds));
+        for (Object[] row : totals) {
+            summaries.get((Long) row[0]).apply(((Number) row[1]).doubleValue(), ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+        }
+        summaryRepository.saveAll(summaries.values());
+    }
+
+    /**
+     * Recomputes every student holding a grade in the course, e.g. after its
+     * credits change.
+     */
+    @Transactional
+    public void recomputeForCourse(Long courseId) {
+        recompute(gradeRepository.findStudentIdsByCourseId(courseId));
+    }
+
+    @Transactional
+    public void studentDeleted(Long studentId) {
+        summaryRepository.deleteByStudentId(studentId);
+        gradeArchive.studentDeleted(studentId);
+    }
+
+    /**
+     * Drops a deleted course's archived grades from its students' totals;
+     * its live grades are deleted (and recomputed) by the caller.
+     */
+    @Transactional
+    public void courseDeleted(Long courseId) {
+        recompute(gradeArchive.courseDeleted(courseId));
+    }
+
+    @Scheduled(cron = "${app.academic-summary.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Rebuilds every summary in chunks of students, one transaction per chunk.
+     */
+    public int rebuildAll() {
+        long afterId = 0;
+        int rebuilt = 0;
+        while (true) {
+            List<Long> ids = studentRepository.findIdsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK));
+            if (ids.isEmpty()) break;
+            transactionTemplate.executeWithoutResult(status -> recompute(ids));
+            rebuilt += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Rebuilt academic summaries for {} students", rebuilt);
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartupEnabled) rebuildAll();
+    }
+
+    // Empty rows for students without a summary yet, so there is always a row to lock.
+    // Two first grades for one student would otherwise both insert it; here the
+    // second insert waits for the first and then does nothing.
+    private void insertMissing(Collection<Long> studentIds) {
+        String sql = databaseInfo.isPostgres()
+                ? "INSERT INTO academic_summaries (student_id, grade_point_sum, attempted_credits, passed_credits, " +
+                  "completed_credits, gpa) VALUES (?, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING"
+                : "INSERT INTO academic_summaries (student_id, grade_point_sum, attempted_credits, passed_credits, " +
+                  "completed_credits, gpa) VALUES (?, 0, 0, 0, 0, 0) ON DUPLICATE KEY UPDATE student_id = student_id";
+        List<Object[]> args = studentIds.stream().sorted().distinct().map(id -> new Object[]{id}).toList();
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private static boolean isCompleted(String status) {
+        return "PASS".equals(status) || "COMPLETE".equals(status);
+    }
+}
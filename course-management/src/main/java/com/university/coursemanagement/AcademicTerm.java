@@ -0,0 +1,76 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * An academic term: a date range that grades and enrollments belong to.
+ * Terms are OPEN while grades are being given, CLOSED once final, and
+ * ARCHIVED once their grades have been moved out of the grades table into
+ * an archive file. Immutable; {@link AcademicTerms} holds the current set.
+ */
+public class AcademicTerm {
+
+    public enum Status { OPEN, CLOSED, ARCHIVING, ARCHIVED }
+
+    private final Long id;
+    private final String code;
+    private final String name;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Status status;
+    private final LocalDateTime closedAt;
+    private final LocalDateTime archivedAt;
+    private final String archiveFile;
+    private final Integer archivedGrades;
+
+    public AcademicTerm(Long id, String code, String name, LocalDate startDate, LocalDate endDate, Status status,
+                        LocalDateTime closedAt, LocalDateTime archivedAt, String archiveFile, Integer archivedGrades) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.closedAt = closedAt;
+        this.archivedAt = archivedAt;
+        this.archiveFile = archiveFile;
+        this.archivedGrades = archivedGrades;
+    }
+
+    /**
+     * The seasonal term a date falls in when none was set up for it:
+     * Spring (January to May), Summer (June to August) or Fall (September
+     * to December). The same rule seeded the terms of existing grades.
+     */
+    static AcademicTerm seasonOf(LocalDate date) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        String season = month <= 5 ? "SPRING" : month <= 8 ? "SUMMER" : "FALL";
+        LocalDate start = LocalDate.of(year, month <= 5 ? 1 : month <= 8 ? 6 : 9, 1);
+        LocalDate end = LocalDate.of(year, month <= 5 ? 5 : month <= 8 ? 8 : 12, 31);
+        String name = season.charAt(0) + season.substring(1).toLowerCase(Locale.ROOT) + " " + year;
+        return new AcademicTerm(null, year + "-" + season, name, start, end, Status.OPEN, null, null, null, null);
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return !start.isAfter(endDate) && !end.isBefore(startDate);
+    }
+
+
+    public Long getId() { return id; }
+    public String getCode() { return code; }
+    public String getName() { return name; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public Status getStatus() { return status; }
+    public LocalDateTime getClosedAt() { return closedAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public String getArchiveFile() { return archiveFile; }
+    public Integer getArchivedGrades() { return archivedGrades; }
+}
@@ -0,0 +1,111 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/terms")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AcademicTermController {
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+
+    @GetMapping
+    public ResponseEntity<List<AcademicTerm>> getAllTerms() {
+        return ResponseEntity.ok(academicTerms.getAll());
+    }
+
+
+    // The term new grades and enrollments go into
+    @GetMapping("/current")
+    public ResponseEntity<AcademicTerm> getCurrentTerm() {
+        return ResponseEntity.ok(academicTerms.current());
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AcademicTerm> getTerm(@PathVariable Long id) {
+        AcademicTerm term = academicTerms.get(id);
+        return term != null ? ResponseEntity.ok(term) : ResponseEntity.notFound().build();
+    }
+
+
+    @PostMapping
+    public ResponseEntity<?> createTerm(@RequestBody TermRequest request) {
+        if (request.getCode() == null || request.getCode().isBlank() || request.getName() == null
+                || request.getName().isBlank() || request.getStartDate() == null || request.getEndDate() == null) {
+            return ResponseEntity.badRequest().body("Code, name, start date and end date are required");
+        }
+        if (academicTerms.codeTaken(request.getCode())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A term with this code already exists");
+        }
+        try {
+            Long id = academicTerms.create(request.getCode(), request.getName(), request.getStartDate(),
+                    request.getEndDate());
+            return ResponseEntity.status(HttpStatus.CREATED).body(academicTerms.get(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    // Grades become final; also puts back a term whose archiving never finished
+    @PostMapping("/{id}/close")
+    public ResponseEntity<?> closeTerm(@PathVariable Long id) {
+        if (academicTerms.get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!academicTerms.close(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Only open terms can be closed");
+        }
+        return ResponseEntity.ok(academicTerms.get(id));
+    }
+
+
+    // Moves a closed term's grades to the archive in the background
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<?> archiveTerm(@PathVariable Long id) {
+        if (academicTerms.get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            if (!gradeArchive.start(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Only closed terms can be archived");
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        return ResponseEntity.accepted().body(academicTerms.get(id));
+    }
+
+
+    public static class TermRequest {
+        private String code;
+        private String name;
+        private LocalDate startDate;
+        private LocalDate endDate;
+
+
+        public String getCode() { return code; }
+        public void setCode(String code) { this.code = code; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+        public LocalDate getEndDate() { return endDate; }
+        public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    }
+}
@@ -0,0 +1,281 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+/**
+ * The academic terms in the database, loaded at startup and reloaded as a
+ * whole after every change, here and (through the
+ * {@link CacheInvalidationBus}) on the other nodes. New grades and
+ * enrollments go into the term today falls in.
+ * <p>
+ * Terms are never created on the write path: on Postgres a term comes with
+ * a grades partition, and creating one locks the whole grades table. The
+ * seasonal term for today and the one after it are created at startup and
+ * every night instead, so the next term exists months before its first
+ * grade. Open terms close themselves {@code app.terms.close-after} their
+ * end date.
+ */
+@Service
+public class AcademicTerms {
+
+    private static final Logger log = LoggerFactory.getLogger(AcademicTerms.class);
+
+    private static final String SELECT_TERMS =
+            "SELECT id, code, name, start_date, end_date, status, closed_at, archived_at, archive_file, archived_grades " +
+            "FROM academic_terms ORDER BY start_date";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${app.terms.close-after:P30D}")
+    private Period closeAfter;
+
+    private volatile List<AcademicTerm> terms = List.of();
+
+
+    @PostConstruct
+    void init() {
+        reload();
+        ensureUpcoming();
+    }
+
+    @Scheduled(cron = "${app.terms.maintenance-cron:0 15 3 * * *}")
+    void scheduledMaintenance() {
+        try {
+            reload();
+            ensureUpcoming();
+            closeEnded();
+        } catch (RuntimeException e) {
+            log.warn("Academic term maintenance failed; will retry", e);
+        }
+    }
+
+    void reload() {
+        terms = List.copyOf(jdbcTemplate.query(SELECT_TERMS, (rs, i) -> toTerm(rs)));
+    }
+
+    /**
+     * All terms, oldest first.
+     */
+    public List<AcademicTerm> getAll() {
+        return terms;
+    }
+
+    public AcademicTerm get(Long id) {
+        return terms.stream().filter(term -> term.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    /**
+     * Ids of the open terms: the current one, the next, and any that ended
+     * less than close-after ago. Course rosters show these by default, so
+     * on Postgres they read only the hot partitions.
+     */
+    public List<Long> openIds() {
+        return terms.stream().filter(term -> term.getStatus() == AcademicTerm.Status.OPEN)
+                .map(AcademicTerm::getId).toList();
+    }
+
+    /**
+     * The term new grades and enrollments belong to.
+     */
+    public AcademicTerm current() {
+        return forDate(LocalDate.now());
+    }
+
+    /**
+     * The term the date falls in; in a gap between terms, the last one to
+     * have started before it.
+     */
+    public AcademicTerm forDate(LocalDate date) {
+        List<AcademicTerm> all = terms;
+        AcademicTerm latest = null;
+        for (AcademicTerm term : all) {
+            if (term.contains(date)) return term;
+            if (!term.getStartDate().isAfter(date)) latest = term;
+        }
+        if (latest != null) return latest;
+        if (all.isEmpty()) throw new IllegalStateException("No academic terms");
+        return all.get(0);
+    }
+
+    /**
+     * Stores a new term, with its grades partition on Postgres, and returns
+     * its id. Throws {@link IllegalArgumentException} when the dates are
+     * out of order or overlap another term.
+     */
+    @Transactional
+    public Long create(String code, String name, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("The term must start before it ends");
+        }
+        Integer overlapping = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM academic_terms WHERE start_date <= ? AND end_date >= ?", Integer.class,
+                Date.valueOf(endDate), Date.valueOf(startDate));
+        if (overlapping != null && overlapping > 0) {
+            throw new IllegalArgumentException("The term overlaps another term");
+        }
+        jdbcTemplate.update("INSERT INTO academic_terms (code, name, start_date, end_date, status) VALUES (?, ?, ?, ?, ?)",
+                code, name, Date.valueOf(startDate), Date.valueOf(endDate), AcademicTerm.Status.OPEN.name());
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM academic_terms WHERE code = ?", Long.class, code);
+        if (databaseInfo.isPostgres()) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionOf(id) + " PARTITION OF grades FOR VALUES IN (" + id + ")");
+        }
+        reloadAfterCommit();
+        return id;
+    }
+
+    public boolean codeTaken(String code) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM academic_terms WHERE code = ?",
+                Integer.class, code);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Closes an open term, or puts back a term whose archiving was cut
+     * short by a crash; its grades stay where they are.
+     */
+    @Transactional
+    public boolean close(Long id) {
+        int rows = jdbcTemplate.update("UPDATE academic_terms SET status = ?, closed_at = COALESCE(closed_at, ?) " +
+                        "WHERE id = ? AND status IN (?, ?)", AcademicTerm.Status.CLOSED.name(),
+                Timestamp.valueOf(LocalDateTime.now()), id, AcademicTerm.Status.OPEN.name(),
+                AcademicTerm.Status.ARCHIVING.name());
+        if (rows > 0) {
+            // Default rosters leave the term's grades out from now on
+            tableVersions.changed(TableVersions.Table.GRADES);
+            reloadAfterCommit();
+        }
+        return rows > 0;
+    }
+
+    /**
+     * Claims a closed term for archiving; false if it is not closed (or
+     * another job claimed it first).
+     */
+    @Transactional
+    public boolean startArchiving(Long id) {
+        return moveStatus(id, AcademicTerm.Status.CLOSED, AcademicTerm.Status.ARCHIVING);
+    }
+
+    @Transactional
+    public boolean archivingFailed(Long id) {
+        return moveStatus(id, AcademicTerm.Status.ARCHIVING, AcademicTerm.Status.CLOSED);
+    }
+
+    /**
+     * Marks a term being archived as archived. Call in the transaction that
+     * removes its grades; false if the term is no longer being archived.
+     */
+    public boolean archived(Long id, String archiveFile, int grades) {
+        int rows = jdbcTemplate.update("UPDATE academic_terms SET status = ?, archived_at = ?, archive_file = ?, " +
+                        "archived_grades = ? WHERE id = ? AND status = ?", AcademicTerm.Status.ARCHIVED.name(),
+                Timestamp.valueOf(LocalDateTime.now()), archiveFile, grades, id, AcademicTerm.Status.ARCHIVING.name());
+        if (rows > 0) reloadAfterCommit();
+        return rows > 0;
+    }
+
+    // Grades partition of a term on Postgres
+    static String partitionOf(Long termId) {
+        return "grades_term_" + termId;
+    }
+
+    private boolean moveStatus(Long id, AcademicTerm.Status from, AcademicTerm.Status to) {
+        int rows = jdbcTemplate.update("UPDATE academic_terms SET status = ? WHERE id = ? AND status = ?",
+                to.name(), id, from.name());
+        if (rows > 0) reloadAfterCommit();
+        return rows > 0;
+    }
+
+    // Today's term and the next season's, unless terms set up by hand already cover them
+    private void ensureUpcoming() {
+        AcademicTerm now = AcademicTerm.seasonOf(LocalDate.now());
+        ensure(now);
+        ensure(AcademicTerm.seasonOf(now.getEndDate().plusDays(1)));
+    }
+
+    private void ensure(AcademicTerm season) {
+        if (terms.stream().anyMatch(term -> term.overlaps(season.getStartDate(), season.getEndDate()))) return;
+        try {
+            // The term and its partition together; create() is not proxied from in here
+            transactionTemplate.execute(status ->
+                    create(season.getCode(), season.getName(), season.getStartDate(), season.getEndDate()));
+            log.info("Created academic term {}", season.getCode());
+        } catch (DuplicateKeyException | IllegalArgumentException e) {
+            // Another node created it first, or a term was set up by hand meanwhile
+            log.debug("Academic term {} not created: {}", season.getCode(), e.getMessage());
+        }
+        reload();
+    }
+
+    private void closeEnded() {
+        int rows = jdbcTemplate.update("UPDATE academic_terms SET status = ?, closed_at = ? WHERE status = ? AND end_date < ?",
+                AcademicTerm.Status.CLOSED.name(), Timestamp.valueOf(LocalDateTime.now()),
+                AcademicTerm.Status.OPEN.name(), Date.valueOf(LocalDate.now().minus(closeAfter)));
+        if (rows > 0) {
+            log.info("Closed {} academic term(s) that ended more than {} ago", rows, closeAfter);
+            tableVersions.changed(TableVersions.Table.GRADES);
+            reload();
+            cacheInvalidationBus.publishAcademicTerms();
+        }
+    }
+
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            cacheInvalidationBus.publishAcademicTerms();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+                cacheInvalidationBus.publishAcademicTerms();
+            }
+        });
+    }
+
+    private static AcademicTerm toTerm(ResultSet rs) throws SQLException {
+        Timestamp closedAt = rs.getTimestamp(7);
+        Timestamp archivedAt = rs.getTimestamp(8);
+        return new AcademicTerm(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getDate(4).toLocalDate(),
+                rs.getDate(5).toLocalDate(), AcademicTerm.Status.valueOf(rs.getString(6)),
+                closedAt != null ? closedAt.toLocalDateTime() : null,
+                archivedAt != null ? archivedAt.toLocalDateTime() : null,
+                rs.getString(9), rs.getObject(10, Integer.class));
+    }
+}
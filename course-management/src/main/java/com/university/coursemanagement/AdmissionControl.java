@@ -0,0 +1,303 @@
+package com.university.coursemanagement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether an API request may start, before it takes a database
+ * connection. Requests are sorted into classes (staff writes, student
+ * reads, bulk work, everything else); each class is a bulkhead with a
+ * concurrency limit of its own, a token bucket for the class as a whole
+ * and one per client. A request over any limit is refused at once, never
+ * queued, so a grade-release rush of student reads fills only its own
+ * bulkhead and staff grade entry keeps its capacity.
+ * <p>
+ * Limits start from {@code app.admission.<class>.*} and can be changed at
+ * runtime through {@code /api/admission}; a change applies to this node
+ * only, until it restarts.
+ */
+@Component
+public class AdmissionControl {
+
+    public enum RequestClass {
+        STAFF_WRITES("staff-writes", new Limits(8, 0, 0, 0, 0)),
+        STUDENT_READS("student-reads", new Limits(12, 400, 800, 10, 30)),
+        BULK("bulk", new Limits(2, 0, 0, 0.2, 3)),
+        GENERAL("general", new Limits(8, 0, 0, 20, 60));
+
+        private final String key;
+        private final Limits defaults;
+
+        RequestClass(String key, Limits defaults) {
+            this.key = key;
+            this.defaults = defaults;
+        }
+
+        public String getKey() { return key; }
+
+        public static RequestClass fromKey(String key) {
+            for (RequestClass requestClass : values()) {
+                if (requestClass.key.equals(key)) return requestClass;
+            }
+            return null;
+        }
+    }
+
+    public enum Reason {
+        CLIENT_RATE, CLASS_RATE, CONCURRENCY;
+
+        public String getKey() { return name().toLowerCase(Locale.ROOT).replace('_', '-'); }
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.client-idle-timeout:PT10M}")
+    private Duration clientIdleTimeout;
+
+    private final Map<RequestClass, Lane> lanes = new EnumMap<>(RequestClass.class);
+    private Cache<String, TokenBucket> clientBuckets;
+
+
+    @PostConstruct
+    void init() {
+        clientBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(clientIdleTimeout)
+                .build();
+        for (RequestClass requestClass : RequestClass.values()) {
+            String prefix = "app.admission." + requestClass.key + ".";
+            Limits defaults = requestClass.defaults;
+            Limits limits = new Limits(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, defaults.maxConcurrent),
+                    environment.getProperty(prefix + "rate", Double.class, defaults.rate),
+                    environment.getProperty(prefix + "burst", Integer.class, defaults.burst),
+                    environment.getProperty(prefix + "client-rate", Double.class, defaults.clientRate),
+                    environment.getProperty(prefix + "client-burst", Integer.class, defaults.clientBurst));
+            limits.validate();
+            Lane lane = new Lane(limits);
+            lanes.put(requestClass, lane);
+
+            Gauge.builder("http.admission.in_flight", lane.inFlight, AtomicInteger::get)
+                    .tag("class", requestClass.key).register(registry);
+            Gauge.builder("http.admission.max_concurrent", lane, l -> l.limits.maxConcurrent)
+                    .tag("class", requestClass.key).register(registry);
+            for (Reason reason : Reason.values()) {
+                lane.rejected.put(reason, Counter.builder("http.admission.rejected")
+                        .description("Requests refused with 429 by admission control")
+                        .tag("class", requestClass.key)
+                        .tag("reason", reason.getKey())
+                        .register(registry));
+            }
+        }
+    }
+
+    /**
+     * The class of a request by method and path (without the context
+     * path), or null for requests admission control leaves alone: CORS
+     * preflights, the change stream (held open for minutes, it would pin a
+     * bulkhead slot) and this component's own endpoint, which must answer
+     * while everything else is being shed.
+     */
+    public RequestClass classify(String method, String path) {
+        if (!enabled || "OPTIONS".equals(method)) return null;
+        if (path.startsWith("/api/admission") || path.equals("/api/changes/stream")) return null;
+        boolean reading = "GET".equals(method) || "HEAD".equals(method);
+
+        if (reading) {
+            if (path.startsWith("/api/grades/student/") || path.startsWith("/api/students/by-number/")
+                    || path.startsWith("/api/rankings/students/") || path.startsWith("/api/exports/students/")
+                    || (path.startsWith("/api/students/") && path.endsWith("/courses"))) {
+                return RequestClass.STUDENT_READS;
+            }
+            if (path.endsWith("/stream") || path.startsWith("/api/exports/") || path.equals("/api/grades/as-of")) {
+                return RequestClass.BULK;
+            }
+            return RequestClass.GENERAL;
+        }
+
+        if (path.startsWith("/api/imports") || path.startsWith("/api/purges") || path.equals("/api/rankings/refresh")
+                || path.equals("/api/grades/summaries/rebuild") || path.equals("/api/grades/restore")
+                || path.startsWith("/api/grading-scales/regrades")
+                || (path.startsWith("/api/terms/") && path.endsWith("/archive"))) {
+            return RequestClass.BULK;
+        }
+        // Enrolling is the student's own write; it competes with the other general traffic
+        if (path.contains("/enroll/") || path.contains("/unenroll/")) return RequestClass.GENERAL;
+        if (path.startsWith("/api/grades") || path.startsWith("/api/courses") || path.startsWith("/api/students")
+                || path.startsWith("/api/grading-scales") || path.startsWith("/api/terms")) {
+            return RequestClass.STAFF_WRITES;
+        }
+        return RequestClass.GENERAL;
+    }
+
+    /**
+     * Admits a request or says why not. An admitted request holds a slot in
+     * its class's bulkhead until {@link #release} is called for it.
+     */
+    public Decision tryAdmit(RequestClass requestClass, String client) {
+        Lane lane = lanes.get(requestClass);
+        Limits limits = lane.limits;
+        long now = System.nanoTime();
+
+        if (limits.clientRate > 0) {
+            TokenBucket bucket = clientBuckets.get(requestClass.key + " " + client, key -> new TokenBucket(now));
+            long wait = bucket.tryTake(now, limits.clientRate, limits.clientBurst);
+            if (wait != TokenBucket.ADMITTED) return lane.reject(Reason.CLIENT_RATE, wait);
+        }
+        long wait = lane.bucket.tryTake(now, limits.rate, limits.burst);
+        if (wait != TokenBucket.ADMITTED) return lane.reject(Reason.CLASS_RATE, wait);
+
+        while (true) {
+            int current = lane.inFlight.get();
+            if (current >= limits.maxConcurrent) return lane.reject(Reason.CONCURRENCY, 0);
+            if (lane.inFlight.compareAndSet(current, current + 1)) return Decision.ADMITTED;
+        }
+    }
+
+    public void release(RequestClass requestClass) {
+        lanes.get(requestClass).inFlight.decrementAndGet();
+    }
+
+    public Limits getLimits(RequestClass requestClass) {
+        return lanes.get(requestClass).limits;
+    }
+
+    /**
+     * Replaces a class's limits. Requests already admitted are not
+     * affected; a lower concurrency limit takes hold as they finish.
+     */
+    public void setLimits(RequestClass requestClass, Limits limits) {
+        limits.validate();
+        lanes.get(requestClass).limits = limits;
+    }
+
+    /** Limits, requests in flight and refusals so far, per class. */
+    public Map<String, Object> describe() {
+        Map<String, Object> classes = new LinkedHashMap<>();
+        lanes.forEach((requestClass, lane) -> {
+            Map<String, Object> rejected = new LinkedHashMap<>();
+            lane.rejected.forEach((reason, counter) ->
+                    rejected.put(reason.getKey(), (long) counter.count()));
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("limits", lane.limits);
+            state.put("inFlight", lane.inFlight.get());
+            state.put("rejected", rejected);
+            classes.put(requestClass.key, state);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("trackedClients", clientBuckets.estimatedSize());
+        result.put("classes", classes);
+        return result;
+    }
+
+
+    /**
+     * Limits of one request class. A rate of 0 turns that token bucket off;
+     * rates are requests per second and may be fractional.
+     */
+    public static class Limits {
+        private int maxConcurrent;
+        private double rate;
+        private int burst;
+        private double clientRate;
+        private int clientBurst;
+
+        public Limits() {}
+
+        public Limits(int maxConcurrent, double rate, int burst, double clientRate, int clientBurst) {
+            this.maxConcurrent = maxConcurrent;
+            this.rate = rate;
+            this.burst = burst;
+            this.clientRate = clientRate;
+            this.clientBurst = clientBurst;
+        }
+
+        /** Throws {@link IllegalArgumentException} for limits that cannot work. */
+        void validate() {
+            if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be at least 1");
+            if (rate < 0 || clientRate < 0) throw new IllegalArgumentException("Rates cannot be negative");
+            if (rate > 0 && burst < 1) throw new IllegalArgumentException("burst must be at least 1 when rate is set");
+            if (clientRate > 0 && clientBurst < 1) {
+                throw new IllegalArgumentException("clientBurst must be at least 1 when clientRate is set");
+            }
+        }
+
+
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+        public double getRate() { return rate; }
+        public void setRate(double rate) { this.rate = rate; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public double getClientRate() { return clientRate; }
+        public void setClientRate(double clientRate) { this.clientRate = clientRate; }
+
+        public int getClientBurst() { return clientBurst; }
+        public void setClientBurst(int clientBurst) { this.clientBurst = clientBurst; }
+    }
+
+
+    public static final class Decision {
+        static final Decision ADMITTED = new Decision(null, 0);
+
+        private final Reason reason;
+        private final long retryAfterSeconds;
+
+        private Decision(Reason reason, long retryAfterSeconds) {
+            this.reason = reason;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAdmitted() { return reason == null; }
+
+        public Reason getReason() { return reason; }
+
+        /** Whole seconds, rounded up and at least 1, for the Retry-After header. */
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+
+
+    private static final class Lane {
+        private volatile Limits limits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final TokenBucket bucket = new TokenBucket(System.nanoTime());
+        private final Map<Reason, Counter> rejected = new EnumMap<>(Reason.class);
+
+        Lane(Limits limits) {
+            this.limits = limits;
+        }
+
+        Decision reject(Reason reason, long waitNanos) {
+            rejected.get(reason).increment();
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            return new Decision(reason, seconds);
+        }
+    }
+}
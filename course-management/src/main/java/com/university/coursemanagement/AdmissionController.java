@@ -0,0 +1,40 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admission")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdmissionController {
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+
+    // Limits, requests in flight and requests refused, per request class
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getAdmission() {
+        return ResponseEntity.ok(admissionControl.describe());
+    }
+
+
+    // Change one class's limits on this node, e.g. tighten student reads during a grade release
+    @PutMapping("/{requestClass}")
+    public ResponseEntity<?> updateLimits(@PathVariable String requestClass,
+                                          @RequestBody AdmissionControl.Limits limits) {
+        AdmissionControl.RequestClass target = AdmissionControl.RequestClass.fromKey(requestClass);
+        if (target == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            admissionControl.setLimits(target, limits);
+            return ResponseEntity.ok(admissionControl.getLimits(target));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.university.coursemanagement;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies {@link AdmissionControl} to every API request: a refused request
+ * gets {@code 429 Too Many Requests} with a {@code Retry-After} straight
+ * away, before it reaches a controller. An admitted request keeps its
+ * bulkhead slot until the response is complete, which for streamed and
+ * other async responses is when the async work ends, not when the request
+ * thread lets go. Clients are told apart by remote address (behind a
+ * proxy, as resolved from {@code X-Forwarded-For}).
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AdmissionControl.RequestClass requestClass = admissionControl.classify(request.getMethod(), path);
+        if (requestClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionControl.Decision decision = admissionControl.tryAdmit(requestClass, request.getRemoteAddr());
+        if (!decision.isAdmitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.getRetryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many " + requestClass.getKey() + " requests ("
+                    + decision.getReason().getKey() + "); retry after " + decision.getRetryAfterSeconds() + " s");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) admissionControl.release(requestClass);
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Completion of async work started here is held back until this thread returns, so the listener is in time
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete(AsyncEvent event) { release.run(); }
+                    @Override public void onTimeout(AsyncEvent event) { release.run(); }
+                    @Override public void onError(AsyncEvent event) { release.run(); }
+                    @Override public void onStartAsync(AsyncEvent event) { }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+}
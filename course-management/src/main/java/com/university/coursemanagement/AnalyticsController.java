@@ -0,0 +1,48 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+
+    private static final int MAX_COURSES = 100;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+
+    // Score histogram, letter-grade and status distribution, mean, median and percentiles for one course
+    @GetMapping("/courses/{courseId}")
+    public ResponseEntity<CourseAnalytics> getCourseAnalytics(@PathVariable Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(courseAnalyticsService.getAnalytics(courseId));
+    }
+
+
+    // Side-by-side comparison: /api/analytics/courses?ids=1,2,3 (unknown ids are left out)
+    @GetMapping("/courses")
+    public ResponseEntity<?> compareCourses(@RequestParam List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.isEmpty() || requested.size() > MAX_COURSES) {
+            return ResponseEntity.badRequest().body("Between 1 and " + MAX_COURSES + " course ids are required");
+        }
+        Set<Long> known = courseRepository.findExistingIds(requested);
+        requested.retainAll(known);
+        Collection<CourseAnalytics> analytics = courseAnalyticsService.getAnalytics(requested).values();
+        return ResponseEntity.ok(analytics);
+    }
+}
@@ -0,0 +1,319 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Carries second-level cache evictions between application instances over
+ * Postgres LISTEN/NOTIFY. Each committed change to a cached entity is
+ * announced on {@value #CHANNEL}; every other node evicts that entity and
+ * the lookup query regions that might point at it. Table versions
+ * ({@link TableVersions}), course analytics evictions and grading scale
+ * and academic term reloads ({@link GradingScales}, {@link AcademicTerms})
+ * travel the same way. A course or student change from another node also
+ * updates the search index here ({@link SearchService}). The listener
+ * keeps one connection of the primary pool for itself and, after any
+ * reconnect, evicts and reloads everything, moves every table to a new
+ * version and catches the search index up, since notifications may have
+ * been missed.
+ * <p>
+ * With read replicas, a node may re-read a row from a replica that has not
+ * replayed the change yet and cache the old state again, so every
+ * invalidation, local or remote, is applied a second time here once the
+ * replica lag limit has passed ({@link ReadReplicas#afterMaxLag}).
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    private static final String ANALYTICS_KIND = "Analytics";
+    private static final String GRADING_SCALES_KIND = "GradingScales";
+    private static final String ACADEMIC_TERMS_KIND = "AcademicTerms";
+    private static final String TABLES_KIND = "Tables";
+    private static final String ALL_IDS = "*";
+    private static final Map<String, Class<?>> ENTITIES = Map.of("Course", Course.class, "Student", Student.class);
+    private static final Map<String, String> LOOKUP_REGIONS = Map.of("Course", "course-lookups", "Student", "student-lookups");
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.cache.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @Autowired
+    @Lazy
+    private GradingScales gradingScales;
+
+    @Autowired
+    @Lazy
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    @Lazy
+    private TableVersions tableVersions;
+
+    @Autowired
+    @Lazy
+    private SearchService searchService;
+
+    private TransactionTemplate notifyTransaction;
+    private volatile boolean running;
+    private Thread listener;
+
+
+    @PostConstruct
+    void start() {
+        notifyTransaction = new TransactionTemplate(transactionManager);
+        notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) return;
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+    }
+
+    /**
+     * Tells the other nodes that an entity changed. Call after commit.
+     */
+    public void publish(Class<?> entityType, Object id) {
+        announce(entityType.getSimpleName(), String.valueOf(id));
+    }
+
+    /**
+     * Evicts the cached lookups for an entity type here and on the other
+     * nodes, e.g. after rows were inserted behind Hibernate's back. Call
+     * after commit.
+     */
+    public void evictLookups(Class<?> entityType) {
+        cache().evictQueryRegion(LOOKUP_REGIONS.get(entityType.getSimpleName()));
+        announce(entityType.getSimpleName(), ALL_IDS);
+    }
+
+    /**
+     * Tells the other nodes to drop a course's cached analytics, or all of
+     * them when {@code courseId} is null. Call after commit.
+     */
+    public void publishAnalytics(Long courseId) {
+        announce(ANALYTICS_KIND, courseId != null ? courseId.toString() : ALL_IDS);
+    }
+
+    /**
+     * Tells the other nodes to reload their grading scales. Call after commit.
+     */
+    public void publishGradingScales() {
+        announce(GRADING_SCALES_KIND, ALL_IDS);
+    }
+
+    /**
+     * Tells the other nodes to reload their academic terms. Call after commit.
+     */
+    public void publishAcademicTerms() {
+        announce(ACADEMIC_TERMS_KIND, ALL_IDS);
+    }
+
+    /**
+     * Tells the other nodes the tables' new version, already applied here.
+     * Call after commit.
+     */
+    public void publishTables(Collection<TableVersions.Table> tables, long version, long modifiedAt) {
+        if (!enabled || tables.isEmpty()) return;
+        String names = tables.stream().map(Enum::name).collect(Collectors.joining(","));
+        send(nodeId + "|" + TABLES_KIND + "|" + names + ":" + version + ":" + modifiedAt);
+    }
+
+    // The local change has already been applied; repeat it once replicas have caught up
+    private void announce(String kind, String argument) {
+        readReplicas.afterMaxLag(() -> applyLocally(kind, argument));
+        if (enabled) send(nodeId + "|" + kind + "|" + argument);
+    }
+
+    private void send(String payload) {
+        try {
+            // Called from afterCommit hooks: NOTIFY needs a transaction of its own to be delivered
+            notifyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) ps -> {
+                        ps.setString(1, CHANNEL);
+                        ps.setString(2, payload);
+                        return ps.execute();
+                    }));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to TTL expiry for this entry
+            log.warn("Could not publish cache invalidation {}", payload, e);
+        }
+    }
+
+    private void listen() {
+        long backoffMillis = 1000;
+        while (running) {
+            // Straight from the primary pool: not through the replica routing, and without
+            // holding one of the virtual-thread mode's concurrency permits for good
+            try (Connection connection = dataSource.unwrap(HikariDataSource.class).getConnection()) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                cache().evictAllRegions();
+                courseAnalyticsService.evictAll();
+                reloadGradingScales();
+                reloadAcademicTerms();
+                tableVersions.resync();
+                searchService.catchUpLater();
+                backoffMillis = 1000;
+                log.info("Listening for cache invalidations on {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(5000);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        apply(notification.getParameter());
+                    }
+                }
+                // Back to the pool without the subscription
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN *");
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Cache invalidation listener lost its connection; retrying in {} ms", backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 60_000);
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) return;
+        if (TABLES_KIND.equals(parts[1])) {
+            // The writer announces again itself once replicas have caught up
+            applyTables(parts[2]);
+            return;
+        }
+        applyRemote(parts[1], parts[2]);
+        readReplicas.afterMaxLag(() -> applyRemote(parts[1], parts[2]));
+    }
+
+    // The search index already follows this node's own writes, so only remote ones re-read it
+    private void applyRemote(String kind, String argument) {
+        applyLocally(kind, argument);
+        if (!ENTITIES.containsKey(kind)) return;
+        try {
+            if (ALL_IDS.equals(argument)) searchService.catchUpLater();
+            else if (ENTITIES.get(kind) == Course.class) searchService.refreshCourse(Long.valueOf(argument));
+            else searchService.refreshStudent(Long.valueOf(argument));
+        } catch (RuntimeException e) {
+            // Searches here miss the change until the next catch-up scan
+            log.warn("Could not update the search index for {} {}", kind, argument, e);
+        }
+    }
+
+    private void applyLocally(String kind, String argument) {
+        if (ANALYTICS_KIND.equals(kind)) {
+            if (ALL_IDS.equals(argument)) courseAnalyticsService.evictAll();
+            else courseAnalyticsService.evict(List.of(Long.valueOf(argument)));
+            return;
+        }
+        if (GRADING_SCALES_KIND.equals(kind)) {
+            reloadGradingScales();
+            return;
+        }
+        if (ACADEMIC_TERMS_KIND.equals(kind)) {
+            reloadAcademicTerms();
+            return;
+        }
+        Class<?> entityType = ENTITIES.get(kind);
+        if (entityType == null) return;
+
+        Cache cache = cache();
+        if (!ALL_IDS.equals(argument)) cache.evictEntityData(entityType, Long.valueOf(argument));
+        cache.evictQueryRegion(LOOKUP_REGIONS.get(kind));
+    }
+
+    // "COURSES,GRADES:version:modifiedAt"
+    private void applyTables(String argument) {
+        String[] parts = argument.split(":");
+        if (parts.length != 3) return;
+        List<TableVersions.Table> tables = Arrays.stream(parts[0].split(","))
+                .map(TableVersions.Table::valueOf).toList();
+        tableVersions.apply(tables, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+    }
+
+    private void reloadGradingScales() {
+        try {
+            gradingScales.reload();
+        } catch (RuntimeException e) {
+            // The periodic reload picks the change up later
+            log.warn("Could not reload grading scales", e);
+        }
+    }
+
+    private void reloadAcademicTerms() {
+        try {
+            academicTerms.reload();
+        } catch (RuntimeException e) {
+            // The nightly maintenance reloads them too
+            log.warn("Could not reload academic terms", e);
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
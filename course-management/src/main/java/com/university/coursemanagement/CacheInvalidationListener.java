@@ -0,0 +1,42 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that announces committed {@link Course} and
+ * {@link Student} changes on the {@link CacheInvalidationBus}.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Runnable publish = () -> {
+            if (entity instanceof Course course) cacheInvalidationBus.publish(Course.class, course.getId());
+            else if (entity instanceof Student student) cacheInvalidationBus.publish(Student.class, student.getId());
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.university.coursemanagement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit and miss counts of the second-level and query cache regions, read
+ * from the Caffeine JCache statistics (monitoring.statistics in
+ * application.conf), which count every region whatever Hibernate's own
+ * statistics are set to. The same counts are exported as cache_* metrics.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheStatsController {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheStatsController.class);
+
+    // Registered by Caffeine for every cache with statistics enabled
+    private static final String STATISTICS_BEANS = "javax.cache:type=CacheStatistics,*";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    void bindMetrics() {
+        CacheManager cacheManager = cacheManager();
+        if (cacheManager == null) return;
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache != null) JCacheMetrics.monitor(meterRegistry, cache);
+        }
+    }
+
+    // Second-level and query cache hit/miss counts and ratios per region
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Object> regions = new TreeMap<>();
+        long hits = 0;
+        long misses = 0;
+        try {
+            for (ObjectName bean : server.queryNames(new ObjectName(STATISTICS_BEANS), null)) {
+                long regionHits = (Long) server.getAttribute(bean, "CacheHits");
+                long regionMisses = (Long) server.getAttribute(bean, "CacheMisses");
+                Map<String, Object> stats = ratio(regionHits, regionMisses);
+                stats.put("puts", server.getAttribute(bean, "CachePuts"));
+                stats.put("evictions", server.getAttribute(bean, "CacheEvictions"));
+                regions.put(bean.getKeyProperty("Cache"), stats);
+                hits += regionHits;
+                misses += regionMisses;
+            }
+        } catch (JMException e) {
+            log.warn("Could not read the cache statistics", e);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", ratio(hits, misses));
+        result.put("regions", regions);
+        return ResponseEntity.ok(result);
+    }
+
+
+    private CacheManager cacheManager() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactory.class)
+                .unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        return regionFactory instanceof JCacheRegionFactory jcache ? jcache.getCacheManager() : null;
+    }
+
+    private static Map<String, Object> ratio(long hits, long misses) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,88 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+
+    // Changes after a cursor: /api/changes?since=42&types=grade,enrollment&courseId=7
+    // Without since, returns no changes and the cursor to start from; 410 once a cursor has expired
+    @GetMapping
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) Long since,
+                                        @RequestParam(defaultValue = "500") int limit,
+                                        @RequestParam(required = false) List<String> types,
+                                        @RequestParam(required = false) Long courseId,
+                                        @RequestParam(required = false) Long studentId) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_LIMIT);
+        }
+        ChangeEvent.Filter filter = filter(types, courseId, studentId);
+        if (filter == null) {
+            return ResponseEntity.badRequest().body("types must be among " + EnumSet.allOf(ChangeEvent.Type.class));
+        }
+        if (since == null) {
+            return ResponseEntity.ok(Map.of("changes", List.of(), "cursor", Long.toString(changeFeed.currentCursor()),
+                    "hasMore", false));
+        }
+
+        ChangeFeed.ChangePage page = changeFeed.changesSince(since, filter, limit);
+        if (page == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body("Cursor " + since + " has expired; reload and start again");
+        }
+        return ResponseEntity.ok(page);
+    }
+
+
+    // Live server-sent events; reconnecting clients resume from Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                    @RequestParam(required = false) Long since,
+                                    @RequestParam(required = false) List<String> types,
+                                    @RequestParam(required = false) Long courseId,
+                                    @RequestParam(required = false) Long studentId) {
+        ChangeEvent.Filter filter = filter(types, courseId, studentId);
+        if (filter == null) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body("types must be among " + EnumSet.allOf(ChangeEvent.Type.class));
+        }
+        SseEmitter emitter = changeFeed.subscribe(lastEventId != null ? lastEventId : since, filter);
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+
+    private static ChangeEvent.Filter filter(List<String> types, Long courseId, Long studentId) {
+        Set<ChangeEvent.Type> selected = EnumSet.noneOf(ChangeEvent.Type.class);
+        if (types != null) {
+            for (String type : types) {
+                try {
+                    selected.add(ChangeEvent.Type.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return new ChangeEvent.Filter(selected, courseId, studentId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.university.coursemanagement;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * One committed change in the feed behind {@code /api/changes}. The payload
+ * is the changed row as it was committed (absent for deletes and for
+ * {@link Action#RELOAD}, which tells clients to refetch after a bulk load).
+ */
+public class ChangeEvent {
+
+    public enum Type { COURSE, STUDENT, GRADE, ENROLLMENT }
+
+    public enum Action { CREATED, UPDATED, DELETED, RELOAD }
+
+    private final long seq;
+    private final Type type;
+    private final Action action;
+    private final Long id;
+    private final Long courseId;
+    private final Long studentId;
+    private final String data;
+    private final LocalDateTime changedAt;
+
+    ChangeEvent(long seq, Type type, Action action, Long id, Long courseId, Long studentId,
+                String data, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.type = type;
+        this.action = action;
+        this.id = id;
+        this.courseId = courseId;
+        this.studentId = studentId;
+        this.data = data;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * The same change, numbered.
+     */
+    ChangeEvent withSeq(long seq) {
+        return new ChangeEvent(seq, type, action, id, courseId, studentId, data, changedAt);
+    }
+
+
+    public long getSeq() { return seq; }
+    public Type getType() { return type; }
+    public Action getAction() { return action; }
+    public Long getId() { return id; }
+    public Long getCourseId() { return courseId; }
+    public Long getStudentId() { return studentId; }
+    @JsonRawValue
+    public String getData() { return data; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+
+    /**
+     * Topic filter: an event matches when its type is one of {@code types}
+     * (all types when empty) and it concerns the given course and student,
+     * where those are set.
+     */
+    public static class Filter {
+        private final Set<Type> types;
+        private final Long courseId;
+        private final Long studentId;
+
+        public Filter(Set<Type> types, Long courseId, Long studentId) {
+            this.types = Set.copyOf(types);
+            this.courseId = courseId;
+            this.studentId = studentId;
+        }
+
+        boolean matches(ChangeEvent event) {
+            return (types.isEmpty() || types.contains(event.type))
+                    && (courseId == null || courseId.equals(event.courseId))
+                    && (studentId == null || studentId.equals(event.studentId));
+        }
+
+        Set<Type> getTypes() { return types; }
+        Long getCourseId() { return courseId; }
+        Long getStudentId() { return studentId; }
+    }
+}
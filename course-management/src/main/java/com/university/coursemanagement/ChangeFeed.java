@@ -0,0 +1,376 @@
+package com.university.coursemanagement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change feed for courses, students, grades and enrollments. Writers
+ * {@link #record} changes; they are numbered and stored in the
+ * {@link ChangeLog} by the writing transaction itself, just before it
+ * commits, so a change is in the feed exactly when its write is in the
+ * database. The log makes the feed resumable from any retained sequence
+ * number and shared by every node.
+ * <p>
+ * One dispatcher thread per node polls the log (woken early by local
+ * commits) and hands new events to the server-sent-event subscribers.
+ * Each subscriber is drained by short tasks on the shared executor, so an
+ * open stream holds no thread, and a client that falls too far behind is
+ * disconnected to resume from its last event id.
+ */
+@Service
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    static final int PAGE_SIZE = 500;
+    private static final Object HEARTBEAT = new Object();
+    private static final ChangeEvent.Filter ALL = new ChangeEvent.Filter(Set.of(), null, null);
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${app.changes.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @Value("${app.changes.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.changes.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    @Value("${app.changes.max-queued-per-client:1000}")
+    private int maxQueued;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile long dispatched = -1;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+
+    @PostConstruct
+    void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatch, "change-feed-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (dispatcher != null) dispatcher.interrupt();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    /**
+     * Adds a change to the feed in the surrounding transaction, or on its
+     * own if there is none.
+     */
+    public void record(ChangeEvent.Type type, ChangeEvent.Action action, Long id, Long courseId, Long studentId,
+                       Map<String, Object> data) {
+        ChangeEvent change = new ChangeEvent(0, type, action, id, courseId, studentId, toJson(data), LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                changeLog.append(List.of(change));
+                wakeUp.release();
+            } catch (RuntimeException e) {
+                // The write is already committed; subscribers miss this change until their next full reload
+                log.warn("Could not record {} change", type, e);
+            }
+            return;
+        }
+
+        // One append per transaction, however many rows it touched. It takes the change_sequence
+        // row lock, so it waits for the end of the transaction; a failed append rolls the write back
+        @SuppressWarnings("unchecked")
+        List<ChangeEvent> pending = (List<ChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ChangeEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Entity changes are recorded by the listener as Hibernate flushes them
+                    EntityManagerHolder holder =
+                            (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+                    if (holder != null) holder.getEntityManager().flush();
+                    changeLog.append(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    // Only the hand-off to live streams waits for the commit
+                    wakeUp.release();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeed.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    /**
+     * Payload of a grade change; shared by the entity listener and the JDBC batch path.
+     */
+    static Map<String, Object> gradeData(Long id, Long studentId, Long courseId, Double score, String letterGrade,
+                                         Double gradePointValue, String status, LocalDate gradeDate, String remarks) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", id);
+        data.put("studentId", studentId);
+        data.put("courseId", courseId);
+        data.put("score", score);
+        data.put("letterGrade", letterGrade);
+        data.put("gradePointValue", gradePointValue);
+        data.put("status", status);
+        data.put("gradeDate", gradeDate);
+        data.put("remarks", remarks);
+        return data;
+    }
+
+    /**
+     * A page of changes after {@code since}, and the cursor to ask for the
+     * next page with. Null if {@code since} is older than the retained log
+     * (or newer than anything handed out), in which case the client has to
+     * reload its lists and start again from a fresh cursor.
+     */
+    public ChangePage changesSince(long since, ChangeEvent.Filter filter, int limit) {
+        long latest = changeLog.lastSeq();
+        if (!isResumable(since, latest)) return null;
+        List<ChangeEvent> changes = changeLog.read(since, latest, filter, limit);
+        boolean hasMore = changes.size() == limit;
+        long cursor = hasMore ? changes.get(changes.size() - 1).getSeq() : latest;
+        return new ChangePage(changes, cursor, hasMore);
+    }
+
+    public long currentCursor() {
+        return changeLog.lastSeq();
+    }
+
+    /**
+     * Opens a live stream of matching changes, starting after {@code since}
+     * (or from now when null). If that point is no longer retained the
+     * stream starts with a {@code reset} event and continues from now.
+     */
+    public SseEmitter subscribe(Long since, ChangeEvent.Filter filter) {
+        long latest = changeLog.lastSeq();
+        boolean reset = since != null && !isResumable(since, latest);
+        Subscriber subscriber = new Subscriber(new SseEmitter(streamTimeout.toMillis()), filter,
+                since == null || reset ? latest : since);
+        subscribers.add(subscriber);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        taskExecutor.execute(() -> subscriber.catchUp(reset));
+        return subscriber.emitter;
+    }
+
+    private boolean isResumable(long since, long latest) {
+        if (since < 0 || since > latest) return false;
+        Long first = changeLog.firstRetainedSeq();
+        // Nothing between since and the oldest kept change may have been purged
+        return first == null ? since == latest : since >= first - 1;
+    }
+
+    // Keeps idle streams open through proxies and finds clients that went away
+    @Scheduled(fixedRateString = "${app.changes.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    @Scheduled(fixedDelayString = "${app.changes.purge-interval:PT1H}")
+    public void purge() {
+        int purged = changeLog.purgeBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) log.info("Purged {} changes older than {}", purged, retention);
+    }
+
+    private String toJson(Map<String, Object> data) {
+        if (data == null) return null;
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Change payload is not serializable", e);
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                if (dispatched < 0) dispatched = changeLog.lastSeq();
+
+                List<ChangeEvent> batch;
+                do {
+                    long latest = changeLog.lastSeq();
+                    batch = latest > dispatched && !subscribers.isEmpty()
+                            ? changeLog.read(dispatched, latest, ALL, PAGE_SIZE)
+                            : List.of();
+                    for (ChangeEvent event : batch) {
+                        for (Subscriber subscriber : subscribers) subscriber.offer(event);
+                    }
+                    // With nobody listening there is nothing to hand out; new subscribers replay from the log
+                    dispatched = batch.isEmpty() ? latest : batch.get(batch.size() - 1).getSeq();
+                } while (batch.size() == PAGE_SIZE);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Change feed dispatch failed; retrying", e);
+            }
+        }
+    }
+
+
+    /**
+     * One open stream. Events queue up here and are written by at most one
+     * executor task at a time; the first task replays the log from the
+     * client's cursor before anything queued is sent.
+     */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ChangeEvent.Filter filter;
+        final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        // Held by the catch-up task until it has replayed the log
+        final AtomicBoolean draining = new AtomicBoolean(true);
+        volatile long cursor;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, ChangeEvent.Filter filter, long cursor) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+
+        void offer(Object item) {
+            if (closed) return;
+            if (item instanceof ChangeEvent event && !filter.matches(event)) return;
+            if (queued.incrementAndGet() > maxQueued) {
+                // Too slow to keep up: let it reconnect with Last-Event-ID and catch up from the log
+                emitter.complete();
+                close();
+                return;
+            }
+            queue.add(item);
+            if (draining.compareAndSet(false, true)) taskExecutor.execute(this::drain);
+        }
+
+        void catchUp(boolean reset) {
+            try {
+                if (reset) emitter.send(SseEmitter.event().name("reset").data(cursor));
+                List<ChangeEvent> page;
+                do {
+                    page = changeLog.read(cursor, changeLog.lastSeq(), filter, PAGE_SIZE);
+                    for (ChangeEvent event : page) send(event);
+                } while (page.size() == PAGE_SIZE && !closed);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+            drain();
+        }
+
+        void drain() {
+            try {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (item == HEARTBEAT) emitter.send(SseEmitter.event().comment("heartbeat"));
+                    else send((ChangeEvent) item);
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) taskExecutor.execute(this::drain);
+        }
+
+        // Events already replayed from the log may also have been queued by the dispatcher
+        private void send(ChangeEvent event) throws IOException {
+            if (event.getSeq() <= cursor) return;
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.getSeq()))
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON));
+            cursor = event.getSeq();
+        }
+
+        private void fail(Exception e) {
+            if (closed) return;
+            log.debug("Change stream closed", e);
+            emitter.completeWithError(e);
+            close();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+
+
+    public static class ChangePage {
+        private final List<ChangeEvent> changes;
+        private final long cursor;
+        private final boolean hasMore;
+
+        ChangePage(List<ChangeEvent> changes, long cursor, boolean hasMore) {
+            this.changes = changes;
+            this.cursor = cursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<ChangeEvent> getChanges() { return changes; }
+        public String getCursor() { return Long.toString(cursor); }
+        public boolean isHasMore() { return hasMore; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.university.coursemanagement.ChangeEvent.Action.*;
+import static com.university.coursemanagement.ChangeEvent.Type.*;
+
+/**
+ * JPA entity listener that records {@link Course}, {@link Student} and
+ * {@link Grade} writes in the {@link ChangeFeed}. The payload is taken at
+ * flush time, so it is the row as committed. JDBC write paths record
+ * their own changes.
+ */
+@Component
+public class ChangeFeedListener {
+
+    @Autowired
+    @Lazy
+    private ChangeFeed changeFeed;
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        record(entity, CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        record(entity, UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        record(entity, DELETED);
+    }
+
+    private void record(Object entity, ChangeEvent.Action action) {
+        boolean deleted = action == DELETED;
+        if (entity instanceof Course course) {
+            changeFeed.record(COURSE, action, course.getId(), course.getId(), null, deleted ? null : data(course));
+        } else if (entity instanceof Student student) {
+            changeFeed.record(STUDENT, action, student.getId(), null, student.getId(), deleted ? null : data(student));
+        } else if (entity instanceof Grade grade) {
+            Long studentId = grade.getStudent().getId();
+            Long courseId = grade.getCourse().getId();
+            changeFeed.record(GRADE, action, grade.getId(), courseId, studentId, deleted ? null
+                    : ChangeFeed.gradeData(grade.getId(), studentId, courseId, grade.getScore(), grade.getLetterGrade(),
+                            grade.getGradePointValue(), grade.getStatus(), grade.getGradeDate(), grade.getRemarks()));
+        }
+    }
+
+    private static Map<String, Object> data(Course course) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", course.getId());
+        data.put("code", course.getCode());
+        data.put("title", course.getTitle());
+        data.put("description", course.getDescription());
+        data.put("credits", course.getCredits());
+        data.put("capacity", course.getCapacity());
+        return data;
+    }
+
+    private static Map<String, Object> data(Student student) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", student.getId());
+        data.put("studentId", student.getStudentId());
+        data.put("firstName", student.getFirstName());
+        data.put("lastName", student.getLastName());
+        data.put("email", student.getEmail());
+        data.put("phoneNumber", student.getPhoneNumber());
+        return data;
+    }
+}
@@ -0,0 +1,124 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The change_log table behind {@link ChangeFeed}. Appends run in the
+ * writer's transaction, just before it commits, and take the single
+ * change_sequence row lock until it does, so a sequence number only
+ * becomes visible after every lower one has: a reader that has seen
+ * {@code seq} never sees a smaller one appear later.
+ */
+@Repository
+public class ChangeLog {
+
+    private static final String COLUMNS =
+            "seq, entity_type, action, entity_id, course_id, student_id, payload, changed_at";
+
+    private static final RowMapper<ChangeEvent> ROW = (rs, rowNum) -> new ChangeEvent(
+            rs.getLong(1),
+            ChangeEvent.Type.valueOf(rs.getString(2)),
+            ChangeEvent.Action.valueOf(rs.getString(3)),
+            rs.getObject(4, Long.class),
+            rs.getObject(5, Long.class),
+            rs.getObject(6, Long.class),
+            rs.getString(7),
+            rs.getTimestamp(8).toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate appendTransaction;
+
+    @PostConstruct
+    void init() {
+        appendTransaction = new TransactionTemplate(transactionManager);
+        // Joins the writer's transaction; a write outside one gets its own
+        appendTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    }
+
+
+    /**
+     * Numbers and stores the changes; returns them with their sequence numbers.
+     */
+    public List<ChangeEvent> append(List<ChangeEvent> changes) {
+        return appendTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE change_sequence SET last_seq = last_seq + ? WHERE id = 1", changes.size());
+            long first = lastSeq() - changes.size() + 1;
+
+            List<ChangeEvent> numbered = new ArrayList<>(changes.size());
+            List<Object[]> rows = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                ChangeEvent event = changes.get(i).withSeq(first + i);
+                numbered.add(event);
+                rows.add(new Object[]{event.getSeq(), event.getType().name(), event.getAction().name(), event.getId(),
+                        event.getCourseId(), event.getStudentId(), event.getData(), Timestamp.valueOf(event.getChangedAt())});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO change_log (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            return numbered;
+        });
+    }
+
+    /**
+     * Highest sequence number handed out so far.
+     */
+    public long lastSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT last_seq FROM change_sequence WHERE id = 1", Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * Lowest sequence number still kept, or null when the log is empty.
+     */
+    public Long firstRetainedSeq() {
+        return jdbcTemplate.queryForObject("SELECT MIN(seq) FROM change_log", Long.class);
+    }
+
+    /**
+     * Changes after {@code afterSeq} up to and including {@code upToSeq}
+     * that match the filter, oldest first.
+     */
+    public List<ChangeEvent> read(long afterSeq, long upToSeq, ChangeEvent.Filter filter, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM change_log WHERE seq > :after AND seq <= :upTo");
+        MapSqlParameterSource params = new MapSqlParameterSource("after", afterSeq).addValue("upTo", upToSeq);
+        if (!filter.getTypes().isEmpty()) {
+            sql.append(" AND entity_type IN (:types)");
+            params.addValue("types", filter.getTypes().stream().map(Enum::name).toList());
+        }
+        if (filter.getCourseId() != null) {
+            sql.append(" AND course_id = :courseId");
+            params.addValue("courseId", filter.getCourseId());
+        }
+        if (filter.getStudentId() != null) {
+            sql.append(" AND student_id = :studentId");
+            params.addValue("studentId", filter.getStudentId());
+        }
+        sql.append(" ORDER BY seq LIMIT :limit");
+        params.addValue("limit", limit);
+        return namedJdbcTemplate.query(sql.toString(), params, ROW);
+    }
+
+    public int purgeBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM change_log WHERE changed_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -1,11 +1,17 @@
 package com.university.coursemanagement;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners({SearchIndexListener.class, CacheInvalidationListener.class, TableVersionListener.class,
+        ChangeFeedListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Table(name = "courses")
 public class Course {
 
@@ -21,6 +27,8 @@ public class Course {
 
     private String description;
     private Integer credits;
+    private Integer capacity; // seat limit; null means unlimited
+    private Long gradingScaleId; // null means the default scale
 
     @ManyToMany(mappedBy = "enrolledCourses")
     @JsonIgnore
@@ -52,6 +60,12 @@ public class Course {
     public Integer getCredits() { return credits; }
     public void setCredits(Integer credits) { this.credits = credits; }
 
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public Long getGradingScaleId() { return gradingScaleId; }
+    public void setGradingScaleId(Long gradingScaleId) { this.gradingScaleId = gradingScaleId; }
+
     public Set<Student> getEnrolledStudents() { return enrolledStudents; }
     public void setEnrolledStudents(Set<Student> enrolledStudents) { this.enrolledStudents = enrolledStudents; }
 }
\ No newline at end of file
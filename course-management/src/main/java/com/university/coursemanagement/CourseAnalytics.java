@@ -0,0 +1,81 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable grade distribution of one course, behind {@code /api/analytics}.
+ * Statistics are null while the course has no grades.
+ */
+public class CourseAnalytics {
+
+    private final Long courseId;
+    private final long count;
+    private final Double mean;
+    private final Double min;
+    private final Double max;
+    private final Double stdDev;
+    private final Map<String, Double> percentiles;
+    private final List<Bucket> histogram;
+    private final Map<String, Long> letterGrades;
+    private final Map<String, Long> statuses;
+    private final LocalDateTime computedAt;
+
+    CourseAnalytics(Long courseId, long count, Double mean, Double min, Double max, Double stdDev,
+                    Map<String, Double> percentiles, List<Bucket> histogram,
+                    Map<String, Long> letterGrades, Map<String, Long> statuses) {
+        this.courseId = courseId;
+        this.count = count;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+        this.stdDev = stdDev;
+        this.percentiles = percentiles;
+        this.histogram = List.copyOf(histogram);
+        this.letterGrades = letterGrades;
+        this.statuses = statuses;
+        this.computedAt = LocalDateTime.now();
+    }
+
+
+    public Long getCourseId() { return courseId; }
+    public long getCount() { return count; }
+    public Double getMean() { return mean; }
+    public Double getMedian() { return percentiles.get("p50"); }
+    public Double getMin() { return min; }
+    public Double getMax() { return max; }
+    public Double getStdDev() { return stdDev; }
+    public Map<String, Double> getPercentiles() { return percentiles; }
+    public List<Bucket> getHistogram() { return histogram; }
+    public Map<String, Long> getLetterGrades() { return letterGrades; }
+    public Map<String, Long> getStatuses() { return statuses; }
+    public Double getPassRate() { return rate("PASS"); }
+    public Double getCompleteRate() { return rate("COMPLETE"); }
+    public Double getIncompleteRate() { return rate("INCOMPLETE"); }
+    public LocalDateTime getComputedAt() { return computedAt; }
+
+    private Double rate(String status) {
+        return count == 0 ? null : statuses.getOrDefault(status, 0L) / (double) count;
+    }
+
+
+    /**
+     * Scores in [from, to); the last bucket also holds 100.
+     */
+    public static class Bucket {
+        private final int from;
+        private final int to;
+        private final long count;
+
+        Bucket(int from, int to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public int getFrom() { return from; }
+        public int getTo() { return to; }
+        public long getCount() { return count; }
+    }
+}
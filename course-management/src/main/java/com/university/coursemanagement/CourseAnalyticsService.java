@@ -0,0 +1,244 @@
+package com.university.coursemanagement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-course grade distributions, aggregated in the database and cached per
+ * course. Any committed grade change in a course evicts its entry, here and
+ * (through the {@link CacheInvalidationBus}) on the other nodes; the TTL
+ * only bounds how long an entry can survive a lost notification.
+ */
+@Service
+public class CourseAnalyticsService {
+
+    static final int[] PERCENTILES = {10, 25, 50, 75, 90};
+    private static final int BUCKETS = 10;
+
+    private static final String SUMMARY =
+            "SELECT course_id, COUNT(*), AVG(score), MIN(score), MAX(score), STDDEV_POP(score) " +
+            "FROM grades WHERE course_id IN (:ids) GROUP BY course_id";
+
+    // 0-9, 10-19, ... 90-100
+    private static final String HISTOGRAM =
+            "SELECT course_id, LEAST(FLOOR(score / 10), " + (BUCKETS - 1) + "), COUNT(*) " +
+            "FROM grades WHERE course_id IN (:ids) GROUP BY course_id, LEAST(FLOOR(score / 10), " + (BUCKETS - 1) + ")";
+
+    private static final String LETTER_GRADES =
+            "SELECT course_id, letter_grade, COUNT(*) FROM grades WHERE course_id IN (:ids) GROUP BY course_id, letter_grade";
+
+    private static final String STATUSES =
+            "SELECT course_id, status, COUNT(*) FROM grades WHERE course_id IN (:ids) GROUP BY course_id, status";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.analytics.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, CourseAnalytics> cache;
+    // Bumped by every eviction, so a computation that raced one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Analytics for each course, in the order given. Cached courses are
+     * served from memory; the rest are computed together in one round of
+     * grouped queries.
+     */
+    public Map<Long, CourseAnalytics> getAnalytics(Collection<Long> courseIds) {
+        Map<Long, CourseAnalytics> cached = cache.getAllPresent(courseIds);
+        List<Long> missing = courseIds.stream().filter(id -> !cached.containsKey(id)).distinct().toList();
+
+        Map<Long, CourseAnalytics> computed = Map.of();
+        if (!missing.isEmpty()) {
+            long before = generation.get();
+            computed = compute(missing);
+            if (generation.get() == before) cache.putAll(computed);
+        }
+
+        Map<Long, CourseAnalytics> result = new LinkedHashMap<>();
+        for (Long id : courseIds) {
+            CourseAnalytics analytics = cached.containsKey(id) ? cached.get(id) : computed.get(id);
+            if (analytics != null) result.put(id, analytics);
+        }
+        return result;
+    }
+
+    public CourseAnalytics getAnalytics(Long courseId) {
+        return getAnalytics(List.of(courseId)).get(courseId);
+    }
+
+    /**
+     * Evicts the courses once the surrounding transaction (if any) commits,
+     * and tells the other nodes.
+     */
+    public void gradesChanged(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) return;
+        Set<Long> ids = Set.copyOf(courseIds);
+        Runnable evict = () -> {
+            evict(ids);
+            ids.forEach(cacheInvalidationBus::publishAnalytics);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    /**
+     * Evicts every course, e.g. after a student's grades were removed in bulk.
+     */
+    public void allGradesChanged() {
+        evictAll();
+        cacheInvalidationBus.publishAnalytics(null);
+    }
+
+    void evict(Collection<Long> courseIds) {
+        generation.incrementAndGet();
+        cache.invalidateAll(courseIds);
+    }
+
+    void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Map<Long, CourseAnalytics> compute(List<Long> courseIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", courseIds);
+
+        Map<Long, Object[]> summaries = new HashMap<>();
+        namedJdbcTemplate.query(SUMMARY, params, rs -> {
+            summaries.put(rs.getLong(1), new Object[]{rs.getLong(2), rs.getObject(3, Double.class),
+                    rs.getObject(4, Double.class), rs.getObject(5, Double.class), rs.getObject(6, Double.class)});
+        });
+
+        Map<Long, long[]> histograms = new HashMap<>();
+        namedJdbcTemplate.query(HISTOGRAM, params, rs -> {
+            histograms.computeIfAbsent(rs.getLong(1), id -> new long[BUCKETS])[rs.getInt(2)] = rs.getLong(3);
+        });
+
+        Map<Long, Map<String, Long>> letterGrades = countsBy(LETTER_GRADES, params);
+        Map<Long, Map<String, Long>> statuses = countsBy(STATUSES, params);
+        Map<Long, Map<String, Double>> percentiles = databaseInfo.isPostgres()
+                ? percentileAggregates(params) : percentilesByRank(params, summaries);
+
+        Map<Long, CourseAnalytics> result = new HashMap<>();
+        for (Long id : courseIds) {
+            Object[] summary = summaries.getOrDefault(id, new Object[]{0L, null, null, null, null});
+            long[] counts = histograms.getOrDefault(id, new long[BUCKETS]);
+            List<CourseAnalytics.Bucket> histogram = new ArrayList<>(BUCKETS);
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram.add(new CourseAnalytics.Bucket(b * 10, b == BUCKETS - 1 ? 100 : (b + 1) * 10, counts[b]));
+            }
+            result.put(id, new CourseAnalytics(id, (Long) summary[0], (Double) summary[1], (Double) summary[2],
+                    (Double) summary[3], (Double) summary[4], percentiles.getOrDefault(id, Map.of()), histogram,
+                    letterGrades.getOrDefault(id, Map.of()), statuses.getOrDefault(id, Map.of())));
+        }
+        return result;
+    }
+
+    private Map<Long, Map<String, Long>> countsBy(String sql, MapSqlParameterSource params) {
+        Map<Long, Map<String, Long>> counts = new HashMap<>();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            String key = rs.getString(2);
+            counts.computeIfAbsent(rs.getLong(1), id -> new TreeMap<>()).put(key != null ? key : "NONE", rs.getLong(3));
+        });
+        return counts;
+    }
+
+    // Postgres: one ordered-set aggregate per percentile
+    private Map<Long, Map<String, Double>> percentileAggregates(MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("SELECT course_id");
+        for (int p : PERCENTILES) {
+            sql.append(", percentile_cont(").append(p / 100.0).append(") WITHIN GROUP (ORDER BY score)");
+        }
+        sql.append(" FROM grades WHERE course_id IN (:ids) GROUP BY course_id");
+
+        Map<Long, Map<String, Double>> result = new HashMap<>();
+        namedJdbcTemplate.query(sql.toString(), params, rs -> {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                values.put("p" + PERCENTILES[i], rs.getDouble(i + 2));
+            }
+            result.put(rs.getLong(1), values);
+        });
+        return result;
+    }
+
+    /*
+     * Databases without percentile aggregates: rank scores with a window
+     * function and fetch only the ranks that bracket each percentile, then
+     * interpolate linearly as percentile_cont does.
+     */
+    private Map<Long, Map<String, Double>> percentilesByRank(MapSqlParameterSource params, Map<Long, Object[]> summaries) {
+        List<String> ranks = new ArrayList<>();
+        for (int p : PERCENTILES) {
+            ranks.add("1 + FLOOR((n - 1) * " + p + " / 100)");
+            ranks.add("1 + CEIL((n - 1) * " + p + " / 100)");
+        }
+        String sql = "SELECT course_id, rn, score FROM (" +
+                "SELECT course_id, score, ROW_NUMBER() OVER (PARTITION BY course_id ORDER BY score) AS rn, " +
+                "COUNT(*) OVER (PARTITION BY course_id) AS n FROM grades WHERE course_id IN (:ids)) ranked " +
+                "WHERE rn IN (" + String.join(", ", ranks) + ")";
+
+        Map<Long, Map<Long, Double>> scoresByRank = new HashMap<>();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            scoresByRank.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).put(rs.getLong(2), rs.getDouble(3));
+        });
+
+        Map<Long, Map<String, Double>> result = new HashMap<>();
+        scoresByRank.forEach((courseId, scores) -> {
+            long n = (Long) summaries.get(courseId)[0];
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (int p : PERCENTILES) {
+                long scaled = (n - 1) * p;
+                long lower = 1 + scaled / 100;
+                double fraction = (scaled % 100) / 100.0;
+                double low = scores.get(lower);
+                double high = fraction == 0 ? low : scores.get(lower + 1);
+                values.put("p" + p, low + fraction * (high - low));
+            }
+            result.put(courseId, values);
+        });
+        return result;
+    }
+}
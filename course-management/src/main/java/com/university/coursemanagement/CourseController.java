@@ -1,63 +1,137 @@
 package com.university.coursemanagement;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.university.coursemanagement.TableVersions.Table.*;
 
 @RestController
 @RequestMapping("/api/courses")
 @CrossOrigin(origins = "http://localhost:3000")
 public class CourseController {
 
+    private static final Set<String> SORT_FIELDS = Set.of("id", "code", "title");
+
     @Autowired
     private CourseRepository courseRepository;
 
     @Autowired
-    private GradeRepository gradeRepository;
+    private StudentRepository studentRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private DeletionService deletionService;
+
+    @Autowired
+    private FieldSelector fieldSelector;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private RegradeService regradeService;
 
 
 
     @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<?> getAllCourses(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String sort,
+                                           @RequestParam(defaultValue = "false") boolean desc,
+                                           @RequestParam(required = false) Integer credits,
+                                           ServletWebRequest request) {
+        Specification<Course> filter = null;
+        if (credits != null) {
+            filter = (root, query, cb) -> cb.equal(root.get("credits"), credits);
+        }
+        Specification<Course> courses = filter;
+        return tableVersions.conditional(request,
+                () -> Keyset.page(courseRepository, Course.class, courses, cursor, size, sort, desc, SORT_FIELDS),
+                COURSES);
+    }
+
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return ResponseEntity.ok(jsonArrayStreamer.stream(Course.class, courseRepository::streamAll));
     }
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
-        Optional<Course> course = courseRepository.findById(id);
-        return course.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Course> getCourseById(@PathVariable Long id, ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            Optional<Course> course = courseRepository.findById(id);
+            return course.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        }, COURSES);
     }
 
 
     @PostMapping
-    public ResponseEntity<Course> createCourse(@RequestBody Course course) {
+    public ResponseEntity<?> createCourse(@RequestBody Course course) {
+        if (course.getGradingScaleId() != null && gradingScales.get(course.getGradingScaleId()) == null) {
+            return ResponseEntity.badRequest().body("Grading scale not found");
+        }
         Course savedCourse = courseRepository.save(course);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCourse);
     }
 
 
     @PutMapping("/{id}")
-    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody Course courseDetails) {
+    @Transactional
+    public ResponseEntity<?> updateCourse(@PathVariable Long id, @RequestBody Course courseDetails) {
+        if (courseDetails.getGradingScaleId() != null && gradingScales.get(courseDetails.getGradingScaleId()) == null) {
+            return ResponseEntity.badRequest().body("Grading scale not found");
+        }
         Optional<Course> courseOpt = courseRepository.findById(id);
 
         if (courseOpt.isPresent()) {
             Course course = courseOpt.get();
+            boolean creditsChanged = !Objects.equals(course.getCredits(), courseDetails.getCredits());
+            boolean scaleChanged = !Objects.equals(course.getGradingScaleId(), courseDetails.getGradingScaleId());
             course.setCode(courseDetails.getCode());
             course.setTitle(courseDetails.getTitle());
             course.setDescription(courseDetails.getDescription());
             course.setCredits(courseDetails.getCredits());
+            course.setCapacity(courseDetails.getCapacity());
+            course.setGradingScaleId(courseDetails.getGradingScaleId());
 
             Course updatedCourse = courseRepository.save(course);
+            enrollmentService.capacityChanged(id, updatedCourse.getCapacity());
+            if (creditsChanged) {
+                courseRepository.flush();
+                academicSummaryService.recomputeForCourse(id);
+            }
+            // Existing grades move to the new scale in the background
+            if (scaleChanged) regradeService.startAfterCommit(id);
             return ResponseEntity.ok(updatedCourse);
         }
         return ResponseEntity.notFound().build();
@@ -66,44 +140,36 @@ public class CourseController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCourse(@PathVariable Long id) {
-        if (!courseRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+        if (deletionService.deleteCourse(id)) {
+            return ResponseEntity.ok().build();
         }
-
-
-        gradeRepository.findByCourseId(id)
-                .forEach(grade -> gradeRepository.deleteById(grade.getId()));
-
-
-        studentRepository.findAll().forEach(student -> {
-            if (student.getEnrolledCourses().removeIf(course -> course.getId().equals(id))) {
-                studentRepository.save(student);
-            }
-        });
-
-
-        courseRepository.deleteById(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.notFound().build();
     }
 
 
-    // Search courses by title
+    // Search courses by code, title or description, best matches first
     @GetMapping("/search")
     public ResponseEntity<List<Course>> searchCourses(@RequestParam String title) {
-        List<Course> courses = courseRepository.findByTitleContainingIgnoreCase(title);
-        return ResponseEntity.ok(courses);
+        List<Long> ids = searchService.searchCourses(title, Keyset.MAX_SIZE).stream().map(SearchHit::getId).toList();
+        Map<Long, Course> byId = courseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        return ResponseEntity.ok(ids.stream().map(byId::get).filter(Objects::nonNull).toList());
     }
 
     // Add these methods to your CourseController class
 
     // GET students enrolled in course
     @GetMapping("/{id}/students")
-    public ResponseEntity<Set<Student>> getCourseStudents(@PathVariable Long id) {
-        Optional<Course> course = courseRepository.findById(id);
-        if (course.isPresent()) {
-            return ResponseEntity.ok(course.get().getEnrolledStudents());
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<?> getCourseStudents(@PathVariable Long id,
+                                               @RequestParam(required = false) String fields,
+                                               ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            if (!courseRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            List<StudentView> students = studentRepository.findViewsByEnrolledCourseId(id);
+            return ResponseEntity.ok(fieldSelector.select(students, fields));
+        }, COURSES, STUDENTS, ENROLLMENTS);
     }
 
 }
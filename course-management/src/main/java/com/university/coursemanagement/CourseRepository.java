@@ -1,12 +1,57 @@
 package com.university.coursemanagement;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = "course-lookups")})
     Optional<Course> findByCode(String code);
+
+    @Unindexed("substring match; interactive search goes through SearchIndex")
     List<Course> findByTitleContainingIgnoreCase(String title);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    Stream<Course> streamAll();
+
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    List<Course> findByCodeIn(Collection<String> codes);
+
+    @Query("SELECT c FROM Student s JOIN s.enrolledCourses c WHERE s.studentId = :studentId ORDER BY c.code")
+    List<Course> findEnrolledByStudentNumber(@Param("studentId") String studentId);
+
+    @Query("SELECT c.code, c.id FROM Course c WHERE c.code IN :codes")
+    List<Object[]> findIdsByCodes(@Param("codes") Collection<String> codes);
+
+    // The prefix is matched literally: '%' and '_' in it are escaped
+    default List<Long> findIdsByCodePrefix(String prefix) {
+        String escaped = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return findIdsByCodeLike(escaped + "%");
+    }
+
+    @Query("SELECT c.id FROM Course c WHERE c.code LIKE :pattern ESCAPE '!' ORDER BY c.id")
+    List<Long> findIdsByCodeLike(@Param("pattern") String pattern);
+
+    @Modifying
+    @Query("DELETE FROM Course c WHERE c.id = :id")
+    int deleteCourseById(@Param("id") Long id);
 }
@@ -0,0 +1,48 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot behind {@code /api/stats/dashboard}.
+ */
+public class DashboardStats {
+
+    private final long totalCourses;
+    private final long totalStudents;
+    private final long totalGrades;
+    private final long totalEnrollments;
+    private final long enrolledStudents;
+    private final Map<String, Long> gradesByStatus;
+    private final List<GradeView> recentGrades;
+    private final LocalDateTime generatedAt;
+
+    DashboardStats(long totalCourses, long totalStudents, long totalGrades, long totalEnrollments,
+                   long enrolledStudents, Map<String, Long> gradesByStatus, List<GradeView> recentGrades) {
+        this.totalCourses = totalCourses;
+        this.totalStudents = totalStudents;
+        this.totalGrades = totalGrades;
+        this.totalEnrollments = totalEnrollments;
+        this.enrolledStudents = enrolledStudents;
+        this.gradesByStatus = Map.copyOf(gradesByStatus);
+        this.recentGrades = List.copyOf(recentGrades);
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    DashboardStats withRecentGrades(int limit) {
+        if (limit >= recentGrades.size()) return this;
+        return new DashboardStats(totalCourses, totalStudents, totalGrades, totalEnrollments, enrolledStudents,
+                gradesByStatus, recentGrades.subList(0, Math.max(limit, 0)));
+    }
+
+
+    public long getTotalCourses() { return totalCourses; }
+    public long getTotalStudents() { return totalStudents; }
+    public long getTotalGrades() { return totalGrades; }
+    public long getTotalEnrollments() { return totalEnrollments; }
+    public long getEnrolledStudents() { return enrolledStudents; }
+    public Map<String, Long> getGradesByStatus() { return gradesByStatus; }
+    public List<GradeView> getRecentGrades() { return recentGrades; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+}
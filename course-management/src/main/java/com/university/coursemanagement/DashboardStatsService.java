@@ -0,0 +1,97 @@
+package com.university.coursemanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves dashboard figures from an in-memory snapshot built with aggregate
+ * queries. Once the snapshot is older than the TTL, the next caller still
+ * gets it immediately while a single background refresh replaces it.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsService.class);
+    static final int MAX_RECENT_GRADES = 50;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${app.stats.ttl:30s}")
+    private Duration ttl;
+
+    private volatile DashboardStats snapshot;
+    private volatile long snapshotTakenAt;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Not synchronized: the first load runs queries, which would pin a virtual thread's carrier
+    private final ReentrantLock firstLoad = new ReentrantLock();
+
+
+    public DashboardStats getDashboard(int recentGrades) {
+        DashboardStats current = snapshot;
+        if (current == null) {
+            firstLoad.lock();
+            try {
+                if (snapshot == null) refresh();
+                current = snapshot;
+            } finally {
+                firstLoad.unlock();
+            }
+        } else if (System.nanoTime() - snapshotTakenAt > ttl.toNanos() && refreshing.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Dashboard stats refresh failed; serving previous snapshot", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current.withRecentGrades(recentGrades);
+    }
+
+    private void refresh() {
+        DashboardStats fresh = transactionTemplate.execute(status -> {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (Object[] row : gradeRepository.countByStatus()) {
+                byStatus.put(row[0] != null ? (String) row[0] : "UNKNOWN", (Long) row[1]);
+            }
+            List<GradeView> recent = gradeRepository.findMostRecent(PageRequest.of(0, MAX_RECENT_GRADES));
+            return new DashboardStats(courseRepository.count(), studentRepository.count(), gradeRepository.count(),
+                    enrollmentRepository.count(), enrollmentRepository.countEnrolledStudents(), byStatus, recent);
+        });
+        snapshot = fresh;
+        snapshotTakenAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,31 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Which database we are talking to, for the few statements (upserts, bulk
+ * loads) that have no portable SQL form.
+ */
+@Component
+public class DatabaseInfo {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile String productName;
+
+    public String getProductName() {
+        if (productName == null) {
+            productName = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        }
+        return productName;
+    }
+
+    public boolean isPostgres() { return "PostgreSQL".equalsIgnoreCase(getProductName()); }
+
+    public boolean isMySql() { return "MySQL".equalsIgnoreCase(getProductName()); }
+}
@@ -0,0 +1,220 @@
+package com.university.coursemanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Deletes courses and students together with their grades and enrollments.
+ * Dependents are removed with set-based statements in short, bounded
+ * transactions; a final transaction sweeps up anything written meanwhile
+ * and removes the row itself, so deletes can run alongside normal traffic.
+ * Bulk statements skip entity listeners, so the search index and the other
+ * nodes' caches are told explicitly, and every removed grade is journaled
+ * as deleted. A deleted course's archived grades leave its students'
+ * archived totals, so GPAs drop them just as they drop its live grades.
+ */
+@Service
+public class DeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeletionService.class);
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private GradeJournal gradeJournal;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+
+
+    public boolean deleteCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            return false;
+        }
+
+        while (transactionTemplate.execute(status -> deleteGradeChunkForCourse(courseId)) > 0) {
+            // keep going until the course has no grades left
+        }
+        while (transactionTemplate.execute(status ->
+                enrollmentsDeleted(enrollmentRepository.deleteChunkByCourseId(courseId, CHUNK))) > 0) {
+            // likewise for enrollments
+        }
+
+        boolean deleted = transactionTemplate.execute(status -> {
+            while (deleteGradeChunkForCourse(courseId) > 0) {
+                // grades given since the loop above
+            }
+            enrollmentRepository.deleteByCourseId(courseId);
+            int rows = courseRepository.deleteCourseById(courseId);
+            // Once only: a concurrent delete of the same course waits for the row and deletes nothing
+            if (rows > 0) academicSummaryService.courseDeleted(courseId);
+            tableVersions.changed(TableVersions.Table.COURSES, TableVersions.Table.ENROLLMENTS, TableVersions.Table.GRADES);
+            // Subscribers drop the course's grades and enrollments along with it
+            if (rows > 0) changeFeed.record(ChangeEvent.Type.COURSE, ChangeEvent.Action.DELETED, courseId, courseId, null, null);
+            return rows > 0;
+        });
+        searchService.removeCourse(courseId);
+        enrollmentService.enrollmentsChanged(courseId);
+        cacheInvalidationBus.publish(Course.class, courseId);
+        courseAnalyticsService.gradesChanged(List.of(courseId));
+        return deleted;
+    }
+
+    public boolean deleteStudent(Long studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            return false;
+        }
+
+        while (transactionTemplate.execute(status -> deleteGradeChunkForStudent(studentId)) > 0) {
+            // keep going until the student has no grades left
+        }
+        while (transactionTemplate.execute(status ->
+                enrollmentsDeleted(enrollmentRepository.deleteChunkByStudentId(studentId, CHUNK))) > 0) {
+            // likewise for enrollments
+        }
+
+        boolean deleted = transactionTemplate.execute(status -> {
+            while (deleteGradeChunkForStudent(studentId) > 0) {
+                // grades given since the loop above
+            }
+            enrollmentRepository.deleteByStudentId(studentId);
+            academicSummaryService.studentDeleted(studentId);
+            tableVersions.changed(TableVersions.Table.STUDENTS, TableVersions.Table.ENROLLMENTS, TableVersions.Table.GRADES);
+            if (studentRepository.deleteStudentById(studentId) == 0) return false;
+            changeFeed.record(ChangeEvent.Type.STUDENT, ChangeEvent.Action.DELETED, studentId, null, studentId, null);
+            return true;
+        });
+        searchService.removeStudent(studentId);
+        cacheInvalidationBus.publish(Student.class, studentId);
+        courseAnalyticsService.allGradesChanged();
+        return deleted;
+    }
+
+    public PurgeJob startCoursePurge(List<Long> courseIds) {
+        return startPurge("COURSES", courseIds, this::deleteCourse);
+    }
+
+    public PurgeJob startStudentPurge(List<Long> studentIds) {
+        return startPurge("STUDENTS", studentIds, this::deleteStudent);
+    }
+
+    public Optional<PurgeJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private PurgeJob startPurge(String kind, List<Long> ids, Predicate<Long> delete) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+
+        List<Long> targets = new ArrayList<>(ids);
+        PurgeJob job = new PurgeJob(kind, targets.size());
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            try {
+                for (Long id : targets) {
+                    try {
+                        if (delete.test(id)) job.recordDeleted();
+                        else job.recordMissing();
+                    } catch (RuntimeException e) {
+                        log.warn("Purge {} could not delete {} {}", job.getId(), kind, id, e);
+                        job.recordError(id, e);
+                    }
+                }
+                job.finish(job.getFailed() > 0 ? PurgeJob.Status.PARTIAL : PurgeJob.Status.COMPLETED);
+            } catch (RuntimeException e) {
+                // Whatever was deleted before the failure stays deleted; the counts say how far it got
+                job.finish(job.getDeleted() > 0 ? PurgeJob.Status.PARTIAL : PurgeJob.Status.FAILED);
+                throw e;
+            }
+        });
+        return job;
+    }
+
+    private int deleteGradeChunkForCourse(Long courseId) {
+        List<Object[]> rows = gradeRepository.findDeletableByCourseId(courseId, PageRequest.of(0, CHUNK));
+        if (rows.isEmpty()) return 0;
+
+        int deleted = deleteGrades(rows);
+        academicSummaryService.recompute(rows.stream().map(row -> (Long) row[1]).toList());
+        return deleted;
+    }
+
+    private int deleteGradeChunkForStudent(Long studentId) {
+        List<Object[]> rows = gradeRepository.findDeletableByStudentId(studentId, PageRequest.of(0, CHUNK));
+        if (rows.isEmpty()) return 0;
+        return deleteGrades(rows);
+    }
+
+    // Rows from findDeletableBy*: deletes them and journals each one's last values
+    private int deleteGrades(List<Object[]> rows) {
+        List<Long> gradeIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            gradeIds.add((Long) row[0]);
+            GradeChange.State before = new GradeChange.State((Double) row[3], (String) row[4], (Double) row[5],
+                    (String) row[6], (String) row[7]);
+            gradeJournal.record(GradeChange.Action.DELETED, (Long) row[0], (Long) row[1], (Long) row[2],
+                    before, null, null);
+        }
+        int deleted = gradeRepository.deleteGradesByIds(gradeIds);
+        tableVersions.changed(TableVersions.Table.GRADES);
+        return deleted;
+    }
+
+    // Every chunk is visible once committed, so it moves the version on too
+    private int enrollmentsDeleted(int deleted) {
+        if (deleted > 0) tableVersions.changed(TableVersions.Table.ENROLLMENTS);
+        return deleted;
+    }
+}
@@ -0,0 +1,149 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Direct access to the student_enrollments join table, so enrollment changes
+ * touch single rows instead of rewriting a whole {@code @ManyToMany} set.
+ */
+@Repository
+public class EnrollmentRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    /**
+     * Inserts one enrollment row, made in the given term; returns false if
+     * it already existed.
+     */
+    public boolean insert(Long studentId, Long courseId, Long termId) {
+        String sql = databaseInfo.isPostgres()
+                ? "INSERT INTO student_enrollments (student_id, course_id, term_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING"
+                : "INSERT INTO student_enrollments (student_id, course_id, term_id) VALUES (?, ?, ?) " +
+                  "ON DUPLICATE KEY UPDATE student_id = student_id";
+        return jdbcTemplate.update(sql, studentId, courseId, termId) > 0;
+    }
+
+    /**
+     * Takes a seat in the course if it has one left, in a single conditional
+     * update of its seats_taken count; returns false if the course is full
+     * or gone. A rollback gives the seat back.
+     */
+    public boolean takeSeat(Long courseId) {
+        return jdbcTemplate.update("UPDATE courses SET seats_taken = seats_taken + 1 " +
+                "WHERE id = ? AND (capacity IS NULL OR seats_taken < capacity)", courseId) > 0;
+    }
+
+    public void releaseSeat(Long courseId) {
+        jdbcTemplate.update("UPDATE courses SET seats_taken = seats_taken - 1 WHERE id = ?", courseId);
+    }
+
+    /**
+     * Sets the courses' seats_taken to their enrollment counts, after
+     * enrollments were written in bulk.
+     */
+    public void recountSeats(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) return;
+        namedJdbcTemplate.update("UPDATE courses SET seats_taken = " +
+                        "(SELECT COUNT(*) FROM student_enrollments e WHERE e.course_id = courses.id) WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", courseIds));
+    }
+
+    public boolean exists(Long studentId, Long courseId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_enrollments WHERE student_id = ? AND course_id = ?",
+                Integer.class, studentId, courseId);
+        return count != null && count > 0;
+    }
+
+    public boolean delete(Long studentId, Long courseId) {
+        return jdbcTemplate.update("DELETE FROM student_enrollments WHERE student_id = ? AND course_id = ?",
+                studentId, courseId) > 0;
+    }
+
+    /**
+     * The course's capacity and current enrollment count, or null if there is no such course.
+     */
+    public SeatLedger.Seats loadSeats(Long courseId) {
+        List<SeatLedger.Seats> rows = jdbcTemplate.query(
+                "SELECT capacity, seats_taken FROM courses WHERE id = ?",
+                (rs, rowNum) -> {
+                    int capacity = rs.getInt(1);
+                    Integer limit = rs.wasNull() ? null : capacity;
+                    return new SeatLedger.Seats(limit, rs.getInt(2));
+                },
+                courseId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_enrollments", Long.class);
+        return count != null ? count : 0;
+    }
+
+    public long countEnrolledStudents() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT student_id) FROM student_enrollments", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Deletes up to {@code limit} enrollments in the course and frees their
+     * seats; returns how many went.
+     */
+    public int deleteChunkByCourseId(Long courseId, int limit) {
+        // Locked, so a row an unenrollment deletes meanwhile does not free its seat twice
+        List<Long> studentIds = jdbcTemplate.queryForList(
+                "SELECT student_id FROM student_enrollments WHERE course_id = ? ORDER BY student_id LIMIT ? FOR UPDATE",
+                Long.class, courseId, limit);
+        if (studentIds.isEmpty()) return 0;
+        int deleted = namedJdbcTemplate.update(
+                "DELETE FROM student_enrollments WHERE course_id = :courseId AND student_id IN (:studentIds)",
+                new MapSqlParameterSource("courseId", courseId).addValue("studentIds", studentIds));
+        jdbcTemplate.update("UPDATE courses SET seats_taken = seats_taken - ? WHERE id = ?", deleted, courseId);
+        return deleted;
+    }
+
+    /**
+     * Deletes up to {@code limit} of the student's enrollments and frees
+     * their seats; returns how many went.
+     */
+    public int deleteChunkByStudentId(Long studentId, int limit) {
+        List<Long> courseIds = jdbcTemplate.queryForList(
+                "SELECT course_id FROM student_enrollments WHERE student_id = ? ORDER BY course_id LIMIT ? FOR UPDATE",
+                Long.class, studentId, limit);
+        return deleteForStudent(studentId, courseIds);
+    }
+
+    public int deleteByCourseId(Long courseId) {
+        return jdbcTemplate.update("DELETE FROM student_enrollments WHERE course_id = ?", courseId);
+    }
+
+    public int deleteByStudentId(Long studentId) {
+        List<Long> courseIds = jdbcTemplate.queryForList(
+                "SELECT course_id FROM student_enrollments WHERE student_id = ? ORDER BY course_id FOR UPDATE",
+                Long.class, studentId);
+        return deleteForStudent(studentId, courseIds);
+    }
+
+    // The enrollments are locked by the caller, so each of them is deleted here
+    private int deleteForStudent(Long studentId, List<Long> courseIds) {
+        if (courseIds.isEmpty()) return 0;
+        MapSqlParameterSource params = new MapSqlParameterSource("studentId", studentId).addValue("courseIds", courseIds);
+        namedJdbcTemplate.update("UPDATE courses SET seats_taken = seats_taken - 1 WHERE id IN (:courseIds)", params);
+        return namedJdbcTemplate.update(
+                "DELETE FROM student_enrollments WHERE student_id = :studentId AND course_id IN (:courseIds)", params);
+    }
+}
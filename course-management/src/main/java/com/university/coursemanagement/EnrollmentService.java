@@ -0,0 +1,157 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Enrolls students against course seat limits. The seat is taken in the
+ * database: one conditional update bumps the course's seats_taken only
+ * while it is below capacity, and the student_enrollments row goes in with
+ * it in the same short transaction, so no two nodes can fill the same last
+ * seat. The node's {@link SeatLedger} turns most attempts on a full course
+ * away before they reach the database.
+ */
+@Service
+public class EnrollmentService {
+
+    public enum Status { ENROLLED, ALREADY_ENROLLED, COURSE_FULL, NOT_FOUND }
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.enrollment.ledger-refresh-full-after:PT5S}")
+    private Duration ledgerRefreshFullAfter;
+
+    private SeatLedger seatLedger;
+
+    @PostConstruct
+    void init() {
+        seatLedger = new SeatLedger(enrollmentRepository::loadSeats, ledgerRefreshFullAfter);
+    }
+
+
+    public EnrollmentResult enroll(Long studentId, Long courseId) {
+        if (!studentRepository.existsById(studentId)) {
+            return new EnrollmentResult(Status.NOT_FOUND, studentId, courseId);
+        }
+
+        switch (seatLedger.tryAcquire(courseId)) {
+            case UNKNOWN_COURSE:
+                return new EnrollmentResult(Status.NOT_FOUND, studentId, courseId);
+            case FULL:
+                return new EnrollmentResult(Status.COURSE_FULL, studentId, courseId);
+            default:
+                break;
+        }
+
+        Status status;
+        try {
+            status = transactionTemplate.execute(tx -> takeSeat(tx, studentId, courseId));
+        } catch (DataIntegrityViolationException e) {
+            // Student deleted since we checked
+            status = Status.NOT_FOUND;
+        } catch (RuntimeException e) {
+            seatLedger.release(courseId);
+            throw e;
+        }
+        if (status != Status.ENROLLED) {
+            seatLedger.release(courseId);
+            // Our counter was behind the database (enrollments on other nodes); start again from it
+            if (status == Status.COURSE_FULL || status == Status.NOT_FOUND) seatLedger.forget(courseId);
+            return new EnrollmentResult(status, studentId, courseId);
+        }
+        return new EnrollmentResult(Status.ENROLLED, studentId, courseId);
+    }
+
+    // The database's decision: one conditional update of the course's seat count
+    private Status takeSeat(TransactionStatus tx, Long studentId, Long courseId) {
+        if (enrollmentRepository.exists(studentId, courseId)) return Status.ALREADY_ENROLLED;
+        if (!enrollmentRepository.takeSeat(courseId)) {
+            return enrollmentRepository.loadSeats(courseId) == null ? Status.NOT_FOUND : Status.COURSE_FULL;
+        }
+        if (!enrollmentRepository.insert(studentId, courseId, academicTerms.current().getId())) {
+            // Enrolled meanwhile by a concurrent request; give the seat back
+            tx.setRollbackOnly();
+            return Status.ALREADY_ENROLLED;
+        }
+        tableVersions.changed(TableVersions.Table.ENROLLMENTS);
+        recordChange(ChangeEvent.Action.CREATED, studentId, courseId);
+        return Status.ENROLLED;
+    }
+
+    public boolean unenroll(Long studentId, Long courseId) {
+        boolean deleted = transactionTemplate.execute(tx -> {
+            if (!enrollmentRepository.delete(studentId, courseId)) return false;
+            enrollmentRepository.releaseSeat(courseId);
+            tableVersions.changed(TableVersions.Table.ENROLLMENTS);
+            recordChange(ChangeEvent.Action.DELETED, studentId, courseId);
+            return true;
+        });
+        if (deleted) seatLedger.release(courseId);
+        return deleted;
+    }
+
+    public void capacityChanged(Long courseId, Integer capacity) {
+        seatLedger.updateCapacity(courseId, capacity);
+    }
+
+    /**
+     * Drops the course's counter after enrollments were changed in bulk.
+     */
+    public void enrollmentsChanged(Long courseId) {
+        seatLedger.forget(courseId);
+    }
+
+    // Counters drift with other nodes' enrollments and with bulk changes; the database
+    // catches every admission they get wrong, and a periodic reload keeps them close
+    @Scheduled(fixedDelayString = "${app.enrollment.ledger-reconcile-interval:PT10M}")
+    public void reconcile() {
+        seatLedger.forgetAll();
+    }
+
+    private void recordChange(ChangeEvent.Action action, Long studentId, Long courseId) {
+        changeFeed.record(ChangeEvent.Type.ENROLLMENT, action, null, courseId, studentId,
+                Map.of("studentId", studentId, "courseId", courseId));
+    }
+
+
+    public static class EnrollmentResult {
+        private final Status status;
+        private final Long studentId;
+        private final Long courseId;
+
+        EnrollmentResult(Status status, Long studentId, Long courseId) {
+            this.status = status;
+            this.studentId = studentId;
+            this.courseId = courseId;
+        }
+
+        public Status getStatus() { return status; }
+        public Long getStudentId() { return studentId; }
+        public Long getCourseId() { return courseId; }
+    }
+}
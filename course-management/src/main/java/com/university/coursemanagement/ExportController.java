@@ -0,0 +1,90 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportController {
+
+    @Autowired
+    private GradeExporter gradeExporter;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+
+    // All grades, e.g. a whole term: /api/exports/grades?from=2025-01-01&to=2025-06-30&format=ndjson
+    @GetMapping("/grades")
+    public ResponseEntity<?> exportGrades(@RequestParam(defaultValue = "csv") String format,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String status) {
+        return export("grades", format, GradeExporter.Order.GRADE_ID, from, to, status, null, null);
+    }
+
+
+    // One course's roster with grades, ordered by student name
+    @GetMapping("/courses/{courseId}/grades")
+    public ResponseEntity<?> exportCourseRoster(@PathVariable Long courseId,
+                                                @RequestParam(defaultValue = "csv") String format,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(required = false) String status) {
+        if (!courseRepository.existsById(courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return export("course-" + courseId + "-grades", format, GradeExporter.Order.ROSTER, from, to, status, courseId, null);
+    }
+
+
+    // One student's transcript, oldest grade first
+    @GetMapping("/students/{studentId}/transcript")
+    public ResponseEntity<?> exportTranscript(@PathVariable Long studentId,
+                                              @RequestParam(defaultValue = "csv") String format,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(required = false) String status) {
+        if (!studentRepository.existsById(studentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return export("student-" + studentId + "-transcript", format, GradeExporter.Order.TRANSCRIPT, from, to, status, null, studentId);
+    }
+
+
+    private ResponseEntity<?> export(String name, String format, GradeExporter.Order order, LocalDate from, LocalDate to,
+                                     String status, Long courseId, Long studentId) {
+        GradeExporter.Format exportFormat;
+        try {
+            exportFormat = GradeExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unsupported format: " + format);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+
+        String statusFilter = status != null && !status.isBlank() ? status.toUpperCase(Locale.ROOT) : null;
+        StreamingResponseBody body = gradeExporter.export(exportFormat, order, from, to, statusFilter, courseId, studentId);
+        boolean csv = exportFormat == GradeExporter.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.valueOf(ImportController.NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + (csv ? ".csv" : ".ndjson")).build().toString())
+                .body(body);
+    }
+}
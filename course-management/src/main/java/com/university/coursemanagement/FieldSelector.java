@@ -0,0 +1,75 @@
+package com.university.coursemanagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trims list responses to a client-chosen field set, e.g.
+ * {@code ?fields=id,score,student.firstName}. A plain name keeps the whole
+ * value; a dotted path keeps just that part of a nested object.
+ */
+@Component
+public class FieldSelector {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Returns {@code rows} untouched when no fields are requested, otherwise
+     * a JSON array holding only the requested fields of each row.
+     */
+    public Object select(List<?> rows, String fields) {
+        if (fields == null || fields.isBlank()) return rows;
+
+        Map<String, Object> tree = parse(fields);
+        ArrayNode result = objectMapper.createArrayNode();
+        for (Object row : rows) {
+            result.add(prune(objectMapper.valueToTree(row), tree));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(String fields) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            Map<String, Object> level = tree;
+            String[] parts = field.trim().split("\\.");
+            for (int i = 0; i < parts.length; i++) {
+                if (parts[i].isEmpty()) break;
+                if (i == parts.length - 1) {
+                    level.put(parts[i], Boolean.TRUE);
+                } else {
+                    Object next = level.get(parts[i]);
+                    if (next == Boolean.TRUE) break; // whole value already selected
+                    if (next == null) {
+                        next = new LinkedHashMap<String, Object>();
+                        level.put(parts[i], next);
+                    }
+                    level = (Map<String, Object>) next;
+                }
+            }
+        }
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonNode prune(JsonNode node, Map<String, Object> tree) {
+        if (!node.isObject()) return node;
+        ObjectNode pruned = objectMapper.createObjectNode();
+        tree.forEach((name, selection) -> {
+            JsonNode child = node.get(name);
+            if (child == null) return;
+            pruned.set(name, selection == Boolean.TRUE ? child : prune(child, (Map<String, Object>) selection));
+        });
+        return pruned;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners({TableVersionListener.class, ChangeFeedListener.class})
 @Table(name = "grades")
 public class Grade {
 
@@ -19,6 +20,9 @@ public class Grade {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
+    @Column(name = "term_id", nullable = false, updatable = false)
+    private Long termId; // the AcademicTerm the grade was given in
+
     @Column(nullable = false)
     private Double score; // Numeric score (0-100)
 
@@ -38,53 +42,31 @@ public class Grade {
 
     public Grade() {}
 
-    public Grade(Student student, Course course, Double score) {
+    public Grade(Student student, Course course, Long termId, Double score, GradingScale scale) {
         this.student = student;
         this.course = course;
-        this.score = score;
-        this.letterGrade = calculateLetterGrade(score);
-        this.gradePointValue = calculateGradePointValue(score);
-        this.status = calculateStatus(score);
+        this.termId = termId;
         this.gradeDate = LocalDate.now();
+        applyScore(score, scale);
     }
 
 
-    private String calculateLetterGrade(Double score) {
-        if (score >= 85) return "A+";
-        else if (score >= 70) return "A";
-        else if (score >= 65) return "A-";
-        else if (score >= 60) return "B+";
-        else if (score >= 55) return "B";
-        else if (score >= 50) return "B-";
-        else if (score >= 45) return "C+";
-        else if (score >= 40) return "C";
-        else if (score >= 35) return "C-";
-        else if (score >= 30) return "D+";
-        else if (score >= 25) return "D";
-        else return "E";
-    }
-
-
-    private Double calculateGradePointValue(Double score) {
-        if (score >= 85) return 4.00;
-        else if (score >= 70) return 4.00;
-        else if (score >= 65) return 3.70;
-        else if (score >= 60) return 3.30;
-        else if (score >= 55) return 3.00;
-        else if (score >= 50) return 2.70;
-        else if (score >= 45) return 2.30;
-        else if (score >= 40) return 2.00;
-        else if (score >= 35) return 1.70;
-        else if (score >= 30) return 1.30;
-        else if (score >= 25) return 1.00;
-        else return 0.00;
+    /**
+     * Sets the score and grades it on the scale.
+     */
+    public void applyScore(Double score, GradingScale scale) {
+        this.score = score;
+        regrade(scale);
     }
 
-
-    private String calculateStatus(Double score) {
-        if (score >= 40) return "PASS";
-        else if (score >= 25) return "COMPLETE";
-        else return "INCOMPLETE";
+    /**
+     * Re-derives letter grade, grade points and status from the score,
+     * e.g. after the course moved to another scale.
+     */
+    public void regrade(GradingScale scale) {
+        this.letterGrade = scale.letterGrade(score);
+        this.gradePointValue = scale.gradePointValue(score);
+        this.status = scale.status(score);
     }
 
 
@@ -97,13 +79,11 @@ public class Grade {
     public Course getCourse() { return course; }
     public void setCourse(Course course) { this.course = course; }
 
+    public Long getTermId() { return termId; }
+    public void setTermId(Long termId) { this.termId = termId; }
+
     public Double getScore() { return score; }
-    public void setScore(Double score) {
-        this.score = score;
-        this.letterGrade = calculateLetterGrade(score);
-        this.gradePointValue = calculateGradePointValue(score);
-        this.status = calculateStatus(score);
-    }
+    public void setScore(Double score) { this.score = score; }
 
     public String getLetterGrade() { return letterGrade; }
     public void setLetterGrade(String letterGrade) { this.letterGrade = letterGrade; }
@@ -0,0 +1,469 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Moves the grades of closed terms out of the grades table into
+ * {@link GradeArchiveFile}s and reads them back for transcripts.
+ * <p>
+ * Archiving a term is one transaction: the term's grade rows are locked
+ * as they are streamed in student order into a new file, summed per
+ * student into archived_grade_totals (which academic summaries and the
+ * ranking add to the live grades) and deleted; the term is marked ARCHIVED
+ * only if all of that commits. Only row locks are taken, so writes to
+ * other terms never wait for an archive. The file is written under a
+ * temporary name, synced to disk and moved into place, the move synced
+ * too, before the grades are deleted and the transaction commits; it is
+ * deleted again if the transaction rolls back. On Postgres the emptied partition is then
+ * detached concurrently and dropped.
+ * <p>
+ * Closed terms that ended more than {@code app.archive.after} ago are
+ * archived by a nightly job, so the grades table (and on Postgres the
+ * partitions queries touch) holds only recent terms.
+ * <p>
+ * Archive files are only ever read here, so every node needs the same
+ * {@code app.archive.dir}, on storage that survives restarts; the
+ * application does not start without it (only the prod profile leaves it
+ * unset by default).
+ */
+@Service
+public class GradeArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeArchive.class);
+    private static final int ROW_GROUP = 8192;
+    private static final int FETCH_SIZE = 5000;
+    private static final Comparator<GradeView> TRANSCRIPT_ORDER = Comparator
+            .comparing(GradeView::getGradeDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(grade -> grade.getCourse().getCode(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final String SELECT_TERM_GRADES =
+            "SELECT g.id, g.student_id, g.course_id, g.score, g.letter_grade, g.grade_point_value, g.status, " +
+            "g.grade_date, g.remarks, c.code, c.title, c.credits " +
+            "FROM grades g JOIN courses c ON c.id = g.course_id WHERE g.term_id = ? " +
+            "ORDER BY g.student_id, g.course_id";
+
+    private static final String INSERT_TOTALS =
+            "INSERT INTO archived_grade_totals (student_id, term_id, grade_point_sum, attempted_credits, " +
+            "passed_credits, completed_credits) " +
+            "SELECT g.student_id, g.term_id, COALESCE(SUM(g.grade_point_value * c.credits), 0), " +
+            "COALESCE(SUM(c.credits), 0), " +
+            "COALESCE(SUM(CASE WHEN g.status = 'PASS' THEN c.credits ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN g.status = 'PASS' OR g.status = 'COMPLETE' THEN c.credits ELSE 0 END), 0) " +
+            "FROM grades g JOIN courses c ON c.id = g.course_id WHERE g.term_id = ? " +
+            "GROUP BY g.student_id, g.term_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${app.archive.dir:}")
+    private String archiveDir;
+
+    private Path dir;
+
+    @Value("${app.archive.after:P1Y}")
+    private Period archiveAfter;
+
+    // Open archives by term id; the footers stay in memory
+    private final Map<Long, GradeArchiveFile> files = new ConcurrentHashMap<>();
+
+
+    @PostConstruct
+    void init() throws IOException {
+        // Archived grades exist nowhere else, so no temporary default
+        if (archiveDir == null || archiveDir.isBlank()) {
+            throw new IllegalStateException("app.archive.dir (ARCHIVE_DIR) is not set; archived terms' grades are kept there");
+        }
+        dir = Path.of(archiveDir);
+        Files.createDirectories(dir);
+    }
+
+    @PreDestroy
+    void closeFiles() {
+        files.values().forEach(GradeArchive::closeQuietly);
+        files.clear();
+    }
+
+    /**
+     * Starts archiving a closed term in the background. Returns false if
+     * the term is not closed (or is already being archived).
+     *
+     * @throws IllegalStateException if the term is the current one
+     */
+    public boolean start(Long termId) {
+        AcademicTerm current = academicTerms.current();
+        if (current != null && current.getId().equals(termId)) {
+            throw new IllegalStateException("The current term cannot be archived");
+        }
+        if (!academicTerms.startArchiving(termId)) return false;
+        try {
+            taskExecutor.execute(() -> run(termId));
+        } catch (RuntimeException e) {
+            academicTerms.archivingFailed(termId);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Archives, one after the other on the scheduler thread, every closed
+     * term that ended more than archive-after ago. On several nodes each
+     * term goes to whichever claims it first.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 45 3 * * *}")
+    void scheduledArchive() {
+        LocalDate endedBefore = LocalDate.now().minus(archiveAfter);
+        AcademicTerm current = academicTerms.current();
+        for (AcademicTerm term : academicTerms.getAll()) {
+            if (term.getStatus() != AcademicTerm.Status.CLOSED || !term.getEndDate().isBefore(endedBefore)) continue;
+            if (current != null && current.getId().equals(term.getId())) continue;
+            try {
+                if (academicTerms.startArchiving(term.getId())) run(term.getId());
+            } catch (RuntimeException e) {
+                log.warn("Scheduled archiving of term {} failed; will retry", term.getCode(), e);
+            }
+        }
+    }
+
+    /**
+     * The student's live grades with their archived ones merged in, by
+     * grade date and course code like the live lists.
+     */
+    public List<GradeView> transcript(Long studentId, List<GradeView> live) {
+        if (!hasArchivedTerms()) return live;
+        return studentRepository.findById(studentId).map(student -> transcript(student, live)).orElse(live);
+    }
+
+    public List<GradeView> transcript(Student student, List<GradeView> live) {
+        if (!hasArchivedTerms()) return live;
+        List<GradeView> archived = forStudent(student);
+        if (archived.isEmpty()) return live;
+        List<GradeView> all = new ArrayList<>(archived);
+        all.addAll(live);
+        all.sort(TRANSCRIPT_ORDER);
+        return all;
+    }
+
+    /**
+     * The student's grades from every archived term, as grade views. Their
+     * course columns are the course as it was when the term was archived.
+     */
+    public List<GradeView> forStudent(Student student) {
+        List<GradeView> grades = new ArrayList<>();
+        for (AcademicTerm term : academicTerms.getAll()) {
+            if (term.getStatus() != AcademicTerm.Status.ARCHIVED) continue;
+            try {
+                for (GradeArchiveFile.Row row : file(term).forStudent(student.getId())) {
+                    grades.add(GradeView.archived(row, term.getId(), student));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of term " + term.getCode(), e);
+            }
+        }
+        return grades;
+    }
+
+    /**
+     * The courses the student has a grade for in an archived term. Those
+     * grades are final: a new grade for the same course would be a second
+     * one for the pair.
+     */
+    public Set<Long> archivedCourses(Long studentId) {
+        Set<Long> courses = new HashSet<>();
+        if (!hasArchivedTerms()) return courses;
+        for (AcademicTerm term : academicTerms.getAll()) {
+            if (term.getStatus() != AcademicTerm.Status.ARCHIVED) continue;
+            try {
+                for (GradeArchiveFile.Row row : file(term).forStudent(studentId)) courses.add(row.courseId);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of term " + term.getCode(), e);
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * The "studentId:courseId" pairs holding an archived grade in the
+     * course, or in any course when {@code courseId} is null.
+     */
+    public Set<String> archivedPairs(Long courseId) {
+        return archivedPairs(course -> courseId == null || courseId == course);
+    }
+
+    /**
+     * The "studentId:courseId" pairs holding an archived grade in any of
+     * the courses, from one pass over each archived term's key columns.
+     */
+    public Set<String> archivedPairs(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) return new HashSet<>();
+        return archivedPairs(courseIds::contains);
+    }
+
+    private Set<String> archivedPairs(LongPredicate courseFilter) {
+        Set<String> pairs = new HashSet<>();
+        for (AcademicTerm term : academicTerms.getAll()) {
+            if (term.getStatus() != AcademicTerm.Status.ARCHIVED) continue;
+            try {
+                file(term).forEachKey((studentId, course) -> {
+                    if (courseFilter.test(course)) pairs.add(studentId + ":" + course);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of term " + term.getCode(), e);
+            }
+        }
+        return pairs;
+    }
+
+    // studentId, grade points x credits, attempted, passed and completed credits, like GradeRepository.summarizeByStudentIds
+    public List<Object[]> archivedTotals(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) return List.of();
+        return namedJdbcTemplate.query("SELECT student_id, SUM(grade_point_sum), SUM(attempted_credits), " +
+                        "SUM(passed_credits), SUM(completed_credits) FROM archived_grade_totals " +
+                        "WHERE student_id IN (:ids) GROUP BY student_id",
+                new MapSqlParameterSource("ids", studentIds),
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDouble(2), rs.getInt(3), rs.getInt(4), rs.getInt(5)});
+    }
+
+    /**
+     * Forgets a deleted student's archived totals. Their rows stay in the
+     * read-only files but are never looked up again.
+     */
+    public void studentDeleted(Long studentId) {
+        jdbcTemplate.update("DELETE FROM archived_grade_totals WHERE student_id = ?", studentId);
+    }
+
+    /**
+     * Takes a deleted course's archived grades out of archived_grade_totals,
+     * so they stop counting towards GPAs and rankings as its live grades
+     * do, and returns the students whose totals changed. The rows stay in
+     * the read-only files, and on transcripts, as they were when archived.
+     */
+    public Set<Long> courseDeleted(Long courseId) {
+        Set<Long> students = new HashSet<>();
+        if (!hasArchivedTerms()) return students;
+        List<Object[]> adjustments = new ArrayList<>();
+        for (AcademicTerm term : academicTerms.getAll()) {
+            if (term.getStatus() != AcademicTerm.Status.ARCHIVED) continue;
+            try {
+                file(term).forEach(row -> {
+                    if (row.courseId != courseId) return;
+                    int credits = row.credits != null ? row.credits : 0;
+                    adjustments.add(new Object[]{row.gradePointValue * credits, credits,
+                            "PASS".equals(row.status) ? credits : 0,
+                            "PASS".equals(row.status) || "COMPLETE".equals(row.status) ? credits : 0,
+                            row.studentId, term.getId()});
+                    students.add(row.studentId);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of term " + term.getCode(), e);
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE archived_grade_totals SET grade_point_sum = grade_point_sum - ?, " +
+                "attempted_credits = attempted_credits - ?, passed_credits = passed_credits - ?, " +
+                "completed_credits = completed_credits - ? WHERE student_id = ? AND term_id = ?", adjustments);
+        return students;
+    }
+
+    private boolean hasArchivedTerms() {
+        return academicTerms.getAll().stream().anyMatch(term -> term.getStatus() == AcademicTerm.Status.ARCHIVED);
+    }
+
+    private void run(Long termId) {
+        AcademicTerm term = academicTerms.get(termId);
+        String name = "grades-" + (term != null ? term.getCode() : termId) + ".cga";
+        Path target = dir.resolve(name);
+        Path temp = dir.resolve(name + "." + System.currentTimeMillis() + ".tmp");
+        long started = System.currentTimeMillis();
+        try {
+            Files.createDirectories(dir);
+            Integer rows = transactionTemplate.execute(status -> archiveInTransaction(termId, name, temp, target));
+            log.info("Archived {} grades of term {} to {} in {} ms", rows, name, target,
+                    System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            log.error("Archiving term {} failed", termId, e);
+            deleteQuietly(temp);
+            academicTerms.archivingFailed(termId);
+            // Unless the transaction committed after all, the file must go too
+            AcademicTerm now = academicTerms.get(termId);
+            if (now == null || now.getStatus() != AcademicTerm.Status.ARCHIVED) deleteQuietly(target);
+        }
+    }
+
+    private int archiveInTransaction(Long termId, String name, Path temp, Path target) {
+        String partition = AcademicTerms.partitionOf(termId);
+        boolean partitioned = databaseInfo.isPostgres() && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition));
+        // Writes to the term's grades wait until they are gone; reads and other terms carry on
+        String select = SELECT_TERM_GRADES + " FOR UPDATE OF g";
+
+        int[] rows = {0};
+        try (GradeArchiveFile.Writer writer = new GradeArchiveFile.Writer(temp, ROW_GROUP)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(select,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, termId);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.add(new GradeArchiveFile.Row(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getDouble(4),
+                            rs.getString(5), rs.getDouble(6), rs.getString(7), rs.getObject(8, LocalDate.class),
+                            rs.getString(9), rs.getString(10), rs.getString(11), rs.getObject(12, Integer.class)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            force(temp, StandardOpenOption.WRITE);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            target.toFile().setWritable(false, false);
+            // The new name only survives a crash once the directory is on disk too
+            force(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.update(INSERT_TOTALS, termId);
+        // A grade added to the closed term meanwhile was never locked, let alone archived
+        int deleted = jdbcTemplate.update("DELETE FROM grades WHERE term_id = ?", termId);
+        if (deleted != rows[0]) {
+            throw new IllegalStateException("Term " + termId + " took new grades while being archived");
+        }
+        if (!academicTerms.archived(termId, name, rows[0])) {
+            throw new IllegalStateException("Term " + termId + " is no longer being archived");
+        }
+
+        tableVersions.changed(TableVersions.Table.GRADES);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                courseAnalyticsService.allGradesChanged();
+                if (partitioned) taskExecutor.execute(() -> dropPartition(partition));
+            }
+        });
+        return rows[0];
+    }
+
+    /*
+     * Best effort: an empty partition left behind costs nothing but a little
+     * planning time. Detaching concurrently only takes a lock that lets
+     * reads and writes of grades carry on; it runs outside any transaction
+     * (as it must), on an autocommit connection.
+     */
+    private void dropPartition(String partition) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE grades DETACH PARTITION " + partition + " CONCURRENTLY");
+        } catch (RuntimeException e) {
+            log.warn("Could not detach the emptied partition {}; finish with ALTER TABLE grades DETACH " +
+                    "PARTITION {} FINALIZE if it is left pending, then drop it by hand", partition, partition, e);
+            return;
+        }
+        try {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop the detached partition {}; it can be dropped by hand", partition, e);
+        }
+    }
+
+    private GradeArchiveFile file(AcademicTerm term) {
+        return files.computeIfAbsent(term.getId(), id -> {
+            Path path = dir.resolve(term.getArchiveFile());
+            if (!Files.exists(path)) {
+                throw new IllegalStateException("The archive of term " + term.getCode() + " is missing: " + path);
+            }
+            try {
+                return GradeArchiveFile.open(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void force(Path path, StandardOpenOption mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, mode)) {
+            channel.force(true);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private static void closeQuietly(GradeArchiveFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.warn("Could not close {}", file.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.university.coursemanagement;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A closed term's grades in a read-only columnar file. Rows, sorted by
+ * student and course, are stored in groups of a few thousand; within a
+ * group each column is a deflate-compressed block of its own, ids as
+ * varint deltas. A footer lists every group's student range and block
+ * positions, so a transcript lookup reads the footer once (kept in
+ * memory), then only the student column of the groups whose range holds
+ * the student, and the other columns only where it matched.
+ * <p>
+ * Layout: {@code [magic][version]}, the blocks, the footer, then
+ * {@code [footer offset][magic]}. The grade's course is stored with its
+ * code, title and credits as they were at archiving time.
+ */
+final class GradeArchiveFile implements Closeable {
+
+    private static final int MAGIC = 0x43474152; // "CGAR"
+    private static final int VERSION = 1;
+    private static final int COLUMNS = 12;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<Group> groups;
+    private final int rows;
+
+    private GradeArchiveFile(Path path, FileChannel channel, List<Group> groups) {
+        this.path = path;
+        this.channel = channel;
+        this.groups = groups;
+        this.rows = groups.stream().mapToInt(group -> group.rows).sum();
+    }
+
+    /**
+     * Opens an archive and reads its footer.
+     */
+    static GradeArchiveFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, 8);
+            ByteBuffer trailer = read(channel, size - 12, 12);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || trailer.getInt(8) != MAGIC) {
+                throw new IOException(path + " is not a grade archive");
+            }
+            long footerOffset = trailer.getLong(0);
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                    read(channel, footerOffset, (int) (size - 12 - footerOffset)).array()));
+            int count = footer.readInt();
+            List<Group> groups = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int rows = footer.readInt();
+                long minStudent = footer.readLong();
+                long maxStudent = footer.readLong();
+                long[] offsets = new long[COLUMNS];
+                int[] lengths = new int[COLUMNS];
+                for (int c = 0; c < COLUMNS; c++) {
+                    offsets[c] = footer.readLong();
+                    lengths[c] = footer.readInt();
+                }
+                groups.add(new Group(rows, minStudent, maxStudent, offsets, lengths));
+            }
+            return new GradeArchiveFile(path, channel, groups);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The student's archived grades, in course order.
+     */
+    List<Row> forStudent(long studentId) throws IOException {
+        List<Row> found = new ArrayList<>();
+        for (Group group : groups) {
+            if (studentId < group.minStudent || studentId > group.maxStudent) continue;
+            long[] students = readLongs(group, 1);
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < students.length; i++) {
+                if (students[i] != studentId) continue;
+                if (first < 0) first = i;
+                last = i;
+            }
+            if (first < 0) continue;
+            List<Row> rows = readGroup(group);
+            found.addAll(rows.subList(first, last + 1));
+        }
+        return found;
+    }
+
+    /**
+     * Every student and course pair in the archive, reading just those two columns.
+     */
+    void forEachKey(KeyConsumer consumer) throws IOException {
+        for (Group group : groups) {
+            long[] students = readLongs(group, 1);
+            long[] courses = readLongs(group, 2);
+            for (int i = 0; i < students.length; i++) {
+                consumer.accept(students[i], courses[i]);
+            }
+        }
+    }
+
+    void forEach(Consumer<Row> consumer) throws IOException {
+        for (Group group : groups) {
+            readGroup(group).forEach(consumer);
+        }
+    }
+
+    int getRows() { return rows; }
+
+    Path getPath() { return path; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+
+    private List<Row> readGroup(Group group) throws IOException {
+        DataInputStream[] columns = new DataInputStream[COLUMNS];
+        try {
+            for (int c = 0; c < COLUMNS; c++) columns[c] = block(group, c);
+            return decode(group, columns);
+        } finally {
+            for (DataInputStream column : columns) {
+                if (column != null) column.close();
+            }
+        }
+    }
+
+    private static List<Row> decode(Group group, DataInputStream[] columns) throws IOException {
+        long id = 0, student = 0, course = 0;
+        List<Row> rows = new ArrayList<>(group.rows);
+        for (int i = 0; i < group.rows; i++) {
+            id += readVarLong(columns[0]);
+            student += readVarLong(columns[1]);
+            course += readVarLong(columns[2]);
+            rows.add(new Row(id, student, course, columns[3].readDouble(), readString(columns[4]),
+                    columns[5].readDouble(), readString(columns[6]),
+                    columns[7].readBoolean() ? LocalDate.ofEpochDay(readVarLong(columns[7])) : null,
+                    readString(columns[8]), readString(columns[9]), readString(columns[10]),
+                    columns[11].readBoolean() ? (int) readVarLong(columns[11]) : null));
+        }
+        return rows;
+    }
+
+    private long[] readLongs(Group group, int column) throws IOException {
+        try (DataInputStream in = block(group, column)) {
+            long[] values = new long[group.rows];
+            long value = 0;
+            for (int i = 0; i < group.rows; i++) {
+                value += readVarLong(in);
+                values[i] = value;
+            }
+            return values;
+        }
+    }
+
+    private DataInputStream block(Group group, int column) throws IOException {
+        byte[] compressed = read(channel, group.offsets[column], group.lengths[column]).array();
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+        return buffer.flip();
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+
+    interface KeyConsumer {
+        void accept(long studentId, long courseId);
+    }
+
+    private static final class Group {
+        private final int rows;
+        private final long minStudent;
+        private final long maxStudent;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        Group(int rows, long minStudent, long maxStudent, long[] offsets, int[] lengths) {
+            this.rows = rows;
+            this.minStudent = minStudent;
+            this.maxStudent = maxStudent;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+    }
+
+    /**
+     * One archived grade.
+     */
+    static final class Row {
+        final long id;
+        final long studentId;
+        final long courseId;
+        final double score;
+        final String letterGrade;
+        final double gradePointValue;
+        final String status;
+        final LocalDate gradeDate;
+        final String remarks;
+        final String courseCode;
+        final String courseTitle;
+        final Integer credits;
+
+        Row(long id, long studentId, long courseId, double score, String letterGrade, double gradePointValue,
+            String status, LocalDate gradeDate, String remarks, String courseCode, String courseTitle, Integer credits) {
+            this.id = id;
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.score = score;
+            this.letterGrade = letterGrade;
+            this.gradePointValue = gradePointValue;
+            this.status = status;
+            this.gradeDate = gradeDate;
+            this.remarks = remarks;
+            this.courseCode = courseCode;
+            this.courseTitle = courseTitle;
+            this.credits = credits;
+        }
+    }
+
+    /**
+     * Writes an archive from rows handed over in student and course order.
+     * The file only becomes readable by {@link #open} once closed.
+     */
+    static final class Writer implements Closeable {
+        private final OutputStream out;
+        private final int groupSize;
+        private final List<Row> pending;
+        private final ByteArrayOutputStream footer = new ByteArrayOutputStream();
+        private final DataOutputStream footerOut = new DataOutputStream(footer);
+        private long position;
+        private int groupCount;
+        private long lastStudent = Long.MIN_VALUE;
+
+        Writer(Path path, int groupSize) throws IOException {
+            this.out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE), 1 << 16);
+            this.groupSize = groupSize;
+            this.pending = new ArrayList<>(groupSize);
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            position = 8;
+        }
+
+        void add(Row row) throws IOException {
+            if (row.studentId < lastStudent) throw new IllegalArgumentException("Rows must be in student order");
+            lastStudent = row.studentId;
+            pending.add(row);
+            if (pending.size() == groupSize) writeGroup();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (!pending.isEmpty()) writeGroup();
+                DataOutputStream tail = new DataOutputStream(out);
+                tail.writeInt(groupCount);
+                footer.writeTo(tail);
+                tail.writeLong(position);
+                tail.writeInt(MAGIC);
+                tail.flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void writeGroup() throws IOException {
+            ByteArrayOutputStream[] blocks = new ByteArrayOutputStream[COLUMNS];
+            DataOutputStream[] columns = new DataOutputStream[COLUMNS];
+            for (int c = 0; c < COLUMNS; c++) {
+                blocks[c] = new ByteArrayOutputStream();
+                columns[c] = new DataOutputStream(new DeflaterOutputStream(blocks[c]));
+            }
+            long id = 0, student = 0, course = 0;
+            for (Row row : pending) {
+                writeVarLong(columns[0], row.id - id);
+                writeVarLong(columns[1], row.studentId - student);
+                writeVarLong(columns[2], row.courseId - course);
+                id = row.id;
+                student = row.studentId;
+                course = row.courseId;
+                columns[3].writeDouble(row.score);
+                writeString(columns[4], row.letterGrade);
+                columns[5].writeDouble(row.gradePointValue);
+                writeString(columns[6], row.status);
+                columns[7].writeBoolean(row.gradeDate != null);
+                if (row.gradeDate != null) writeVarLong(columns[7], row.gradeDate.toEpochDay());
+                writeString(columns[8], row.remarks);
+                writeString(columns[9], row.courseCode);
+                writeString(columns[10], row.courseTitle);
+                columns[11].writeBoolean(row.credits != null);
+                if (row.credits != null) writeVarLong(columns[11], row.credits);
+            }
+
+            footerOut.writeInt(pending.size());
+            footerOut.writeLong(pending.get(0).studentId);
+            footerOut.writeLong(pending.get(pending.size() - 1).studentId);
+            for (int c = 0; c < COLUMNS; c++) {
+                columns[c].close();
+                byte[] block = blocks[c].toByteArray();
+                out.write(block);
+                footerOut.writeLong(position);
+                footerOut.writeInt(block.length);
+                position += block.length;
+            }
+            groupCount++;
+            pending.clear();
+        }
+    }
+}
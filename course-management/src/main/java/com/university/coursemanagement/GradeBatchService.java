@@ -0,0 +1,244 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a whole roster of grades at once: ids are validated with set-based
+ * lookups (the course lookup also finding each course's grading scale) and
+ * every accepted row goes out in a single JDBC batch of upserts keyed on
+ * (student_id, course_id), plus term_id on Postgres where grades is
+ * partitioned by term (grade_keys keeps the pair unique across terms
+ * there). New grades go into the current term and existing ones stay in
+ * theirs; a grade in an archived term is final and its row is rejected.
+ * The affected students' academic summaries are
+ * recomputed in the same transaction.
+ */
+@Service
+public class GradeBatchService {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO grades (student_id, course_id, score, letter_grade, grade_point_value, status, grade_date, remarks, term_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id, course_id, term_id) DO UPDATE SET score = EXCLUDED.score, " +
+            "letter_grade = EXCLUDED.letter_grade, grade_point_value = EXCLUDED.grade_point_value, " +
+            "status = EXCLUDED.status, remarks = EXCLUDED.remarks";
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO grades (student_id, course_id, score, letter_grade, grade_point_value, status, grade_date, remarks, term_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE score = VALUES(score), letter_grade = VALUES(letter_grade), " +
+            "grade_point_value = VALUES(grade_point_value), status = VALUES(status), remarks = VALUES(remarks)";
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private GradeJournal gradeJournal;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+    @Transactional
+    public BatchResult upsert(List<GradeController.GradeRequest> requests) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (GradeController.GradeRequest request : requests) {
+            if (request.getStudentId() != null) studentIds.add(request.getStudentId());
+            if (request.getCourseId() != null) courseIds.add(request.getCourseId());
+        }
+
+        Set<Long> knownStudents = studentIds.isEmpty() ? Set.of() : studentRepository.findExistingIds(studentIds);
+        Map<Long, GradingScale> scales = gradingScales.forCourses(courseIds);
+        Set<Long> knownCourses = scales.keySet();
+        // Existing grades by "studentId:courseId", with their id and values for the journal
+        Map<String, Object[]> existing = new HashMap<>();
+        if (!knownStudents.isEmpty() && !knownCourses.isEmpty()) {
+            for (Object[] row : gradeRepository.findExistingByPairs(knownStudents, knownCourses)) {
+                existing.put(row[0] + ":" + row[1], row);
+            }
+        }
+
+        BatchResult result = new BatchResult();
+        List<Object[]> batch = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Set<Long> touchedStudents = new HashSet<>();
+        Set<Long> touchedCourses = new HashSet<>();
+        Date today = Date.valueOf(LocalDate.now());
+        Long currentTerm = academicTerms.current().getId();
+        // Archived pairs in the batch's courses, read once if any row is a new grade
+        Set<String> archived = null;
+
+        for (int i = 0; i < requests.size(); i++) {
+            GradeController.GradeRequest request = requests.get(i);
+            String key = request.getStudentId() + ":" + request.getCourseId();
+            String error = validate(request, knownStudents, knownCourses);
+            if (error == null && !seen.add(key)) error = "Duplicate row for student and course";
+            if (error == null && !existing.containsKey(key)) {
+                if (archived == null) archived = gradeArchive.archivedPairs(knownCourses);
+                if (archived.contains(key)) error = "Grade is in an archived term";
+            }
+            if (error != null) {
+                result.add(new RowResult(i, request, RowResult.REJECTED, null, error));
+                continue;
+            }
+
+            double score = request.getScore();
+            GradingScale scale = scales.get(request.getCourseId());
+            String letterGrade = scale.letterGrade(score);
+            double gradePoints = scale.gradePointValue(score);
+            String status = scale.status(score);
+            Object[] old = existing.get(key);
+            batch.add(new Object[]{request.getStudentId(), request.getCourseId(), score, letterGrade,
+                    gradePoints, status, today, request.getRemarks(), old != null ? old[8] : currentTerm});
+            touchedStudents.add(request.getStudentId());
+            touchedCourses.add(request.getCourseId());
+            String outcome = old != null ? RowResult.UPDATED : RowResult.CREATED;
+            result.add(new RowResult(i, request, outcome, letterGrade, null));
+            recordChange(request, outcome, letterGrade, gradePoints, status);
+            journal(request, old, new GradeChange.State(score, letterGrade, gradePoints, status, request.getRemarks()));
+        }
+
+        if (!batch.isEmpty()) {
+            String sql = databaseInfo.isPostgres() ? POSTGRES_UPSERT : MYSQL_UPSERT;
+            for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch.subList(from, Math.min(from + BATCH_SIZE, batch.size())));
+            }
+            academicSummaryService.recompute(touchedStudents);
+            tableVersions.changed(TableVersions.Table.GRADES);
+            courseAnalyticsService.gradesChanged(touchedCourses);
+        }
+        return result;
+    }
+
+    // Batch rows have no generated id to hand out; clients key grades on student and course
+    private void recordChange(GradeController.GradeRequest request, String outcome, String letterGrade,
+                              double gradePoints, String status) {
+        boolean created = RowResult.CREATED.equals(outcome);
+        // An update keeps the original grade date
+        changeFeed.record(ChangeEvent.Type.GRADE, created ? ChangeEvent.Action.CREATED : ChangeEvent.Action.UPDATED,
+                null, request.getCourseId(), request.getStudentId(),
+                ChangeFeed.gradeData(null, request.getStudentId(), request.getCourseId(), request.getScore(), letterGrade,
+                        gradePoints, status,
+                        created ? LocalDate.now() : null, request.getRemarks()));
+    }
+
+    // A created row's id is not known here; its history is found by student and course
+    private void journal(GradeController.GradeRequest request, Object[] old, GradeChange.State after) {
+        if (old == null) {
+            gradeJournal.record(GradeChange.Action.CREATED, null, request.getStudentId(), request.getCourseId(),
+                    null, after, null);
+            return;
+        }
+        GradeChange.State before = new GradeChange.State((Double) old[3], (String) old[4], (Double) old[5],
+                (String) old[6], (String) old[7]);
+        gradeJournal.record(GradeChange.Action.UPDATED, (Long) old[2], request.getStudentId(), request.getCourseId(),
+                before, after, null);
+    }
+
+    private String validate(GradeController.GradeRequest request, Set<Long> knownStudents, Set<Long> knownCourses) {
+        if (request.getStudentId() == null || !knownStudents.contains(request.getStudentId())) {
+            return "Student not found";
+        }
+        if (request.getCourseId() == null || !knownCourses.contains(request.getCourseId())) {
+            return "Course not found";
+        }
+        // NaN fails both range checks, so it is ruled out explicitly
+        if (request.getScore() == null || !Double.isFinite(request.getScore())
+                || request.getScore() < 0 || request.getScore() > 100) {
+            return "Score must be between 0 and 100";
+        }
+        return null;
+    }
+
+
+    public static class BatchResult {
+        private int created;
+        private int updated;
+        private int rejected;
+        private final List<RowResult> rows = new ArrayList<>();
+
+        void add(RowResult row) {
+            rows.add(row);
+            switch (row.getOutcome()) {
+                case RowResult.CREATED -> created++;
+                case RowResult.UPDATED -> updated++;
+                default -> rejected++;
+            }
+        }
+
+        public int getCreated() { return created; }
+        public int getUpdated() { return updated; }
+        public int getRejected() { return rejected; }
+        public List<RowResult> getRows() { return rows; }
+    }
+
+    public static class RowResult {
+        static final String CREATED = "CREATED";
+        static final String UPDATED = "UPDATED";
+        static final String REJECTED = "REJECTED";
+
+        private final int row;
+        private final Long studentId;
+        private final Long courseId;
+        private final String outcome;
+        private final String letterGrade;
+        private final String error;
+
+        RowResult(int row, GradeController.GradeRequest request, String outcome, String letterGrade, String error) {
+            this.row = row;
+            this.studentId = request.getStudentId();
+            this.courseId = request.getCourseId();
+            this.outcome = outcome;
+            this.letterGrade = letterGrade;
+            this.error = error;
+        }
+
+        public int getRow() { return row; }
+        public Long getStudentId() { return studentId; }
+        public Long getCourseId() { return courseId; }
+        public String getOutcome() { return outcome; }
+        public String getLetterGrade() { return letterGrade; }
+        public String getError() { return error; }
+    }
+}
@@ -0,0 +1,168 @@
+package com.university.coursemanagement;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * One entry of the {@link GradeJournal}: a grade's values before and after
+ * a change, who made it and when. {@code before} is null for a new grade,
+ * {@code after} for a deleted one. Entries are numbered per node when they
+ * are written to the local log.
+ */
+public class GradeChange {
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    private final long seq;
+    private final Action action;
+    private final Long gradeId;
+    private final Long studentId;
+    private final Long courseId;
+    private final State before;
+    private final State after;
+    private final String changedBy;
+    private final LocalDateTime changedAt;
+
+    public GradeChange(Action action, Long gradeId, Long studentId, Long courseId, State before, State after,
+                       String changedBy, LocalDateTime changedAt) {
+        this(0, action, gradeId, studentId, courseId, before, after, changedBy, changedAt);
+    }
+
+    GradeChange(long seq, Action action, Long gradeId, Long studentId, Long courseId, State before, State after,
+                String changedBy, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.action = action;
+        this.gradeId = gradeId;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.before = before;
+        this.after = after;
+        this.changedBy = changedBy;
+        this.changedAt = changedAt;
+    }
+
+    GradeChange withSeq(long seq) {
+        return new GradeChange(seq, action, gradeId, studentId, courseId, before, after, changedBy, changedAt);
+    }
+
+    /** Binary form in the local log: fixed fields first, then the nullable ones behind presence flags. */
+    void write(DataOutput out) throws IOException {
+        out.writeLong(seq);
+        out.writeLong(changedAt.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(changedAt.getNano());
+        out.writeByte(action.ordinal());
+        writeLong(out, gradeId);
+        out.writeLong(studentId);
+        out.writeLong(courseId);
+        State.write(out, before);
+        State.write(out, after);
+        writeString(out, changedBy);
+    }
+
+    static GradeChange read(DataInput in) throws IOException {
+        long seq = in.readLong();
+        LocalDateTime changedAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        Action action = Action.values()[in.readByte()];
+        Long gradeId = readLong(in);
+        long studentId = in.readLong();
+        long courseId = in.readLong();
+        State before = State.read(in);
+        State after = State.read(in);
+        String changedBy = readString(in);
+        return new GradeChange(seq, action, gradeId, studentId, courseId, before, after, changedBy, changedAt);
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeLong(value);
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeDouble(DataOutput out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeDouble(value);
+    }
+
+    private static Double readDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+
+    public long getSeq() { return seq; }
+    public Action getAction() { return action; }
+    public Long getGradeId() { return gradeId; }
+    public Long getStudentId() { return studentId; }
+    public Long getCourseId() { return courseId; }
+    public State getBefore() { return before; }
+    public State getAfter() { return after; }
+    public String getChangedBy() { return changedBy; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+
+    /**
+     * A grade's values at one moment.
+     */
+    public static class State {
+        private final Double score;
+        private final String letterGrade;
+        private final Double gradePointValue;
+        private final String status;
+        private final String remarks;
+
+        public State(Double score, String letterGrade, Double gradePointValue, String status, String remarks) {
+            this.score = score;
+            this.letterGrade = letterGrade;
+            this.gradePointValue = gradePointValue;
+            this.status = status;
+            this.remarks = remarks;
+        }
+
+        static State of(Grade grade) {
+            return new State(grade.getScore(), grade.getLetterGrade(), grade.getGradePointValue(), grade.getStatus(),
+                    grade.getRemarks());
+        }
+
+        static void write(DataOutput out, State state) throws IOException {
+            out.writeBoolean(state != null);
+            if (state == null) return;
+            writeDouble(out, state.score);
+            writeString(out, state.letterGrade);
+            writeDouble(out, state.gradePointValue);
+            writeString(out, state.status);
+            writeString(out, state.remarks);
+        }
+
+        static State read(DataInput in) throws IOException {
+            if (!in.readBoolean()) return null;
+            return new State(readDouble(in), readString(in), readDouble(in), readString(in), readString(in));
+        }
+
+        boolean sameAs(State other) {
+            return other != null && Objects.equals(score, other.score) && Objects.equals(letterGrade, other.letterGrade)
+                    && Objects.equals(gradePointValue, other.gradePointValue) && Objects.equals(status, other.status)
+                    && Objects.equals(remarks, other.remarks);
+        }
+
+        public Double getScore() { return score; }
+        public String getLetterGrade() { return letterGrade; }
+        public Double getGradePointValue() { return gradePointValue; }
+        public String getStatus() { return status; }
+        public String getRemarks() { return remarks; }
+    }
+}
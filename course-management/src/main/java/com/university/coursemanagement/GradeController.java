@@ -1,108 +1,258 @@
 package com.university.coursemanagement;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static com.university.coursemanagement.TableVersions.Table.*;
 
 @RestController
 @RequestMapping("/api/grades")
 @CrossOrigin(origins = "http://localhost:3000")
 public class GradeController {
 
+    private static final Set<String> SORT_FIELDS = Set.of("id", "score");
+
     @Autowired
     private GradeRepository gradeRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    @Autowired
+    private FieldSelector fieldSelector;
+
+    @Autowired
+    private GradeBatchService gradeBatchService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private GradeHistoryService gradeHistoryService;
+
+    @Autowired
+    private GradeArchive gradeArchive;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private AcademicTerms academicTerms;
 
 
     @GetMapping
-    public ResponseEntity<List<Grade>> getAllGrades() {
-        List<Grade> grades = gradeRepository.findAll();
-        return ResponseEntity.ok(grades);
+    public ResponseEntity<?> getAllGrades(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(required = false) String sort,
+                                          @RequestParam(defaultValue = "false") boolean desc,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) Long studentId,
+                                          @RequestParam(required = false) Long courseId,
+                                          @RequestParam(required = false) Long termId,
+                                          ServletWebRequest request) {
+        // Fetch-join the eager associations so a page is one statement, not 1 + 2N
+        Specification<Grade> filter = (root, query, cb) -> {
+            root.fetch("student");
+            root.fetch("course");
+            return null;
+        };
+        if (status != null && !status.isBlank()) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("status"), status.toUpperCase()));
+        }
+        if (studentId != null) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("student").get("id"), studentId));
+        }
+        if (courseId != null) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("course").get("id"), courseId));
+        }
+        // On Postgres this reads the term's partition only
+        if (termId != null) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("termId"), termId));
+        }
+        Specification<Grade> grades = filter;
+        return tableVersions.conditional(request,
+                () -> Keyset.page(gradeRepository, Grade.class, grades, cursor, size, sort, desc, SORT_FIELDS),
+                GRADES, STUDENTS, COURSES);
     }
 
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllGrades() {
+        return ResponseEntity.ok(jsonArrayStreamer.stream(Grade.class, gradeRepository::streamAll));
+    }
+
+
+    // Live and archived grades, in transcript order
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Grade>> getGradesByStudent(@PathVariable Long studentId) {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        return ResponseEntity.ok(grades);
+    public ResponseEntity<?> getGradesByStudent(@PathVariable Long studentId,
+                                                @RequestParam(required = false) String fields,
+                                                ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            List<GradeView> grades = gradeArchive.transcript(studentId, gradeRepository.findViewsByStudentId(studentId));
+            return ResponseEntity.ok(fieldSelector.select(grades, fields));
+        }, GRADES, STUDENTS, COURSES);
     }
 
 
+    // Every live grade of the course; termId picks one term, openOnly the open terms
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<Grade>> getGradesByCourse(@PathVariable Long courseId) {
-        List<Grade> grades = gradeRepository.findByCourseId(courseId);
-        return ResponseEntity.ok(grades);
+    public ResponseEntity<?> getGradesByCourse(@PathVariable Long courseId,
+                                               @RequestParam(required = false) Long termId,
+                                               @RequestParam(defaultValue = "false") boolean openOnly,
+                                               @RequestParam(required = false) String fields,
+                                               ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            List<GradeView> grades;
+            if (termId != null) {
+                grades = gradeRepository.findViewsByCourseIdAndTermId(courseId, termId);
+            } else if (openOnly) {
+                List<Long> openTerms = academicTerms.openIds();
+                grades = openTerms.isEmpty() ? List.of()
+                        : gradeRepository.findViewsByCourseIdAndTermIdIn(courseId, openTerms);
+            } else {
+                grades = gradeRepository.findViewsByCourseId(courseId);
+            }
+            return ResponseEntity.ok(fieldSelector.select(grades, fields));
+        }, GRADES, STUDENTS, COURSES);
     }
 
 
     @GetMapping("/student/{studentId}/gpa")
     public ResponseEntity<Double> getStudentGPA(@PathVariable Long studentId) {
-        Double gpa = gradeRepository.calculateGPAByStudentId(studentId);
-        return ResponseEntity.ok(gpa != null ? gpa : 0.0);
+        return ResponseEntity.ok(academicSummaryService.getSummary(studentId).getGpa());
     }
 
 
-    @PostMapping
-    public ResponseEntity<?> createOrUpdateGrade(@RequestBody GradeRequest request) {
+    @GetMapping("/student/{studentId}/summary")
+    public ResponseEntity<AcademicSummary> getStudentSummary(@PathVariable Long studentId) {
+        return ResponseEntity.ok(academicSummaryService.getSummary(studentId));
+    }
 
-        Optional<Student> studentOpt = studentRepository.findById(request.getStudentId());
-        Optional<Course> courseOpt = courseRepository.findById(request.getCourseId());
 
-        if (!studentOpt.isPresent() || !courseOpt.isPresent()) {
-            return ResponseEntity.badRequest().body("Student or Course not found");
-        }
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<Integer> rebuildSummaries() {
+        return ResponseEntity.ok(academicSummaryService.rebuildAll());
+    }
 
 
-        Optional<Grade> existingGrade = gradeRepository.findByStudentIdAndCourseId(
-                request.getStudentId(), request.getCourseId());
+    // Every journaled change to a student's grade for a course, oldest first
+    @GetMapping("/history")
+    public ResponseEntity<List<GradeChange>> getHistory(@RequestParam Long studentId, @RequestParam Long courseId) {
+        return ResponseEntity.ok(gradeHistoryService.history(studentId, courseId));
+    }
 
-        Grade grade;
-        if (existingGrade.isPresent()) {
 
-            grade = existingGrade.get();
-            grade.setScore(request.getScore());
-            grade.setRemarks(request.getRemarks());
-        } else {
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<GradeChange>> getGradeHistory(@PathVariable Long id) {
+        return gradeHistoryService.historyOfGrade(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
 
-            grade = new Grade(studentOpt.get(), courseOpt.get(), request.getScore());
-            grade.setRemarks(request.getRemarks());
+    // A course's or a student's grades as they stood at a past moment, e.g. ?at=2025-05-01T09:00&courseId=3
+    @GetMapping("/as-of")
+    public ResponseEntity<?> getGradesAsOf(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                           @RequestParam(required = false) Long courseId,
+                                           @RequestParam(required = false) Long studentId) {
+        if ((courseId == null) == (studentId == null)) {
+            return ResponseEntity.badRequest().body("Give either courseId or studentId");
+        }
+        try {
+            return ResponseEntity.ok(gradeHistoryService.asOf(at, courseId, studentId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
+    }
+
 
-        Grade savedGrade = gradeRepository.save(grade);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedGrade);
+    // Puts a course's grades (all grades without courseId) back the way they were at a past moment
+    @PostMapping("/restore")
+    public ResponseEntity<?> restoreGrades(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                           @RequestParam(required = false) Long courseId) {
+        try {
+            return ResponseEntity.ok(gradeHistoryService.restore(at, courseId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
-    @PutMapping("/{id}")
-    public ResponseEntity<Grade> updateGrade(@PathVariable Long id, @RequestBody GradeRequest request) {
-        Optional<Grade> gradeOpt = gradeRepository.findById(id);
+    @PostMapping
+    public ResponseEntity<?> createOrUpdateGrade(@RequestBody GradeRequest request) {
+        Optional<Grade> savedGrade;
+        try {
+            savedGrade = gradeService.createOrUpdate(request);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        if (!savedGrade.isPresent()) {
+            return ResponseEntity.badRequest().body("Student or Course not found");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedGrade.get());
+    }
+
 
-        if (gradeOpt.isPresent()) {
-            Grade grade = gradeOpt.get();
-            grade.setScore(request.getScore());
-            grade.setRemarks(request.getRemarks());
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<GradeBatchService.BatchResult> createOrUpdateGrades(@RequestBody List<GradeRequest> requests) {
+        return ResponseEntity.ok(gradeBatchService.upsert(requests));
+    }
 
-            Grade updatedGrade = gradeRepository.save(grade);
-            return ResponseEntity.ok(updatedGrade);
+
+    // CSV roster: studentId,courseId,score[,remarks] with an optional header row
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<?> createOrUpdateGradesFromCsv(@RequestBody String csv) {
+        List<GradeRequest> requests = new ArrayList<>();
+        String[] lines = csv.split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            List<String> fields = Csv.parseLine(lines[i]);
+            if (i == 0 && "studentId".equalsIgnoreCase(fields.get(0))) continue;
+            if (fields.size() < 3) {
+                return ResponseEntity.badRequest().body("Line " + (i + 1) + ": expected studentId,courseId,score[,remarks]");
+            }
+            try {
+                GradeRequest request = new GradeRequest();
+                request.setStudentId(Long.valueOf(fields.get(0)));
+                request.setCourseId(Long.valueOf(fields.get(1)));
+                request.setScore(Double.valueOf(fields.get(2)));
+                request.setRemarks(fields.size() > 3 && !fields.get(3).isEmpty() ? fields.get(3) : null);
+                requests.add(request);
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body("Line " + (i + 1) + ": " + e.getMessage());
+            }
         }
+        return ResponseEntity.ok(gradeBatchService.upsert(requests));
+    }
 
-        return ResponseEntity.notFound().build();
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Grade> updateGrade(@PathVariable Long id, @RequestBody GradeRequest request) {
+        return gradeService.update(id, request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteGrade(@PathVariable Long id) {
-        if (gradeRepository.existsById(id)) {
-            gradeRepository.deleteById(id);
+        if (gradeService.delete(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
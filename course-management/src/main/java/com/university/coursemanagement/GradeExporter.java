@@ -0,0 +1,256 @@
+package com.university.coursemanagement;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams grades, joined with their student and course, as CSV or NDJSON.
+ * Rows are read in keyset chunks, each in a short read-only transaction of
+ * its own, and written out between them, so only one chunk is ever held in
+ * memory and a slow client never holds a pooled connection. The header
+ * goes out before the first query runs. Chunks are separate snapshots: a
+ * grade written during a long export may or may not be in it.
+ * <p>
+ * A student's transcript also reads through the {@link GradeArchive}, as
+ * the student's grade list does: the archived grades are few, so they are
+ * read up front and merged into the chunks in transcript order.
+ */
+@Component
+public class GradeExporter {
+
+    public enum Format { CSV, NDJSON }
+
+    public enum Order { GRADE_ID, ROSTER, TRANSCRIPT }
+
+    private static final int CHUNK = 1000;
+
+    private static final String[] COLUMNS = {"gradeId", "studentId", "studentNumber", "firstName", "lastName",
+            "courseId", "courseCode", "courseTitle", "credits", "score", "letterGrade", "gradePointValue",
+            "status", "gradeDate", "remarks"};
+
+    private static final String SELECT =
+            "SELECT g.id, s.id, s.student_id, s.first_name, s.last_name, c.id, c.code, c.title, c.credits, " +
+            "g.score, g.letter_grade, g.grade_point_value, g.status, g.grade_date, g.remarks " +
+            "FROM grades g JOIN students s ON s.id = g.student_id JOIN courses c ON c.id = g.course_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+
+    /**
+     * @param from   first grade date to include, or null
+     * @param to     last grade date to include, or null
+     * @param status grade status (PASS, COMPLETE or INCOMPLETE), or null for all
+     */
+    public StreamingResponseBody export(Format format, Order order, LocalDate from, LocalDate to, String status,
+                                        Long courseId, Long studentId) {
+        StringBuilder filter = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) { filter.append(" AND g.grade_date >= ?"); args.add(Date.valueOf(from)); }
+        if (to != null) { filter.append(" AND g.grade_date <= ?"); args.add(Date.valueOf(to)); }
+        if (status != null) { filter.append(" AND g.status = ?"); args.add(status); }
+        if (courseId != null) { filter.append(" AND g.course_id = ?"); args.add(courseId); }
+        if (studentId != null) { filter.append(" AND g.student_id = ?"); args.add(studentId); }
+        ChunkKey chunkKey = ChunkKey.of(order);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            rows.start();
+            writer.flush();
+
+            List<Object[]> archived = order == Order.TRANSCRIPT && studentId != null
+                    ? archived(studentId, from, to, status) : List.of();
+            int nextArchived = 0;
+            Object[] after = null;
+            while (true) {
+                StringBuilder sql = new StringBuilder(filter);
+                List<Object> chunkArgs = new ArrayList<>(args);
+                if (after != null) {
+                    sql.append(" AND (").append(chunkKey.columns).append(") > (")
+                            .append("?, ".repeat(after.length - 1)).append("?)");
+                    chunkArgs.addAll(List.of(after));
+                }
+                sql.append(" ORDER BY ").append(chunkKey.columns).append(" LIMIT ").append(CHUNK);
+                List<Object[]> chunk = tx.execute(txStatus ->
+                        jdbcTemplate.query(sql.toString(), (rs, i) -> values(rs), chunkArgs.toArray()));
+
+                // Written with no transaction open
+                for (Object[] row : chunk) {
+                    while (nextArchived < archived.size()
+                            && ChunkKey.TRANSCRIPT_ORDER.compare(archived.get(nextArchived), row) < 0) {
+                        rows.row(archived.get(nextArchived++));
+                    }
+                    rows.row(row);
+                }
+                writer.flush();
+                if (chunk.size() < CHUNK) break;
+                after = chunkKey.of(chunk.get(chunk.size() - 1));
+            }
+            while (nextArchived < archived.size()) rows.row(archived.get(nextArchived++));
+            rows.finish();
+            writer.flush();
+        };
+    }
+
+    /**
+     * The columns an export is ordered by, ending in the grade id so every
+     * row has its own position, and how to read them back off a row.
+     */
+    private record ChunkKey(String columns, Function<Object[], Object[]> key) {
+
+        // Undated grades sort last on every database, as in the transcript itself
+        private static final LocalDate UNDATED = LocalDate.of(9999, 12, 31);
+
+        // The TRANSCRIPT columns, for rows that do not come from the query
+        static final Comparator<Object[]> TRANSCRIPT_ORDER = Comparator
+                .comparing((Object[] row) -> row[13] != null ? (LocalDate) row[13] : UNDATED)
+                .thenComparing(row -> (String) row[6], Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(row -> (Long) row[0]);
+
+        static ChunkKey of(Order order) {
+            return switch (order) {
+                case GRADE_ID -> new ChunkKey("g.id", row -> new Object[]{row[0]});
+                case ROSTER -> new ChunkKey("s.last_name, s.first_name, s.id, g.id",
+                        row -> new Object[]{row[4], row[3], row[1], row[0]});
+                case TRANSCRIPT -> new ChunkKey("COALESCE(g.grade_date, DATE '9999-12-31'), c.code, g.id",
+                        row -> new Object[]{Date.valueOf(row[13] != null ? (LocalDate) row[13] : UNDATED), row[6], row[0]});
+            };
+        }
+
+        Object[] of(Object[] row) {
+            return key.apply(row);
+        }
+    }
+
+    // The student's archived grades that pass the filters, as rows in transcript order
+    private List<Object[]> archived(Long studentId, LocalDate from, LocalDate to, String status) {
+        List<Object[]> archived = new ArrayList<>();
+        for (GradeView grade : gradeArchive.transcript(studentId, List.of())) {
+            LocalDate date = grade.getGradeDate();
+            if (from != null && (date == null || date.isBefore(from))) continue;
+            if (to != null && (date == null || date.isAfter(to))) continue;
+            if (status != null && !status.equals(grade.getStatus())) continue;
+            GradeView.StudentSummary student = grade.getStudent();
+            GradeView.CourseSummary course = grade.getCourse();
+            archived.add(new Object[]{grade.getId(), student.getId(), student.getStudentId(), student.getFirstName(),
+                    student.getLastName(), course.getId(), course.getCode(), course.getTitle(), course.getCredits(),
+                    grade.getScore(), grade.getLetterGrade(), grade.getGradePointValue(), grade.getStatus(), date,
+                    grade.getRemarks()});
+        }
+        archived.sort(ChunkKey.TRANSCRIPT_ORDER);
+        return archived;
+    }
+
+    private static Object[] values(ResultSet rs) throws SQLException {
+        return new Object[]{rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getLong(6), rs.getString(7), rs.getString(8), rs.getObject(9, Integer.class),
+                rs.getObject(10, Double.class), rs.getString(11), rs.getObject(12, Double.class), rs.getString(13),
+                rs.getObject(14, LocalDate.class), rs.getString(15)};
+    }
+
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void row(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start() throws IOException {
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(Csv.escape(values[i]));
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer out;
+        private JsonGenerator json;
+        private boolean wroteRows;
+
+        NdjsonRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start() throws IOException {
+            json = objectMapper.getFactory().createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            json.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            json.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                json.writeFieldName(COLUMNS[i]);
+                if (values[i] instanceof LocalDate date) json.writeString(date.toString());
+                else json.writeObject(values[i]);
+            }
+            json.writeEndObject();
+            wroteRows = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (wroteRows) json.writeRaw('\n');
+            json.flush();
+        }
+    }
+}
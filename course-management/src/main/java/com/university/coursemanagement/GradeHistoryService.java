@@ -0,0 +1,370 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reads the {@link GradeJournal} back: a grade's history, the grades of a
+ * course or student as they stood at a past moment, and restoring a
+ * course's grades to that moment. Reads take the grade_history table plus
+ * the entries of this node's log not compacted into it yet, and leave
+ * compaction to its schedule; changes other nodes have not compacted yet
+ * are missing until they do.
+ * <p>
+ * A past state is the current grades with every journaled student/course
+ * pair wound back: to the after-values of its last change at or before the
+ * moment, or, if its first change came later, to that change's
+ * before-values. Moments before the journal's first entry are refused,
+ * since grades that existed before it began have no record of when they
+ * appeared.
+ */
+@Service
+public class GradeHistoryService {
+
+    private static final String SELECT_HISTORY =
+            "SELECT seq, action, grade_id, student_id, course_id, " +
+            "old_score, old_letter_grade, old_grade_point_value, old_status, old_remarks, " +
+            "new_score, new_letter_grade, new_grade_point_value, new_status, new_remarks, changed_by, changed_at " +
+            "FROM grade_history";
+
+    private static final String SELECT_GRADES =
+            "SELECT id, student_id, course_id, score, letter_grade, grade_point_value, status, remarks FROM grades";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GradeJournal gradeJournal;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+
+    /**
+     * Every journaled change to the student's grade for the course, oldest first.
+     */
+    public List<GradeChange> history(Long studentId, Long courseId) {
+        return changes("student_id = ? AND course_id = ?", new Object[]{studentId, courseId},
+                change -> change.getStudentId().equals(studentId) && change.getCourseId().equals(courseId));
+    }
+
+    /**
+     * The history of the grade with this id, which may since have been deleted.
+     */
+    public Optional<List<GradeChange>> historyOfGrade(Long gradeId) {
+        List<Long[]> pairs = jdbcTemplate.query("SELECT student_id, course_id FROM grades WHERE id = ?",
+                (rs, i) -> new Long[]{rs.getLong(1), rs.getLong(2)}, gradeId);
+        if (pairs.isEmpty()) {
+            List<GradeChange> changes = changes("grade_id = ?", new Object[]{gradeId},
+                    change -> gradeId.equals(change.getGradeId()));
+            if (changes.isEmpty()) return Optional.empty();
+            GradeChange last = changes.get(changes.size() - 1);
+            pairs = List.<Long[]>of(new Long[]{last.getStudentId(), last.getCourseId()});
+        }
+        return Optional.of(history(pairs.get(0)[0], pairs.get(0)[1]));
+    }
+
+    /**
+     * The grades of one course, or of one student, as they stood at
+     * {@code at}. Exactly one of the two ids is given.
+     *
+     * @throws IllegalArgumentException if {@code at} is before the journal's first entry
+     */
+    public List<GradeAt> asOf(LocalDateTime at, Long courseId, Long studentId) {
+        return new ArrayList<>(stateAt(at, courseId, studentId).values());
+    }
+
+    /**
+     * Puts the course's grades (every grade when {@code courseId} is null)
+     * back the way they were at {@code at}: grades given since are deleted,
+     * deleted ones recreated and changed ones reset, each change journaled
+     * like any other. Grades of students or courses deleted since cannot
+     * be recreated, and grades of archived terms stay in the archive; both
+     * are counted as skipped. Recreated grades go into the current term.
+     *
+     * @throws IllegalArgumentException if {@code at} is before the journal's first entry
+     */
+    public RestoreResult restore(LocalDateTime at, Long courseId) {
+        return transactionTemplate.execute(status -> restoreInTransaction(at, courseId));
+    }
+
+    private RestoreResult restoreInTransaction(LocalDateTime at, Long courseId) {
+        Map<String, GradeAt> target = stateAt(at, courseId, null);
+        Map<String, GradeAt> current = currentGrades(courseId, null);
+
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        target.values().forEach(grade -> {
+            studentIds.add(grade.getStudentId());
+            courseIds.add(grade.getCourseId());
+        });
+        Set<Long> knownStudents = studentIds.isEmpty() ? Set.of() : studentRepository.findExistingIds(studentIds);
+        Set<Long> knownCourses = courseIds.isEmpty() ? Set.of() : gradingScales.forCourses(courseIds).keySet();
+
+        RestoreResult result = new RestoreResult(at, courseId);
+        Set<Long> touchedStudents = new HashSet<>();
+        Set<Long> touchedCourses = new HashSet<>();
+        Date today = Date.valueOf(LocalDate.now());
+        Long currentTerm = academicTerms.current().getId();
+        Set<String> archived = gradeArchive.archivedPairs(courseId);
+
+        for (Map.Entry<String, GradeAt> entry : target.entrySet()) {
+            GradeAt wanted = entry.getValue();
+            GradeAt now = current.remove(entry.getKey());
+            if (now == null) {
+                if (!knownStudents.contains(wanted.getStudentId()) || !knownCourses.contains(wanted.getCourseId())
+                        || archived.contains(entry.getKey())) {
+                    result.skipped++;
+                    continue;
+                }
+                GradeChange.State state = wanted.getState();
+                jdbcTemplate.update("INSERT INTO grades (student_id, course_id, term_id, score, letter_grade, " +
+                        "grade_point_value, status, grade_date, remarks) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        wanted.getStudentId(), wanted.getCourseId(), currentTerm, state.getScore(),
+                        state.getLetterGrade(), state.getGradePointValue(), state.getStatus(), today, state.getRemarks());
+                gradeJournal.record(GradeChange.Action.CREATED, null, wanted.getStudentId(), wanted.getCourseId(),
+                        null, state, "restore");
+                result.created++;
+            } else if (!now.getState().sameAs(wanted.getState())) {
+                GradeChange.State state = wanted.getState();
+                jdbcTemplate.update("UPDATE grades SET score = ?, letter_grade = ?, grade_point_value = ?, status = ?, " +
+                        "remarks = ? WHERE id = ?", state.getScore(), state.getLetterGrade(), state.getGradePointValue(),
+                        state.getStatus(), state.getRemarks(), now.getGradeId());
+                gradeJournal.record(GradeChange.Action.UPDATED, now.getGradeId(), now.getStudentId(), now.getCourseId(),
+                        now.getState(), state, "restore");
+                result.updated++;
+            } else {
+                continue;
+            }
+            touchedStudents.add(wanted.getStudentId());
+            touchedCourses.add(wanted.getCourseId());
+        }
+        // What is left was given after the moment restored to
+        for (GradeAt extra : current.values()) {
+            jdbcTemplate.update("DELETE FROM grades WHERE id = ?", extra.getGradeId());
+            gradeJournal.record(GradeChange.Action.DELETED, extra.getGradeId(), extra.getStudentId(),
+                    extra.getCourseId(), extra.getState(), null, "restore");
+            touchedStudents.add(extra.getStudentId());
+            touchedCourses.add(extra.getCourseId());
+            result.deleted++;
+        }
+
+        if (!touchedCourses.isEmpty()) {
+            academicSummaryService.recompute(touchedStudents);
+            courseAnalyticsService.gradesChanged(touchedCourses);
+            tableVersions.changed(TableVersions.Table.GRADES);
+            touchedCourses.forEach(id -> changeFeed.record(ChangeEvent.Type.GRADE, ChangeEvent.Action.RELOAD,
+                    null, id, null, null));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskExecutor.execute(rankingService::refresh);
+                }
+            });
+        }
+        return result;
+    }
+
+    // Journaled changes matching the condition (on grade_history) and the filter (on this node's
+    // uncompacted log), oldest first
+    private List<GradeChange> changes(String condition, Object[] params, Predicate<GradeChange> filter) {
+        GradeJournal.Tail tail = gradeJournal.tail(filter);
+        Object[] all = Arrays.copyOf(params, params.length + 2);
+        all[params.length] = tail.getNodeId();
+        all[params.length + 1] = tail.getCompactedThrough();
+        String where = (condition.isEmpty() ? "" : condition + " AND ") + "NOT (node_id = ? AND seq > ?)";
+        List<GradeChange> changes = new ArrayList<>(jdbcTemplate.query(SELECT_HISTORY + " WHERE " + where +
+                " ORDER BY changed_at, id", (rs, i) -> toChange(rs), all));
+        if (tail.getChanges().isEmpty()) return changes;
+        changes.addAll(tail.getChanges());
+        changes.sort(Comparator.comparing(GradeChange::getChangedAt));
+        return changes;
+    }
+
+    // Keyed by "studentId:courseId"
+    private Map<String, GradeAt> stateAt(LocalDateTime at, Long courseId, Long studentId) {
+        Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(changed_at) FROM grade_history", Timestamp.class);
+        LocalDateTime begins = first != null ? first.toLocalDateTime()
+                : gradeJournal.tail(change -> true).getChanges().stream().map(GradeChange::getChangedAt)
+                        .min(Comparator.naturalOrder()).orElse(null);
+        if (begins == null || at.isBefore(begins)) {
+            throw new IllegalArgumentException("Grade history begins at " + (begins != null ? begins : "now")
+                    + "; cannot go back to " + at);
+        }
+
+        List<GradeChange> changes = courseId != null
+                ? changes("course_id = ?", new Object[]{courseId}, change -> change.getCourseId().equals(courseId))
+                : studentId != null
+                ? changes("student_id = ?", new Object[]{studentId}, change -> change.getStudentId().equals(studentId))
+                : changes("", new Object[0], change -> true);
+        return windBack(currentGrades(courseId, studentId), changes, at);
+    }
+
+    /**
+     * Winds the current grades back to {@code at}: every journaled pair
+     * gets the after-values of its last change at or before the moment,
+     * or, if its first change came later, that change's before-values; a
+     * pair that had no grade then is removed. {@code changes} are oldest
+     * first. Keyed by "studentId:courseId"; updates and returns
+     * {@code grades}.
+     */
+    static Map<String, GradeAt> windBack(Map<String, GradeAt> grades, List<GradeChange> changes, LocalDateTime at) {
+        // A pair present with a null value had no grade at the moment
+        Map<String, GradeChange.State> journaled = new HashMap<>();
+        Map<String, Long> gradeIds = new HashMap<>();
+        for (GradeChange change : changes) {
+            String key = change.getStudentId() + ":" + change.getCourseId();
+            if (!change.getChangedAt().isAfter(at)) {
+                journaled.put(key, change.getAfter());
+            } else if (!journaled.containsKey(key)) {
+                journaled.put(key, change.getBefore());
+            }
+            if (change.getGradeId() != null) gradeIds.put(key, change.getGradeId());
+        }
+
+        for (Map.Entry<String, GradeChange.State> entry : journaled.entrySet()) {
+            String key = entry.getKey();
+            if (entry.getValue() == null) {
+                grades.remove(key);
+                continue;
+            }
+            GradeAt now = grades.get(key);
+            String[] ids = key.split(":");
+            grades.put(key, new GradeAt(now != null ? now.getGradeId() : gradeIds.get(key), Long.valueOf(ids[0]),
+                    Long.valueOf(ids[1]), entry.getValue()));
+        }
+        return grades;
+    }
+
+    private Map<String, GradeAt> currentGrades(Long courseId, Long studentId) {
+        Map<String, GradeAt> grades = new LinkedHashMap<>();
+        String where = courseId != null ? " WHERE course_id = ?" : studentId != null ? " WHERE student_id = ?" : "";
+        Object[] params = courseId != null ? new Object[]{courseId} : studentId != null ? new Object[]{studentId} : new Object[0];
+        jdbcTemplate.query(SELECT_GRADES + where + " ORDER BY id", rs -> {
+            GradeAt grade = new GradeAt(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    new GradeChange.State(rs.getObject(4, Double.class), rs.getString(5), rs.getObject(6, Double.class),
+                            rs.getString(7), rs.getString(8)));
+            grades.put(grade.getStudentId() + ":" + grade.getCourseId(), grade);
+        }, params);
+        return grades;
+    }
+
+    private static GradeChange toChange(ResultSet rs) throws SQLException {
+        return new GradeChange(rs.getLong(1), GradeChange.Action.valueOf(rs.getString(2)), rs.getObject(3, Long.class),
+                rs.getLong(4), rs.getLong(5), state(rs, 6), state(rs, 11), rs.getString(16),
+                rs.getTimestamp(17).toLocalDateTime());
+    }
+
+    // The five value columns from index on; all null when the grade did not exist
+    private static GradeChange.State state(ResultSet rs, int from) throws SQLException {
+        Double score = rs.getObject(from, Double.class);
+        String letterGrade = rs.getString(from + 1);
+        Double gradePoints = rs.getObject(from + 2, Double.class);
+        String status = rs.getString(from + 3);
+        String remarks = rs.getString(from + 4);
+        if (score == null && letterGrade == null && gradePoints == null && status == null && remarks == null) return null;
+        return new GradeChange.State(score, letterGrade, gradePoints, status, remarks);
+    }
+
+
+    public static class GradeAt {
+        private final Long gradeId;
+        private final Long studentId;
+        private final Long courseId;
+        private final GradeChange.State state;
+
+        GradeAt(Long gradeId, Long studentId, Long courseId, GradeChange.State state) {
+            this.gradeId = gradeId;
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.state = state;
+        }
+
+        public Long getGradeId() { return gradeId; }
+        public Long getStudentId() { return studentId; }
+        public Long getCourseId() { return courseId; }
+        public Double getScore() { return state.getScore(); }
+        public String getLetterGrade() { return state.getLetterGrade(); }
+        public Double getGradePointValue() { return state.getGradePointValue(); }
+        public String getStatus() { return state.getStatus(); }
+        public String getRemarks() { return state.getRemarks(); }
+
+        GradeChange.State getState() { return state; }
+    }
+
+    public static class RestoreResult {
+        private final LocalDateTime at;
+        private final Long courseId;
+        private int created;
+        private int updated;
+        private int deleted;
+        private int skipped;
+
+        RestoreResult(LocalDateTime at, Long courseId) {
+            this.at = at;
+            this.courseId = courseId;
+        }
+
+        public LocalDateTime getAt() { return at; }
+        public Long getCourseId() { return courseId; }
+        public int getCreated() { return created; }
+        public int getUpdated() { return updated; }
+        public int getDeleted() { return deleted; }
+        public int getSkipped() { return skipped; }
+    }
+}
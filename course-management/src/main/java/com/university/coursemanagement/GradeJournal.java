@@ -0,0 +1,465 @@
+package com.university.coursemanagement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Journal of grade changes, kept off the write path. Writers
+ * {@link #record} a change; when their transaction commits it goes into a
+ * bounded ring buffer, and a single writer thread appends it to this
+ * node's local log: memory-mapped {@link JournalSegment} files, a new one
+ * started whenever the current one is full. A scheduled compaction copies
+ * new entries into the grade_history table in JDBC batches and deletes
+ * segments once all their entries are there.
+ * <p>
+ * A full buffer makes the committing thread append for itself rather than
+ * drop the change. Entries still in the buffer are lost if the process
+ * dies; entries in the log are not, and reach the database on the next
+ * compaction, after a restart if need be.
+ */
+@Service
+public class GradeJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeJournal.class);
+
+    private static final int DRAIN = 1024;
+    private static final int COMPACT_BATCH = 500;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final String INSERT_COLUMNS =
+            "(node_id, seq, action, grade_id, student_id, course_id, " +
+            "old_score, old_letter_grade, old_grade_point_value, old_status, old_remarks, " +
+            "new_score, new_letter_grade, new_grade_point_value, new_status, new_remarks, changed_by, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.journal.dir:${java.io.tmpdir}/course-management-journal}")
+    private String directory;
+
+    @Value("${app.journal.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.journal.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    // Bounds what a power loss can take from the log to this interval
+    @Value("${app.journal.force-interval:PT1S}")
+    private Duration forceInterval;
+
+    private Path dir;
+    private String nodeId;
+    private BlockingQueue<GradeChange> buffer;
+    // Recorded but not yet in the log
+    private final AtomicLong pending = new AtomicLong();
+    private Counter overflows;
+
+    // Guarded by this: the segments, oldest first, the last being the one appended to
+    private final Deque<JournalSegment> segments = new ArrayDeque<>();
+    private long nextSeq;
+    // Appended since the last force
+    private volatile boolean dirty;
+
+    private final Object compactLock = new Object();
+    // Highest entry copied to grade_history; raised by compact() before it moves the segments' offsets
+    private volatile long compactedThrough;
+    private volatile boolean running;
+    private volatile boolean writerIdle;
+    private Thread writer;
+
+
+    @PostConstruct
+    void start() throws IOException {
+        dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        nodeId = loadNodeId();
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(JournalSegment::isSegment)
+                    .sorted((a, b) -> Long.compare(JournalSegment.firstSeqOf(a), JournalSegment.firstSeqOf(b)))
+                    .toList();
+        }
+        for (Path file : files) segments.add(JournalSegment.open(file));
+        // A node whose log was fully compacted and deleted goes on after the last number it handed out
+        Long compacted = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM grade_history WHERE node_id = ?",
+                Long.class, nodeId);
+        compactedThrough = compacted != null ? compacted : 0;
+        long lastOnDisk = segments.isEmpty() ? 0 : segments.getLast().getLastSeq();
+        nextSeq = Math.max(lastOnDisk, compactedThrough) + 1;
+        if (segments.isEmpty()) segments.add(JournalSegment.create(dir, nextSeq, segmentBytes()));
+        log.info("Grade journal {} at {}: {} segment(s), next entry {}", nodeId, dir, segments.size(), nextSeq);
+
+        overflows = Counter.builder("grade.journal.overflows")
+                .description("Grade changes appended by the committing thread because the buffer was full")
+                .register(registry);
+        Gauge.builder("grade.journal.pending", pending, AtomicLong::get).register(registry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "grade-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        drainBuffer();
+        synchronized (this) {
+            for (JournalSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("Could not close journal segment {}", segment.getPath(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Journals a change once the surrounding transaction (if any) commits.
+     * {@code changedBy} null means the client of the current request.
+     */
+    public void record(GradeChange.Action action, Long gradeId, Long studentId, Long courseId,
+                       GradeChange.State before, GradeChange.State after, String changedBy) {
+        GradeChange change = new GradeChange(action, gradeId, studentId, courseId, before, after,
+                changedBy != null ? changedBy : currentClient(), LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<GradeChange> changes = (List<GradeChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<GradeChange> bound = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GradeJournal.this);
+                }
+            });
+            changes = bound;
+        }
+        changes.add(change);
+    }
+
+    private void enqueue(List<GradeChange> changes) {
+        pending.addAndGet(changes.size());
+        for (GradeChange change : changes) {
+            if (!buffer.offer(change)) {
+                overflows.increment();
+                synchronized (this) {
+                    append(List.of(change));
+                }
+            }
+        }
+        if (writerIdle) LockSupport.unpark(writer);
+    }
+
+    // Takes entries from the buffer and appends them under the monitor in one go, so flush()
+    // never finds entries that have left the buffer but are not in the log yet. Also forces
+    // the log every force-interval, here rather than on the shared scheduler
+    private void writeLoop() {
+        List<GradeChange> batch = new ArrayList<>(DRAIN);
+        long lastForce = System.nanoTime();
+        while (running) {
+            boolean idle;
+            try {
+                synchronized (this) {
+                    buffer.drainTo(batch, DRAIN);
+                    if (!batch.isEmpty()) append(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not append {} grade change(s) to the journal", batch.size(), e);
+            } finally {
+                idle = batch.isEmpty();
+                batch.clear();
+            }
+
+            if (System.nanoTime() - lastForce >= forceInterval.toNanos()) {
+                force();
+                lastForce = System.nanoTime();
+            }
+            if (idle) {
+                writerIdle = true;
+                if (buffer.isEmpty()) LockSupport.parkNanos(IDLE_WAIT_NANOS);
+                writerIdle = false;
+            }
+        }
+    }
+
+    // Caller holds the monitor. Changes that could not be appended are dropped, so flush() does not wait for them
+    private void append(List<GradeChange> changes) {
+        int done = 0;
+        try {
+            for (GradeChange change : changes) {
+                long seq = nextSeq;
+                byte[] entry = encode(change.withSeq(seq));
+                if (!segments.getLast().append(seq, entry)) {
+                    rotate(seq);
+                    if (!segments.getLast().append(seq, entry)) {
+                        throw new IllegalStateException("Journal entry of " + entry.length + " bytes exceeds the segment size");
+                    }
+                }
+                nextSeq++;
+                done++;
+                dirty = true;
+            }
+        } finally {
+            pending.addAndGet(-changes.size());
+            if (done < changes.size()) log.warn("Dropped {} grade change(s) from the journal", changes.size() - done);
+        }
+    }
+
+    private void rotate(long firstSeq) {
+        try {
+            segments.getLast().force();
+            segments.add(JournalSegment.create(dir, firstSeq, segmentBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void drainBuffer() {
+        List<GradeChange> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        if (!rest.isEmpty()) append(rest);
+    }
+
+    /**
+     * Writes the changes recorded before the call to the log. Entries only
+     * leave the buffer under the log's monitor, so once the buffer has been
+     * emptied here, every earlier change is in a segment; later ones are
+     * not waited for.
+     */
+    public void flush() {
+        drainBuffer();
+    }
+
+    // Outside the monitor, so appends go on while the pages are written out
+    private void force() {
+        if (!dirty) return;
+        dirty = false;
+        JournalSegment last;
+        synchronized (this) {
+            last = segments.getLast();
+        }
+        last.force();
+    }
+
+    @Scheduled(fixedDelayString = "${app.journal.compact-interval:PT1M}",
+            initialDelayString = "${app.journal.compact-interval:PT1M}")
+    void scheduledCompact() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("Grade journal compaction failed; will retry", e);
+        }
+    }
+
+    /**
+     * Copies the entries not yet in grade_history there and deletes the
+     * segments that are fully copied, except the one being appended to.
+     * Each segment is read on from where the last compaction stopped. Rows
+     * already present (from a compaction that died half way) are skipped
+     * by their (node_id, seq) key.
+     *
+     * @return the number of entries copied
+     */
+    public int compact() {
+        synchronized (compactLock) {
+            List<JournalSegment> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(segments);
+            }
+            String sql = databaseInfo.isPostgres()
+                    ? "INSERT INTO grade_history " + INSERT_COLUMNS + " ON CONFLICT (node_id, seq) DO NOTHING"
+                    : "INSERT IGNORE INTO grade_history " + INSERT_COLUMNS;
+            List<Object[]> rows = new ArrayList<>(COMPACT_BATCH);
+            int[] copied = {0};
+            for (JournalSegment segment : snapshot) {
+                long after = compactedThrough;
+                long[] through = {after};
+                int end = segment.forEachFrom(segment.getCompactedTo(), change -> {
+                    through[0] = Math.max(through[0], change.getSeq());
+                    if (change.getSeq() <= after) return;
+                    rows.add(row(change));
+                    if (rows.size() == COMPACT_BATCH) {
+                        jdbcTemplate.batchUpdate(sql, rows);
+                        copied[0] += rows.size();
+                        rows.clear();
+                    }
+                });
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(sql, rows);
+                    copied[0] += rows.size();
+                    rows.clear();
+                }
+                // In this order for tail(), which reads the offsets first
+                compactedThrough = through[0];
+                segment.setCompactedTo(end);
+            }
+
+            synchronized (this) {
+                while (segments.size() > 1 && segments.getFirst().getLastSeq() <= compactedThrough) {
+                    JournalSegment oldest = segments.removeFirst();
+                    try {
+                        oldest.delete();
+                    } catch (IOException e) {
+                        log.warn("Could not delete compacted journal segment {}", oldest.getPath(), e);
+                    }
+                }
+            }
+            if (copied[0] > 0) log.debug("Compacted {} grade change(s) into grade_history", copied[0]);
+            return copied[0];
+        }
+    }
+
+    /**
+     * This node's changes that match the filter and are not in
+     * grade_history yet, oldest first, after a {@link #flush}. Readers
+     * take grade_history without this node's rows above
+     * {@link Tail#getCompactedThrough}, and add these.
+     * <p>
+     * Runs alongside compaction: each segment's offset is read before the
+     * compacted sequence number, which compaction raises first, so an
+     * entry skipped here by its offset is at or below that number and in
+     * the table. A segment deleted meanwhile stays readable through its
+     * mapping.
+     */
+    public Tail tail(Predicate<GradeChange> filter) {
+        flush();
+        List<JournalSegment> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+        }
+        int[] offsets = new int[snapshot.size()];
+        for (int i = 0; i < offsets.length; i++) offsets[i] = snapshot.get(i).getCompactedTo();
+        long after = compactedThrough;
+
+        List<GradeChange> changes = new ArrayList<>();
+        for (int i = 0; i < offsets.length; i++) {
+            snapshot.get(i).forEachFrom(offsets[i], change -> {
+                if (change.getSeq() > after && filter.test(change)) changes.add(change);
+            });
+        }
+        return new Tail(nodeId, after, changes);
+    }
+
+    private Object[] row(GradeChange change) {
+        GradeChange.State before = change.getBefore();
+        GradeChange.State after = change.getAfter();
+        return new Object[]{nodeId, change.getSeq(), change.getAction().name(), change.getGradeId(),
+                change.getStudentId(), change.getCourseId(),
+                before != null ? before.getScore() : null, before != null ? before.getLetterGrade() : null,
+                before != null ? before.getGradePointValue() : null, before != null ? before.getStatus() : null,
+                before != null ? before.getRemarks() : null,
+                after != null ? after.getScore() : null, after != null ? after.getLetterGrade() : null,
+                after != null ? after.getGradePointValue() : null, after != null ? after.getStatus() : null,
+                after != null ? after.getRemarks() : null,
+                change.getChangedBy(), Timestamp.valueOf(change.getChangedAt())};
+    }
+
+    private static byte[] encode(GradeChange change) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            change.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private int segmentBytes() {
+        return (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+    }
+
+    // Entries are numbered per node; the id stays with the journal directory
+    private String loadNodeId() throws IOException {
+        Path file = dir.resolve("node-id");
+        if (Files.exists(file)) return Files.readString(file, StandardCharsets.UTF_8).trim();
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) return servlet.getRequest().getRemoteAddr();
+        return null;
+    }
+
+
+    public static class Tail {
+        private final String nodeId;
+        private final long compactedThrough;
+        private final List<GradeChange> changes;
+
+        Tail(String nodeId, long compactedThrough, List<GradeChange> changes) {
+            this.nodeId = nodeId;
+            this.compactedThrough = compactedThrough;
+            this.changes = changes;
+        }
+
+        public String getNodeId() { return nodeId; }
+        public long getCompactedThrough() { return compactedThrough; }
+        public List<GradeChange> getChanges() { return changes; }
+    }
+}
@@ -1,14 +1,25 @@
 package com.university.coursemanagement;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface GradeRepository extends JpaRepository<Grade, Long> {
+public interface GradeRepository extends JpaRepository<Grade, Long>, JpaSpecificationExecutor<Grade> {
 
 
     List<Grade> findByStudentId(Long studentId);
@@ -40,4 +51,83 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
 
     @Query("SELECT COALESCE(SUM(g.course.credits), 0) FROM Grade g WHERE g.student.id = :studentId AND (g.status = 'PASS' OR g.status = 'COMPLETE')")
     Integer getTotalCreditsCompletedByStudentId(@Param("studentId") Long studentId);
+
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT g FROM Grade g JOIN FETCH g.student JOIN FETCH g.course ORDER BY g.id")
+    Stream<Grade> streamAll();
+
+
+    // studentId, courseId, id, score, letter grade, grade points, status, remarks, termId
+    @Query("SELECT g.student.id, g.course.id, g.id, g.score, g.letterGrade, g.gradePointValue, g.status, g.remarks, g.termId " +
+            "FROM Grade g WHERE g.course.id IN :courseIds AND g.student.id IN :studentIds")
+    List<Object[]> findExistingByPairs(@Param("studentIds") Collection<Long> studentIds,
+                                       @Param("courseIds") Collection<Long> courseIds);
+
+
+    // studentId, grade points x credits, attempted, passed and completed credits
+    @Query("SELECT g.student.id, COALESCE(SUM(g.gradePointValue * c.credits), 0), COALESCE(SUM(c.credits), 0), " +
+            "COALESCE(SUM(CASE WHEN g.status = 'PASS' THEN c.credits ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN g.status = 'PASS' OR g.status = 'COMPLETE' THEN c.credits ELSE 0 END), 0) " +
+            "FROM Grade g JOIN g.course c WHERE g.student.id IN :studentIds GROUP BY g.student.id")
+    List<Object[]> summarizeByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+
+    @Query("SELECT DISTINCT g.student.id FROM Grade g WHERE g.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+
+
+    // id, studentId, courseId and the values a deletion journals; locked, so a grade
+    // deleted concurrently is journaled by only one of the deletes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g.id, g.student.id, g.course.id, g.score, g.letterGrade, g.gradePointValue, g.status, g.remarks " +
+            "FROM Grade g WHERE g.course.id = :courseId ORDER BY g.id")
+    List<Object[]> findDeletableByCourseId(@Param("courseId") Long courseId, Pageable limit);
+
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g.id, g.student.id, g.course.id, g.score, g.letterGrade, g.gradePointValue, g.status, g.remarks " +
+            "FROM Grade g WHERE g.student.id = :studentId ORDER BY g.id")
+    List<Object[]> findDeletableByStudentId(@Param("studentId") Long studentId, Pageable limit);
+
+
+    @Modifying
+    @Query("DELETE FROM Grade g WHERE g.id IN :ids")
+    int deleteGradesByIds(@Param("ids") Collection<Long> ids);
+
+
+    // Undated grades are left out: Postgres would sort their NULLs ahead of every dated one
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c WHERE g.gradeDate IS NOT NULL " +
+            "ORDER BY g.gradeDate DESC, g.id DESC")
+    List<GradeView> findMostRecent(Pageable limit);
+
+
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c " +
+            "WHERE c.id = :courseId ORDER BY s.lastName, s.firstName, g.id")
+    List<GradeView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c " +
+            "WHERE c.id = :courseId AND g.termId = :termId ORDER BY s.lastName, s.firstName, g.id")
+    List<GradeView> findViewsByCourseIdAndTermId(@Param("courseId") Long courseId, @Param("termId") Long termId);
+
+
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c " +
+            "WHERE c.id = :courseId AND g.termId IN :termIds ORDER BY s.lastName, s.firstName, g.id")
+    List<GradeView> findViewsByCourseIdAndTermIdIn(@Param("courseId") Long courseId,
+                                                   @Param("termIds") Collection<Long> termIds);
+
+
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c " +
+            "WHERE s.id = :studentId ORDER BY g.gradeDate, c.code")
+    List<GradeView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+
+    @Query(GradeView.SELECT + "FROM Grade g JOIN g.student s JOIN g.course c " +
+            "WHERE s.studentId = :studentId ORDER BY g.gradeDate, c.code")
+    List<GradeView> findViewsByStudentNumber(@Param("studentId") String studentId);
+
+
+    @Query("SELECT g.status, COUNT(g) FROM Grade g GROUP BY g.status")
+    List<Object[]> countByStatus();
 }
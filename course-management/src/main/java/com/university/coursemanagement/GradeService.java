@@ -0,0 +1,119 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Single-grade writes. Every change to a grade goes through here so the
+ * derived per-student totals are updated in the same transaction.
+ */
+@Service
+public class GradeService {
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private GradeJournal gradeJournal;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+    /**
+     * Creates the student's grade for the course, or rescores the existing
+     * one. Empty if the student or course does not exist.
+     *
+     * @throws IllegalStateException if the grade is in an archived term
+     */
+    @Transactional
+    public Optional<Grade> createOrUpdate(GradeController.GradeRequest request) {
+        Optional<Student> studentOpt = studentRepository.findById(request.getStudentId());
+        Optional<Course> courseOpt = courseRepository.findById(request.getCourseId());
+
+        if (!studentOpt.isPresent() || !courseOpt.isPresent()) {
+            return Optional.empty();
+        }
+
+        Optional<Grade> existingGrade = gradeRepository.findByStudentIdAndCourseId(
+                request.getStudentId(), request.getCourseId());
+
+        if (existingGrade.isPresent()) {
+            return Optional.of(rescore(existingGrade.get(), request));
+        }
+        if (gradeArchive.archivedCourses(request.getStudentId()).contains(request.getCourseId())) {
+            throw new IllegalStateException("The student's grade for this course is in an archived term");
+        }
+
+        Grade grade = new Grade(studentOpt.get(), courseOpt.get(), academicTerms.current().getId(), request.getScore(),
+                gradingScales.forCourse(courseOpt.get()));
+        grade.setRemarks(request.getRemarks());
+        Grade savedGrade = gradeRepository.save(grade);
+        academicSummaryService.gradeChanged(savedGrade.getStudent().getId(), savedGrade.getCourse().getCredits(),
+                null, null, savedGrade.getGradePointValue(), savedGrade.getStatus());
+        courseAnalyticsService.gradesChanged(List.of(savedGrade.getCourse().getId()));
+        gradeJournal.record(GradeChange.Action.CREATED, savedGrade.getId(), savedGrade.getStudent().getId(),
+                savedGrade.getCourse().getId(), null, GradeChange.State.of(savedGrade), null);
+        return Optional.of(savedGrade);
+    }
+
+    @Transactional
+    public Optional<Grade> update(Long id, GradeController.GradeRequest request) {
+        return gradeRepository.findById(id).map(grade -> rescore(grade, request));
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        Optional<Grade> gradeOpt = gradeRepository.findById(id);
+        if (!gradeOpt.isPresent()) {
+            return false;
+        }
+
+        Grade grade = gradeOpt.get();
+        gradeRepository.delete(grade);
+        academicSummaryService.gradeChanged(grade.getStudent().getId(), grade.getCourse().getCredits(),
+                grade.getGradePointValue(), grade.getStatus(), null, null);
+        courseAnalyticsService.gradesChanged(List.of(grade.getCourse().getId()));
+        gradeJournal.record(GradeChange.Action.DELETED, grade.getId(), grade.getStudent().getId(),
+                grade.getCourse().getId(), GradeChange.State.of(grade), null, null);
+        return true;
+    }
+
+    private Grade rescore(Grade grade, GradeController.GradeRequest request) {
+        Double oldGradePoints = grade.getGradePointValue();
+        String oldStatus = grade.getStatus();
+        GradeChange.State before = GradeChange.State.of(grade);
+
+        grade.applyScore(request.getScore(), gradingScales.forCourse(grade.getCourse()));
+        grade.setRemarks(request.getRemarks());
+        Grade savedGrade = gradeRepository.save(grade);
+
+        academicSummaryService.gradeChanged(savedGrade.getStudent().getId(), savedGrade.getCourse().getCredits(),
+                oldGradePoints, oldStatus, savedGrade.getGradePointValue(), savedGrade.getStatus());
+        courseAnalyticsService.gradesChanged(List.of(savedGrade.getCourse().getId()));
+        gradeJournal.record(GradeChange.Action.UPDATED, savedGrade.getId(), savedGrade.getStudent().getId(),
+                savedGrade.getCourse().getId(), before, GradeChange.State.of(savedGrade), null);
+        return savedGrade;
+    }
+}
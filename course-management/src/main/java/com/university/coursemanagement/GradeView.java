@@ -0,0 +1,104 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDate;
+
+/**
+ * Read model for grade lists: the grade plus the few student and course
+ * columns screens show, selected with a JPQL constructor expression so a
+ * list is one statement with no entity hydration or lazy loading.
+ */
+public class GradeView {
+
+    /** Select list matching the constructor; use with {@code FROM Grade g JOIN g.student s JOIN g.course c}. */
+    static final String SELECT = "SELECT new com.university.coursemanagement.GradeView(" +
+            "g.id, g.termId, g.score, g.letterGrade, g.gradePointValue, g.status, g.gradeDate, g.remarks, " +
+            "s.id, s.firstName, s.lastName, s.email, s.studentId, c.id, c.code, c.title, c.credits) ";
+
+    private final Long id;
+    private final Long termId;
+    private final Double score;
+    private final String letterGrade;
+    private final Double gradePointValue;
+    private final String status;
+    private final LocalDate gradeDate;
+    private final String remarks;
+    private final StudentSummary student;
+    private final CourseSummary course;
+
+    public GradeView(Long id, Long termId, Double score, String letterGrade, Double gradePointValue, String status,
+                     LocalDate gradeDate, String remarks,
+                     Long studentPk, String firstName, String lastName, String email, String studentId,
+                     Long coursePk, String code, String title, Integer credits) {
+        this.id = id;
+        this.termId = termId;
+        this.score = score;
+        this.letterGrade = letterGrade;
+        this.gradePointValue = gradePointValue;
+        this.status = status;
+        this.gradeDate = gradeDate;
+        this.remarks = remarks;
+        this.student = new StudentSummary(studentPk, firstName, lastName, email, studentId);
+        this.course = new CourseSummary(coursePk, code, title, credits);
+    }
+
+    // A grade read back from an archived term
+    static GradeView archived(GradeArchiveFile.Row row, Long termId, Student student) {
+        return new GradeView(row.id, termId, row.score, row.letterGrade, row.gradePointValue, row.status,
+                row.gradeDate, row.remarks, student.getId(), student.getFirstName(), student.getLastName(),
+                student.getEmail(), student.getStudentId(), row.courseId, row.courseCode, row.courseTitle, row.credits);
+    }
+
+
+    public Long getId() { return id; }
+    public Long getTermId() { return termId; }
+    public Double getScore() { return score; }
+    public String getLetterGrade() { return letterGrade; }
+    public Double getGradePointValue() { return gradePointValue; }
+    public String getStatus() { return status; }
+    public LocalDate getGradeDate() { return gradeDate; }
+    public String getRemarks() { return remarks; }
+    public StudentSummary getStudent() { return student; }
+    public CourseSummary getCourse() { return course; }
+
+
+    public static class StudentSummary {
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String studentId;
+
+        StudentSummary(Long id, String firstName, String lastName, String email, String studentId) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.studentId = studentId;
+        }
+
+        public Long getId() { return id; }
+        public String getFirstName() { return firstName; }
+        public String getLastName() { return lastName; }
+        public String getEmail() { return email; }
+        public String getStudentId() { return studentId; }
+    }
+
+    public static class CourseSummary {
+        private final Long id;
+        private final String code;
+        private final String title;
+        private final Integer credits;
+
+        CourseSummary(Long id, String code, String title, Integer credits) {
+            this.id = id;
+            this.code = code;
+            this.title = title;
+            this.credits = credits;
+        }
+
+        public Long getId() { return id; }
+        public String getCode() { return code; }
+        public String getTitle() { return title; }
+        public Integer getCredits() { return credits; }
+    }
+}
@@ -0,0 +1,155 @@
+package com.university.coursemanagement;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A grading scale compiled for scoring: every score from 0 to 100 in steps
+ * of 0.01 is mapped to its band once, when the scale is loaded, so grading
+ * a score is one array read with no comparisons and no allocation. Scores
+ * are truncated to the step, the same way the band boundaries (two
+ * decimals in the database) would compare against them. Immutable; the
+ * bands are ordered from the lowest minimum score up.
+ */
+public class GradingScale {
+
+    public static final int STEPS_PER_POINT = 100;
+    private static final int SLOTS = 100 * STEPS_PER_POINT + 1;
+    private static final BigDecimal MAX_GRADE_POINTS = new BigDecimal("9.99");
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final boolean isDefault;
+    private final List<Band> bands;
+
+    private final byte[] bandBySlot = new byte[SLOTS];
+    private final String[] letterGrades;
+    private final double[] gradePoints;
+    private final String[] statuses;
+
+    public GradingScale(Long id, String name, String description, boolean isDefault, List<Band> bands) {
+        List<Band> sorted = new ArrayList<>(bands);
+        sorted.sort(Comparator.comparing(Band::getMinScore, Comparator.nullsFirst(Comparator.naturalOrder())));
+        validate(sorted);
+
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.isDefault = isDefault;
+        this.bands = List.copyOf(sorted);
+
+        int count = sorted.size();
+        letterGrades = new String[count];
+        gradePoints = new double[count];
+        statuses = new String[count];
+        for (int i = 0; i < count; i++) {
+            Band band = sorted.get(i);
+            letterGrades[i] = band.getLetterGrade();
+            gradePoints[i] = band.getGradePointValue().doubleValue();
+            statuses[i] = band.getStatus();
+
+            int from = slotOf(band.getMinScore());
+            int to = i + 1 < count ? slotOf(sorted.get(i + 1).getMinScore()) : SLOTS;
+            for (int slot = from; slot < to; slot++) {
+                bandBySlot[slot] = (byte) i;
+            }
+        }
+    }
+
+    /**
+     * Checks that bands can form a scale: the lowest starts at 0, minimum
+     * scores are distinct and within 0..100 on the two-decimal step, and
+     * every band has a grade, a grade point value that fits the column and a
+     * status.
+     */
+    static void validate(List<Band> sorted) {
+        if (sorted.isEmpty()) throw new IllegalArgumentException("A grading scale needs at least one band");
+        if (sorted.size() > Byte.MAX_VALUE) throw new IllegalArgumentException("Too many bands");
+        if (sorted.get(0).getMinScore() == null || sorted.get(0).getMinScore().signum() != 0) {
+            throw new IllegalArgumentException("The lowest band must start at a score of 0");
+        }
+        BigDecimal previous = null;
+        for (Band band : sorted) {
+            BigDecimal min = band.getMinScore();
+            if (min == null || min.signum() < 0 || min.compareTo(BigDecimal.valueOf(100)) > 0
+                    || min.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("Band minimum " + min + " must be between 0 and 100 with at most two decimals");
+            }
+            if (previous != null && previous.compareTo(min) == 0) {
+                throw new IllegalArgumentException("Two bands start at " + min);
+            }
+            if (band.getLetterGrade() == null || band.getLetterGrade().isBlank() || band.getLetterGrade().length() > 3) {
+                throw new IllegalArgumentException("Band at " + min + " needs a letter grade of up to 3 characters");
+            }
+            if (band.getGradePointValue() == null || band.getGradePointValue().signum() < 0
+                    || band.getGradePointValue().compareTo(MAX_GRADE_POINTS) > 0) {
+                throw new IllegalArgumentException("Band at " + min + " needs a grade point value between 0 and " + MAX_GRADE_POINTS);
+            }
+            if (band.getStatus() == null || band.getStatus().isBlank() || band.getStatus().length() > 15) {
+                throw new IllegalArgumentException("Band at " + min + " needs a status of up to 15 characters");
+            }
+            previous = min;
+        }
+    }
+
+    private static int slotOf(BigDecimal minScore) {
+        return minScore.movePointRight(2).intValueExact();
+    }
+
+    /**
+     * Index of the band the score falls in; scores outside 0..100 are
+     * clamped to the nearest end.
+     */
+    public int band(double score) {
+        if (!(score > 0)) return bandBySlot[0];
+        if (score >= 100) return bandBySlot[SLOTS - 1];
+        // The small offset keeps e.g. 70.00, stored as 69.99999..., in the 70 band
+        return bandBySlot[(int) (score * STEPS_PER_POINT + 1e-7)];
+    }
+
+    public String letterGrade(double score) { return letterGrades[band(score)]; }
+
+    public double gradePointValue(double score) { return gradePoints[band(score)]; }
+
+    public String status(double score) { return statuses[band(score)]; }
+
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public boolean isDefault() { return isDefault; }
+    public List<Band> getBands() { return bands; }
+
+
+    public static class Band {
+        private BigDecimal minScore;
+        private String letterGrade;
+        private BigDecimal gradePointValue;
+        private String status;
+
+        public Band() {}
+
+        public Band(BigDecimal minScore, String letterGrade, BigDecimal gradePointValue, String status) {
+            this.minScore = minScore;
+            this.letterGrade = letterGrade;
+            this.gradePointValue = gradePointValue;
+            this.status = status;
+        }
+
+
+        public BigDecimal getMinScore() { return minScore; }
+        public void setMinScore(BigDecimal minScore) { this.minScore = minScore; }
+
+        public String getLetterGrade() { return letterGrade; }
+        public void setLetterGrade(String letterGrade) { this.letterGrade = letterGrade; }
+
+        public BigDecimal getGradePointValue() { return gradePointValue; }
+        public void setGradePointValue(BigDecimal gradePointValue) { this.gradePointValue = gradePointValue; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+    }
+}
@@ -0,0 +1,126 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/grading-scales")
+@CrossOrigin(origins = "http://localhost:3000")
+public class GradingScaleController {
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private RegradeService regradeService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+
+    @GetMapping
+    public ResponseEntity<List<GradingScale>> getAllScales() {
+        return ResponseEntity.ok(gradingScales.getAll());
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<GradingScale> getScale(@PathVariable Long id) {
+        GradingScale scale = gradingScales.get(id);
+        return scale != null ? ResponseEntity.ok(scale) : ResponseEntity.notFound().build();
+    }
+
+
+    // The scale a course's grades are calculated on (its own, or the default)
+    @GetMapping("/course/{courseId}")
+    public ResponseEntity<GradingScale> getCourseScale(@PathVariable Long courseId) {
+        return courseRepository.findById(courseId)
+                .map(course -> ResponseEntity.ok(gradingScales.forCourse(course)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    @PostMapping
+    public ResponseEntity<?> createScale(@RequestBody ScaleRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return ResponseEntity.badRequest().body("Name is required");
+        }
+        if (gradingScales.nameTaken(request.getName(), null)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A grading scale with this name already exists");
+        }
+        try {
+            Long id = gradingScales.create(request.getName(), request.getDescription(), request.getBands());
+            return ResponseEntity.status(HttpStatus.CREATED).body(gradingScales.get(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    // Changing a scale does not touch existing grades; start a regrade for that
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateScale(@PathVariable Long id, @RequestBody ScaleRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return ResponseEntity.badRequest().body("Name is required");
+        }
+        if (gradingScales.nameTaken(request.getName(), id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A grading scale with this name already exists");
+        }
+        try {
+            if (!gradingScales.update(id, request.getName(), request.getDescription(), request.getBands())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(gradingScales.get(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    @PutMapping("/{id}/default")
+    public ResponseEntity<?> makeDefault(@PathVariable Long id) {
+        if (!gradingScales.makeDefault(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(gradingScales.get(id));
+    }
+
+
+    // Re-apply the current scales to existing grades: one course's, or all of them
+    @PostMapping("/regrades")
+    public ResponseEntity<?> startRegrade(@RequestParam(required = false) Long courseId) {
+        if (courseId != null && !courseRepository.existsById(courseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().body(regradeService.start(courseId));
+    }
+
+
+    @GetMapping("/regrades/{jobId}")
+    public ResponseEntity<RegradeJob> getRegrade(@PathVariable String jobId) {
+        return regradeService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    public static class ScaleRequest {
+        private String name;
+        private String description;
+        private List<GradingScale.Band> bands;
+
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+
+        public List<GradingScale.Band> getBands() { return bands; }
+        public void setBands(List<GradingScale.Band> bands) { this.bands = bands; }
+    }
+}
@@ -0,0 +1,221 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The grading scales in the database, compiled into {@link GradingScale}
+ * lookup tables. All scales are loaded at startup and swapped in as a
+ * whole after every change, here and (through the
+ * {@link CacheInvalidationBus}) on the other nodes; a periodic reload
+ * covers anything that slipped past both. Courses without a scale of their
+ * own are graded on the default scale.
+ */
+@Service
+public class GradingScales {
+
+    private static final Logger log = LoggerFactory.getLogger(GradingScales.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile Registry registry;
+
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.grading.reload-interval:PT5M}",
+            initialDelayString = "${app.grading.reload-interval:PT5M}")
+    void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Could not reload grading scales; keeping the current ones", e);
+        }
+    }
+
+    /**
+     * Reads and compiles every scale and swaps them in at once.
+     */
+    void reload() {
+        Map<Long, List<GradingScale.Band>> bands = new HashMap<>();
+        jdbcTemplate.query("SELECT scale_id, min_score, letter_grade, grade_point_value, status FROM grading_scale_bands",
+                rs -> {
+                    bands.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(new GradingScale.Band(
+                            rs.getBigDecimal(2), rs.getString(3), rs.getBigDecimal(4), rs.getString(5)));
+                });
+
+        Map<Long, GradingScale> scales = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, name, description, is_default FROM grading_scales ORDER BY name", rs -> {
+            long id = rs.getLong(1);
+            scales.put(id, new GradingScale(id, rs.getString(2), rs.getString(3), rs.getBoolean(4),
+                    bands.getOrDefault(id, List.of())));
+        });
+        GradingScale defaultScale = scales.values().stream()
+                .filter(GradingScale::isDefault)
+                .min(Comparator.comparing(GradingScale::getId))
+                .orElseThrow(() -> new IllegalStateException("No default grading scale"));
+        registry = new Registry(Map.copyOf(scales), defaultScale);
+    }
+
+    public List<GradingScale> getAll() {
+        return registry.scales.values().stream()
+                .sorted(Comparator.comparing(GradingScale::getName))
+                .toList();
+    }
+
+    public GradingScale get(Long id) {
+        return registry.scales.get(id);
+    }
+
+    public GradingScale getDefault() {
+        return registry.defaultScale;
+    }
+
+    public GradingScale forCourse(Course course) {
+        return forScaleId(course.getGradingScaleId());
+    }
+
+    /**
+     * The scale for a course's {@code grading_scale_id}; the default for
+     * null, and for a scale created on another node that has not reached
+     * this one yet.
+     */
+    public GradingScale forScaleId(Long scaleId) {
+        Registry current = registry;
+        if (scaleId == null) return current.defaultScale;
+        return current.scales.getOrDefault(scaleId, current.defaultScale);
+    }
+
+    /**
+     * The scale for each of the courses, looked up in one query. Courses
+     * that do not exist are left out.
+     */
+    public Map<Long, GradingScale> forCourses(Collection<Long> courseIds) {
+        Map<Long, GradingScale> result = new HashMap<>();
+        if (courseIds.isEmpty()) return result;
+        namedJdbcTemplate.query("SELECT id, grading_scale_id FROM courses WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", courseIds),
+                rs -> {
+                    result.put(rs.getLong(1), forScaleId(rs.getObject(2, Long.class)));
+                });
+        return result;
+    }
+
+    public boolean nameTaken(String name, Long exceptId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM grading_scales WHERE name = ? AND id <> ?", Integer.class,
+                name, exceptId != null ? exceptId : -1L);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Stores a new scale and returns its id. Throws
+     * {@link IllegalArgumentException} when the bands do not form a scale.
+     */
+    @Transactional
+    public Long create(String name, String description, List<GradingScale.Band> bands) {
+        List<GradingScale.Band> sorted = sorted(bands);
+        GradingScale.validate(sorted);
+        jdbcTemplate.update("INSERT INTO grading_scales (name, description, is_default) VALUES (?, ?, ?)",
+                name, description, false);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM grading_scales WHERE name = ?", Long.class, name);
+        insertBands(id, sorted);
+        reloadAfterCommit();
+        return id;
+    }
+
+    /**
+     * Replaces a scale's name, description and bands. Grades already given
+     * on it keep their letters until they are regraded.
+     */
+    @Transactional
+    public boolean update(Long id, String name, String description, List<GradingScale.Band> bands) {
+        List<GradingScale.Band> sorted = sorted(bands);
+        GradingScale.validate(sorted);
+        int rows = jdbcTemplate.update("UPDATE grading_scales SET name = ?, description = ? WHERE id = ?",
+                name, description, id);
+        if (rows == 0) return false;
+        jdbcTemplate.update("DELETE FROM grading_scale_bands WHERE scale_id = ?", id);
+        insertBands(id, sorted);
+        reloadAfterCommit();
+        return true;
+    }
+
+    @Transactional
+    public boolean makeDefault(Long id) {
+        if (jdbcTemplate.update("UPDATE grading_scales SET is_default = ? WHERE id = ?", true, id) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE grading_scales SET is_default = ? WHERE id <> ?", false, id);
+        reloadAfterCommit();
+        return true;
+    }
+
+    private void insertBands(Long scaleId, List<GradingScale.Band> bands) {
+        List<Object[]> rows = new ArrayList<>(bands.size());
+        for (GradingScale.Band band : bands) {
+            rows.add(new Object[]{scaleId, band.getMinScore(), band.getLetterGrade(), band.getGradePointValue(),
+                    band.getStatus()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO grading_scale_bands (scale_id, min_score, letter_grade, grade_point_value, status) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private static List<GradingScale.Band> sorted(List<GradingScale.Band> bands) {
+        List<GradingScale.Band> sorted = new ArrayList<>(bands != null ? bands : List.of());
+        sorted.sort(Comparator.comparing(GradingScale.Band::getMinScore,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return sorted;
+    }
+
+    private void reloadAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+                cacheInvalidationBus.publishGradingScales();
+            }
+        });
+    }
+
+
+    private static class Registry {
+        private final Map<Long, GradingScale> scales;
+        private final GradingScale defaultScale;
+
+        Registry(Map<Long, GradingScale> scales, GradingScale defaultScale) {
+            this.scales = scales;
+            this.defaultScale = defaultScale;
+        }
+    }
+}
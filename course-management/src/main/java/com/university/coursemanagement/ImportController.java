@@ -0,0 +1,63 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ImportController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ImportService importService;
+
+
+    // Upload a CSV (with header row) or NDJSON file of students, courses or enrollments
+    @PostMapping(value = "/{kind}", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<?> startImport(@PathVariable String kind,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        ImportJob.Kind importKind;
+        try {
+            importKind = ImportJob.Kind.valueOf(kind.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown import kind: " + kind);
+        }
+        ImportJob.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf(NDJSON))
+                ? ImportJob.Format.NDJSON : ImportJob.Format.CSV;
+        return ResponseEntity.accepted().body(importService.start(importKind, format, body));
+    }
+
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJob> getImport(@PathVariable String jobId) {
+        return importService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    // Continue a failed or interrupted import from its last committed chunk
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeImport(@PathVariable String jobId) {
+        Optional<ImportJob> job = importService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!importService.resume(job.get())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.get());
+        }
+        return ResponseEntity.accepted().body(job.get());
+    }
+}
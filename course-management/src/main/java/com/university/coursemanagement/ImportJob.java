@@ -0,0 +1,157 @@
+package com.university.coursemanagement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bulk import. The checkpoint is the last source line whose
+ * chunk has been committed; a resumed job starts reading after it. State
+ * is saved next to the spooled upload so jobs survive a restart.
+ */
+public class ImportJob {
+
+    public enum Kind { STUDENTS, COURSES, ENROLLMENTS }
+
+    public enum Format { CSV, NDJSON }
+
+    public enum Status { RUNNING, COMPLETED, FAILED, INTERRUPTED }
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String id;
+    private final Kind kind;
+    private final Format format;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile long checkpoint;
+    private volatile LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String failure;
+
+    ImportJob(Kind kind, Format format) {
+        this(UUID.randomUUID().toString(), kind, format);
+    }
+
+    private ImportJob(String id, Kind kind, Format format) {
+        this.id = id;
+        this.kind = kind;
+        this.format = format;
+    }
+
+    void recordChunk(int read, int insertedRows, int skippedRows, List<RowError> rowErrors, long lastLine) {
+        rowsRead.addAndGet(read);
+        inserted.addAndGet(insertedRows);
+        skipped.addAndGet(skippedRows);
+        rejected.addAndGet(rowErrors.size());
+        for (RowError error : rowErrors) {
+            if (errors.size() >= MAX_REPORTED_ERRORS) break;
+            errors.add(error);
+        }
+        checkpoint = lastLine;
+    }
+
+    void restart() {
+        status = Status.RUNNING;
+        failure = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+    }
+
+    void finish(Status status, String failure) {
+        this.status = status;
+        this.failure = failure;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    boolean isResumable() {
+        return status == Status.FAILED || status == Status.INTERRUPTED;
+    }
+
+    void save(Path file) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("kind", kind.name());
+        state.setProperty("format", format.name());
+        state.setProperty("status", status.name());
+        state.setProperty("checkpoint", Long.toString(checkpoint));
+        state.setProperty("rowsRead", Long.toString(rowsRead.get()));
+        state.setProperty("inserted", Long.toString(inserted.get()));
+        state.setProperty("skipped", Long.toString(skipped.get()));
+        state.setProperty("rejected", Long.toString(rejected.get()));
+        state.setProperty("startedAt", startedAt.toString());
+        if (finishedAt != null) state.setProperty("finishedAt", finishedAt.toString());
+        if (failure != null) state.setProperty("failure", failure);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp)) {
+            state.store(out, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores a saved job; one that was still running is marked interrupted.
+     */
+    static ImportJob load(String id, Path file) throws IOException {
+        Properties state = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            state.load(in);
+        }
+        ImportJob job = new ImportJob(id, Kind.valueOf(state.getProperty("kind")),
+                Format.valueOf(state.getProperty("format")));
+        job.checkpoint = Long.parseLong(state.getProperty("checkpoint", "0"));
+        job.rowsRead.set(Long.parseLong(state.getProperty("rowsRead", "0")));
+        job.inserted.set(Long.parseLong(state.getProperty("inserted", "0")));
+        job.skipped.set(Long.parseLong(state.getProperty("skipped", "0")));
+        job.rejected.set(Long.parseLong(state.getProperty("rejected", "0")));
+        job.startedAt = LocalDateTime.parse(state.getProperty("startedAt"));
+        String finished = state.getProperty("finishedAt");
+        job.finishedAt = finished != null ? LocalDateTime.parse(finished) : null;
+        job.failure = state.getProperty("failure");
+        Status saved = Status.valueOf(state.getProperty("status"));
+        job.status = saved == Status.RUNNING ? Status.INTERRUPTED : saved;
+        return job;
+    }
+
+    public String getId() { return id; }
+    public Kind getKind() { return kind; }
+    public Format getFormat() { return format; }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getInserted() { return inserted.get(); }
+    public long getSkipped() { return skipped.get(); }
+    public long getRejected() { return rejected.get(); }
+    public long getCheckpoint() { return checkpoint; }
+    public List<RowError> getErrors() { return List.copyOf(errors); }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Status getStatus() { return status; }
+    public String getFailure() { return failure; }
+
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+}
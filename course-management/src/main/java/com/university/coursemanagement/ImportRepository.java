@@ -0,0 +1,139 @@
+package com.university.coursemanagement;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based inserts for bulk imports. Rows whose natural key already exists
+ * are left alone, so replaying a chunk after a crash is harmless. On
+ * Postgres a chunk is streamed with COPY into a temporary staging table and
+ * moved across in one INSERT ... SELECT; elsewhere it goes as multi-row
+ * INSERT IGNORE statements, whose duplicate-key warnings are the skipped
+ * rows. Must be called inside a transaction.
+ */
+@Repository
+public class ImportRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final int ER_DUP_ENTRY = 1062;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    /**
+     * Inserts the rows (values in {@link #columns} order); returns how many were new.
+     */
+    public int insert(ImportJob.Kind kind, List<Object[]> rows) {
+        if (rows.isEmpty()) return 0;
+        return databaseInfo.isPostgres() ? copyInsert(kind, rows) : multiRowInsert(kind, rows);
+    }
+
+    static String table(ImportJob.Kind kind) {
+        return switch (kind) {
+            case STUDENTS -> "students";
+            case COURSES -> "courses";
+            case ENROLLMENTS -> "student_enrollments";
+        };
+    }
+
+    static String columns(ImportJob.Kind kind) {
+        return switch (kind) {
+            case STUDENTS -> "first_name, last_name, email, phone_number, student_id";
+            case COURSES -> "code, title, description, credits, capacity";
+            case ENROLLMENTS -> "student_id, course_id, term_id";
+        };
+    }
+
+    private static String stagingColumns(ImportJob.Kind kind) {
+        return switch (kind) {
+            case STUDENTS -> "first_name text, last_name text, email text, phone_number text, student_id text";
+            case COURSES -> "code text, title text, description text, credits integer, capacity integer";
+            case ENROLLMENTS -> "student_id bigint, course_id bigint, term_id bigint";
+        };
+    }
+
+    private int copyInsert(ImportJob.Kind kind, List<Object[]> rows) {
+        String stage = "import_stage_" + table(kind);
+        StringBuilder csv = new StringBuilder(rows.size() * 64);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                // COPY reads an unquoted empty field as NULL
+                if (row[i] != null) csv.append(Csv.escape(row[i]));
+            }
+            csv.append('\n');
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + stage + " (" + stagingColumns(kind) + ") " +
+                        "ON COMMIT DELETE ROWS");
+            }
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + stage + " (" + columns(kind) + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate("INSERT INTO " + table(kind) + " (" + columns(kind) + ") " +
+                        "SELECT " + columns(kind) + " FROM " + stage + " ON CONFLICT DO NOTHING");
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY into " + table(kind) + " failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private int multiRowInsert(ImportJob.Kind kind, List<Object[]> rows) {
+        int width = rows.get(0).length;
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Object[]> slice = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            String tuple = "(" + String.join(", ", Collections.nCopies(width, "?")) + ")";
+            // Ignored duplicates never count as affected rows, unlike a no-op ON DUPLICATE KEY
+            // UPDATE under Connector/J's default useAffectedRows=false
+            String sql = "INSERT IGNORE INTO " + table(kind) + " (" + columns(kind) + ") VALUES " +
+                    String.join(", ", Collections.nCopies(slice.size(), tuple));
+            inserted += jdbcTemplate.execute(sql, (PreparedStatementCallback<Integer>) ps -> {
+                int i = 1;
+                for (Object[] row : slice) {
+                    for (Object value : row) ps.setObject(i++, value);
+                }
+                int rowsInserted = ps.executeUpdate();
+                checkOnlyDuplicates(kind, ps.getWarnings());
+                return rowsInserted;
+            });
+        }
+        return inserted;
+    }
+
+    // IGNORE also turns bad values into warnings; only a duplicate key may be skipped
+    private static void checkOnlyDuplicates(ImportJob.Kind kind, SQLWarning warning) throws SQLException {
+        for (; warning != null; warning = warning.getNextWarning()) {
+            if (warning.getErrorCode() != ER_DUP_ENTRY) {
+                throw new SQLException("Insert into " + table(kind) + " failed: " + warning.getMessage(),
+                        warning.getSQLState(), warning.getErrorCode());
+            }
+        }
+    }
+}
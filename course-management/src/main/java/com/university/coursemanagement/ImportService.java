@@ -0,0 +1,446 @@
+package com.university.coursemanagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of students, courses and enrollments from CSV or NDJSON.
+ * The upload is spooled to disk, then read line by line: chunks of lines
+ * are parsed and validated on a worker pool while earlier chunks are being
+ * written, one transaction per chunk, in file order. After each commit the
+ * job's checkpoint moves past the chunk, so a failed or interrupted job
+ * resumes where it stopped. Seat limits are not applied to imported
+ * enrollments.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final int CHUNK = 1000;
+    private static final int MAX_CHUNKS_IN_FLIGHT = 4;
+    private static final int MAX_TEXT = 255;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    @Value("${app.import.dir:${java.io.tmpdir}/course-management-imports}")
+    private String importDir;
+
+    @Autowired
+    private ImportRepository importRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AcademicTerms academicTerms;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService validators;
+    private Path directory;
+
+
+    @PostConstruct
+    void init() throws IOException {
+        validators = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "import-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        directory = Files.createDirectories(Paths.get(importDir));
+
+        // Jobs cut short by a restart come back as INTERRUPTED, ready to resume
+        try (DirectoryStream<Path> saved = Files.newDirectoryStream(directory, "*.properties")) {
+            for (Path file : saved) {
+                String id = file.getFileName().toString().replace(".properties", "");
+                try {
+                    jobs.put(id, ImportJob.load(id, file));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Ignoring unreadable import state {}", file, e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validators.shutdownNow();
+    }
+
+    /**
+     * Spools the upload to disk and starts importing it in the background.
+     */
+    public ImportJob start(ImportJob.Kind kind, ImportJob.Format format, InputStream body) throws IOException {
+        ImportJob job = new ImportJob(kind, format);
+        Files.copy(body, dataFile(job.getId()));
+        job.save(stateFile(job.getId()));
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Restarts a failed or interrupted job from its checkpoint; false if it
+     * is running, finished or its upload is gone.
+     */
+    public boolean resume(ImportJob job) {
+        synchronized (job) {
+            if (!job.isResumable() || !Files.exists(dataFile(job.getId()))) return false;
+            job.restart();
+        }
+        taskExecutor.execute(() -> run(job));
+        return true;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ImportJob job) {
+        try (BufferedReader reader = Files.newBufferedReader(dataFile(job.getId()))) {
+            List<String> header = null;
+            List<Line> pending = new ArrayList<>(CHUNK);
+            Deque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (header == null && job.getFormat() == ImportJob.Format.CSV) {
+                    header = Csv.parseLine(stripBom(text)).stream().map(ImportService::normalizeKey).toList();
+                    continue;
+                }
+                if (lineNumber <= job.getCheckpoint() || text.isBlank()) continue;
+
+                pending.add(new Line(lineNumber, text));
+                if (pending.size() == CHUNK) {
+                    inFlight.add(validateAsync(job, header, pending));
+                    pending = new ArrayList<>(CHUNK);
+                    if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) write(job, inFlight.poll().join());
+                }
+            }
+            if (!pending.isEmpty()) inFlight.add(validateAsync(job, header, pending));
+            while (!inFlight.isEmpty()) write(job, inFlight.poll().join());
+
+            job.finish(ImportJob.Status.COMPLETED, null);
+            Files.deleteIfExists(dataFile(job.getId()));
+        } catch (Exception e) {
+            log.warn("Import {} stopped at line {}", job.getId(), job.getCheckpoint(), e);
+            job.finish(ImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            saveQuietly(job);
+        }
+    }
+
+    private CompletableFuture<Chunk> validateAsync(ImportJob job, List<String> header, List<Line> lines) {
+        return CompletableFuture.supplyAsync(() -> validate(job, header, lines), validators);
+    }
+
+    private void write(ImportJob job, Chunk chunk) throws IOException {
+        int inserted = chunk.rows.isEmpty() ? 0 : transactionTemplate.execute(status -> {
+            int rows = importRepository.insert(job.getKind(), chunk.rows);
+            // Imported enrollments are not held to capacity, but they do fill seats
+            if (rows > 0 && job.getKind() == ImportJob.Kind.ENROLLMENTS) enrollmentRepository.recountSeats(chunk.courseIds);
+            if (rows > 0) tableVersions.changed(switch (job.getKind()) {
+                case STUDENTS -> TableVersions.Table.STUDENTS;
+                case COURSES -> TableVersions.Table.COURSES;
+                case ENROLLMENTS -> TableVersions.Table.ENROLLMENTS;
+            });
+            if (rows > 0) recordChanges(job.getKind(), chunk);
+            return rows;
+        });
+        job.recordChunk(chunk.lines, inserted, chunk.rows.size() - inserted, chunk.errors, chunk.lastLine);
+        job.save(stateFile(job.getId()));
+        if (inserted > 0) published(job.getKind(), chunk);
+    }
+
+    // Inserts bypass Hibernate: the change feed entries go in with the rows
+    private void recordChanges(ImportJob.Kind kind, Chunk chunk) {
+        switch (kind) {
+            case STUDENTS -> changeFeed.record(ChangeEvent.Type.STUDENT, ChangeEvent.Action.RELOAD, null, null, null, null);
+            case COURSES -> changeFeed.record(ChangeEvent.Type.COURSE, ChangeEvent.Action.RELOAD, null, null, null, null);
+            case ENROLLMENTS -> chunk.courseIds.forEach(courseId -> changeFeed.record(ChangeEvent.Type.ENROLLMENT,
+                    ChangeEvent.Action.RELOAD, null, courseId, null, null));
+        }
+    }
+
+    // and the search index and caches are refreshed once they are committed
+    private void published(ImportJob.Kind kind, Chunk chunk) {
+        switch (kind) {
+            case STUDENTS -> {
+                studentRepository.findByStudentIdIn(chunk.keys).forEach(searchService::index);
+                cacheInvalidationBus.evictLookups(Student.class);
+            }
+            case COURSES -> {
+                courseRepository.findByCodeIn(chunk.keys).forEach(searchService::index);
+                cacheInvalidationBus.evictLookups(Course.class);
+            }
+            case ENROLLMENTS -> chunk.courseIds.forEach(enrollmentService::enrollmentsChanged);
+        }
+    }
+
+    private Chunk validate(ImportJob job, List<String> header, List<Line> lines) {
+        Chunk chunk = new Chunk(lines.get(lines.size() - 1).number, lines.size());
+        List<Map<String, String>> records = new ArrayList<>(lines.size());
+        List<Line> parsed = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            try {
+                records.add(job.getFormat() == ImportJob.Format.CSV ? csvRecord(header, line.text) : jsonRecord(line.text));
+                parsed.add(line);
+            } catch (IllegalArgumentException e) {
+                chunk.reject(line.number, e.getMessage());
+            }
+        }
+
+        switch (job.getKind()) {
+            case STUDENTS -> validateStudents(chunk, parsed, records);
+            case COURSES -> validateCourses(chunk, parsed, records);
+            case ENROLLMENTS -> validateEnrollments(chunk, parsed, records);
+        }
+        chunk.errors.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return chunk;
+    }
+
+    private static void validateStudents(Chunk chunk, List<Line> lines, List<Map<String, String>> records) {
+        for (int i = 0; i < lines.size(); i++) {
+            Map<String, String> record = records.get(i);
+            try {
+                String email = required(record, "email").toLowerCase(Locale.ROOT);
+                if (!EMAIL.matcher(email).matches()) throw new IllegalArgumentException("Invalid email: " + email);
+                String studentId = required(record, "studentid").toUpperCase(Locale.ROOT);
+                chunk.rows.add(new Object[]{required(record, "firstname"), required(record, "lastname"), email,
+                        optional(record, "phonenumber"), studentId});
+                chunk.keys.add(studentId);
+            } catch (IllegalArgumentException e) {
+                chunk.reject(lines.get(i).number, e.getMessage());
+            }
+        }
+    }
+
+    private static void validateCourses(Chunk chunk, List<Line> lines, List<Map<String, String>> records) {
+        for (int i = 0; i < lines.size(); i++) {
+            Map<String, String> record = records.get(i);
+            try {
+                String code = required(record, "code").toUpperCase(Locale.ROOT);
+                chunk.rows.add(new Object[]{code, required(record, "title"), optional(record, "description"),
+                        nonNegative(record, "credits"), nonNegative(record, "capacity")});
+                chunk.keys.add(code);
+            } catch (IllegalArgumentException e) {
+                chunk.reject(lines.get(i).number, e.getMessage());
+            }
+        }
+    }
+
+    private void validateEnrollments(Chunk chunk, List<Line> lines, List<Map<String, String>> records) {
+        List<String[]> keys = new ArrayList<>(lines.size());
+        Set<String> studentNumbers = new HashSet<>();
+        Set<String> courseCodes = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                String studentNumber = required(records.get(i), "studentid").toUpperCase(Locale.ROOT);
+                String courseCode = required(records.get(i), "coursecode").toUpperCase(Locale.ROOT);
+                keys.add(new String[]{studentNumber, courseCode});
+                studentNumbers.add(studentNumber);
+                courseCodes.add(courseCode);
+            } catch (IllegalArgumentException e) {
+                keys.add(null);
+                chunk.reject(lines.get(i).number, e.getMessage());
+            }
+        }
+
+        // Resolve the chunk's natural keys in two queries
+        Map<String, Long> students = idsByKey(studentNumbers.isEmpty() ? List.of()
+                : studentRepository.findIdsByStudentIds(studentNumbers));
+        Map<String, Long> courses = idsByKey(courseCodes.isEmpty() ? List.of()
+                : courseRepository.findIdsByCodes(courseCodes));
+
+        Long termId = academicTerms.current().getId();
+        for (int i = 0; i < lines.size(); i++) {
+            String[] key = keys.get(i);
+            long number = lines.get(i).number;
+            if (key == null) continue;
+            if (!students.containsKey(key[0])) chunk.reject(number, "Student not found: " + key[0]);
+            else if (!courses.containsKey(key[1])) chunk.reject(number, "Course not found: " + key[1]);
+            else {
+                Long courseId = courses.get(key[1]);
+                chunk.rows.add(new Object[]{students.get(key[0]), courseId, termId});
+                chunk.courseIds.add(courseId);
+            }
+        }
+    }
+
+    private static Map<String, String> csvRecord(List<String> header, String text) {
+        List<String> values = Csv.parseLine(text);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + values.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            record.put(header.get(i), values.get(i));
+        }
+        return record;
+    }
+
+    private Map<String, String> jsonRecord(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (node == null || !node.isObject()) throw new IllegalArgumentException("Expected a JSON object");
+        Map<String, String> record = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            if (!field.getValue().isNull()) record.put(normalizeKey(field.getKey()), field.getValue().asText().trim());
+        }
+        return record;
+    }
+
+    private static String required(Map<String, String> record, String field) {
+        String value = optional(record, field);
+        if (value == null) throw new IllegalArgumentException("Missing " + field);
+        return value;
+    }
+
+    private static String optional(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) return null;
+        if (value.length() > MAX_TEXT) throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT);
+        return value;
+    }
+
+    private static Integer nonNegative(Map<String, String> record, String field) {
+        String value = optional(record, field);
+        if (value == null) return null;
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) throw new IllegalArgumentException(field + " must not be negative");
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static Map<String, Long> idsByKey(Collection<Object[]> rows) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : rows) ids.put((String) row[0], (Long) row[1]);
+        return ids;
+    }
+
+    // "first_name", "firstName" and "FirstName" all name the same column
+    private static String normalizeKey(String key) {
+        return key.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripBom(String text) {
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+
+    private Path dataFile(String id) {
+        return directory.resolve(id + ".data");
+    }
+
+    private Path stateFile(String id) {
+        return directory.resolve(id + ".properties");
+    }
+
+    private void saveQuietly(ImportJob job) {
+        try {
+            job.save(stateFile(job.getId()));
+        } catch (IOException e) {
+            log.warn("Could not save state of import {}", job.getId(), e);
+        }
+    }
+
+
+    private static final class Line {
+        final long number;
+        final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class Chunk {
+        final long lastLine;
+        final int lines;
+        final List<Object[]> rows = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+        final Set<Long> courseIds = new HashSet<>();
+        final List<ImportJob.RowError> errors = new ArrayList<>();
+
+        Chunk(long lastLine, int lines) {
+            this.lastLine = lastLine;
+            this.lines = lines;
+        }
+
+        void reject(long line, String message) {
+            errors.add(new ImportJob.RowError(line, message));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.university.coursemanagement;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * One file of the {@link GradeJournal}'s local log, memory-mapped at a
+ * fixed size. Records are {@code [length][crc32][entry]}, written one after
+ * the other, with a zero length after the last one. An append is a copy
+ * into the mapping: it survives the process dying as soon as it returns,
+ * and a power loss once {@link #force} has run. A record cut short by a
+ * crash fails its checksum, and the log ends before it.
+ */
+final class JournalSegment {
+
+    private static final int HEADER = 8;
+    private static final String PREFIX = "grades-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path path;
+    private final long firstSeq;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int written;
+    private long lastSeq;
+    // End of the records already copied to grade_history; guarded by the journal's compaction lock
+    private int compactedTo;
+
+    private JournalSegment(Path path, long firstSeq, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSeq = firstSeq - 1;
+    }
+
+    static JournalSegment create(Path dir, long firstSeq, int size) throws IOException {
+        Path path = dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, 0);
+        return new JournalSegment(path, firstSeq, channel, buffer);
+    }
+
+    /**
+     * Maps an existing segment and finds where its intact records end.
+     */
+    static JournalSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        JournalSegment segment = new JournalSegment(path, firstSeqOf(path), channel, buffer);
+        segment.written = segment.scan(0, buffer.capacity(), change -> segment.lastSeq = change.getSeq());
+        if (segment.written + 4 <= buffer.capacity()) buffer.putInt(segment.written, 0);
+        return segment;
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static long firstSeqOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Appends an encoded entry; false when it does not fit, and the log
+     * moves on to a new segment.
+     */
+    boolean append(long seq, byte[] entry) {
+        int at = written;
+        if (at + HEADER + entry.length + 4 > buffer.capacity()) return false;
+        CRC32 crc = new CRC32();
+        crc.update(entry);
+        buffer.put(at + HEADER, entry);
+        buffer.putInt(at + HEADER + entry.length, 0);
+        buffer.putInt(at + 4, (int) crc.getValue());
+        // The length goes in last: a reader that sees it sees a whole record
+        buffer.putInt(at, entry.length);
+        written = at + HEADER + entry.length;
+        lastSeq = seq;
+        return true;
+    }
+
+    /**
+     * Reads the records written so far, in order. Safe while another thread
+     * appends: only the part before the published end is read.
+     */
+    void forEach(Consumer<GradeChange> consumer) {
+        scan(0, written, consumer);
+    }
+
+    /**
+     * Reads the records from byte offset {@code from}, the end returned by
+     * an earlier call, up to the published end, which it returns.
+     */
+    int forEachFrom(int from, Consumer<GradeChange> consumer) {
+        return scan(from, written, consumer);
+    }
+
+    private int scan(int from, int limit, Consumer<GradeChange> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        int position = from;
+        while (position + HEADER <= limit) {
+            int length = view.getInt(position);
+            if (length <= 0 || position + HEADER + length > limit) break;
+            byte[] entry = new byte[length];
+            view.get(position + HEADER, entry);
+            CRC32 crc = new CRC32();
+            crc.update(entry);
+            if ((int) crc.getValue() != view.getInt(position + 4)) break;
+            try {
+                consumer.accept(GradeChange.read(new DataInputStream(new ByteArrayInputStream(entry))));
+            } catch (IOException e) {
+                break;
+            }
+            position += HEADER + length;
+        }
+        return position;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    long getFirstSeq() { return firstSeq; }
+
+    long getLastSeq() { return lastSeq; }
+
+    boolean isEmpty() { return written == 0; }
+
+    int getCompactedTo() { return compactedTo; }
+
+    void setCompactedTo(int compactedTo) { this.compactedTo = compactedTo; }
+
+    Path getPath() { return path; }
+}
@@ -0,0 +1,126 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cursor (keyset) pagination shared by the list endpoints.
+ * A cursor is the sort value and id of the last row of the previous page,
+ * so every page is an index seek instead of an OFFSET scan, and the next
+ * cursor is returned in the {@value #NEXT_CURSOR_HEADER} response header.
+ */
+public final class Keyset {
+
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 1000;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final char SEPARATOR = '\u0000';
+
+    private Keyset() {}
+
+    /**
+     * Fetches one page of {@code type} matching {@code filter}, ordered by
+     * ({@code sort}, id). Bad sort fields or cursors answer 400.
+     */
+    public static <T> ResponseEntity<Object> page(JpaSpecificationExecutor<T> repository, Class<T> type,
+                                                  Specification<T> filter, String cursor, Integer size,
+                                                  String sort, boolean desc, Set<String> sortable) {
+        int pageSize = size(size);
+        String field;
+        Specification<T> seek;
+        try {
+            field = sortField(sort, sortable);
+            seek = after(type, field, desc, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        Sort order = sort(field, desc);
+        List<T> rows = repository.findBy(Specification.allOf(filter, seek),
+                q -> q.sortBy(order).limit(pageSize + 1).all());
+
+        String next = nextCursor(rows, pageSize, field);
+        List<T> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (next != null) ok.header(NEXT_CURSOR_HEADER, next);
+        return ok.body(page);
+    }
+
+    static int size(Integer requested) {
+        if (requested == null || requested <= 0) return DEFAULT_SIZE;
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    static String sortField(String requested, Set<String> allowed) {
+        if (requested == null || requested.isBlank()) return "id";
+        if (!allowed.contains(requested)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + requested);
+        }
+        return requested;
+    }
+
+    static Sort sort(String field, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, field);
+        return "id".equals(field) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Restricts a query to rows strictly after the cursor in (field, id) order.
+     */
+    static <T> Specification<T> after(Class<T> type, String field, boolean descending, String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int split = decoded.lastIndexOf(SEPARATOR);
+        if (split < 0) throw new IllegalArgumentException("Malformed cursor");
+        Long lastId = Long.valueOf(decoded.substring(split + 1));
+        Comparable<Object> value = parse(decoded.substring(0, split), BeanUtils.findPropertyType(field, type));
+
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idBeyond = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if ("id".equals(field)) return idBeyond;
+
+            Path<Comparable<Object>> path = root.get(field);
+            Predicate beyond = descending ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+            return cb.or(beyond, cb.and(cb.equal(path, value), idBeyond));
+        };
+    }
+
+    /**
+     * Builds the cursor for the page after {@code rows}, which must have been
+     * fetched with {@code size + 1} rows; returns null on the last page.
+     */
+    static String nextCursor(List<?> rows, int size, String field) {
+        if (rows.size() <= size) return null;
+        BeanWrapper last = new BeanWrapperImpl(rows.get(size - 1));
+        String raw = last.getPropertyValue(field) + String.valueOf(SEPARATOR) + last.getPropertyValue("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> parse(String raw, Class<?> type) {
+        Object value;
+        if (type == Long.class) value = Long.valueOf(raw);
+        else if (type == Integer.class) value = Integer.valueOf(raw);
+        else if (type == Double.class) value = Double.valueOf(raw);
+        else if (type == LocalDate.class) value = LocalDate.parse(raw);
+        else value = raw;
+        return (Comparable<Object>) value;
+    }
+}
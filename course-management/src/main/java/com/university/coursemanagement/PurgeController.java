@@ -0,0 +1,65 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/purges")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PurgeController {
+
+    @Autowired
+    private DeletionService deletionService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+
+    // Retire many courses at once, by id and/or code prefix (e.g. "CS1")
+    @PostMapping("/courses")
+    public ResponseEntity<?> purgeCourses(@RequestBody PurgeRequest request) {
+        List<Long> courseIds = new ArrayList<>();
+        if (request.getIds() != null) courseIds.addAll(request.getIds());
+        if (request.getCodePrefix() != null && !request.getCodePrefix().isBlank()) {
+            courseIds.addAll(courseRepository.findIdsByCodePrefix(request.getCodePrefix().toUpperCase()));
+        }
+        if (courseIds.isEmpty()) {
+            return ResponseEntity.badRequest().body("No courses selected");
+        }
+        return ResponseEntity.accepted().body(deletionService.startCoursePurge(courseIds));
+    }
+
+
+    @PostMapping("/students")
+    public ResponseEntity<?> purgeStudents(@RequestBody PurgeRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            return ResponseEntity.badRequest().body("No students selected");
+        }
+        return ResponseEntity.accepted().body(deletionService.startStudentPurge(request.getIds()));
+    }
+
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PurgeJob> getPurge(@PathVariable String jobId) {
+        return deletionService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    public static class PurgeRequest {
+        private List<Long> ids;
+        private String codePrefix;
+
+
+        public List<Long> getIds() { return ids; }
+        public void setIds(List<Long> ids) { this.ids = ids; }
+
+        public String getCodePrefix() { return codePrefix; }
+        public void setCodePrefix(String codePrefix) { this.codePrefix = codePrefix; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a background purge of many courses or students.
+ */
+public class PurgeJob {
+
+    /**
+     * PARTIAL: the job ran to the end, but some deletes failed (see errors).
+     */
+    public enum Status { RUNNING, COMPLETED, PARTIAL, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String kind;
+    private final int total;
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger missing = new AtomicInteger();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+
+    PurgeJob(String kind, int total) {
+        this.kind = kind;
+        this.total = total;
+    }
+
+    void recordDeleted() { deleted.incrementAndGet(); }
+
+    void recordMissing() { missing.incrementAndGet(); }
+
+    void recordError(Long id, Exception e) { errors.add(id + ": " + e.getMessage()); }
+
+    void finish(Status status) {
+        this.status = status;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public String getKind() { return kind; }
+    public int getTotal() { return total; }
+    public int getDeleted() { return deleted.get(); }
+    public int getMissing() { return missing.get(); }
+    public int getFailed() { return errors.size(); }
+    public int getProcessed() { return deleted.get() + missing.get() + errors.size(); }
+    public List<String> getErrors() { return List.copyOf(errors); }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Status getStatus() { return status; }
+}
@@ -0,0 +1,69 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rankings")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RankingController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+
+    // When the current ranking was built, how many students it covers and the dean's list thresholds
+    @GetMapping
+    public ResponseEntity<RankingSnapshot> getRanking() {
+        return ResponseEntity.ok(rankingService.getSnapshot());
+    }
+
+
+    // Best GPAs first: /api/rankings/top?limit=10
+    @GetMapping("/top")
+    public ResponseEntity<?> getTop(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(rankingService.top(limit));
+    }
+
+
+    // Rank and percentile of one student; 404 until the student has graded credits
+    @GetMapping("/students/{studentId}")
+    public ResponseEntity<RankingEntry> getStudentRanking(@PathVariable Long studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return rankingService.forStudent(studentId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+
+    // Dean's list in rank order, paged with offset/limit
+    @GetMapping("/deans-list")
+    public ResponseEntity<?> getDeansList(@RequestParam(defaultValue = "0") int offset,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("offset must be >= 0 and limit between 1 and " + MAX_LIMIT);
+        }
+        List<RankingEntry> entries = rankingService.deansList(offset, limit);
+        return ResponseEntity.ok(entries);
+    }
+
+
+    // Rebuild the ranking now instead of waiting for the scheduled refresh
+    @PostMapping("/refresh")
+    public ResponseEntity<RankingSnapshot> refresh() {
+        return ResponseEntity.ok(rankingService.refresh());
+    }
+}
@@ -0,0 +1,41 @@
+package com.university.coursemanagement;
+
+/**
+ * One student's standing in the current {@link RankingSnapshot}.
+ */
+public class RankingEntry {
+
+    private final Long id;
+    private final String studentId;
+    private final String name;
+    private final int rank;
+    private final int rankedStudents;
+    private final double percentile;
+    private final double gpa;
+    private final int credits;
+    private final boolean deansList;
+
+    RankingEntry(Long id, String studentId, String name, int rank, int rankedStudents,
+                 double percentile, double gpa, int credits, boolean deansList) {
+        this.id = id;
+        this.studentId = studentId;
+        this.name = name;
+        this.rank = rank;
+        this.rankedStudents = rankedStudents;
+        this.percentile = percentile;
+        this.gpa = gpa;
+        this.credits = credits;
+        this.deansList = deansList;
+    }
+
+
+    public Long getId() { return id; }
+    public String getStudentId() { return studentId; }
+    public String getName() { return name; }
+    public int getRank() { return rank; }
+    public int getRankedStudents() { return rankedStudents; }
+    public double getPercentile() { return percentile; }
+    public double getGpa() { return gpa; }
+    public int getCredits() { return credits; }
+    public boolean isDeansList() { return deansList; }
+}
@@ -0,0 +1,228 @@
+package com.university.coursemanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Institution-wide GPA ranking. A refresh streams every grade once, with
+ * its course credits, and the per-term totals of archived terms
+ * ({@link GradeArchive}) into per-student primitive accumulators, computes
+ * GPAs and sort keys in parallel, sorts, assigns competition ranks and
+ * publishes a new {@link RankingSnapshot}. Readers only ever see a
+ * complete snapshot.
+ */
+@Service
+public class RankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingService.class);
+
+    // Grades arrive grouped by student, so each student is one contiguous run
+    private static final String GRADES_BY_STUDENT =
+            "SELECT student_id, points, credits FROM (" +
+            "SELECT g.student_id, g.grade_point_value * c.credits AS points, c.credits " +
+            "FROM grades g JOIN courses c ON c.id = g.course_id " +
+            "UNION ALL SELECT student_id, grade_point_sum, attempted_credits FROM archived_grade_totals) t " +
+            "ORDER BY student_id";
+
+    private static final int FETCH_SIZE = 5000;
+    // GPA in millionths fits in the top 23 bits of the sort key, position in the low 40
+    private static final long GPA_SCALE = 1_000_000L;
+    private static final int POSITION_BITS = 40;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+    private static final long MAX_SCALED_GPA = 5 * GPA_SCALE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Value("${app.rankings.deans-list-min-gpa:3.7}")
+    private double deansListMinGpa;
+
+    @Value("${app.rankings.deans-list-min-credits:12}")
+    private int deansListMinCredits;
+
+    private volatile RankingSnapshot snapshot = RankingSnapshot.EMPTY;
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside it would pin its carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+
+    public RankingSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<RankingEntry> top(int limit) {
+        RankingSnapshot current = snapshot;
+        return entries(current, IntStream.range(0, Math.min(limit, current.size())).toArray());
+    }
+
+    public List<RankingEntry> deansList(int offset, int limit) {
+        RankingSnapshot current = snapshot;
+        int[] positions = IntStream.range(0, current.size())
+                .filter(current::isOnDeansList)
+                .skip(offset).limit(limit)
+                .toArray();
+        return entries(current, positions);
+    }
+
+    public Optional<RankingEntry> forStudent(Long studentId) {
+        RankingSnapshot current = snapshot;
+        int position = current.positionOf(studentId);
+        if (position < 0) return Optional.empty();
+        return entries(current, new int[]{position}).stream().findFirst();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rankings.refresh-interval:PT15M}",
+               initialDelayString = "${app.rankings.refresh-interval:PT15M}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Lookups serve the empty ranking until the next scheduled refresh
+            log.warn("Initial ranking failed", e);
+        }
+    }
+
+    /**
+     * Rebuilds the ranking from the grades table and publishes it.
+     */
+    public RankingSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            return rebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private RankingSnapshot rebuild() {
+        long started = System.currentTimeMillis();
+        Accumulator totals = new Accumulator();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        // Postgres only streams with a fetch size inside a transaction
+        tx.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GRADES_BY_STUDENT,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> totals.add(rs.getLong(1), rs.getDouble(2), rs.getInt(3))));
+
+        RankingSnapshot ranked = rank(totals);
+        snapshot = ranked;
+        log.info("Ranked {} students in {} ms", ranked.size(), System.currentTimeMillis() - started);
+        return ranked;
+    }
+
+    private RankingSnapshot rank(Accumulator totals) {
+        int n = totals.size;
+        long[] ids = totals.studentIds;
+        double[] points = totals.gradePoints;
+        int[] credits = totals.credits;
+
+        // Students with no graded credits have no GPA and are not ranked
+        int[] graded = IntStream.range(0, n).parallel().filter(i -> credits[i] > 0).toArray();
+        int m = graded.length;
+        double[] gpa = new double[m];
+        long[] keys = new long[m];
+        IntStream.range(0, m).parallel().forEach(i -> {
+            int source = graded[i];
+            gpa[i] = points[source] / credits[source];
+            long scaled = Math.min(Math.round(gpa[i] * GPA_SCALE), MAX_SCALED_GPA);
+            // Descending GPA, then ascending position (i.e. student id) for ties
+            keys[i] = ((MAX_SCALED_GPA - scaled) << POSITION_BITS) | i;
+        });
+        Arrays.parallelSort(keys);
+
+        long[] rankedIds = new long[m];
+        double[] rankedGpa = new double[m];
+        int[] rankedCredits = new int[m];
+        int[] ranks = new int[m];
+        for (int position = 0; position < m; position++) {
+            int i = (int) (keys[position] & POSITION_MASK);
+            rankedIds[position] = ids[graded[i]];
+            rankedGpa[position] = gpa[i];
+            rankedCredits[position] = credits[graded[i]];
+            boolean tied = position > 0 && (keys[position] >>> POSITION_BITS) == (keys[position - 1] >>> POSITION_BITS);
+            ranks[position] = tied ? ranks[position - 1] : position + 1;
+        }
+        return new RankingSnapshot(rankedIds, rankedGpa, rankedCredits, ranks,
+                deansListMinGpa, deansListMinCredits, LocalDateTime.now());
+    }
+
+    private List<RankingEntry> entries(RankingSnapshot current, int[] positions) {
+        List<Long> ids = Arrays.stream(positions).mapToObj(p -> current.studentIdAt(p)).toList();
+        Map<Long, Student> students = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<RankingEntry> entries = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            Student student = students.get(current.studentIdAt(position));
+            entries.add(new RankingEntry(current.studentIdAt(position),
+                    student != null ? student.getStudentId() : null,
+                    student != null ? student.getFirstName() + " " + student.getLastName() : null,
+                    current.rankAt(position), current.size(), current.percentile(position),
+                    Math.round(current.gpaAt(position) * 100.0) / 100.0, current.creditsAt(position),
+                    current.isOnDeansList(position)));
+        }
+        return entries;
+    }
+
+
+    /**
+     * Growable per-student totals; rows must arrive grouped by student.
+     */
+    private static final class Accumulator {
+        long[] studentIds = new long[1024];
+        double[] gradePoints = new double[1024];
+        int[] credits = new int[1024];
+        int size;
+
+        void add(long studentId, double points, int courseCredits) {
+            if (size == 0 || studentIds[size - 1] != studentId) {
+                if (size == studentIds.length) grow();
+                studentIds[size++] = studentId;
+            }
+            gradePoints[size - 1] += points;
+            credits[size - 1] += courseCredits;
+        }
+
+        private void grow() {
+            int capacity = studentIds.length * 2;
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            gradePoints = Arrays.copyOf(gradePoints, capacity);
+            credits = Arrays.copyOf(credits, capacity);
+        }
+    }
+}
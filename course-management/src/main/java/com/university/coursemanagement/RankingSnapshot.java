@@ -0,0 +1,93 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Immutable class ranking of every student with graded credits, held in
+ * parallel primitive arrays ordered best GPA first. Lookups by student id
+ * binary-search a sorted copy of the ids, so readers never lock.
+ */
+public class RankingSnapshot {
+
+    static final RankingSnapshot EMPTY = new RankingSnapshot(new long[0], new double[0], new int[0], new int[0],
+            0, 0, LocalDateTime.now());
+
+    private final long[] studentIds;   // by position in the ranking
+    private final double[] gpas;
+    private final int[] credits;
+    private final int[] ranks;         // competition ranking: ties share a rank
+    private final long[] idsAscending;
+    private final int[] positionOfId;  // position of idsAscending[i] in the ranking
+    private final double deansListMinGpa;
+    private final int deansListMinCredits;
+    private final int deansListSize;
+    private final LocalDateTime generatedAt;
+
+    RankingSnapshot(long[] studentIds, double[] gpas, int[] credits, int[] ranks,
+                    double deansListMinGpa, int deansListMinCredits, LocalDateTime generatedAt) {
+        this.studentIds = studentIds;
+        this.gpas = gpas;
+        this.credits = credits;
+        this.ranks = ranks;
+        this.deansListMinGpa = deansListMinGpa;
+        this.deansListMinCredits = deansListMinCredits;
+        this.generatedAt = generatedAt;
+
+        int n = studentIds.length;
+        this.idsAscending = studentIds.clone();
+        Arrays.parallelSort(idsAscending);
+        this.positionOfId = new int[n];
+        int onList = 0;
+        for (int position = 0; position < n; position++) {
+            positionOfId[Arrays.binarySearch(idsAscending, studentIds[position])] = position;
+            if (isOnDeansList(position)) onList++;
+        }
+        this.deansListSize = onList;
+    }
+
+    /**
+     * Position of the student in the ranking, or -1 if unranked.
+     */
+    int positionOf(long studentId) {
+        int at = Arrays.binarySearch(idsAscending, studentId);
+        return at < 0 ? -1 : positionOfId[at];
+    }
+
+    boolean isOnDeansList(int position) {
+        return gpas[position] >= deansListMinGpa && credits[position] >= deansListMinCredits;
+    }
+
+    /**
+     * Share of ranked students with a strictly lower GPA, 0-100.
+     */
+    double percentile(int position) {
+        int n = studentIds.length;
+        if (n <= 1) return 100.0;
+        int tiedOrBetter = upperBoundOfRank(ranks[position]);
+        return 100.0 * (n - tiedOrBetter) / n;
+    }
+
+    // Number of students ranked at or above the given rank
+    private int upperBoundOfRank(int rank) {
+        int low = 0, high = ranks.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ranks[mid] <= rank) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    int size() { return studentIds.length; }
+    long studentIdAt(int position) { return studentIds[position]; }
+    double gpaAt(int position) { return gpas[position]; }
+    int creditsAt(int position) { return credits[position]; }
+    int rankAt(int position) { return ranks[position]; }
+
+    public int getRankedStudents() { return studentIds.length; }
+    public int getDeansListSize() { return deansListSize; }
+    public double getDeansListMinGpa() { return deansListMinGpa; }
+    public int getDeansListMinCredits() { return deansListMinCredits; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+}
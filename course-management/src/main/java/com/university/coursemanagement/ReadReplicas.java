@@ -0,0 +1,71 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Read replica settings shared by the routing data source and the caches.
+ * Read-only transactions go to a replica whose lag is within
+ * {@code app.datasource.replicas.max-lag}; anything a replica serves can
+ * therefore be up to that old, which callers holding on to read results
+ * (second-level cache, ETags) cover by repeating their invalidation once
+ * the lag has passed.
+ */
+@Component
+public class ReadReplicas {
+
+    private static final String PINNED = ReadReplicas.class.getName() + ".PINNED";
+
+    @Value("${app.datasource.replicas.urls:}")
+    private List<String> urls;
+
+    @Value("${app.datasource.replicas.max-lag:PT2S}")
+    private Duration maxLag;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+
+    public boolean isEnabled() {
+        return urls.stream().anyMatch(url -> !url.isBlank());
+    }
+
+    public List<String> getUrls() {
+        return urls.stream().filter(url -> !url.isBlank()).toList();
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * Runs the task again once every replica has caught up with what was
+     * just committed; a no-op without replicas.
+     */
+    public void afterMaxLag(Runnable task) {
+        if (!isEnabled()) return;
+        taskScheduler.schedule(task, Instant.now().plus(maxLag));
+    }
+
+    /**
+     * Sends the rest of the current request's reads to the primary, so it
+     * sees its own writes.
+     */
+    public static void pinCurrentRequestToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) request.setAttribute(PINNED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    static boolean isCurrentRequestPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.university.coursemanagement;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Keeps writes and the reads that follow them on the primary. A request
+ * that may write is pinned to the primary as a whole, and answers with a
+ * {@value #HEADER} header; a client that echoes it on its next requests is
+ * pinned for the replica lag limit after the write, so a list reloaded
+ * right after a save shows the save. A header rather than a cookie, since
+ * the UI calls the API cross-site, where browsers hold back cookies.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Read-Primary-Until";
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!readReplicas.isEnabled()) return true;
+
+        String method = request.getMethod();
+        boolean reading = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+        long now = System.currentTimeMillis();
+        if (!reading) {
+            ReadReplicas.pinCurrentRequestToPrimary();
+            response.setHeader(HEADER, Long.toString(now + readReplicas.getMaxLag().toMillis()));
+        } else if (pinnedUntil(request) > now) {
+            ReadReplicas.pinCurrentRequestToPrimary();
+        }
+        return true;
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        String until = request.getHeader(HEADER);
+        if (until == null) return 0;
+        try {
+            return Long.parseLong(until);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.university.coursemanagement;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a background regrade of all grades, or of one course's.
+ */
+public class RegradeJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long courseId;
+    private final AtomicInteger scanned = new AtomicInteger();
+    private final AtomicInteger changed = new AtomicInteger();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+
+    RegradeJob(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    void recordChunk(int scanned, int changed) {
+        this.scanned.addAndGet(scanned);
+        this.changed.addAndGet(changed);
+    }
+
+    void fail(Exception e) {
+        this.error = e.getMessage();
+        finish(Status.FAILED);
+    }
+
+    void finish(Status status) {
+        this.status = status;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() { return id; }
+    public Long getCourseId() { return courseId; }
+    public int getScanned() { return scanned.get(); }
+    public int getChanged() { return changed.get(); }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Status getStatus() { return status; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,181 @@
+package com.university.coursemanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-applies the grading scales to grades already given, after a scale
+ * changed or a course moved to another one. Grades are walked in id order
+ * in chunks, each in its own short transaction; only rows whose letter,
+ * grade points or status actually change are written, in one JDBC batch
+ * per chunk, and the students they belong to have their summaries
+ * recomputed in the same transaction. A row whose score was changed
+ * meanwhile is left alone: that write already used the current scale.
+ */
+@Service
+public class RegradeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegradeService.class);
+    private static final int CHUNK = 1000;
+
+    private static final String SELECT_CHUNK =
+            "SELECT g.id, g.student_id, g.course_id, g.score, g.letter_grade, g.grade_point_value, g.status, " +
+            "c.grading_scale_id, g.remarks FROM grades g JOIN courses c ON c.id = g.course_id WHERE g.id > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GradingScales gradingScales;
+
+    @Autowired
+    private AcademicSummaryService academicSummaryService;
+
+    @Autowired
+    private CourseAnalyticsService courseAnalyticsService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private GradeJournal gradeJournal;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final Map<String, RegradeJob> jobs = new ConcurrentHashMap<>();
+
+
+    /**
+     * Starts regrading one course's grades, or every grade when
+     * {@code courseId} is null.
+     */
+    public RegradeJob start(Long courseId) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+
+        RegradeJob job = new RegradeJob(courseId);
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Starts regrading the course once the surrounding transaction, which
+     * changed its scale, commits.
+     */
+    public void startAfterCommit(Long courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                start(courseId);
+            }
+        });
+    }
+
+    public Optional<RegradeJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(RegradeJob job) {
+        try {
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                Long lastId = transactionTemplate.execute(status -> regradeChunk(job, from));
+                if (lastId == null) break;
+                afterId = lastId;
+            }
+            if (job.getChanged() > 0) rankingService.refresh();
+            job.finish(RegradeJob.Status.COMPLETED);
+            log.info("Regrade {} finished: {} of {} grades changed", job.getId(), job.getChanged(), job.getScanned());
+        } catch (RuntimeException e) {
+            log.warn("Regrade {} failed", job.getId(), e);
+            job.fail(e);
+        }
+    }
+
+    // Returns the last grade id seen, or null when there were no grades left
+    private Long regradeChunk(RegradeJob job, long afterId) {
+        List<Object[]> updates = new ArrayList<>();
+        List<GradeChange> changes = new ArrayList<>();
+        Set<Long> students = new HashSet<>();
+        Set<Long> courses = new HashSet<>();
+        long[] lastId = {0};
+        int[] scanned = {0};
+
+        String sql = SELECT_CHUNK + (job.getCourseId() != null ? " AND g.course_id = ?" : "") + " ORDER BY g.id LIMIT ?";
+        Object[] params = job.getCourseId() != null
+                ? new Object[]{afterId, job.getCourseId(), CHUNK}
+                : new Object[]{afterId, CHUNK};
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong(1);
+            double score = rs.getDouble(4);
+            GradingScale scale = gradingScales.forScaleId(rs.getObject(8, Long.class));
+            String letterGrade = scale.letterGrade(score);
+            double gradePoints = scale.gradePointValue(score);
+            String status = scale.status(score);
+
+            if (!letterGrade.equals(rs.getString(5)) || gradePoints != rs.getDouble(6)
+                    || !Objects.equals(status, rs.getString(7))) {
+                updates.add(new Object[]{letterGrade, gradePoints, status, id, score});
+                String remarks = rs.getString(9);
+                changes.add(new GradeChange(GradeChange.Action.UPDATED, id, rs.getLong(2), rs.getLong(3),
+                        new GradeChange.State(score, rs.getString(5), rs.getObject(6, Double.class), rs.getString(7), remarks),
+                        new GradeChange.State(score, letterGrade, gradePoints, status, remarks), null, null));
+                students.add(rs.getLong(2));
+                courses.add(rs.getLong(3));
+            }
+            lastId[0] = id;
+            scanned[0]++;
+        }, params);
+        if (scanned[0] == 0) return null;
+
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate("UPDATE grades SET letter_grade = ?, grade_point_value = ?, status = ? " +
+                    "WHERE id = ? AND score = ?", updates);
+            // A row rescored meanwhile matched nothing and was not changed by this job
+            for (int i = 0; i < changes.size(); i++) {
+                if (counts[i] == 0) continue;
+                GradeChange change = changes.get(i);
+                gradeJournal.record(change.getAction(), change.getGradeId(), change.getStudentId(), change.getCourseId(),
+                        change.getBefore(), change.getAfter(), "regrade");
+            }
+            academicSummaryService.recompute(students);
+            courseAnalyticsService.gradesChanged(courses);
+            tableVersions.changed(TableVersions.Table.GRADES);
+            courses.forEach(courseId -> changeFeed.record(ChangeEvent.Type.GRADE, ChangeEvent.Action.RELOAD,
+                    null, courseId, null, null));
+        }
+        job.recordChunk(scanned[0], updates.size());
+        return lastId[0];
+    }
+}
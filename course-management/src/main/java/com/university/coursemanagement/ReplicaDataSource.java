@@ -0,0 +1,174 @@
+package com.university.coursemanagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions: round robin over the
+ * replicas whose replay lag was last measured within the limit, or the
+ * primary when none is (or when the current request is pinned to it for
+ * read-your-writes). Each replica has its own pool.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final String PRIMARY_POSITION_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // Null on a server that is not (or no longer) a standby
+    private static final String REPLAY_POSITION_QUERY =
+            "SELECT CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn()::text END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // Recent WAL positions of the primary, oldest first; only touched by checkLag
+    private final Deque<WalPosition> primaryPositions = new ArrayDeque<>();
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicaPools, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Measures every replica's lag against the primary's WAL position; a
+     * replica is used again only once a check finds it caught up. The lag
+     * is the age of the oldest primary position the replica has not
+     * replayed yet, so a replica that stops receiving WAL falls behind as
+     * soon as the primary writes, even though its own replay looks idle.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PRIMARY_POSITION_QUERY)) {
+            rs.next();
+            primaryPositions.addLast(new WalPosition(now, parseLsn(rs.getString(1))));
+        } catch (SQLException e) {
+            // Without the primary's position no lag can be measured; replicas keep their state
+            log.warn("Could not read the primary's WAL position", e);
+            return;
+        }
+        // Keep one position at least maxLag old, so a replica behind all of them is over the limit
+        while (primaryPositions.size() > 1 && now - secondOldest().millis >= maxLagMillis) {
+            primaryPositions.removeFirst();
+        }
+
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(REPLAY_POSITION_QUERY)) {
+                rs.next();
+                String replayed = rs.getString(1);
+                replica.lagMillis = replayed != null ? lagMillis(parseLsn(replayed), now) : -1;
+                healthy = replayed != null && replica.lagMillis <= maxLagMillis;
+            } catch (SQLException e) {
+                replica.lagMillis = -1;
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} {} (lag {} ms)", replica.pool.getPoolName(),
+                        healthy ? "back in rotation" : "taken out of rotation", replica.lagMillis);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!ReadReplicas.isCurrentRequestPinnedToPrimary()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.healthy) continue;
+                try {
+                    return connector.connect(replica.pool);
+                } catch (SQLFeatureNotSupportedException e) {
+                    throw e;
+                } catch (SQLException e) {
+                    replica.healthy = false;
+                    log.warn("Replica {} unavailable, routing its reads elsewhere", replica.pool.getPoolName(), e);
+                }
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    private long lagMillis(long replayedLsn, long now) {
+        for (WalPosition position : primaryPositions) {
+            if (Long.compareUnsigned(position.lsn, replayedLsn) > 0) return now - position.millis;
+        }
+        return 0;
+    }
+
+    private WalPosition secondOldest() {
+        Iterator<WalPosition> positions = primaryPositions.iterator();
+        positions.next();
+        return positions.next();
+    }
+
+    // An LSN such as 16/B374D848: the high and low 32 bits in hex
+    static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private record WalPosition(long millis, long lsn) {
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        // Out of rotation until the first lag check passes
+        volatile boolean healthy;
+        volatile long lagMillis = -1;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchService searchService;
+
+
+    @GetMapping("/courses")
+    public ResponseEntity<List<SearchHit>> searchCourses(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.searchCourses(q, clamp(limit)));
+    }
+
+
+    @GetMapping("/students")
+    public ResponseEntity<List<SearchHit>> searchStudents(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.searchStudents(q, clamp(limit)));
+    }
+
+
+    // Typeahead across courses and students
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SearchHit>> suggest(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(searchService.suggest(q, clamp(limit)));
+    }
+
+
+    private static int clamp(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.university.coursemanagement;
+
+/**
+ * One search result: enough to render a typeahead row and link to the entity.
+ */
+public class SearchHit {
+
+    private final String type;
+    private final Long id;
+    private final String title;
+    private final String subtitle;
+    private final double score;
+
+    public SearchHit(String type, Long id, String title, String subtitle) {
+        this(type, id, title, subtitle, 0);
+    }
+
+    private SearchHit(String type, Long id, String title, String subtitle, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.score = score;
+    }
+
+    SearchHit withScore(double score) {
+        return new SearchHit(type, id, title, subtitle, score);
+    }
+
+    public String getType() { return type; }
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getSubtitle() { return subtitle; }
+    public double getScore() { return score; }
+}
@@ -0,0 +1,217 @@
+package com.university.coursemanagement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index over a few weighted text fields per document.
+ * Every field is indexed by its trigrams (for substring matches) and by the
+ * one- and two-letter prefixes of its words (for short typeahead queries).
+ * Candidate lists come from posting-set intersection, then each candidate is
+ * verified and ranked against its stored fields, so stale postings left by
+ * a concurrent update can never produce a false hit. Only the best
+ * {@code limit} candidates are kept while ranking, so a short prefix that
+ * matches most of the index is never sorted whole.
+ */
+public class SearchIndex {
+
+    private static final int GRAM = 3;
+    private static final String PREFIX_MARK = "^";
+    private static final Comparator<SearchHit> RANKING =
+            Comparator.comparingDouble(SearchHit::getScore).reversed().thenComparing(SearchHit::getId);
+
+    private final double[] weights;
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * @param weights relative weight of each field, in the order values are passed to {@link #put}
+     */
+    public SearchIndex(double... weights) {
+        this.weights = weights.clone();
+    }
+
+    public void put(Long id, SearchHit hit, String... fieldValues) {
+        String[] fields = new String[weights.length];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = i < fieldValues.length ? normalize(fieldValues[i]) : "";
+        }
+        Document updated = new Document(hit, fields);
+        Set<String> newKeys = keys(updated);
+
+        // Postings are changed inside compute, so updates to one id run one at a
+        // time: otherwise a slower update could unpost keys a newer one just posted
+        documents.compute(id, (k, previous) -> {
+            for (String key : newKeys) {
+                postings.compute(key, (g, ids) -> {
+                    Set<Long> posted = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    posted.add(id);
+                    return posted;
+                });
+            }
+            if (previous != null) {
+                Set<String> staleKeys = keys(previous);
+                staleKeys.removeAll(newKeys);
+                staleKeys.forEach(key -> unpost(key, id));
+            }
+            return updated;
+        });
+    }
+
+    public void remove(Long id) {
+        documents.computeIfPresent(id, (k, previous) -> {
+            keys(previous).forEach(key -> unpost(key, id));
+            return null;
+        });
+    }
+
+    public void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * A copy of the indexed ids.
+     */
+    public Set<Long> ids() {
+        return new HashSet<>(documents.keySet());
+    }
+
+    /**
+     * Documents containing every whitespace-separated term of the query,
+     * best matches first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        if (limit <= 0) return List.of();
+        String[] terms = normalize(query).split(" ");
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String term : terms) {
+            if (term.isEmpty()) continue;
+            Set<Long> matches = candidatesFor(term);
+            if (matches.isEmpty()) return List.of();
+            lists.add(matches);
+        }
+        if (lists.isEmpty()) return List.of();
+
+        // Walk the rarest list and probe the others, without copying any of them: a
+        // one-letter prefix can post most of the index. Only the best `limit` hits
+        // are kept, in a heap whose head is the worst of them
+        lists.sort(Comparator.comparingInt(Set::size));
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(limit, 64) + 1, RANKING.reversed());
+        for (Long id : lists.get(0)) {
+            if (!inAll(lists, id)) continue;
+            Document document = documents.get(id);
+            if (document == null) continue;
+            double score = score(document, terms);
+            if (score <= 0) continue;
+            SearchHit hit = document.hit.withScore(score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private static boolean inAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) return false;
+        }
+        return true;
+    }
+
+    private Set<Long> candidatesFor(String term) {
+        if (term.length() < GRAM) {
+            return postings.getOrDefault(PREFIX_MARK + term, Collections.emptySet());
+        }
+        // Intersect starting from the rarest trigram
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Set<Long> list = postings.get(term.substring(i, i + GRAM));
+            if (list == null) return Collections.emptySet();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private double score(Document document, String[] terms) {
+        double total = 0;
+        for (String term : terms) {
+            if (term.isEmpty()) continue;
+            double best = 0;
+            for (int f = 0; f < document.fields.length; f++) {
+                best = Math.max(best, weights[f] * matchQuality(document.fields[f], term));
+            }
+            if (best == 0) return 0;
+            total += best;
+        }
+        return total;
+    }
+
+    private static double matchQuality(String field, String term) {
+        if (field.equals(term)) return 10;
+        if (field.startsWith(term)) return 6;
+        int at = field.indexOf(term);
+        if (at < 0) return 0;
+        if (field.charAt(at - 1) == ' ') return 4; // start of a later word
+        return 1;
+    }
+
+    private static Set<String> keys(Document document) {
+        Set<String> keys = new HashSet<>();
+        for (String field : document.fields) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                keys.add(field.substring(i, i + GRAM));
+            }
+            for (String word : field.split(" ")) {
+                for (int len = 1; len < GRAM && len <= word.length(); len++) {
+                    keys.add(PREFIX_MARK + word.substring(0, len));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private void unpost(String key, Long id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}@.]+", " ").trim();
+    }
+
+    private static final class Document {
+        final SearchHit hit;
+        final String[] fields;
+
+        Document(SearchHit hit, String[] fields) {
+            this.hit = hit;
+            this.fields = fields;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the search index in step with
+ * {@link Course} and {@link Student} writes. Changes are applied after the
+ * surrounding transaction commits, so a rollback never reaches the index.
+ * Bulk JPQL deletes bypass listeners; callers of those update the index
+ * themselves. Other nodes hear of the change through the
+ * {@link CacheInvalidationBus} and re-read the entity.
+ */
+@Component
+public class SearchIndexListener {
+
+    @Autowired
+    @Lazy
+    private SearchService searchService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        afterCommit(() -> {
+            if (entity instanceof Course course) searchService.index(course);
+            else if (entity instanceof Student student) searchService.index(student);
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        afterCommit(() -> {
+            if (entity instanceof Course course) searchService.removeCourse(course.getId());
+            else if (entity instanceof Student student) searchService.removeStudent(student.getId());
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
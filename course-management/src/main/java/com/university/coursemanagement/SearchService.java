@@ -0,0 +1,163 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Course and student search backed by {@link SearchIndex}. The indexes are
+ * filled from a streamed scan at startup and kept current by
+ * {@link SearchIndexListener} as entities are written on this node. Changes
+ * made on other nodes arrive through the {@link CacheInvalidationBus}: a
+ * single course or student is re-read, bulk inserts and missed
+ * notifications are caught up with another scan.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final String COURSE = "COURSE";
+    public static final String STUDENT = "STUDENT";
+    // Rows the scan reads between persistence context clears, so the heap stays flat
+    private static final int CLEAR_EVERY = 500;
+
+    // code, title, description
+    private final SearchIndex courses = new SearchIndex(3.0, 2.0, 0.5);
+    // studentId, first name, last name, full name, email
+    private final SearchIndex students = new SearchIndex(3.0, 2.0, 2.0, 2.5, 1.0);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final AtomicBoolean catchUpQueued = new AtomicBoolean();
+
+
+    public List<SearchHit> searchCourses(String query, int limit) {
+        return courses.search(query, limit);
+    }
+
+    public List<SearchHit> searchStudents(String query, int limit) {
+        return students.search(query, limit);
+    }
+
+    /**
+     * Typeahead over both indexes, best matches first.
+     */
+    public List<SearchHit> suggest(String query, int limit) {
+        List<SearchHit> hits = new ArrayList<>(courses.search(query, limit));
+        hits.addAll(students.search(query, limit));
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    public void index(Course course) {
+        courses.put(course.getId(), new SearchHit(COURSE, course.getId(), course.getCode(), course.getTitle()),
+                course.getCode(), course.getTitle(), course.getDescription());
+    }
+
+    public void index(Student student) {
+        String fullName = student.getFirstName() + " " + student.getLastName();
+        students.put(student.getId(), new SearchHit(STUDENT, student.getId(), fullName, student.getStudentId()),
+                student.getStudentId(), student.getFirstName(), student.getLastName(), fullName, student.getEmail());
+    }
+
+    public void removeCourse(Long id) {
+        courses.remove(id);
+    }
+
+    public void removeStudent(Long id) {
+        students.remove(id);
+    }
+
+    /**
+     * Re-reads a course changed on another node, dropping it if it is gone.
+     */
+    public void refreshCourse(Long id) {
+        courseRepository.findById(id).ifPresentOrElse(this::index, () -> removeCourse(id));
+    }
+
+    /**
+     * Re-reads a student changed on another node, dropping it if it is gone.
+     */
+    public void refreshStudent(Long id) {
+        studentRepository.findById(id).ifPresentOrElse(this::index, () -> removeStudent(id));
+    }
+
+    /**
+     * Queues a {@link #rebuild} in the background. Requests made while one
+     * is still queued share it.
+     */
+    public void catchUpLater() {
+        if (!catchUpQueued.compareAndSet(false, true)) return;
+        taskExecutor.execute(() -> {
+            catchUpQueued.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Search index catch-up failed", e);
+            }
+        });
+    }
+
+    /**
+     * Indexes every course and student and drops the ones that no longer
+     * exist. The indexes are not cleared first, so searches keep working
+     * while it runs; the persistence context is, every few hundred rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Only ids indexed before the scan can be stale: anything added since may be newer than it
+        Set<Long> staleCourses = courses.ids();
+        Set<Long> staleStudents = students.ids();
+        transactionTemplate.executeWithoutResult(status -> {
+            int read = 0;
+            try (Stream<Course> rows = courseRepository.streamAll()) {
+                for (Course course : (Iterable<Course>) rows::iterator) {
+                    index(course);
+                    staleCourses.remove(course.getId());
+                    if (++read % CLEAR_EVERY == 0) entityManager.clear();
+                }
+            }
+            try (Stream<Student> rows = studentRepository.streamAll()) {
+                for (Student student : (Iterable<Student>) rows::iterator) {
+                    index(student);
+                    staleStudents.remove(student.getId());
+                    if (++read % CLEAR_EVERY == 0) entityManager.clear();
+                }
+            }
+        });
+        staleCourses.forEach(this::removeCourse);
+        staleStudents.forEach(this::removeStudent);
+        log.info("Search index built: {} courses, {} students", courses.size(), students.size());
+    }
+
+}
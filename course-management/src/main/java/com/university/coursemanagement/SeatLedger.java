@@ -0,0 +1,119 @@
+package com.university.coursemanagement;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-memory seat counters, one per course, that turn enrollment attempts
+ * for a full course away with a compare-and-set before they reach the
+ * database. Counters are loaded lazily from the database and can be
+ * dropped with {@link #forget} whenever enrollments change behind the
+ * ledger's back.
+ * <p>
+ * The ledger is only a filter: it knows nothing of other nodes, so an
+ * admission still has to take its seat in the database, which has the
+ * final say. A counter that says full is reloaded once it is older than
+ * {@code refreshFullAfter}, so seats freed on other nodes reach this one.
+ */
+public class SeatLedger {
+
+    /** Capacity value meaning the course has no seat limit. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    public enum Admission { ADMITTED, FULL, UNKNOWN_COURSE }
+
+    private final Map<Long, Seats> seats = new ConcurrentHashMap<>();
+    private final Function<Long, Seats> loader;
+    private final long refreshFullAfterNanos;
+
+    /**
+     * @param loader reads a course's capacity and current enrollment count,
+     *               or returns null if the course does not exist
+     */
+    public SeatLedger(Function<Long, Seats> loader, Duration refreshFullAfter) {
+        this.loader = loader;
+        this.refreshFullAfterNanos = refreshFullAfter.toNanos();
+    }
+
+    public SeatLedger(Function<Long, Seats> loader) {
+        this(loader, Duration.ofSeconds(5));
+    }
+
+    public Admission tryAcquire(Long courseId) {
+        Seats course = seatsFor(courseId);
+        if (course == null) return Admission.UNKNOWN_COURSE;
+        if (course.tryAcquire()) return Admission.ADMITTED;
+        if (System.nanoTime() - course.loadedAt < refreshFullAfterNanos) return Admission.FULL;
+
+        // Full, but by an old count: reload it once and try again
+        Seats reloaded = loader.apply(courseId);
+        if (reloaded == null) {
+            seats.remove(courseId, course);
+            return Admission.UNKNOWN_COURSE;
+        }
+        seats.replace(courseId, course, reloaded);
+        Seats current = seats.getOrDefault(courseId, reloaded);
+        return current.tryAcquire() ? Admission.ADMITTED : Admission.FULL;
+    }
+
+    public void release(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course != null) course.release();
+    }
+
+    public void updateCapacity(Long courseId, Integer capacity) {
+        Seats course = seats.get(courseId);
+        if (course != null) course.capacity = capacity != null ? capacity : UNLIMITED;
+    }
+
+    public void forget(Long courseId) {
+        seats.remove(courseId);
+    }
+
+    public void forgetAll() {
+        seats.clear();
+    }
+
+    /** Seats currently taken, or -1 if the course is not loaded. */
+    public int taken(Long courseId) {
+        Seats course = seats.get(courseId);
+        return course != null ? course.taken.get() : -1;
+    }
+
+    private Seats seatsFor(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course != null) return course;
+        // Load outside the map so a slow query never holds a map bin lock
+        Seats loaded = loader.apply(courseId);
+        if (loaded == null) return null;
+        Seats raced = seats.putIfAbsent(courseId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+
+    public static final class Seats {
+        private final AtomicInteger taken;
+        private volatile int capacity;
+        private final long loadedAt = System.nanoTime();
+
+        public Seats(Integer capacity, int taken) {
+            this.capacity = capacity != null ? capacity : UNLIMITED;
+            this.taken = new AtomicInteger(taken);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = taken.get();
+                if (current >= capacity) return false;
+                if (taken.compareAndSet(current, current + 1)) return true;
+            }
+        }
+
+        void release() {
+            taken.updateAndGet(current -> current > 0 ? current - 1 : 0);
+        }
+    }
+}
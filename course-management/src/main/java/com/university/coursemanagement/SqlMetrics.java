@@ -0,0 +1,175 @@
+package com.university.coursemanagement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement-level SQL metrics fed by {@link SqlMetricsDataSource}: a
+ * latency timer per statement kind, a slow-query log, and per-request
+ * statement counts. A request that runs the same statement text
+ * {@code app.sql.n-plus-one-threshold} times or more is reported as a
+ * likely N+1 (a lazy association loaded row by row). Statements are
+ * attributed to the request whose attributes are bound to the executing
+ * thread, which includes workers that carry the request over.
+ */
+@Component
+public class SqlMetrics {
+
+    private static final Logger slowQueries = LoggerFactory.getLogger("com.university.coursemanagement.SlowQueries");
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+
+    static final String REQUEST_STATS = SqlMetrics.class.getName() + ".REQUEST_STATS";
+    private static final int MAX_LOGGED_SQL = 1000;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.sql.slow-threshold:PT0.2S}")
+    private Duration slowThreshold;
+
+    @Value("${app.sql.very-slow-threshold:PT2S}")
+    private Duration verySlowThreshold;
+
+    @Value("${app.sql.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private Counter slowStatements;
+
+    @PostConstruct
+    void init() {
+        slowStatements = Counter.builder("sql.slow.statements")
+                .description("Statements slower than app.sql.slow-threshold")
+                .register(registry);
+    }
+
+
+    void statementExecuted(String sql, long nanos, boolean failed) {
+        String kind = kind(sql);
+        timer(kind, failed).record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestStats request = currentRequest();
+        if (request != null) request.add(sql);
+
+        if (nanos >= slowThreshold.toNanos()) {
+            slowStatements.increment();
+            String where = request != null ? request.describe() : "background";
+            String statement = sql.length() > MAX_LOGGED_SQL ? sql.substring(0, MAX_LOGGED_SQL) + "..." : sql;
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            if (nanos >= verySlowThreshold.toNanos()) {
+                slowQueries.error("{} ms ({}): {}", millis, where, statement);
+            } else {
+                slowQueries.warn("{} ms ({}): {}", millis, where, statement);
+            }
+        }
+    }
+
+    /**
+     * Starts counting statements for the request bound to this thread.
+     */
+    void requestStarted(String method, String path) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_STATS, new RequestStats(method, path), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Records the request's statement count under its handler pattern and
+     * reports it if it looks like an N+1.
+     */
+    void requestCompleted(String uri) {
+        RequestStats request = currentRequest();
+        if (request == null) return;
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements executed while handling a request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(request.total);
+
+        Map.Entry<String, Integer> repeated = request.mostRepeated();
+        if (repeated != null && repeated.getValue() >= nPlusOneThreshold) {
+            Counter.builder("sql.n_plus_one.requests")
+                    .description("Requests that ran one statement at least app.sql.n-plus-one-threshold times")
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+            log.warn("Possible N+1 in {}: {} statements, {} of them: {}", request.describe(), request.total,
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    private static RequestStats currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? (RequestStats) attributes.getAttribute(REQUEST_STATS, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+
+    private Timer timer(String kind, boolean failed) {
+        return timers.computeIfAbsent(kind + (failed ? ":error" : ""), key -> Timer.builder("sql.statement")
+                .description("Time to execute a SQL statement, by kind")
+                .tag("kind", kind)
+                .tag("outcome", failed ? "error" : "success")
+                .register(registry));
+    }
+
+    private static String kind(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) end++;
+        String verb = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (verb) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> verb;
+            default -> "other";
+        };
+    }
+
+
+    /**
+     * Statement counts for one request. Updated from the request thread and
+     * any workers it hands the request to, hence the synchronization.
+     */
+    static final class RequestStats {
+        private final String method;
+        private final String path;
+        private final Map<String, Integer> bySql = new HashMap<>();
+        private int total;
+
+        RequestStats(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        synchronized void add(String sql) {
+            total++;
+            bySql.merge(sql, 1, Integer::sum);
+        }
+
+        // A copy: the map's own entry would keep changing with later statements
+        synchronized Map.Entry<String, Integer> mostRepeated() {
+            return bySql.entrySet().stream().max(Map.Entry.comparingByValue())
+                    .map(e -> Map.entry(e.getKey(), e.getValue())).orElse(null);
+        }
+
+        String describe() {
+            return method + " " + path;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.university.coursemanagement;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Times every statement executed through the application's data source,
+ * JPA and JdbcTemplate alike, and reports it to {@link SqlMetrics}.
+ * Connections and statements are wrapped in thin proxies; only the
+ * execute methods do any extra work.
+ */
+public class SqlMetricsDataSource extends DelegatingDataSource {
+
+    private final Supplier<SqlMetrics> metrics;
+
+    public SqlMetricsDataSource(DataSource target, Supplier<SqlMetrics> metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                return statement(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                return statement(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return statement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, S statement, String preparedSql) {
+        // Plain statements get their SQL per call, or per addBatch for batches
+        List<String> batch = new ArrayList<>();
+        return proxy(type, statement, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1) batch.add((String) args[0]);
+            if (name.equals("clearBatch")) batch.clear();
+            if (!name.startsWith("execute")) return invoke(statement, method, args);
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : preparedSql != null ? preparedSql
+                    : String.join(";\n", batch);
+            if (name.startsWith("executeBatch") || name.startsWith("executeLargeBatch")) batch.clear();
+            long started = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                metrics.get().statementExecuted(sql, System.nanoTime() - started, failed);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                // Must see the real object, e.g. for the Postgres COPY and LISTEN APIs
+                case "unwrap", "isWrapperFor": return invoke(target, method, args);
+                default: return handler.handle(method, args);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,33 @@
+package com.university.coursemanagement;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Brackets each API request for {@link SqlMetrics}, so its statements are
+ * counted and checked for N+1 patterns under the handler's URI pattern.
+ * Streaming responses are counted up to the point the handler returns.
+ */
+@Component
+public class SqlStatsInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private SqlMetrics sqlMetrics;
+
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlMetrics.requestStarted(request.getMethod(), request.getRequestURI());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sqlMetrics.requestCompleted(pattern != null ? pattern.toString() : "UNKNOWN");
+    }
+}
@@ -0,0 +1,21 @@
+package com.university.coursemanagement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StatsController {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardStats> getDashboard(@RequestParam(defaultValue = "5") int recent) {
+        int limit = Math.min(Math.max(recent, 0), DashboardStatsService.MAX_RECENT_GRADES);
+        return ResponseEntity.ok(dashboardStatsService.getDashboard(limit));
+    }
+}
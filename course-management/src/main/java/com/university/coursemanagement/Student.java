@@ -1,10 +1,16 @@
 package com.university.coursemanagement;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners({SearchIndexListener.class, CacheInvalidationListener.class, TableVersionListener.class,
+        ChangeFeedListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "students")
 @Table(name = "students")
 public class Student {
 
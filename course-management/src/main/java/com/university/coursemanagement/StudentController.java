@@ -1,40 +1,101 @@
 package com.university.coursemanagement;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.university.coursemanagement.TableVersions.Table.*;
 
 @RestController
 @RequestMapping("/api/students")
 @CrossOrigin(origins = "http://localhost:3000")
 public class StudentController {
 
+    private static final Set<String> SORT_FIELDS = Set.of("id", "firstName", "lastName", "email", "studentId");
+
     @Autowired
     private StudentRepository studentRepository;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private DeletionService deletionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+
+    @Autowired
+    private TableVersions tableVersions;
 
     @Autowired
-    private GradeRepository gradeRepository;
+    private StudentPortalService studentPortalService;
 
 
-    // GET all students
+    // GET students, one keyset page at a time
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentRepository.findAll();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<?> getAllStudents(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(defaultValue = "false") boolean desc,
+                                            @RequestParam(required = false) String lastName,
+                                            ServletWebRequest request) {
+        Specification<Student> filter = null;
+        if (lastName != null && !lastName.isBlank()) {
+            filter = (root, query, cb) -> cb.equal(cb.lower(root.get("lastName")), lastName.toLowerCase());
+        }
+        Specification<Student> students = filter;
+        return tableVersions.conditional(request,
+                () -> Keyset.page(studentRepository, Student.class, students, cursor, size, sort, desc, SORT_FIELDS),
+                STUDENTS, ENROLLMENTS, COURSES);
+    }
+
+    // GET all students, streamed straight from the database
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        return ResponseEntity.ok(jsonArrayStreamer.stream(Student.class, studentRepository::streamAll));
+    }
+
+    // Search students by name, email or student number, best matches first
+    @GetMapping("/search")
+    public ResponseEntity<List<Student>> searchStudents(@RequestParam String q) {
+        List<Long> ids = searchService.searchStudents(q, Keyset.MAX_SIZE).stream().map(SearchHit::getId).toList();
+        Map<Long, Student> byId = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        return ResponseEntity.ok(ids.stream().map(byId::get).filter(Objects::nonNull).toList());
     }
 
     // GET student by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
-        Optional<Student> student = studentRepository.findById(id);
-        return student.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Student> getStudentById(@PathVariable Long id, ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            Optional<Student> student = studentRepository.findById(id);
+            return student.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        }, STUDENTS, ENROLLMENTS, COURSES);
+    }
+
+    // Student, enrolled courses, grades, GPA and credit totals in one response, by student number
+    @GetMapping("/by-number/{studentId}/portal")
+    public ResponseEntity<StudentPortal> getPortal(@PathVariable String studentId, ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> studentPortalService.forStudentNumber(studentId.trim())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build()), STUDENTS, ENROLLMENTS, COURSES, GRADES);
     }
 
     // POST create student
@@ -66,72 +127,45 @@ public class StudentController {
     // DELETE student
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteStudent(@PathVariable Long id) {
-        if (!studentRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+        if (deletionService.deleteStudent(id)) {
+            return ResponseEntity.ok().build();
         }
-
-
-        gradeRepository.findByStudentId(id)
-                .forEach(grade -> gradeRepository.deleteById(grade.getId()));
-
-
-        courseRepository.findAll().forEach(course -> {
-            if (course.getEnrolledStudents().removeIf(student -> student.getId().equals(id))) {
-                courseRepository.save(course);
-            }
-        });
-
-
-        studentRepository.deleteById(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.notFound().build();
     }
 
 
 
     @PostMapping("/{studentId}/enroll/{courseId}")
-    public ResponseEntity<Student> enrollStudent(@PathVariable Long studentId, @PathVariable Long courseId) {
-        Optional<Student> studentOpt = studentRepository.findById(studentId);
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
-
-        if (studentOpt.isPresent() && courseOpt.isPresent()) {
-            Student student = studentOpt.get();
-            Course course = courseOpt.get();
-
-            student.getEnrolledCourses().add(course);
-            course.getEnrolledStudents().add(student);
-
-            studentRepository.save(student);
-            return ResponseEntity.ok(student);
+    public ResponseEntity<EnrollmentService.EnrollmentResult> enrollStudent(@PathVariable Long studentId, @PathVariable Long courseId) {
+        EnrollmentService.EnrollmentResult result = enrollmentService.enroll(studentId, courseId);
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case COURSE_FULL:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+            default:
+                return ResponseEntity.ok(result);
         }
-        return ResponseEntity.notFound().build();
     }
 
 
     @DeleteMapping("/{studentId}/unenroll/{courseId}")
-    public ResponseEntity<Student> unenrollStudent(@PathVariable Long studentId, @PathVariable Long courseId) {
-        Optional<Student> studentOpt = studentRepository.findById(studentId);
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
-
-        if (studentOpt.isPresent() && courseOpt.isPresent()) {
-            Student student = studentOpt.get();
-            Course course = courseOpt.get();
-
-            student.getEnrolledCourses().remove(course);
-            course.getEnrolledStudents().remove(student);
-
-            studentRepository.save(student);
-            return ResponseEntity.ok(student);
+    public ResponseEntity<?> unenrollStudent(@PathVariable Long studentId, @PathVariable Long courseId) {
+        if (enrollmentService.unenroll(studentId, courseId)) {
+            return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
 
     @GetMapping("/{id}/courses")
-    public ResponseEntity<List<Course>> getStudentCourses(@PathVariable Long id) {
-        Optional<Student> student = studentRepository.findById(id);
-        if (student.isPresent()) {
-            return ResponseEntity.ok(student.get().getEnrolledCourses().stream().toList());
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<List<Course>> getStudentCourses(@PathVariable Long id, ServletWebRequest request) {
+        return tableVersions.conditional(request, () -> {
+            Optional<Student> student = studentRepository.findById(id);
+            if (student.isPresent()) {
+                return ResponseEntity.ok(student.get().getEnrolledCourses().stream().toList());
+            }
+            return ResponseEntity.notFound().build();
+        }, STUDENTS, ENROLLMENTS, COURSES);
     }
 }
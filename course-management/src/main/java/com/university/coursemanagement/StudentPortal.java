@@ -0,0 +1,34 @@
+package com.university.coursemanagement;
+
+import java.util.List;
+
+/**
+ * Everything the student portal and transcript show for one student:
+ * profile, enrolled courses, grades and academic totals.
+ */
+public class StudentPortal {
+
+    private final StudentView student;
+    private final List<Course> courses;
+    private final List<GradeView> grades;
+    private final AcademicSummary summary;
+    private final int enrolledCredits;
+
+    StudentPortal(StudentView student, List<Course> courses, List<GradeView> grades, AcademicSummary summary) {
+        this.student = student;
+        this.courses = courses;
+        this.grades = grades;
+        this.summary = summary;
+        this.enrolledCredits = courses.stream().mapToInt(c -> c.getCredits() != null ? c.getCredits() : 0).sum();
+    }
+
+
+    public StudentView getStudent() { return student; }
+    public List<Course> getCourses() { return courses; }
+    public List<GradeView> getGrades() { return grades; }
+    public Double getGpa() { return summary.getGpa(); }
+    public Integer getAttemptedCredits() { return summary.getAttemptedCredits(); }
+    public Integer getPassedCredits() { return summary.getPassedCredits(); }
+    public Integer getCompletedCredits() { return summary.getCompletedCredits(); }
+    public int getEnrolledCredits() { return enrolledCredits; }
+}
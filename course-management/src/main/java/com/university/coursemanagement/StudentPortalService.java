@@ -0,0 +1,75 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds a {@link StudentPortal} from the student number alone: the
+ * student, enrolled courses, grades (joined to their courses) and academic
+ * summary, each one statement keyed on the student number. All four run in
+ * one read-only repeatable-read transaction, so one request holds one
+ * connection and sees one snapshot; an unknown student number costs a
+ * single statement.
+ */
+@Service
+public class StudentPortalService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private AcademicSummaryRepository summaryRepository;
+
+    @Autowired
+    private GradeArchive gradeArchive;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+
+    public Optional<StudentPortal> forStudentNumber(String studentId) {
+        Rows rows = readOnly.execute(status -> {
+            Optional<Student> student = studentRepository.findByStudentId(studentId);
+            if (student.isEmpty()) return null;
+            return new Rows(student.get(), courseRepository.findEnrolledByStudentNumber(studentId),
+                    gradeRepository.findViewsByStudentNumber(studentId),
+                    summaryRepository.findByStudentNumber(studentId));
+        });
+        if (rows == null) return Optional.empty();
+
+        Student s = rows.student;
+        // Archived terms are read from their files after the connection is back in the pool
+        return Optional.of(new StudentPortal(
+                new StudentView(s.getId(), s.getFirstName(), s.getLastName(), s.getEmail(), s.getPhoneNumber(),
+                        s.getStudentId()),
+                rows.courses, gradeArchive.transcript(s, rows.grades),
+                rows.summary.orElseGet(() -> new AcademicSummary(s.getId()))));
+    }
+
+
+    private record Rows(Student student, List<Course> courses, List<GradeView> grades,
+                        Optional<AcademicSummary> summary) {
+    }
+}
@@ -1,13 +1,54 @@
 package com.university.coursemanagement;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByEmail(String email);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = "student-lookups")})
     Optional<Student> findByStudentId(String studentId);
+
+    @Unindexed("substring match; interactive search goes through SearchIndex")
     List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    Stream<Student> streamAll();
+
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+
+    @Query("SELECT s.studentId, s.id FROM Student s WHERE s.studentId IN :studentIds")
+    List<Object[]> findIdsByStudentIds(@Param("studentIds") Collection<String> studentIds);
+
+    @Query("SELECT s.id FROM Student s WHERE s.id > :afterId ORDER BY s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM Student s WHERE s.id = :id")
+    int deleteStudentById(@Param("id") Long id);
+
+    @Query(StudentView.SELECT + "FROM Course c JOIN c.enrolledStudents s WHERE c.id = :courseId ORDER BY s.lastName, s.firstName")
+    List<StudentView> findViewsByEnrolledCourseId(@Param("courseId") Long courseId);
 }
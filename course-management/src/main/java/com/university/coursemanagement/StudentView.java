@@ -0,0 +1,34 @@
+package com.university.coursemanagement;
+
+/**
+ * Read model for student lists (e.g. course rosters): the student's own
+ * columns without the enrolled-courses collection.
+ */
+public class StudentView {
+
+    static final String SELECT = "SELECT new com.university.coursemanagement.StudentView(" +
+            "s.id, s.firstName, s.lastName, s.email, s.phoneNumber, s.studentId) ";
+
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phoneNumber;
+    private final String studentId;
+
+    public StudentView(Long id, String firstName, String lastName, String email, String phoneNumber, String studentId) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.studentId = studentId;
+    }
+
+    public Long getId() { return id; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getEmail() { return email; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getStudentId() { return studentId; }
+}
@@ -0,0 +1,32 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import static com.university.coursemanagement.TableVersions.Table.*;
+
+/**
+ * JPA entity listener that bumps {@link TableVersions} for entity writes.
+ * Student writes also count as enrollment changes, since the enrolled
+ * courses collection is owned by the student.
+ */
+@Component
+public class TableVersionListener {
+
+    @Autowired
+    @Lazy
+    private TableVersions tableVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Course) tableVersions.changed(COURSES);
+        else if (entity instanceof Student) tableVersions.changed(STUDENTS, ENROLLMENTS);
+        else if (entity instanceof Grade) tableVersions.changed(GRADES);
+    }
+}
@@ -0,0 +1,193 @@
+package com.university.coursemanagement;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * In-memory versions of the tables behind the catalog endpoints. GET
+ * handlers derive a strong ETag and Last-Modified from the versions they
+ * depend on, so a client holding a current copy gets 304 Not Modified
+ * before any query runs.
+ * <p>
+ * A committed write takes one new version for all its tables from the
+ * table_version_seq sequence on Postgres (a local counter on MySQL, which
+ * runs a single node), applies it here and announces it to the other nodes
+ * through the {@link CacheInvalidationBus}; every node keeps the highest
+ * version it has seen, so all of them hand out the same validators. Taking
+ * the version after the commit means any write a response might have
+ * missed gets a higher one, and nothing is locked. With read replicas the
+ * writer announces another version once they have caught up, since a
+ * replica may have served the old rows under the first.
+ */
+@Component
+public class TableVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(TableVersions.class);
+
+    public enum Table { COURSES, STUDENTS, ENROLLMENTS, GRADES }
+
+    private static final Table[] TABLES = Table.values();
+
+    // Tables changed by the current transaction, announced once it commits
+    private static final Object PENDING_KEY = new Object();
+
+    private final AtomicLongArray versions = new AtomicLongArray(TABLES.length);
+    private final AtomicLongArray modifiedAt = new AtomicLongArray(TABLES.length);
+    private final AtomicLong localVersions = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseInfo databaseInfo;
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    }
+
+
+    @PostConstruct
+    void init() {
+        resync();
+    }
+
+    /**
+     * Records a write to the tables once the surrounding transaction (if
+     * any) commits. A transaction takes one version however many writes
+     * it makes.
+     */
+    public void changed(Table... tables) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            announce(List.of(tables));
+            return;
+        }
+        pendingInTransaction().addAll(List.of(tables));
+    }
+
+    /**
+     * Answers 304 if the client's validators still match the tables, otherwise
+     * builds the response in a read-only transaction. The validators are
+     * taken before the response is built, so a write racing the query only
+     * costs the client a re-fetch.
+     */
+    public <T> ResponseEntity<T> conditional(ServletWebRequest request, Supplier<ResponseEntity<T>> response,
+                                             Table... tables) {
+        StringBuilder etag = new StringBuilder("\"");
+        long lastModified = 0;
+        for (Table table : EnumSet.copyOf(List.of(tables))) {
+            if (etag.length() > 1) etag.append('-');
+            etag.append(Long.toString(versions.get(table.ordinal()), 36));
+            lastModified = Math.max(lastModified, modifiedAt.get(table.ordinal()));
+        }
+        etag.append('"');
+
+        // Always revalidate; the browser still keeps the body and sends If-None-Match
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        if (request.checkNotModified(etag.toString(), lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return readOnlyTransaction.execute(status -> response.get());
+    }
+
+    /**
+     * Applies a version announced by another node; older ones are ignored.
+     */
+    void apply(Collection<Table> tables, long version, long modified) {
+        for (Table table : tables) {
+            versions.accumulateAndGet(table.ordinal(), version, Math::max);
+            modifiedAt.accumulateAndGet(table.ordinal(), modified, Math::max);
+        }
+    }
+
+    /**
+     * Moves every table to a new version, on this node only; for startup and
+     * after announcements may have been missed.
+     */
+    void resync() {
+        apply(List.of(TABLES), nextVersion(), System.currentTimeMillis());
+    }
+
+    private void announce(Collection<Table> tables) {
+        publish(tables);
+        readReplicas.afterMaxLag(() -> publish(tables));
+    }
+
+    private void publish(Collection<Table> tables) {
+        long version = nextVersion();
+        long now = System.currentTimeMillis();
+        apply(tables, version, now);
+        cacheInvalidationBus.publishTables(tables, version, now);
+    }
+
+    private long nextVersion() {
+        if (!databaseInfo.isPostgres()) return localVersions.incrementAndGet();
+        try {
+            return jdbcTemplate.queryForObject("SELECT nextval('table_version_seq')", Long.class);
+        } catch (RuntimeException e) {
+            // Clients re-fetch rather than keep a stale copy; another node may reuse the value
+            log.warn("Could not take a table version from the database", e);
+            long highest = 0;
+            for (int i = 0; i < TABLES.length; i++) highest = Math.max(highest, versions.get(i));
+            return highest + 1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Table> pendingInTransaction() {
+        Set<Table> pending = (Set<Table>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<Table> tables = EnumSet.noneOf(Table.class);
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(tables);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = tables;
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,43 @@
+package com.university.coursemanagement;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, kept as the one number the generic cell rate
+ * algorithm needs: the time at which the bucket would be full again. A
+ * request takes a token by moving that time one interval further with a
+ * compare-and-set, and is refused when that would put it more than
+ * {@code burst} intervals ahead of now. Rate and burst are passed on every
+ * call, so a change to the limits applies to the next request.
+ */
+public class TokenBucket {
+
+    /** Returned by {@link #tryTake} when the request may go ahead. */
+    public static final long ADMITTED = 0;
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param ratePerSecond tokens added per second; 0 or less means no limit
+     * @param burst         tokens the bucket holds, at least 1
+     * @return {@link #ADMITTED}, or the nanoseconds until a token is free
+     */
+    public long tryTake(long nowNanos, double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0) return ADMITTED;
+        long interval = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        long tolerance = interval * Math.max(1, burst);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + interval;
+            long ahead = next - nowNanos;
+            if (ahead > tolerance) return ahead - tolerance;
+            if (fullAt.compareAndSet(current, next)) return ADMITTED;
+        }
+    }
+}
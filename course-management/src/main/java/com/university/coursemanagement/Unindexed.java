@@ -0,0 +1,20 @@
+package com.university.coursemanagement;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository query method that deliberately runs without an index
+ * behind it, e.g. a substring search no B-tree can serve. The build's index
+ * coverage check skips these; the reason says why that is acceptable.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Unindexed {
+
+    String value();
+}
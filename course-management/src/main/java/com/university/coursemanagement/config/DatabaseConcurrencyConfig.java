@@ -0,0 +1,54 @@
+package com.university.coursemanagement.config;
+
+import com.university.coursemanagement.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of the application's
+ * data source when {@code app.datasource.max-concurrency} is set (the
+ * virtual-threads profile sets it to the primary pool size). Whatever the
+ * data source is, single pool or read/write routing proxy, everything that
+ * uses it (JPA, JdbcTemplate, Flyway) goes through the limit.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.max-concurrency")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        int maxConcurrency = environment.getRequiredProperty("app.datasource.max-concurrency", Integer.class);
+        Duration acquireTimeout = environment.getProperty("app.datasource.acquire-timeout", Duration.class,
+                Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the application's data source, not the pools behind a routing proxy
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Permits in use and callers queued, next to the Hikari pool gauges
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof ConcurrencyLimitedDataSource limiter)) return;
+            Gauge.builder("db.concurrency.max", limiter, ConcurrencyLimitedDataSource::getMaxConcurrency).register(registry);
+            Gauge.builder("db.concurrency.in_use", limiter, ConcurrencyLimitedDataSource::getInUse).register(registry);
+            Gauge.builder("db.concurrency.waiting", limiter, ConcurrencyLimitedDataSource::getWaiting).register(registry);
+        };
+    }
+}
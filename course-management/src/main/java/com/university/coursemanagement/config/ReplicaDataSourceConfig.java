@@ -0,0 +1,73 @@
+package com.university.coursemanagement.config;
+
+import com.university.coursemanagement.ReadReplicas;
+import com.university.coursemanagement.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active when {@code app.datasource.replicas.urls}
+ * lists at least one replica. The application's data source is a lazy
+ * proxy over the primary pool: a connection is only fetched at the first
+ * statement, by which point the transaction has marked it read-only or
+ * not, and read-only connections come from the {@link ReplicaDataSource}.
+ * Without replicas Spring Boot's single pooled data source is used as before.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                               ReadReplicas readReplicas,
+                                               @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        List<String> urls = readReplicas.getUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            // Same credentials and driver settings as the primary; only the host differs
+            primary.copyStateTo(pool);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Spring Boot only instruments pools that are beans; these are not (unless copied from the primary)
+            if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                meterRegistry.ifAvailable(pool::setMetricRegistry);
+            }
+            pools.add(pool);
+        }
+        return new ReplicaDataSource(primary, pools, readReplicas.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary, ReplicaDataSource replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        return dataSource;
+    }
+}
@@ -0,0 +1,46 @@
+package com.university.coursemanagement.config;
+
+import com.university.coursemanagement.SqlMetrics;
+import com.university.coursemanagement.SqlMetricsDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's data source in a {@link SqlMetricsDataSource}
+ * (on by default; {@code app.sql.metrics.enabled=false} turns it off).
+ * It goes inside any concurrency limit, so statement timings never include
+ * waiting for a connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.metrics.enabled", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceWrapper(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new OrderedPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        && !(bean instanceof SqlMetricsDataSource)) {
+                    // Resolved on first use: SqlMetrics needs the meter registry, which may need the data source
+                    return new SqlMetricsDataSource(dataSource, SingletonSupplier.of(sqlMetrics::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private interface OrderedPostProcessor extends BeanPostProcessor, Ordered {
+        @Override
+        default int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
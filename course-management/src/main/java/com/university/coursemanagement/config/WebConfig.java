@@ -1,23 +1,69 @@
 package com.university.coursemanagement.config;
 
+import com.university.coursemanagement.AdmissionControl;
+import com.university.coursemanagement.AdmissionFilter;
+import com.university.coursemanagement.Keyset;
+import com.university.coursemanagement.ReadYourWritesInterceptor;
+import com.university.coursemanagement.SqlStatsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig {
 
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    @Autowired
+    private SqlStatsInterceptor sqlStatsInterceptor;
+
+    // Ahead of everything that does work for a request, but after the request metrics filter so 429s are counted
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionControl admissionControl) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(new AdmissionFilter(admissionControl));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // CORS as a filter ahead of admission control, so a 429 still carries the CORS headers and the
+    // browser shows it (and its Retry-After) to the UI rather than a CORS error. Covers the
+    // controllers' @CrossOrigin origin too; Spring MVC leaves responses that already have them alone
+    @Bean
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of("https://course-management-system-fef1.onrender.com", "http://localhost:3000"));
+        cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        cors.setAllowedHeaders(List.of("*"));
+        cors.setExposedHeaders(List.of(Keyset.NEXT_CURSOR_HEADER, ReadYourWritesInterceptor.HEADER, HttpHeaders.RETRY_AFTER));
+        cors.setAllowCredentials(true);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", cors);
+
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer interceptorConfigurer() {
         return new WebMvcConfigurer() {
             @Override
-            public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/api/**")
-                        .allowedOrigins("https://course-management-system-fef1.onrender.com")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*")
-                        .allowCredentials(true);
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+                registry.addInterceptor(sqlStatsInterceptor).addPathPatterns("/api/**");
             }
         };
     }
@@ -0,0 +1,55 @@
+-- Tables as previously generated by Hibernate from the entity mappings.
+
+CREATE TABLE courses (
+    id          BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    code        VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    credits     INT,
+    capacity    INT,
+    CONSTRAINT uk_courses_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE students (
+    id           BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    student_id   VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_students_email UNIQUE (email),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE student_enrollments (
+    student_id BIGINT NOT NULL,
+    course_id  BIGINT NOT NULL,
+    PRIMARY KEY (student_id, course_id),
+    CONSTRAINT fk_student_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_student_enrollments_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE grades (
+    id                BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    student_id        BIGINT NOT NULL,
+    course_id         BIGINT NOT NULL,
+    score             DOUBLE NOT NULL,
+    letter_grade      VARCHAR(3),
+    grade_point_value DOUBLE NOT NULL,
+    status            VARCHAR(15),
+    grade_date        DATE,
+    remarks           VARCHAR(255),
+    CONSTRAINT uk_grades_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk_grades_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_grades_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE academic_summaries (
+    student_id        BIGINT NOT NULL PRIMARY KEY,
+    grade_point_sum   DOUBLE NOT NULL,
+    attempted_credits INT NOT NULL,
+    passed_credits    INT NOT NULL,
+    completed_credits INT NOT NULL,
+    gpa               DOUBLE NOT NULL,
+    updated_at        DATETIME(6)
+) ENGINE = InnoDB;
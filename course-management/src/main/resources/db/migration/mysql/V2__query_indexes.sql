@@ -0,0 +1,11 @@
+-- Indexes behind the repository queries (QueryIndexCoverageTest keeps this list honest).
+-- Student-side grade lookups use the leading column of uk_grades_student_course.
+
+-- InnoDB secondary indexes carry the primary key, so (course_id) also serves ORDER BY id
+CREATE INDEX idx_grades_course_id ON grades (course_id);
+-- Recent grades (ORDER BY grade_date DESC, id DESC) and date-range exports
+CREATE INDEX idx_grades_grade_date ON grades (grade_date, id);
+CREATE INDEX idx_grades_status ON grades (status);
+
+-- Rosters and seat counts; the primary key only covers lookups by student
+CREATE INDEX idx_student_enrollments_course_id ON student_enrollments (course_id, student_id);
@@ -0,0 +1,60 @@
+-- Academic terms. A grade belongs to the term it was given in and an enrollment to the term
+-- it was made in. MySQL cannot partition grades (partitioned InnoDB tables have no foreign
+-- keys), so here term queries go through idx_grades_term instead of partition pruning.
+
+CREATE TABLE academic_terms (
+    id              BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    code            VARCHAR(20) NOT NULL,
+    name            VARCHAR(100) NOT NULL,
+    start_date      DATE NOT NULL,
+    end_date        DATE NOT NULL,
+    status          VARCHAR(10) NOT NULL,
+    closed_at       DATETIME(6),
+    archived_at     DATETIME(6),
+    archive_file    VARCHAR(255),
+    archived_grades INT,
+    CONSTRAINT uk_academic_terms_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+-- The term a date falls in
+CREATE INDEX idx_academic_terms_start_date ON academic_terms (start_date);
+
+-- Spring (January to May), Summer (June to August) and Fall (September to December) terms
+-- for every date a grade was given on, and for today
+INSERT INTO academic_terms (code, name, start_date, end_date, status)
+SELECT CONCAT(year, '-', season),
+       CONCAT(UPPER(LEFT(season, 1)), LOWER(SUBSTRING(season, 2)), ' ', year),
+       STR_TO_DATE(CONCAT(year, CASE season WHEN 'SPRING' THEN '-01-01' WHEN 'SUMMER' THEN '-06-01' ELSE '-09-01' END), '%Y-%m-%d'),
+       STR_TO_DATE(CONCAT(year, CASE season WHEN 'SPRING' THEN '-05-31' WHEN 'SUMMER' THEN '-08-31' ELSE '-12-31' END), '%Y-%m-%d'),
+       'OPEN'
+FROM (SELECT DISTINCT YEAR(day) AS year,
+             CASE WHEN MONTH(day) <= 5 THEN 'SPRING' WHEN MONTH(day) <= 8 THEN 'SUMMER' ELSE 'FALL' END AS season
+      FROM (SELECT COALESCE(grade_date, CURRENT_DATE) AS day FROM grades
+            UNION SELECT CURRENT_DATE) days) seasons;
+
+ALTER TABLE student_enrollments ADD COLUMN term_id BIGINT,
+    ADD CONSTRAINT fk_student_enrollments_term FOREIGN KEY (term_id) REFERENCES academic_terms (id);
+UPDATE student_enrollments
+SET term_id = (SELECT id FROM academic_terms WHERE CURRENT_DATE BETWEEN start_date AND end_date);
+
+-- Each student's totals from archived terms, which academic summaries add to their live grades
+CREATE TABLE archived_grade_totals (
+    student_id        BIGINT NOT NULL,
+    term_id           BIGINT NOT NULL,
+    grade_point_sum   DOUBLE NOT NULL,
+    attempted_credits INT NOT NULL,
+    passed_credits    INT NOT NULL,
+    completed_credits INT NOT NULL,
+    PRIMARY KEY (student_id, term_id),
+    CONSTRAINT fk_archived_grade_totals_term FOREIGN KEY (term_id) REFERENCES academic_terms (id)
+) ENGINE = InnoDB;
+
+ALTER TABLE grades ADD COLUMN term_id BIGINT;
+UPDATE grades g
+JOIN academic_terms t ON COALESCE(g.grade_date, CURRENT_DATE) BETWEEN t.start_date AND t.end_date
+SET g.term_id = t.id;
+ALTER TABLE grades MODIFY term_id BIGINT NOT NULL,
+    ADD CONSTRAINT fk_grades_term FOREIGN KEY (term_id) REFERENCES academic_terms (id);
+
+-- One term's grades: the current term's rosters, and archiving a closed term in student order
+CREATE INDEX idx_grades_term ON grades (term_id, student_id, course_id);
@@ -0,0 +1,3 @@
+-- Table versions behind the catalog endpoints' ETags live in each node's memory (see
+-- TableVersions). MySQL runs a single node, which counts them itself, so there is nothing
+-- to create; this version keeps the MySQL and Postgres migration series in step.
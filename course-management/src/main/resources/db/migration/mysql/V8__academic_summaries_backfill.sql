@@ -0,0 +1,27 @@
+-- Academic summaries for grades written before the summaries were kept up to date (an
+-- upgraded database, the development seed). From here on AcademicSummaryService maintains
+-- them with every grade change; a row already present is recomputed like rebuildAll does.
+
+INSERT INTO academic_summaries (student_id, grade_point_sum, attempted_credits, passed_credits,
+                                completed_credits, gpa, updated_at)
+SELECT student_id, SUM(grade_point_sum), SUM(attempted_credits), SUM(passed_credits), SUM(completed_credits),
+       CASE WHEN SUM(attempted_credits) > 0 THEN SUM(grade_point_sum) / SUM(attempted_credits) ELSE 0 END,
+       CURRENT_TIMESTAMP(6)
+FROM (SELECT g.student_id,
+             COALESCE(SUM(g.grade_point_value * c.credits), 0) AS grade_point_sum,
+             COALESCE(SUM(c.credits), 0) AS attempted_credits,
+             COALESCE(SUM(CASE WHEN g.status = 'PASS' THEN c.credits ELSE 0 END), 0) AS passed_credits,
+             COALESCE(SUM(CASE WHEN g.status IN ('PASS', 'COMPLETE') THEN c.credits ELSE 0 END), 0) AS completed_credits
+      FROM grades g
+      JOIN courses c ON c.id = g.course_id
+      GROUP BY g.student_id
+      UNION ALL
+      SELECT student_id, grade_point_sum, attempted_credits, passed_credits, completed_credits
+      FROM archived_grade_totals) totals
+GROUP BY student_id
+ON DUPLICATE KEY UPDATE grade_point_sum = VALUES(grade_point_sum),
+                        attempted_credits = VALUES(attempted_credits),
+                        passed_credits = VALUES(passed_credits),
+                        completed_credits = VALUES(completed_credits),
+                        gpa = VALUES(gpa),
+                        updated_at = VALUES(updated_at);
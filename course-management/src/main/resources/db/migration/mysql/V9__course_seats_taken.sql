@@ -0,0 +1,8 @@
+-- Seats taken per course, kept with every enrollment and unenrollment. A seat is taken by
+-- one conditional update (seats_taken < capacity) rather than by counting enrollments
+-- under a lock on the course row; see EnrollmentRepository.takeSeat.
+
+ALTER TABLE courses ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+
+UPDATE courses
+SET seats_taken = (SELECT COUNT(*) FROM student_enrollments e WHERE e.course_id = courses.id);
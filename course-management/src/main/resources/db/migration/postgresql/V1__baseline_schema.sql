@@ -0,0 +1,57 @@
+-- Tables as previously generated by Hibernate from the entity mappings.
+-- A database created by the old ddl-auto=create already has courses, students,
+-- student_enrollments and grades, without courses.capacity, the grades unique key
+-- (V2 adds it as an index) or academic_summaries. It is baselined at version 0
+-- (see application-prod.properties) and this script fills in what it lacks.
+
+CREATE TABLE IF NOT EXISTS courses (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code        VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    credits     INTEGER,
+    capacity    INTEGER,
+    CONSTRAINT uk_courses_code UNIQUE (code)
+);
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS capacity INTEGER;
+
+CREATE TABLE IF NOT EXISTS students (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    student_id   VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_students_email UNIQUE (email),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id)
+);
+
+CREATE TABLE IF NOT EXISTS student_enrollments (
+    student_id BIGINT NOT NULL REFERENCES students (id),
+    course_id  BIGINT NOT NULL REFERENCES courses (id),
+    PRIMARY KEY (student_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS grades (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id        BIGINT NOT NULL REFERENCES students (id),
+    course_id         BIGINT NOT NULL REFERENCES courses (id),
+    score             DOUBLE PRECISION NOT NULL,
+    letter_grade      VARCHAR(3),
+    grade_point_value DOUBLE PRECISION NOT NULL,
+    status            VARCHAR(15),
+    grade_date        DATE,
+    remarks           VARCHAR(255),
+    CONSTRAINT uk_grades_student_course UNIQUE (student_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS academic_summaries (
+    student_id        BIGINT PRIMARY KEY,
+    grade_point_sum   DOUBLE PRECISION NOT NULL,
+    attempted_credits INTEGER NOT NULL,
+    passed_credits    INTEGER NOT NULL,
+    completed_credits INTEGER NOT NULL,
+    gpa               DOUBLE PRECISION NOT NULL,
+    updated_at        TIMESTAMP(6)
+);
@@ -0,0 +1,15 @@
+-- Indexes behind the repository queries (QueryIndexCoverageTest keeps this list honest).
+-- IF NOT EXISTS because databases baselined from a Hibernate-generated schema may already have some.
+
+-- Student-side lookups use the leading column of uk_grades_student_course
+CREATE UNIQUE INDEX IF NOT EXISTS uk_grades_student_course ON grades (student_id, course_id);
+CREATE INDEX IF NOT EXISTS idx_grades_course_id ON grades (course_id);
+-- Recent grades (ORDER BY grade_date DESC, id DESC) and date-range exports
+CREATE INDEX IF NOT EXISTS idx_grades_grade_date ON grades (grade_date, id);
+CREATE INDEX IF NOT EXISTS idx_grades_status ON grades (status);
+
+-- Rosters and seat counts; the primary key only covers lookups by student
+CREATE INDEX IF NOT EXISTS idx_student_enrollments_course_id ON student_enrollments (course_id, student_id);
+
+-- Code prefix searches (LIKE 'CS%') cannot use uk_courses_code outside the C collation
+CREATE INDEX IF NOT EXISTS idx_courses_code_prefix ON courses (code varchar_pattern_ops);
@@ -0,0 +1,23 @@
+-- Change feed behind /api/changes. Sequence numbers are handed out under the
+-- change_sequence row lock, so they become visible in commit order.
+
+CREATE TABLE change_sequence (
+    id       INTEGER PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+INSERT INTO change_sequence (id, last_seq) VALUES (1, 0);
+
+CREATE TABLE change_log (
+    seq         BIGINT PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    action      VARCHAR(8) NOT NULL,
+    entity_id   BIGINT,
+    course_id   BIGINT,
+    student_id  BIGINT,
+    payload     TEXT,
+    changed_at  TIMESTAMP(6) NOT NULL
+);
+
+-- Retention purge
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
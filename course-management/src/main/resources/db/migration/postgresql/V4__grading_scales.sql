@@ -0,0 +1,48 @@
+-- Grading scales: score bands mapped to letter grade, grade points and status.
+-- Courses without a scale of their own use the default scale.
+
+CREATE TABLE grading_scales (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    is_default  BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_grading_scales_name UNIQUE (name)
+);
+
+-- A band applies from min_score up to the next band's min_score
+CREATE TABLE grading_scale_bands (
+    scale_id          BIGINT NOT NULL,
+    min_score         NUMERIC(5,2) NOT NULL,
+    letter_grade      VARCHAR(3) NOT NULL,
+    grade_point_value NUMERIC(3,2) NOT NULL,
+    status            VARCHAR(15) NOT NULL,
+    PRIMARY KEY (scale_id, min_score),
+    CONSTRAINT fk_grading_scale_bands_scale FOREIGN KEY (scale_id) REFERENCES grading_scales (id)
+);
+
+ALTER TABLE courses ADD COLUMN grading_scale_id BIGINT;
+ALTER TABLE courses ADD CONSTRAINT fk_courses_grading_scale FOREIGN KEY (grading_scale_id) REFERENCES grading_scales (id);
+CREATE INDEX idx_courses_grading_scale_id ON courses (grading_scale_id);
+
+-- The scale grades were calculated with until now
+INSERT INTO grading_scales (name, description, is_default)
+VALUES ('Standard', 'University undergraduate scale', TRUE);
+
+INSERT INTO grading_scale_bands (scale_id, min_score, letter_grade, grade_point_value, status)
+SELECT s.id, b.min_score, b.letter_grade, b.grade_point_value, b.status
+FROM grading_scales s CROSS JOIN (VALUES
+    (85.00, 'A+', 4.00, 'PASS'),
+    (70.00, 'A',  4.00, 'PASS'),
+    (65.00, 'A-', 3.70, 'PASS'),
+    (60.00, 'B+', 3.30, 'PASS'),
+    (55.00, 'B',  3.00, 'PASS'),
+    (50.00, 'B-', 2.70, 'PASS'),
+    (45.00, 'C+', 2.30, 'PASS'),
+    (40.00, 'C',  2.00, 'PASS'),
+    (35.00, 'C-', 1.70, 'COMPLETE'),
+    (30.00, 'D+', 1.30, 'COMPLETE'),
+    (25.00, 'D',  1.00, 'COMPLETE'),
+    (0.00,  'E',  0.00, 'INCOMPLETE')
+) AS b (min_score, letter_grade, grade_point_value, status)
+WHERE s.name = 'Standard';
@@ -0,0 +1,34 @@
+-- Grade change journal, compacted here from each node's local log (see GradeJournal).
+-- (node_id, seq) identifies an entry, so compacting the same entries twice is harmless.
+-- No foreign keys: a grade's history outlives the grade, its student and its course.
+
+CREATE TABLE grade_history (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    node_id               VARCHAR(36) NOT NULL,
+    seq                   BIGINT NOT NULL,
+    action                VARCHAR(8) NOT NULL,
+    grade_id              BIGINT,
+    student_id            BIGINT NOT NULL,
+    course_id             BIGINT NOT NULL,
+    old_score             DOUBLE PRECISION,
+    old_letter_grade      VARCHAR(3),
+    old_grade_point_value DOUBLE PRECISION,
+    old_status            VARCHAR(15),
+    old_remarks           VARCHAR(255),
+    new_score             DOUBLE PRECISION,
+    new_letter_grade      VARCHAR(3),
+    new_grade_point_value DOUBLE PRECISION,
+    new_status            VARCHAR(15),
+    new_remarks           VARCHAR(255),
+    changed_by            VARCHAR(100),
+    changed_at            TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_grade_history_node_seq UNIQUE (node_id, seq)
+);
+
+-- One grade's history, and the state of a course's grades at a point in time
+CREATE INDEX idx_grade_history_student_course ON grade_history (student_id, course_id, changed_at);
+CREATE INDEX idx_grade_history_course ON grade_history (course_id, changed_at);
+-- The state of all grades at a point in time
+CREATE INDEX idx_grade_history_changed_at ON grade_history (changed_at);
+-- A deleted grade's history, found by its old id
+CREATE INDEX idx_grade_history_grade ON grade_history (grade_id);
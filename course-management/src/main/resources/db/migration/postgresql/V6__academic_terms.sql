@@ -0,0 +1,144 @@
+-- Academic terms. A grade belongs to the term it was given in and an enrollment to the term
+-- it was made in. grades is partitioned by term: queries for one term read one partition,
+-- and a closed term's partition can be archived to a file and emptied (see GradeArchive).
+
+CREATE TABLE academic_terms (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code            VARCHAR(20) NOT NULL,
+    name            VARCHAR(100) NOT NULL,
+    start_date      DATE NOT NULL,
+    end_date        DATE NOT NULL,
+    status          VARCHAR(10) NOT NULL,
+    closed_at       TIMESTAMP(6),
+    archived_at     TIMESTAMP(6),
+    archive_file    VARCHAR(255),
+    archived_grades INTEGER,
+    CONSTRAINT uk_academic_terms_code UNIQUE (code)
+);
+
+-- The term a date falls in
+CREATE INDEX idx_academic_terms_start_date ON academic_terms (start_date);
+
+-- Spring (January to May), Summer (June to August) and Fall (September to December) terms
+-- for every date a grade was given on, and for today
+INSERT INTO academic_terms (code, name, start_date, end_date, status)
+SELECT year || '-' || season,
+       initcap(season) || ' ' || year,
+       make_date(year, CASE season WHEN 'SPRING' THEN 1 WHEN 'SUMMER' THEN 6 ELSE 9 END, 1),
+       make_date(year, CASE season WHEN 'SPRING' THEN 5 WHEN 'SUMMER' THEN 8 ELSE 12 END, 31),
+       'OPEN'
+FROM (SELECT DISTINCT CAST(EXTRACT(YEAR FROM day) AS INTEGER) AS year,
+             CASE WHEN EXTRACT(MONTH FROM day) <= 5 THEN 'SPRING'
+                  WHEN EXTRACT(MONTH FROM day) <= 8 THEN 'SUMMER'
+                  ELSE 'FALL' END AS season
+      FROM (SELECT COALESCE(grade_date, CURRENT_DATE) AS day FROM grades
+            UNION SELECT CURRENT_DATE) days) seasons;
+
+ALTER TABLE student_enrollments
+    ADD COLUMN term_id BIGINT CONSTRAINT fk_student_enrollments_term REFERENCES academic_terms (id);
+UPDATE student_enrollments
+SET term_id = (SELECT id FROM academic_terms WHERE CURRENT_DATE BETWEEN start_date AND end_date);
+
+-- Each student's totals from archived terms, which academic summaries add to their live grades
+CREATE TABLE archived_grade_totals (
+    student_id        BIGINT NOT NULL,
+    term_id           BIGINT NOT NULL REFERENCES academic_terms (id),
+    grade_point_sum   DOUBLE PRECISION NOT NULL,
+    attempted_credits INTEGER NOT NULL,
+    passed_credits    INTEGER NOT NULL,
+    completed_credits INTEGER NOT NULL,
+    PRIMARY KEY (student_id, term_id)
+);
+
+-- grades becomes a table partitioned by term, one partition per term (AcademicTerms.create adds
+-- them for new terms). There is no default partition: an archived term's partition is detached
+-- CONCURRENTLY (see GradeArchive), which a default partition would not allow. Unique keys of a
+-- partitioned table must include the partition key, so (student_id, course_id) is unique per
+-- term here; grade_keys below keeps it unique across terms.
+CREATE SEQUENCE grades_id_sequence;
+
+CREATE TABLE grades_partitioned (
+    id                BIGINT NOT NULL DEFAULT nextval('grades_id_sequence'),
+    student_id        BIGINT NOT NULL,
+    course_id         BIGINT NOT NULL,
+    term_id           BIGINT NOT NULL,
+    score             DOUBLE PRECISION NOT NULL,
+    letter_grade      VARCHAR(3),
+    grade_point_value DOUBLE PRECISION NOT NULL,
+    status            VARCHAR(15),
+    grade_date        DATE,
+    remarks           VARCHAR(255),
+    CONSTRAINT pk_grades PRIMARY KEY (id, term_id),
+    CONSTRAINT uk_grades_student_course_term UNIQUE (student_id, course_id, term_id),
+    CONSTRAINT fk_grades_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_grades_course FOREIGN KEY (course_id) REFERENCES courses (id),
+    CONSTRAINT fk_grades_term FOREIGN KEY (term_id) REFERENCES academic_terms (id)
+) PARTITION BY LIST (term_id);
+
+DO $$
+DECLARE
+    term RECORD;
+BEGIN
+    FOR term IN SELECT id FROM academic_terms LOOP
+        EXECUTE format('CREATE TABLE grades_term_%s PARTITION OF grades_partitioned FOR VALUES IN (%s)', term.id, term.id);
+    END LOOP;
+END $$;
+
+INSERT INTO grades_partitioned (id, student_id, course_id, term_id, score, letter_grade, grade_point_value,
+                                status, grade_date, remarks)
+SELECT g.id, g.student_id, g.course_id, t.id, g.score, g.letter_grade, g.grade_point_value,
+       g.status, g.grade_date, g.remarks
+FROM grades g
+JOIN academic_terms t ON COALESCE(g.grade_date, CURRENT_DATE) BETWEEN t.start_date AND t.end_date;
+
+SELECT setval('grades_id_sequence', COALESCE((SELECT MAX(id) FROM grades_partitioned), 0) + 1, false);
+
+DROP TABLE grades;
+ALTER TABLE grades_partitioned RENAME TO grades;
+ALTER SEQUENCE grades_id_sequence OWNED BY grades.id;
+
+CREATE INDEX idx_grades_course_id ON grades (course_id);
+CREATE INDEX idx_grades_grade_date ON grades (grade_date, id);
+CREATE INDEX idx_grades_status ON grades (status);
+
+-- One row per (student_id, course_id) pair that has a live grade: the plain table that keeps a
+-- student to one live grade per course, like uk_grades_student_course does on MySQL. Triggers
+-- keep it in step within the writing transaction: a second grade for the pair, in any term,
+-- fails on pk_grade_keys.
+CREATE TABLE grade_keys (
+    student_id BIGINT NOT NULL,
+    course_id  BIGINT NOT NULL,
+    CONSTRAINT pk_grade_keys PRIMARY KEY (student_id, course_id)
+);
+
+INSERT INTO grade_keys (student_id, course_id)
+SELECT student_id, course_id FROM grades;
+
+CREATE FUNCTION grade_keys_insert() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO grade_keys (student_id, course_id) VALUES (NEW.student_id, NEW.course_id);
+    RETURN NULL;
+END $$;
+
+CREATE FUNCTION grade_keys_delete() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM grade_keys WHERE student_id = OLD.student_id AND course_id = OLD.course_id;
+    RETURN NULL;
+END $$;
+
+CREATE FUNCTION grade_keys_update() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE grade_keys SET student_id = NEW.student_id, course_id = NEW.course_id
+    WHERE student_id = OLD.student_id AND course_id = OLD.course_id;
+    RETURN NULL;
+END $$;
+
+-- Row triggers on a partitioned table are cloned onto every partition, current and future.
+-- TRUNCATE fires none of them, so a truncated partition's keys must be deleted by hand.
+CREATE TRIGGER trg_grade_keys_insert AFTER INSERT ON grades
+    FOR EACH ROW EXECUTE FUNCTION grade_keys_insert();
+CREATE TRIGGER trg_grade_keys_delete AFTER DELETE ON grades
+    FOR EACH ROW EXECUTE FUNCTION grade_keys_delete();
+CREATE TRIGGER trg_grade_keys_update AFTER UPDATE OF student_id, course_id ON grades
+    FOR EACH ROW WHEN (OLD.student_id <> NEW.student_id OR OLD.course_id <> NEW.course_id)
+    EXECUTE FUNCTION grade_keys_update();
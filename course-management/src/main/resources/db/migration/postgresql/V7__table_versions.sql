@@ -0,0 +1,5 @@
+-- Table versions behind the catalog endpoints' ETags live in each node's memory (see
+-- TableVersions). A committed write takes its version from this sequence, so every node
+-- hands out the same validators for the same committed state.
+
+CREATE SEQUENCE table_version_seq;
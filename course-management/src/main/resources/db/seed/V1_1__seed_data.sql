@@ -1,3 +1,5 @@
+-- Development sample data; only on the classpath:db/seed location in application.properties.
+
 INSERT INTO courses (code, title, description, credits) VALUES
                                                             ('CS101', 'Introduction to Computer Science', 'Basic programming concepts and problem solving', 3),
                                                             ('CS201', 'Data Structures', 'Arrays, linked lists, stacks, queues, and trees', 3),
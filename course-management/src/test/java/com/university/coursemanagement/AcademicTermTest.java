@@ -0,0 +1,60 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link AcademicTerm#seasonOf}, which has to agree with the V6 backfill:
+ * that migration creates the Spring (January to May), Summer (June to
+ * August) and Fall (September to December) terms of every grade date and
+ * joins each grade to the term its date falls in. A day no season covers
+ * would lose its grades there, and a code spelt differently would make
+ * startup create a second, overlapping term.
+ */
+class AcademicTermTest {
+
+    @Test
+    void everyDayFallsInItsOwnSeasonAndSeasonsMeet() {
+        LocalDate day = LocalDate.of(2023, 1, 1);
+        AcademicTerm previous = null;
+        while (day.getYear() < 2026) {
+            AcademicTerm season = AcademicTerm.seasonOf(day);
+            assertThat(season.contains(day)).as("%s in %s", day, season.getCode()).isTrue();
+            if (previous != null && !previous.getCode().equals(season.getCode())) {
+                assertThat(season.getStartDate()).isEqualTo(previous.getEndDate().plusDays(1));
+            }
+            previous = season;
+            day = day.plusDays(1);
+        }
+    }
+
+    @Test
+    void seasonsMatchTheBackfilledTerms() {
+        assertTerm(LocalDate.of(2024, 1, 1), "2024-SPRING", "Spring 2024", "2024-01-01", "2024-05-31");
+        assertTerm(LocalDate.of(2024, 5, 31), "2024-SPRING", "Spring 2024", "2024-01-01", "2024-05-31");
+        assertTerm(LocalDate.of(2024, 6, 1), "2024-SUMMER", "Summer 2024", "2024-06-01", "2024-08-31");
+        assertTerm(LocalDate.of(2024, 8, 31), "2024-SUMMER", "Summer 2024", "2024-06-01", "2024-08-31");
+        assertTerm(LocalDate.of(2024, 9, 1), "2024-FALL", "Fall 2024", "2024-09-01", "2024-12-31");
+        assertTerm(LocalDate.of(2024, 12, 31), "2024-FALL", "Fall 2024", "2024-09-01", "2024-12-31");
+    }
+
+    @Test
+    void termsOverlapOnlyWhereTheirDatesDo() {
+        AcademicTerm spring = AcademicTerm.seasonOf(LocalDate.of(2025, 3, 1));
+        assertThat(spring.overlaps(LocalDate.of(2025, 5, 31), LocalDate.of(2025, 6, 30))).isTrue();
+        assertThat(spring.overlaps(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31))).isFalse();
+        assertThat(spring.overlaps(LocalDate.of(2024, 9, 1), LocalDate.of(2024, 12, 31))).isFalse();
+    }
+
+
+    private static void assertTerm(LocalDate day, String code, String name, String start, String end) {
+        AcademicTerm season = AcademicTerm.seasonOf(day);
+        assertThat(season.getCode()).isEqualTo(code);
+        assertThat(season.getName()).isEqualTo(name);
+        assertThat(season.getStartDate()).isEqualTo(LocalDate.parse(start));
+        assertThat(season.getEndDate()).isEqualTo(LocalDate.parse(end));
+    }
+}
@@ -0,0 +1,207 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link EnrollmentService} on several nodes against one course: each node
+ * has its own {@link SeatLedger}, so only the database can keep the course
+ * from being overbooked. The database here is an in-memory stand-in whose
+ * seat count, like the conditional update of courses.seats_taken, only
+ * goes up while it is below capacity and goes back down on rollback.
+ */
+class EnrollmentServiceTest {
+
+    private static final Long COURSE = 1L;
+
+    @Test
+    void nodesNeverOverbookACourseTogether() throws Exception {
+        int capacity = 40;
+        Database database = new Database(capacity);
+        List<EnrollmentService> nodes = List.of(node(database, Duration.ofSeconds(5)),
+                node(database, Duration.ofSeconds(5)), node(database, Duration.ofSeconds(5)));
+        AtomicInteger enrolled = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (long student = 1; student <= 400; student++) {
+                long studentId = student;
+                EnrollmentService node = nodes.get((int) (student % nodes.size()));
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (node.enroll(studentId, COURSE).getStatus() == EnrollmentService.Status.ENROLLED) {
+                        enrolled.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(enrolled.get()).isEqualTo(capacity);
+        assertThat(database.enrolled).hasSize(capacity);
+        assertThat(database.mostEnrolled.get()).isEqualTo(capacity);
+        assertThat(database.seatsTaken.get()).isEqualTo(capacity);
+    }
+
+    @Test
+    void seatTakenOnAnotherNodeIsNotSoldTwice() {
+        Database database = new Database(2);
+        EnrollmentService a = node(database, Duration.ofSeconds(5));
+        EnrollmentService b = node(database, Duration.ofSeconds(5));
+
+        assertThat(b.enroll(1L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ENROLLED);
+        assertThat(a.enroll(2L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ENROLLED);
+        // b's ledger still counts one seat taken, but the database has none left
+        assertThat(b.enroll(3L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.COURSE_FULL);
+        assertThat(database.enrolled).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void seatFreedOnAnotherNodeBecomesAvailable() {
+        Database database = new Database(1);
+        EnrollmentService a = node(database, Duration.ZERO);
+        EnrollmentService b = node(database, Duration.ZERO);
+
+        assertThat(b.enroll(1L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ENROLLED);
+        assertThat(a.enroll(2L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.COURSE_FULL);
+        assertThat(b.unenroll(1L, COURSE)).isTrue();
+        assertThat(a.enroll(2L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ENROLLED);
+    }
+
+    @Test
+    void enrollingTwiceDoesNotTakeASecondSeat() {
+        Database database = new Database(5);
+        EnrollmentService node = node(database, Duration.ofSeconds(5));
+
+        assertThat(node.enroll(1L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ENROLLED);
+        assertThat(node.enroll(1L, COURSE).getStatus()).isEqualTo(EnrollmentService.Status.ALREADY_ENROLLED);
+        assertThat(database.enrolled).containsExactly(1L);
+        assertThat(database.seatsTaken.get()).isEqualTo(1);
+    }
+
+
+    private static EnrollmentService node(Database database, Duration refreshFullAfter) {
+        StudentRepository students = mock(StudentRepository.class);
+        when(students.existsById(any())).thenReturn(true);
+        AcademicTerms terms = mock(AcademicTerms.class);
+        when(terms.current()).thenReturn(new AcademicTerm(1L, "2026-FA", "Fall 2026", LocalDate.of(2026, 8, 15),
+                LocalDate.of(2026, 12, 31), AcademicTerm.Status.OPEN, null, null, null, null));
+
+        EnrollmentService service = new EnrollmentService();
+        ReflectionTestUtils.setField(service, "enrollmentRepository", database);
+        ReflectionTestUtils.setField(service, "studentRepository", students);
+        ReflectionTestUtils.setField(service, "tableVersions", mock(TableVersions.class));
+        ReflectionTestUtils.setField(service, "changeFeed", mock(ChangeFeed.class));
+        ReflectionTestUtils.setField(service, "academicTerms", terms);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(new Transactions()));
+        ReflectionTestUtils.setField(service, "ledgerRefreshFullAfter", refreshFullAfter);
+        service.init();
+        return service;
+    }
+
+    /** One course's enrollments and seat count. */
+    private static final class Database extends EnrollmentRepository {
+        final Integer capacity;
+        final Set<Long> enrolled = ConcurrentHashMap.newKeySet();
+        final AtomicInteger mostEnrolled = new AtomicInteger();
+        final AtomicInteger seatsTaken = new AtomicInteger();
+
+        Database(Integer capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public SeatLedger.Seats loadSeats(Long courseId) {
+            return new SeatLedger.Seats(capacity, seatsTaken.get());
+        }
+
+        @Override
+        public boolean takeSeat(Long courseId) {
+            int taken;
+            do {
+                taken = seatsTaken.get();
+                if (capacity != null && taken >= capacity) return false;
+            } while (!seatsTaken.compareAndSet(taken, taken + 1));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) seatsTaken.decrementAndGet();
+                }
+            });
+            return true;
+        }
+
+        @Override
+        public void releaseSeat(Long courseId) {
+            seatsTaken.decrementAndGet();
+        }
+
+        @Override
+        public boolean exists(Long studentId, Long courseId) {
+            return enrolled.contains(studentId);
+        }
+
+        @Override
+        public boolean insert(Long studentId, Long courseId, Long termId) {
+            boolean added = enrolled.add(studentId);
+            mostEnrolled.accumulateAndGet(enrolled.size(), Math::max);
+            return added;
+        }
+
+        @Override
+        public boolean delete(Long studentId, Long courseId) {
+            return enrolled.remove(studentId);
+        }
+    }
+
+    /** Transactions that only run synchronizations, enough to undo a seat above. */
+    private static final class Transactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
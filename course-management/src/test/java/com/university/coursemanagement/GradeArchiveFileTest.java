@@ -0,0 +1,102 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link GradeArchiveFile} on disk: rows read back whole across several
+ * row groups, a student's rows found only where they are, the key
+ * columns on their own, and files that are not (or not yet) archives.
+ */
+class GradeArchiveFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsAreReadBackWholeAcrossGroups() throws IOException {
+        List<GradeArchiveFile.Row> written = new ArrayList<>();
+        for (long student = 1; student <= 10; student++) {
+            for (long course = 1; course <= 3; course++) written.add(row(student * 3 + course, student, course));
+        }
+        written.add(new GradeArchiveFile.Row(99, 11, 1, 0, null, 0, null, null, null, null, null, null));
+
+        try (GradeArchiveFile file = write(written, 4)) {
+            assertThat(file.getRows()).isEqualTo(written.size());
+            List<GradeArchiveFile.Row> read = new ArrayList<>();
+            file.forEach(read::add);
+            assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(written);
+        }
+    }
+
+    @Test
+    void studentsRowsAreFoundAcrossAGroupBoundary() throws IOException {
+        List<GradeArchiveFile.Row> written = List.of(row(1, 1, 1), row(2, 2, 1), row(3, 2, 2),
+                row(4, 2, 3), row(5, 7, 1));
+
+        try (GradeArchiveFile file = write(written, 3)) {
+            assertThat(file.forStudent(2)).extracting(row -> row.courseId).containsExactly(1L, 2L, 3L);
+            assertThat(file.forStudent(7)).extracting(row -> row.id).containsExactly(5L);
+            // Inside a group's student range but not in it
+            assertThat(file.forStudent(5)).isEmpty();
+            assertThat(file.forStudent(8)).isEmpty();
+        }
+    }
+
+    @Test
+    void everyKeyIsVisited() throws IOException {
+        List<GradeArchiveFile.Row> written = List.of(row(1, 1, 4), row(2, 1, 9), row(3, 3, 4));
+        List<String> keys = new ArrayList<>();
+
+        try (GradeArchiveFile file = write(written, 2)) {
+            file.forEachKey((student, course) -> keys.add(student + ":" + course));
+        }
+        assertThat(keys).containsExactly("1:4", "1:9", "3:4");
+    }
+
+    @Test
+    void rowsOutOfStudentOrderAreRefused() throws IOException {
+        try (GradeArchiveFile.Writer writer = new GradeArchiveFile.Writer(dir.resolve("grades.cga"), 10)) {
+            writer.add(row(1, 5, 1));
+            assertThatThrownBy(() -> writer.add(row(2, 4, 1))).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void unfinishedFileIsNotAnArchive() throws IOException {
+        Path path = dir.resolve("grades.cga");
+        try (GradeArchiveFile.Writer writer = new GradeArchiveFile.Writer(path, 10)) {
+            writer.add(row(1, 1, 1));
+        }
+        byte[] whole = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(whole, whole.length - 4));
+
+        assertThatThrownBy(() -> GradeArchiveFile.open(path)).isInstanceOf(IOException.class);
+    }
+
+
+    private GradeArchiveFile write(List<GradeArchiveFile.Row> rows, int groupSize) throws IOException {
+        Path path = dir.resolve("grades.cga");
+        try (GradeArchiveFile.Writer writer = new GradeArchiveFile.Writer(path, groupSize)) {
+            for (GradeArchiveFile.Row row : rows) writer.add(row);
+        }
+        return GradeArchiveFile.open(path);
+    }
+
+    private static GradeArchiveFile.Row row(long id, long studentId, long courseId) {
+        return new GradeArchiveFile.Row(id, studentId, courseId, 70 + courseId, "B", 3.0, "PASS",
+                LocalDate.of(2025, 5, 1).plusDays(studentId), "remark " + id, "CS" + courseId,
+                "Course " + courseId, (int) courseId);
+    }
+}
@@ -0,0 +1,153 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link GradeBatchService#upsert}: each vendor's upsert statement, existing
+ * grades updated in their own term and new ones created in the current
+ * term, and every row that cannot be written rejected with its reason and
+ * left out of the batch.
+ */
+class GradeBatchServiceTest {
+
+    private static final Long CURRENT_TERM = 5L;
+    private static final Long EARLIER_TERM = 3L;
+    private static final Long COURSE = 10L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DatabaseInfo databaseInfo = mock(DatabaseInfo.class);
+    private final GradeRepository gradeRepository = mock(GradeRepository.class);
+    private final GradeArchive gradeArchive = mock(GradeArchive.class);
+    private final AcademicSummaryService academicSummaryService = mock(AcademicSummaryService.class);
+    private final GradeBatchService service = gradeBatchService();
+
+    @Test
+    void postgresUpsertsOnTheTermKeyAndReportsEachRow() {
+        when(databaseInfo.isPostgres()).thenReturn(true);
+        // Student 1 already has a grade in the course, from an earlier term
+        when(gradeRepository.findExistingByPairs(anyCollection(), anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, COURSE, 100L, 40.0, "C", 2.0, "PASS", null, EARLIER_TERM}));
+
+        GradeBatchService.BatchResult result = service.upsert(List.of(
+                request(1L, COURSE, 72.0), request(2L, COURSE, 50.0), request(99L, COURSE, 60.0),
+                request(2L, COURSE, 55.0), request(1L, 11L, 60.0)));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRows()).extracting(GradeBatchService.RowResult::getOutcome)
+                .containsExactly("UPDATED", "CREATED", "REJECTED", "REJECTED", "REJECTED");
+        assertThat(result.getRows()).extracting(GradeBatchService.RowResult::getLetterGrade)
+                .containsExactly("A", "B-", null, null, null);
+        assertThat(result.getRows()).extracting(GradeBatchService.RowResult::getError)
+                .containsExactly(null, null, "Student not found", "Duplicate row for student and course", "Course not found");
+
+        List<Object[]> rows = written("INSERT INTO grades", "ON CONFLICT (student_id, course_id, term_id) DO UPDATE");
+        assertThat(rows).hasSize(2);
+        // The update stays in its grade's term; the new grade goes into the current one
+        assertThat(rows.get(0)).startsWith(1L, COURSE, 72.0, "A").endsWith(EARLIER_TERM);
+        assertThat(rows.get(1)).startsWith(2L, COURSE, 50.0, "B-").endsWith(CURRENT_TERM);
+        verify(academicSummaryService).recompute(Set.of(1L, 2L));
+    }
+
+    @Test
+    void mysqlUpsertsOnTheDuplicateKey() {
+        when(databaseInfo.isPostgres()).thenReturn(false);
+
+        GradeBatchService.BatchResult result = service.upsert(List.of(request(1L, COURSE, 90.0)));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        List<Object[]> rows = written("INSERT INTO grades", "ON DUPLICATE KEY UPDATE");
+        assertThat(rows).singleElement().satisfies(row -> assertThat(row).startsWith(1L, COURSE, 90.0, "A+"));
+    }
+
+    @Test
+    void aBatchOfRejectedRowsWritesNothing() {
+        // Student 2's grade in the course went into an archived term
+        when(gradeArchive.archivedPairs(anyCollection())).thenReturn(Set.of("2:" + COURSE));
+
+        GradeBatchService.BatchResult result = service.upsert(List.of(
+                request(1L, COURSE, 101.0), request(1L, COURSE, Double.NaN), request(2L, COURSE, 70.0)));
+
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRows()).extracting(GradeBatchService.RowResult::getError).containsExactly(
+                "Score must be between 0 and 100", "Score must be between 0 and 100", "Grade is in an archived term");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(academicSummaryService, never()).recompute(any());
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> written(String... sqlParts) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), rows.capture());
+        assertThat(sql.getValue()).contains(sqlParts);
+        return new ArrayList<>(rows.getValue());
+    }
+
+    private static GradeController.GradeRequest request(Long studentId, Long courseId, Double score) {
+        GradeController.GradeRequest request = new GradeController.GradeRequest();
+        request.setStudentId(studentId);
+        request.setCourseId(courseId);
+        request.setScore(score);
+        return request;
+    }
+
+    private GradeBatchService gradeBatchService() {
+        StudentRepository students = mock(StudentRepository.class);
+        when(students.findExistingIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        GradingScales scales = mock(GradingScales.class);
+        when(scales.forCourses(anyCollection())).thenReturn(Map.of(COURSE, standardScale()));
+        AcademicTerms terms = mock(AcademicTerms.class);
+        when(terms.current()).thenReturn(new AcademicTerm(CURRENT_TERM, "2026-FA", "Fall 2026", LocalDate.of(2026, 8, 15),
+                LocalDate.of(2026, 12, 31), AcademicTerm.Status.OPEN, null, null, null, null));
+        when(gradeArchive.archivedPairs(anyCollection())).thenReturn(Set.of());
+
+        GradeBatchService batchService = new GradeBatchService();
+        ReflectionTestUtils.setField(batchService, "gradeRepository", gradeRepository);
+        ReflectionTestUtils.setField(batchService, "studentRepository", students);
+        ReflectionTestUtils.setField(batchService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(batchService, "databaseInfo", databaseInfo);
+        ReflectionTestUtils.setField(batchService, "academicSummaryService", academicSummaryService);
+        ReflectionTestUtils.setField(batchService, "tableVersions", mock(TableVersions.class));
+        ReflectionTestUtils.setField(batchService, "courseAnalyticsService", mock(CourseAnalyticsService.class));
+        ReflectionTestUtils.setField(batchService, "changeFeed", mock(ChangeFeed.class));
+        ReflectionTestUtils.setField(batchService, "gradingScales", scales);
+        ReflectionTestUtils.setField(batchService, "gradeJournal", mock(GradeJournal.class));
+        ReflectionTestUtils.setField(batchService, "academicTerms", terms);
+        ReflectionTestUtils.setField(batchService, "gradeArchive", gradeArchive);
+        return batchService;
+    }
+
+    // A few bands of the seeded standard scale
+    private static GradingScale standardScale() {
+        return new GradingScale(1L, "Standard", null, true, List.of(
+                band("85.00", "A+", "4.00", "PASS"), band("70.00", "A", "4.00", "PASS"),
+                band("50.00", "B-", "2.70", "PASS"), band("0.00", "E", "0.00", "INCOMPLETE")));
+    }
+
+    private static GradingScale.Band band(String minScore, String letter, String points, String status) {
+        return new GradingScale.Band(new BigDecimal(minScore), letter, new BigDecimal(points), status);
+    }
+}
@@ -0,0 +1,63 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The binary form of {@link GradeChange} in the journal reads back as the
+ * change that was written, null fields included.
+ */
+class GradeChangeTest {
+
+    @Test
+    void updateRoundTrips() throws IOException {
+        GradeChange change = new GradeChange(42, GradeChange.Action.UPDATED, 7L, 100L, 200L,
+                new GradeChange.State(71.5, "C", 2.0, "PASSED", null),
+                new GradeChange.State(88.25, "B+", 3.3, "PASSED", "Late work accepted"), "10.0.0.7",
+                LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_456_789));
+
+        GradeChange read = roundTrip(change);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(change);
+    }
+
+    @Test
+    void creationWithoutIdOrAuthorRoundTrips() throws IOException {
+        GradeChange change = new GradeChange(1, GradeChange.Action.CREATED, null, 100L, 200L, null,
+                new GradeChange.State(null, null, null, null, "\u00dcn\u00efc\u00f8d\u00e9 remark"), null,
+                LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        GradeChange read = roundTrip(change);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(change);
+        assertThat(read.getBefore()).isNull();
+        assertThat(read.getGradeId()).isNull();
+        assertThat(read.getChangedBy()).isNull();
+    }
+
+    @Test
+    void deletionRoundTrips() throws IOException {
+        GradeChange change = new GradeChange(9, GradeChange.Action.DELETED, 7L, 100L, 200L,
+                new GradeChange.State(55.0, "F", 0.0, "FAILED", null), null, "restore",
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59));
+
+        assertThat(roundTrip(change)).usingRecursiveComparison().isEqualTo(change);
+    }
+
+
+    private static GradeChange roundTrip(GradeChange change) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            change.write(out);
+        }
+        return GradeChange.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
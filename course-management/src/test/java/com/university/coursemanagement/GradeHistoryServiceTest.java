@@ -0,0 +1,103 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Winding the current grades back to a past moment with
+ * {@link GradeHistoryService#windBack}.
+ */
+class GradeHistoryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 9, 1, 9, 0);
+    private static final LocalDateTime MOMENT = T0.plusDays(10);
+
+    private static final GradeChange.State C = new GradeChange.State(72.0, "C", 2.0, "PASSED", null);
+    private static final GradeChange.State B = new GradeChange.State(85.0, "B", 3.0, "PASSED", null);
+    private static final GradeChange.State A = new GradeChange.State(95.0, "A", 4.0, "PASSED", null);
+
+    @Test
+    void gradeChangedAfterTheMomentGetsItsValuesFromThen() {
+        Map<String, GradeHistoryService.GradeAt> grades = current(grade(1L, 10L, 20L, A));
+        List<GradeChange> changes = List.of(
+                change(GradeChange.Action.CREATED, 1L, 10L, 20L, null, C, T0),
+                change(GradeChange.Action.UPDATED, 1L, 10L, 20L, C, B, T0.plusDays(5)),
+                change(GradeChange.Action.UPDATED, 1L, 10L, 20L, B, A, MOMENT.plusDays(1)));
+
+        Map<String, GradeHistoryService.GradeAt> then = GradeHistoryService.windBack(grades, changes, MOMENT);
+
+        assertThat(then).containsOnlyKeys("10:20");
+        assertThat(then.get("10:20").getGradeId()).isEqualTo(1L);
+        assertThat(then.get("10:20").getScore()).isEqualTo(85.0);
+    }
+
+    @Test
+    void gradeWhoseFirstChangeCameLaterGetsThatChangesBeforeValues() {
+        // Existed before the journal began, updated only after the moment
+        Map<String, GradeHistoryService.GradeAt> grades = current(grade(2L, 11L, 20L, A));
+        List<GradeChange> changes = List.of(
+                change(GradeChange.Action.UPDATED, 2L, 11L, 20L, C, B, MOMENT.plusHours(1)),
+                change(GradeChange.Action.UPDATED, 2L, 11L, 20L, B, A, MOMENT.plusHours(2)));
+
+        Map<String, GradeHistoryService.GradeAt> then = GradeHistoryService.windBack(grades, changes, MOMENT);
+
+        assertThat(then.get("11:20").getScore()).isEqualTo(72.0);
+    }
+
+    @Test
+    void gradeGivenAfterTheMomentIsRemoved() {
+        Map<String, GradeHistoryService.GradeAt> grades = current(grade(3L, 12L, 20L, B), grade(4L, 13L, 20L, C));
+        List<GradeChange> changes = List.of(change(GradeChange.Action.CREATED, 3L, 12L, 20L, null, B, MOMENT.plusDays(2)));
+
+        Map<String, GradeHistoryService.GradeAt> then = GradeHistoryService.windBack(grades, changes, MOMENT);
+
+        // Untouched by the journal, the other grade stays as it is
+        assertThat(then).containsOnlyKeys("13:20");
+    }
+
+    @Test
+    void gradeDeletedAfterTheMomentComesBackWithItsId() {
+        Map<String, GradeHistoryService.GradeAt> grades = current();
+        List<GradeChange> changes = List.of(
+                change(GradeChange.Action.CREATED, 5L, 14L, 21L, null, B, T0),
+                change(GradeChange.Action.DELETED, 5L, 14L, 21L, B, null, MOMENT.plusMinutes(1)));
+
+        Map<String, GradeHistoryService.GradeAt> then = GradeHistoryService.windBack(grades, changes, MOMENT);
+
+        assertThat(then).containsOnlyKeys("14:21");
+        assertThat(then.get("14:21").getGradeId()).isEqualTo(5L);
+        assertThat(then.get("14:21").getScore()).isEqualTo(85.0);
+    }
+
+    @Test
+    void changeExactlyAtTheMomentCounts() {
+        Map<String, GradeHistoryService.GradeAt> grades = current(grade(6L, 15L, 20L, A));
+        List<GradeChange> changes = List.of(change(GradeChange.Action.UPDATED, 6L, 15L, 20L, C, A, MOMENT));
+
+        assertThat(GradeHistoryService.windBack(grades, changes, MOMENT).get("15:20").getScore()).isEqualTo(95.0);
+    }
+
+
+    private static Map<String, GradeHistoryService.GradeAt> current(GradeHistoryService.GradeAt... grades) {
+        Map<String, GradeHistoryService.GradeAt> byPair = new LinkedHashMap<>();
+        for (GradeHistoryService.GradeAt grade : grades) {
+            byPair.put(grade.getStudentId() + ":" + grade.getCourseId(), grade);
+        }
+        return byPair;
+    }
+
+    private static GradeHistoryService.GradeAt grade(Long id, Long studentId, Long courseId, GradeChange.State state) {
+        return new GradeHistoryService.GradeAt(id, studentId, courseId, state);
+    }
+
+    private static GradeChange change(GradeChange.Action action, Long gradeId, Long studentId, Long courseId,
+                                      GradeChange.State before, GradeChange.State after, LocalDateTime at) {
+        return new GradeChange(action, gradeId, studentId, courseId, before, after, "staff", at);
+    }
+}
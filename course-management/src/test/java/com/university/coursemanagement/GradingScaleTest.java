@@ -0,0 +1,84 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The compiled {@link GradingScale} lookup must grade exactly like the
+ * band boundaries it was compiled from, across the whole score range.
+ */
+class GradingScaleTest {
+
+    // As seeded by V4__grading_scales.sql
+    private static final Object[][] STANDARD = {
+            {"85.00", "A+", "4.00", "PASS"}, {"70.00", "A", "4.00", "PASS"}, {"65.00", "A-", "3.70", "PASS"},
+            {"60.00", "B+", "3.30", "PASS"}, {"55.00", "B", "3.00", "PASS"}, {"50.00", "B-", "2.70", "PASS"},
+            {"45.00", "C+", "2.30", "PASS"}, {"40.00", "C", "2.00", "PASS"}, {"35.00", "C-", "1.70", "COMPLETE"},
+            {"30.00", "D+", "1.30", "COMPLETE"}, {"25.00", "D", "1.00", "COMPLETE"}, {"0.00", "E", "0.00", "INCOMPLETE"}
+    };
+
+    @Test
+    void everyStepMatchesTheBandBoundaries() {
+        GradingScale scale = new GradingScale(1L, "Standard", null, true, bands(STANDARD));
+
+        for (int hundredths = 0; hundredths <= 10_000; hundredths++) {
+            double score = hundredths / 100.0;
+            Object[] expected = expectedBand(score);
+            assertThat(scale.letterGrade(score)).as("letter for %s", score).isEqualTo(expected[1]);
+            assertThat(scale.gradePointValue(score)).as("points for %s", score)
+                    .isEqualTo(new BigDecimal((String) expected[2]).doubleValue());
+            assertThat(scale.status(score)).as("status for %s", score).isEqualTo(expected[3]);
+        }
+    }
+
+    @Test
+    void scoresBetweenStepsAndOutOfRangeAreHandled() {
+        GradingScale scale = new GradingScale(1L, "Standard", null, true, bands(STANDARD));
+
+        assertThat(scale.letterGrade(84.999)).isEqualTo("A");
+        assertThat(scale.letterGrade(69.99 + 0.01)).isEqualTo("A");
+        assertThat(scale.letterGrade(-5)).isEqualTo("E");
+        assertThat(scale.letterGrade(Double.NaN)).isEqualTo("E");
+        assertThat(scale.letterGrade(150)).isEqualTo("A+");
+    }
+
+    @Test
+    void bandsThatDoNotFormAScaleAreRejected() {
+        List<GradingScale.Band> noZero = new ArrayList<>(bands(STANDARD));
+        noZero.remove(noZero.size() - 1);
+        assertThatThrownBy(() -> new GradingScale(1L, "Broken", null, false, noZero))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<GradingScale.Band> duplicate = new ArrayList<>(bands(STANDARD));
+        duplicate.add(new GradingScale.Band(new BigDecimal("85.0"), "A*", new BigDecimal("4.30"), "PASS"));
+        assertThatThrownBy(() -> new GradingScale(1L, "Broken", null, false, duplicate))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<GradingScale.Band> tooFine = new ArrayList<>(bands(STANDARD));
+        tooFine.add(new GradingScale.Band(new BigDecimal("90.005"), "A*", new BigDecimal("4.30"), "PASS"));
+        assertThatThrownBy(() -> new GradingScale(1L, "Broken", null, false, tooFine))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Object[] expectedBand(double score) {
+        for (Object[] band : STANDARD) {
+            if (score >= Double.parseDouble((String) band[0])) return band;
+        }
+        throw new AssertionError("No band for " + score);
+    }
+
+    private static List<GradingScale.Band> bands(Object[][] rows) {
+        List<GradingScale.Band> bands = new ArrayList<>();
+        for (Object[] row : rows) {
+            bands.add(new GradingScale.Band(new BigDecimal((String) row[0]), (String) row[1],
+                    new BigDecimal((String) row[2]), (String) row[3]));
+        }
+        return bands;
+    }
+}
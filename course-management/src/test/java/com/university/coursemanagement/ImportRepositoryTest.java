@@ -0,0 +1,80 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The MySQL path of {@link ImportRepository}: rows whose key already exists
+ * come back as duplicate-key warnings of INSERT IGNORE and are left out of
+ * the inserted count, so the import reports them as skipped; any other
+ * warning fails the chunk rather than letting a mangled row in.
+ */
+class ImportRepositoryTest {
+
+    private static final List<Object[]> COURSES = List.of(
+            new Object[]{"CS101", "Programming", null, 3, 30},
+            new Object[]{"CS102", "Data Structures", null, 3, 30},
+            new Object[]{"CS103", "Algorithms", null, 3, 30});
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ImportRepository repository = importRepository();
+
+    @Test
+    void duplicateKeysAreSkippedNotCountedAsInserted() throws SQLException {
+        when(statement.executeUpdate()).thenReturn(1);
+        when(statement.getWarnings()).thenReturn(warnings(
+                new SQLWarning("Duplicate entry 'CS101' for key 'courses.code'", "23000", 1062),
+                new SQLWarning("Duplicate entry 'CS102' for key 'courses.code'", "23000", 1062)));
+
+        int inserted = repository.insert(ImportJob.Kind.COURSES, COURSES);
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(COURSES.size() - inserted).as("skipped").isEqualTo(2);
+    }
+
+    @Test
+    void otherWarningsFailTheChunk() throws SQLException {
+        when(statement.executeUpdate()).thenReturn(3);
+        when(statement.getWarnings()).thenReturn(warnings(
+                new SQLWarning("Duplicate entry 'CS101' for key 'courses.code'", "23000", 1062),
+                new SQLWarning("Data truncated for column 'title' at row 2", "01000", 1265)));
+
+        assertThatThrownBy(() -> repository.insert(ImportJob.Kind.COURSES, COURSES))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("Data truncated");
+    }
+
+
+    private static SQLWarning warnings(SQLWarning... chain) {
+        for (int i = 1; i < chain.length; i++) chain[i - 1].setNextWarning(chain[i]);
+        return chain[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImportRepository importRepository() {
+        // Runs the callback against the mocked statement, as JdbcTemplate would
+        when(jdbcTemplate.execute(anyString(), any(PreparedStatementCallback.class))).thenAnswer(invocation -> {
+            assertThat((String) invocation.getArgument(0)).startsWith("INSERT IGNORE INTO courses");
+            return invocation.<PreparedStatementCallback<Integer>>getArgument(1).doInPreparedStatement(statement);
+        });
+        ImportRepository importRepository = new ImportRepository();
+        ReflectionTestUtils.setField(importRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importRepository, "databaseInfo", mock(DatabaseInfo.class));
+        return importRepository;
+    }
+}
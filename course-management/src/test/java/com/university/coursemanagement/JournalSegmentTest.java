@@ -0,0 +1,113 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link JournalSegment} on disk: records read back in order, a full
+ * segment, resuming a scan, and the log ending before a record a crash
+ * cut short.
+ */
+class JournalSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedRecordsAreReadBackInOrderAfterReopening() throws IOException {
+        JournalSegment segment = JournalSegment.create(dir, 1, 4096);
+        for (long seq = 1; seq <= 3; seq++) assertThat(segment.append(seq, entry(seq))).isTrue();
+        assertThat(seqs(segment)).containsExactly(1L, 2L, 3L);
+        segment.close();
+
+        JournalSegment reopened = JournalSegment.open(segment.getPath());
+        assertThat(JournalSegment.firstSeqOf(reopened.getPath())).isEqualTo(1);
+        assertThat(reopened.getLastSeq()).isEqualTo(3);
+        assertThat(seqs(reopened)).containsExactly(1L, 2L, 3L);
+        reopened.close();
+    }
+
+    @Test
+    void fullSegmentRefusesTheEntry() throws IOException {
+        byte[] entry = entry(1);
+        JournalSegment segment = JournalSegment.create(dir, 1, 8 + entry.length + 4);
+        assertThat(segment.append(1, entry)).isTrue();
+        assertThat(segment.append(2, entry(2))).isFalse();
+        assertThat(seqs(segment)).containsExactly(1L);
+        segment.close();
+    }
+
+    @Test
+    void scanResumesFromTheEndOfTheLastOne() throws IOException {
+        JournalSegment segment = JournalSegment.create(dir, 1, 4096);
+        segment.append(1, entry(1));
+        segment.append(2, entry(2));
+        List<Long> first = new ArrayList<>();
+        int end = segment.forEachFrom(0, change -> first.add(change.getSeq()));
+        segment.append(3, entry(3));
+
+        List<Long> rest = new ArrayList<>();
+        segment.forEachFrom(end, change -> rest.add(change.getSeq()));
+        assertThat(first).containsExactly(1L, 2L);
+        assertThat(rest).containsExactly(3L);
+        segment.close();
+    }
+
+    @Test
+    void logEndsBeforeATornRecordAndIsAppendedToFromThere() throws IOException {
+        JournalSegment segment = JournalSegment.create(dir, 1, 4096);
+        segment.append(1, entry(1));
+        segment.append(2, entry(2));
+        int end = segment.forEachFrom(0, change -> { });
+        segment.close();
+
+        // A third record whose length made it to disk but whose bytes did not
+        byte[] torn = entry(3);
+        try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(8 + torn.length / 2);
+            header.putInt(torn.length).putInt(12345).put(torn, 0, torn.length / 2).flip();
+            channel.write(header, end);
+        }
+
+        JournalSegment reopened = JournalSegment.open(segment.getPath());
+        assertThat(reopened.getLastSeq()).isEqualTo(2);
+        assertThat(seqs(reopened)).containsExactly(1L, 2L);
+
+        assertThat(reopened.append(3, entry(3))).isTrue();
+        reopened.close();
+        JournalSegment again = JournalSegment.open(segment.getPath());
+        assertThat(seqs(again)).containsExactly(1L, 2L, 3L);
+        again.close();
+    }
+
+
+    private static List<Long> seqs(JournalSegment segment) {
+        List<Long> seqs = new ArrayList<>();
+        segment.forEach(change -> seqs.add(change.getSeq()));
+        return seqs;
+    }
+
+    private static byte[] entry(long seq) throws IOException {
+        GradeChange change = new GradeChange(seq, GradeChange.Action.UPDATED, 10L, 20L, 30L,
+                new GradeChange.State(70.0, "C", 2.0, "PASSED", null),
+                new GradeChange.State(85.0, "B", 3.0, "PASSED", "regraded"), "staff", LocalDateTime.now());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            change.write(out);
+        }
+        return bytes.toByteArray();
+    }
+}
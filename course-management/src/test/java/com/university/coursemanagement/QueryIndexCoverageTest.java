@@ -0,0 +1,349 @@
+package com.university.coursemanagement;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails the build when a repository query method filters, joins or sorts on
+ * a column that no index in the Flyway migrations leads with. Derived
+ * queries are read through Spring Data's own method-name parser; JPQL is
+ * read with a deliberately simple parser that understands the shapes used
+ * in this code base. Methods marked {@link Unindexed} are skipped.
+ */
+class QueryIndexCoverageTest {
+
+    private static final String PACKAGE = "com.university.coursemanagement";
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE (?:IF NOT EXISTS )?(\\w+) \\((.*?)\\)[^()]*;", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE (?:UNIQUE )?INDEX (?:IF NOT EXISTS )?\\w+ ON (\\w+) \\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern KEY_CONSTRAINT = Pattern.compile(
+            "^(?:CONSTRAINT \\w+ )?(?:PRIMARY KEY|UNIQUE)\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ALIAS = Pattern.compile(
+            "\\b(FROM|JOIN)\\s+(?:FETCH\\s+)?([\\w.]+)(?:\\s+(?!JOIN\\b|WHERE\\b|ORDER\\b|GROUP\\b|LEFT\\b)(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern PREDICATE = Pattern.compile(
+            "\\b(\\w+)\\.([\\w.]+)\\s*(?:=|<>|!=|>=|<=|>|<|\\bIN\\b|\\bLIKE\\b|\\bBETWEEN\\b)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CLAUSE_END = Pattern.compile("\\b(GROUP BY|ORDER BY)\\b|$", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> DERIVED_PREFIXES = Set.of(
+            "find", "read", "get", "query", "search", "stream", "count", "exists", "delete", "remove");
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {"postgresql", "mysql"})
+    void everyRepositoryQueryHasAnIndex(String vendor) throws Exception {
+        Map<String, List<List<String>>> indexes = indexesFromMigrations(vendor);
+        Map<String, Class<?>> entities = scan(new AnnotationTypeFilter(Entity.class));
+
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : scan(new AssignableTypeFilter(Repository.class)).values()) {
+            if (!repository.isInterface()) continue;
+            Class<?> domain = domainType(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || method.isAnnotationPresent(Unindexed.class)) continue;
+                Query query = method.getAnnotation(Query.class);
+                List<Requirement> requirements = query != null
+                        ? fromJpql(query.value(), entities)
+                        : fromMethodName(method.getName(), domain);
+                for (Requirement requirement : requirements) {
+                    if (!requirement.satisfiedBy(indexes)) {
+                        missing.add(repository.getSimpleName() + "." + method.getName() + ": " + requirement);
+                    }
+                }
+            }
+        }
+
+        assertThat(missing)
+                .as("Query methods without an index in db/migration/%s (add one, or mark the method @Unindexed)", vendor)
+                .isEmpty();
+    }
+
+
+    /**
+     * One access path a query needs: for at least one of the tables, some
+     * index must lead with one of the listed columns.
+     */
+    private record Requirement(Map<String, Set<String>> columnsByTable, String why) {
+
+        Requirement(String table, String column, String why) {
+            this(Map.of(table, Set.of(column)), why);
+        }
+
+        boolean satisfiedBy(Map<String, List<List<String>>> indexes) {
+            return columnsByTable.entrySet().stream().anyMatch(candidate ->
+                    indexes.getOrDefault(candidate.getKey(), List.of()).stream()
+                            .anyMatch(index -> candidate.getValue().contains(index.get(0))));
+        }
+
+        @Override
+        public String toString() {
+            return "no index leading with any of " + columnsByTable + " (" + why + ")";
+        }
+    }
+
+
+    // ---- derived queries ----
+
+    private List<Requirement> fromMethodName(String name, Class<?> domain) {
+        String prefix = name.split("(?=[A-Z])")[0];
+        if (!DERIVED_PREFIXES.contains(prefix) || !name.contains("By")) return List.of();
+
+        List<Requirement> requirements = new ArrayList<>();
+        for (PartTree.OrPart or : new PartTree(name, domain)) {
+            Map<String, Set<String>> columnsByTable = new LinkedHashMap<>();
+            for (Part part : or) {
+                ColumnRef column = resolve(domain, part.getProperty().toDotPath());
+                columnsByTable.computeIfAbsent(column.table(), t -> new LinkedHashSet<>()).add(column.column());
+            }
+            requirements.add(new Requirement(columnsByTable, "where"));
+        }
+        return requirements;
+    }
+
+
+    // ---- JPQL ----
+
+    private List<Requirement> fromJpql(String jpql, Map<String, Class<?>> entities) {
+        Map<String, Class<?>> aliases = new HashMap<>();
+        List<Requirement> requirements = new ArrayList<>();
+
+        Matcher from = ALIAS.matcher(jpql);
+        while (from.find()) {
+            String source = from.group(2);
+            String alias = from.group(3);
+            if (from.group(1).equalsIgnoreCase("FROM")) {
+                aliases.put(alias != null ? alias : source, entities.get(source));
+                continue;
+            }
+            String[] path = source.split("\\.");
+            Class<?> owner = aliases.get(path[0]);
+            Field association = field(owner, path[1]);
+            requirements.add(joinRequirement(owner, association));
+            if (alias != null) aliases.put(alias, targetType(association));
+        }
+
+        String where = clause(jpql, "WHERE");
+        if (where != null) {
+            Map<String, Set<String>> columnsByTable = new LinkedHashMap<>();
+            Matcher predicate = PREDICATE.matcher(where);
+            while (predicate.find()) {
+                Class<?> entity = aliases.get(predicate.group(1));
+                if (entity == null) continue;
+                ColumnRef column = resolve(entity, predicate.group(2));
+                columnsByTable.computeIfAbsent(column.table(), t -> new LinkedHashSet<>()).add(column.column());
+            }
+            // Filtering on any one table through an index is enough to drive the plan
+            if (!columnsByTable.isEmpty()) requirements.add(new Requirement(columnsByTable, "where"));
+            return requirements;
+        }
+
+        // Unfiltered queries must at least read in index order
+        for (String keyword : List.of("ORDER BY", "GROUP BY")) {
+            String clause = clause(jpql, keyword);
+            if (clause == null) continue;
+            String[] first = clause.trim().split("[\\s,]+")[0].split("\\.", 2);
+            ColumnRef column = resolve(aliases.get(first[0]), first[1]);
+            requirements.add(new Requirement(column.table(), column.column(), keyword.toLowerCase(Locale.ROOT)));
+            break;
+        }
+        return requirements;
+    }
+
+    private static String clause(String jpql, String keyword) {
+        Matcher start = Pattern.compile("\\b" + keyword + "\\b", Pattern.CASE_INSENSITIVE).matcher(jpql);
+        if (!start.find()) return null;
+        String rest = jpql.substring(start.end());
+        Matcher end = CLAUSE_END.matcher(rest);
+        end.find();
+        return rest.substring(0, end.start());
+    }
+
+    // Navigating an association needs an index on the foreign key we navigate through
+    private Requirement joinRequirement(Class<?> owner, Field association) {
+        if (!association.isAnnotationPresent(ManyToMany.class) && !association.isAnnotationPresent(OneToMany.class)) {
+            return new Requirement(table(owner), column(association), "join " + association.getName());
+        }
+        JoinTable joinTable = association.getAnnotation(JoinTable.class);
+        if (joinTable != null) {
+            return new Requirement(joinTable.name(), joinTable.joinColumns()[0].name(), "join " + association.getName());
+        }
+        String mappedBy = association.isAnnotationPresent(ManyToMany.class)
+                ? association.getAnnotation(ManyToMany.class).mappedBy()
+                : association.getAnnotation(OneToMany.class).mappedBy();
+        Field owning = field(targetType(association), mappedBy);
+        JoinTable owningTable = owning.getAnnotation(JoinTable.class);
+        if (owningTable != null) {
+            return new Requirement(owningTable.name(), owningTable.inverseJoinColumns()[0].name(),
+                    "join " + association.getName());
+        }
+        return new Requirement(table(targetType(association)), column(owning), "join " + association.getName());
+    }
+
+
+    // ---- entity mapping ----
+
+    private record ColumnRef(String table, String column) {}
+
+    private ColumnRef resolve(Class<?> entity, String path) {
+        String[] segments = path.split("\\.", 2);
+        Field field = field(entity, segments[0]);
+        if (segments.length == 1) return new ColumnRef(table(entity), column(field));
+        Class<?> target = targetType(field);
+        // a.association.id is the foreign key column on a's own table
+        if (field(target, segments[1]) != null && field(target, segments[1]).isAnnotationPresent(Id.class)) {
+            return new ColumnRef(table(entity), column(field));
+        }
+        return resolve(target, segments[1]);
+    }
+
+    private static String table(Class<?> entity) {
+        Table table = entity.getAnnotation(Table.class);
+        return table != null && !table.name().isEmpty() ? table.name() : snakeCase(entity.getSimpleName());
+    }
+
+    private static String column(Field field) {
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        if (joinColumn != null && !joinColumn.name().isEmpty()) return joinColumn.name();
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.name().isEmpty()) return column.name();
+        return snakeCase(field.getName());
+    }
+
+    private static Field field(Class<?> type, String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> targetType(Field field) {
+        if (field.getGenericType() instanceof ParameterizedType collection) {
+            return (Class<?>) collection.getActualTypeArguments()[0];
+        }
+        return field.getType();
+    }
+
+    private static Class<?> domainType(Class<?> repository) {
+        return Arrays.stream(repository.getGenericInterfaces())
+                .filter(ParameterizedType.class::isInstance)
+                .map(type -> (Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0])
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Class<?>> scan(TypeFilter filter) throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return true;
+            }
+        };
+        scanner.addIncludeFilter(filter);
+        Map<String, Class<?>> types = new HashMap<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents(PACKAGE)) {
+            Class<?> type = Class.forName(definition.getBeanClassName());
+            types.put(type.getSimpleName(), type);
+        }
+        return types;
+    }
+
+
+    // ---- migrations ----
+
+    /**
+     * Leading-column lists of every primary key, unique constraint and
+     * index the migrations create, by table.
+     */
+    private static Map<String, List<List<String>>> indexesFromMigrations(String vendor) throws Exception {
+        Resource[] scripts = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/" + vendor + "/V*.sql");
+        assertThat(scripts).as("migrations for " + vendor).isNotEmpty();
+        Arrays.sort(scripts, Comparator.comparing(script ->
+                MigrationVersion.fromVersion(
+                        script.getFilename().substring(1, script.getFilename().indexOf("__")).replace('_', '.'))));
+
+        Map<String, List<List<String>>> indexes = new HashMap<>();
+        for (Resource script : scripts) {
+            String sql = script.getContentAsString(StandardCharsets.UTF_8).replaceAll("--[^\\n]*", "");
+
+            Matcher table = CREATE_TABLE.matcher(sql);
+            while (table.find()) {
+                List<List<String>> tableIndexes = indexes.computeIfAbsent(table.group(1).toLowerCase(Locale.ROOT), t -> new ArrayList<>());
+                for (String definition : table.group(2).split(",(?![^(]*\\))")) {
+                    String trimmed = definition.trim();
+                    Matcher key = KEY_CONSTRAINT.matcher(trimmed);
+                    if (key.find()) {
+                        tableIndexes.add(columns(key.group(1)));
+                    } else if (trimmed.toUpperCase(Locale.ROOT).matches(".*\\b(PRIMARY KEY|UNIQUE)\\b.*")) {
+                        tableIndexes.add(List.of(trimmed.split("\\s+")[0].toLowerCase(Locale.ROOT)));
+                    }
+                }
+            }
+
+            Matcher index = CREATE_INDEX.matcher(sql);
+            while (index.find()) {
+                indexes.computeIfAbsent(index.group(1).toLowerCase(Locale.ROOT), t -> new ArrayList<>())
+                        .add(columns(index.group(2)));
+            }
+        }
+        return indexes;
+    }
+
+    // "course_id, student_id" or "code varchar_pattern_ops" -> column names only
+    private static List<String> columns(String list) {
+        return Arrays.stream(list.split(","))
+                .map(column -> column.trim().split("\\s+")[0].toLowerCase(Locale.ROOT))
+                .toList();
+    }
+}
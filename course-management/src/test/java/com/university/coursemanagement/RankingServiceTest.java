@@ -0,0 +1,150 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link RankingService} over streamed grade rows: descending GPA with ties
+ * broken by student id, competition ranks for equal GPAs, students without
+ * graded credits left out, and a dean's list that needs both the GPA and
+ * the credits.
+ */
+class RankingServiceTest {
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private final RankingService service = rankingService();
+
+    @Test
+    void ranksByGpaWithCompetitionRanksForTies() {
+        grades(10, 4.0, 3);
+        grades(10, 4.0, 9);
+        grades(20, 4.0, 3);
+        grades(30, 3.5, 12);
+        grades(50, 3.8, 15);
+
+        service.refresh();
+
+        List<RankingEntry> top = service.top(10);
+        assertThat(top).extracting(RankingEntry::getId).containsExactly(10L, 20L, 50L, 30L);
+        assertThat(top).extracting(RankingEntry::getRank).containsExactly(1, 1, 3, 4);
+        assertThat(top).extracting(RankingEntry::getGpa).containsExactly(4.0, 4.0, 3.8, 3.5);
+        assertThat(top.get(0).getCredits()).isEqualTo(12);
+        assertThat(top.get(0).getRankedStudents()).isEqualTo(4);
+    }
+
+    @Test
+    void equalGpasFromDifferentTotalsTie() {
+        // 2/3 either way, however the division rounds
+        rows.add(new Object[]{1L, 2.0, 3});
+        rows.add(new Object[]{2L, 4.0, 6});
+        grades(3, 0.0, 3);
+
+        service.refresh();
+
+        assertThat(service.top(10)).extracting(RankingEntry::getRank).containsExactly(1, 1, 3);
+        assertThat(service.forStudent(3L)).map(RankingEntry::getGpa).contains(0.0);
+    }
+
+    @Test
+    void studentsWithoutGradedCreditsAreNotRanked() {
+        grades(1, 3.0, 3);
+        // An archived term whose courses carried no credits
+        rows.add(new Object[]{2L, 0.0, 0});
+        grades(3, 2.0, 3);
+
+        service.refresh();
+
+        assertThat(service.top(10)).extracting(RankingEntry::getId).containsExactly(1L, 3L);
+        assertThat(service.forStudent(2L)).isEmpty();
+        assertThat(service.getSnapshot().getRankedStudents()).isEqualTo(2);
+    }
+
+    @Test
+    void deansListNeedsBothTheGpaAndTheCredits() {
+        grades(1, 3.9, 12);
+        grades(2, 4.0, 6);  // too few credits
+        grades(3, 3.6, 15); // GPA too low
+        grades(4, 3.7, 12);
+
+        service.refresh();
+
+        assertThat(service.deansList(0, 10)).extracting(RankingEntry::getId).containsExactly(1L, 4L);
+        assertThat(service.deansList(1, 10)).extracting(RankingEntry::getId).containsExactly(4L);
+        assertThat(service.forStudent(2L)).map(RankingEntry::isDeansList).contains(false);
+        assertThat(service.getSnapshot().getDeansListSize()).isEqualTo(2);
+    }
+
+
+    // Rows must stay grouped by student, as GRADES_BY_STUDENT orders them
+    private void grades(long studentId, double gpa, int credits) {
+        rows.add(new Object[]{studentId, gpa * credits, credits});
+    }
+
+    private RankingService rankingService() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void query(PreparedStatementCreator creator, RowCallbackHandler handler) {
+                try {
+                    for (Object[] row : rows) handler.processRow(resultSet(row));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        StudentRepository students = mock(StudentRepository.class);
+        when(students.findAllById(anyIterable())).thenReturn(List.of());
+
+        RankingService ranking = new RankingService();
+        ReflectionTestUtils.setField(ranking, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ranking, "transactionManager", new Transactions());
+        ReflectionTestUtils.setField(ranking, "studentRepository", students);
+        ReflectionTestUtils.setField(ranking, "deansListMinGpa", 3.7);
+        ReflectionTestUtils.setField(ranking, "deansListMinCredits", 12);
+        return ranking;
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn((Long) row[0]);
+        when(rs.getDouble(2)).thenReturn((Double) row[1]);
+        when(rs.getInt(3)).thenReturn((Integer) row[2]);
+        return rs;
+    }
+
+    /** Transactions that do nothing, enough for the read-only scan. */
+    private static final class Transactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
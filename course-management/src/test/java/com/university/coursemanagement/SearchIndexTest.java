@@ -0,0 +1,100 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link SearchIndex} ranking: better matches and heavier fields first,
+ * one- and two-letter queries matched against word prefixes only, at most
+ * {@code limit} hits however many documents a prefix posts, and updates
+ * that leave no stale hits behind.
+ */
+class SearchIndexTest {
+
+    @Test
+    void exactBeatsPrefixBeatsLaterWordBeatsSubstring() {
+        SearchIndex index = new SearchIndex(1.0);
+        put(index, 4L, "Coalgebras");
+        put(index, 3L, "Linear Algebra");
+        put(index, 2L, "Algebraic Topology");
+        put(index, 1L, "Algebra");
+
+        assertThat(ids(index.search("algebra", 10))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void heavierFieldsRankFirst() {
+        // code, title
+        SearchIndex index = new SearchIndex(3.0, 1.0);
+        put(index, 1L, "MATH101", "Physics for Mathematicians");
+        put(index, 2L, "PHYS101", "Mechanics");
+
+        // A code prefix (3 x 6) outranks an exact title word further in (1 x 4)
+        assertThat(ids(index.search("phys", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shortQueriesMatchWordPrefixesOnly() {
+        SearchIndex index = new SearchIndex(1.0);
+        put(index, 1L, "Data Structures");
+        put(index, 2L, "Introduction to Databases");
+        put(index, 3L, "Sedan Design");
+
+        assertThat(ids(index.search("da", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("d", 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        SearchIndex index = new SearchIndex(1.0);
+        put(index, 1L, "Data Structures");
+        put(index, 2L, "Data Mining");
+
+        assertThat(ids(index.search("data str", 10))).containsExactly(1L);
+        assertThat(ids(index.search("data m", 10))).containsExactly(2L);
+        assertThat(index.search("data xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void shortPrefixKeepsOnlyTheBestHitsInRankingOrder() {
+        SearchIndex index = new SearchIndex(1.0);
+        for (long id = 1; id <= 2_000; id++) put(index, id, "Student " + id);
+        put(index, 5_001L, "S");
+        put(index, 5_000L, "S");
+
+        List<SearchHit> hits = index.search("s", 5);
+
+        // Exact matches first, then prefix matches tied on score in id order
+        assertThat(ids(hits)).containsExactly(5_000L, 5_001L, 1L, 2L, 3L);
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(2).getScore());
+        assertThat(index.search("s", 0)).isEmpty();
+    }
+
+    @Test
+    void updatesAndRemovalsLeaveNoStaleHits() {
+        SearchIndex index = new SearchIndex(1.0);
+        put(index, 1L, "Calculus");
+        assertThat(ids(index.search("calc", 10))).containsExactly(1L);
+
+        put(index, 1L, "Geometry");
+        assertThat(index.search("calc", 10)).isEmpty();
+        assertThat(index.search("c", 10)).isEmpty();
+        assertThat(ids(index.search("geo", 10))).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("geo", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+
+    private static void put(SearchIndex index, Long id, String... fields) {
+        index.put(id, new SearchHit(SearchService.COURSE, id, fields[0], null), fields);
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link SearchService} kept current by {@link SearchIndexListener}: saves
+ * and removes reach the index once their transaction commits, never on
+ * rollback, and typeahead merges courses and students by score.
+ */
+class SearchServiceTest {
+
+    private final SearchService search = new SearchService();
+    private final SearchIndexListener listener = listener(search);
+    private final TransactionTemplate transactions = new TransactionTemplate(new Transactions());
+
+    @Test
+    void aSaveIsSearchableOnceItsTransactionCommits() {
+        Course course = course(1L, "CS201", "Data Structures");
+
+        transactions.executeWithoutResult(status -> {
+            listener.onSave(course);
+            assertThat(search.searchCourses("structures", 10)).isEmpty();
+        });
+
+        assertThat(ids(search.searchCourses("structures", 10))).containsExactly(1L);
+        assertThat(ids(search.searchCourses("cs2", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void aRolledBackSaveNeverReachesTheIndex() {
+        transactions.executeWithoutResult(status -> {
+            listener.onSave(course(1L, "CS201", "Data Structures"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(search.searchCourses("data", 10)).isEmpty();
+    }
+
+    @Test
+    void updatesAndRemovesReplaceTheIndexedStudent() {
+        Student student = student(7L, "Ada", "Lovelace", "S000007");
+        transactions.executeWithoutResult(status -> listener.onSave(student));
+
+        student.setLastName("Byron");
+        transactions.executeWithoutResult(status -> listener.onSave(student));
+        assertThat(search.searchStudents("lovelace", 10)).isEmpty();
+        assertThat(search.searchStudents("ada byron", 10)).extracting(SearchHit::getTitle).containsExactly("Ada Byron");
+
+        transactions.executeWithoutResult(status -> listener.onRemove(student));
+        assertThat(search.searchStudents("ada", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestMergesCoursesAndStudentsBestFirst() {
+        listener.onSave(course(1L, "ML101", "Machine Learning"));
+        listener.onSave(student(2L, "Mary", "Shelley", "S000002"));
+
+        List<SearchHit> hits = search.suggest("ma", 10);
+
+        // A full-name prefix (2.5 x 6) outranks a course title prefix (2 x 6)
+        assertThat(hits).extracting(SearchHit::getType).containsExactly(SearchService.STUDENT, SearchService.COURSE);
+        assertThat(search.suggest("ma", 1)).hasSize(1);
+    }
+
+
+    private static SearchIndexListener listener(SearchService search) {
+        SearchIndexListener listener = new SearchIndexListener();
+        ReflectionTestUtils.setField(listener, "searchService", search);
+        return listener;
+    }
+
+    private static Course course(Long id, String code, String title) {
+        Course course = new Course(code, title, null, 3);
+        course.setId(id);
+        return course;
+    }
+
+    private static Student student(Long id, String firstName, String lastName, String studentId) {
+        Student student = new Student(firstName, lastName, firstName.toLowerCase() + "@university.edu", studentId);
+        student.setId(id);
+        return student;
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+
+    /** Transactions that only run synchronizations, enough for the listener's after-commit hooks. */
+    private static final class Transactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
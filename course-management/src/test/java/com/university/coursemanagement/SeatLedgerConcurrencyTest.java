@@ -0,0 +1,90 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Registration-day stress test for {@link SeatLedger}: thousands of
+ * simultaneous enrollment attempts must never overbook a course. Its
+ * throughput, against the database's conditional seat update alone, is
+ * measured by SeatAdmissionBenchmark in course-management-benchmarks.
+ */
+class SeatLedgerConcurrencyTest {
+
+    private static final int THREADS = 256;
+    private static final int ATTEMPTS = 20_000;
+
+    @Test
+    void concurrentEnrollmentsNeverOverbook() throws Exception {
+        SeatLedger ledger = new SeatLedger(courseId -> new SeatLedger.Seats(400, 0));
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        race(() -> {
+            if (ledger.tryAcquire(1L) == SeatLedger.Admission.ADMITTED) admitted.incrementAndGet();
+            else rejected.incrementAndGet();
+        });
+
+        assertThat(admitted.get()).isEqualTo(400);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - 400);
+        assertThat(ledger.taken(1L)).isEqualTo(400);
+    }
+
+    @Test
+    void seatsHeldNeverExceedCapacityWhileStudentsDropAndRejoin() throws Exception {
+        int capacity = 50;
+        SeatLedger ledger = new SeatLedger(courseId -> new SeatLedger.Seats(capacity, 0));
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+
+        race(() -> {
+            if (ledger.tryAcquire(7L) != SeatLedger.Admission.ADMITTED) return;
+            int now = held.incrementAndGet();
+            maxHeld.accumulateAndGet(now, Math::max);
+            held.decrementAndGet();
+            ledger.release(7L);
+        });
+
+        assertThat(maxHeld.get()).isLessThanOrEqualTo(capacity);
+        assertThat(ledger.taken(7L)).isZero();
+    }
+
+    @Test
+    void unknownCourseIsRejectedAndNotCached() {
+        SeatLedger ledger = new SeatLedger(courseId -> null);
+
+        assertThat(ledger.tryAcquire(99L)).isEqualTo(SeatLedger.Admission.UNKNOWN_COURSE);
+        assertThat(ledger.taken(99L)).isEqualTo(-1);
+    }
+
+    /** Runs ATTEMPTS copies of the task from THREADS threads released at once. */
+    private static void race(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int share = ATTEMPTS / THREADS + (t < ATTEMPTS % THREADS ? 1 : 0);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < share; i++) task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.university.coursemanagement.TableVersions.Table.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link TableVersions} on one node: validators answered from memory, a
+ * transaction's writes announced once and only after commit, and versions
+ * from other nodes never moving a table backwards.
+ */
+class TableVersionsTest {
+
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final Transactions transactions = new Transactions();
+    private final TableVersions versions = tableVersions();
+
+    @Test
+    void currentValidatorsAnswerNotModifiedWithoutBuildingTheResponse() {
+        String etag = get(null).getHeaders().getETag();
+        AtomicInteger built = new AtomicInteger();
+
+        ResponseEntity<String> again = get(etag, built);
+
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(built.get()).isZero();
+    }
+
+    @Test
+    void aWriteChangesTheValidatorsOfItsTablesOnly() {
+        String grades = get(null, GRADES).getHeaders().getETag();
+        String courses = get(null, COURSES).getHeaders().getETag();
+
+        versions.changed(GRADES);
+
+        assertThat(get(grades, GRADES).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get(courses, COURSES).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void aTransactionIsAnnouncedOnceAfterItCommits() {
+        String etag = get(null, GRADES).getHeaders().getETag();
+
+        new TransactionTemplate(transactions).executeWithoutResult(status -> {
+            versions.changed(GRADES);
+            versions.changed(GRADES, ENROLLMENTS);
+            verify(bus, never()).publishTables(any(), anyLong(), anyLong());
+            assertThat(get(etag, GRADES).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        });
+
+        verify(bus, times(1)).publishTables(eq(EnumSet.of(GRADES, ENROLLMENTS)), anyLong(), anyLong());
+        assertThat(get(etag, GRADES).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void aRolledBackTransactionKeepsTheVersions() {
+        String etag = get(null, GRADES).getHeaders().getETag();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactions);
+        transaction.executeWithoutResult(status -> {
+            versions.changed(GRADES);
+            status.setRollbackOnly();
+        });
+
+        verify(bus, never()).publishTables(any(), anyLong(), anyLong());
+        assertThat(get(etag, GRADES).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void olderVersionsFromOtherNodesAreIgnored() {
+        versions.apply(List.of(COURSES), Long.MAX_VALUE - 1, 0);
+        String etag = get(null, COURSES).getHeaders().getETag();
+
+        versions.apply(List.of(COURSES), 5, 0);
+        assertThat(get(etag, COURSES).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        versions.apply(List.of(COURSES), Long.MAX_VALUE, 0);
+        assertThat(get(etag, COURSES).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+
+    private ResponseEntity<String> get(String ifNoneMatch, TableVersions.Table... tables) {
+        return get(ifNoneMatch, new AtomicInteger(), tables);
+    }
+
+    private ResponseEntity<String> get(String ifNoneMatch, AtomicInteger built, TableVersions.Table... tables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        ResponseEntity<String> response = versions.conditional(webRequest, () -> {
+            built.incrementAndGet();
+            return ResponseEntity.ok("body");
+        }, tables.length > 0 ? tables : new TableVersions.Table[]{COURSES, GRADES});
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) return response;
+        // conditional() sets the validators on the servlet response; copy the ETag over for the caller
+        return ResponseEntity.ok().eTag(webRequest.getResponse().getHeader("ETag")).body(response.getBody());
+    }
+
+    private TableVersions tableVersions() {
+        TableVersions tableVersions = new TableVersions();
+        ReflectionTestUtils.setField(tableVersions, "databaseInfo", mock(DatabaseInfo.class));
+        ReflectionTestUtils.setField(tableVersions, "readReplicas", mock(ReadReplicas.class));
+        ReflectionTestUtils.setField(tableVersions, "cacheInvalidationBus", bus);
+        tableVersions.setTransactionManager(transactions);
+        tableVersions.init();
+        return tableVersions;
+    }
+
+    /** Transactions that only run synchronizations. */
+    private static final class Transactions extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.university.coursemanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link TokenBucket} must let a burst through, then exactly the rate, and
+ * never more than the burst when many threads race for the same instant.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void admitsTheBurstThenTellsHowLongToWait() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(start);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryTake(start, 10, 5)).isEqualTo(TokenBucket.ADMITTED);
+        }
+        assertThat(bucket.tryTake(start, 10, 5)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryTake(start + SECOND / 10, 10, 5)).isEqualTo(TokenBucket.ADMITTED);
+    }
+
+    @Test
+    void refillsAtTheRateAndNoFurtherThanTheBurst() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(start);
+        for (int i = 0; i < 3; i++) bucket.tryTake(start, 2, 3);
+
+        // Idle for a minute: full again, but holding only the burst
+        long later = start + 60 * SECOND;
+        int admitted = 0;
+        while (bucket.tryTake(later, 2, 3) == TokenBucket.ADMITTED) admitted++;
+        assertThat(admitted).isEqualTo(3);
+    }
+
+    @Test
+    void zeroRateMeansNoLimit() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bucket.tryTake(0, 0, 0)).isEqualTo(TokenBucket.ADMITTED);
+        }
+    }
+
+    @Test
+    void racingThreadsNeverTakeMoreThanTheBurst() throws Exception {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(now);
+        AtomicInteger admitted = new AtomicInteger();
+        int threads = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryTake(now, 100, 250) == TokenBucket.ADMITTED) admitted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(admitted.get()).isEqualTo(250);
+    }
+}